@@ -18,6 +18,7 @@ package com.gs.ep.docknight.model;
 
 import org.eclipse.collections.impl.factory.Maps;
 import java.io.Serializable;
+import java.util.Collections;
 import java.util.Map;
 
 /**
@@ -55,4 +56,12 @@ public class AnnotableBase implements Annotable, Serializable {
   public String getAnnotationValue(String type) {
     return this.annotations.get(type);
   }
+
+  /**
+   * @return unmodifiable view of all annotations, keyed by annotation type
+   */
+  public Map<String, String> getAnnotations() {
+    return this.annotations == null ? Collections.emptyMap()
+        : Collections.unmodifiableMap(this.annotations);
+  }
 }
@@ -44,10 +44,13 @@ public abstract class Attribute<T> extends AnnotableBase implements Cloneable,
   }
 
   public void setValue(T value) {
-    this.value = value;
+    this.value = this.intern(value);
     if (!this.isValid()) {
       throw new RuntimeException("Invalid " + this.getName() + " value (" + this.value + ")");
     }
+    if (this.parentElement != null) {
+      this.parentElement.invalidateGeometry();
+    }
   }
 
   public void setValueFromArray(Object[] value) {
@@ -58,6 +61,14 @@ public abstract class Attribute<T> extends AnnotableBase implements Cloneable,
     this.setValue((T) data);
   }
 
+  /**
+   * @return canonical instance of {@code value}. Attributes whose values repeat across many elements
+   * override this to share equal values through a {@link ValuePool}
+   */
+  protected T intern(T value) {
+    return value;
+  }
+
   /**
    * @return True if the attribute contains valid data. Example: font size attribute should have
    * magnitude > 0
@@ -78,6 +89,9 @@ public abstract class Attribute<T> extends AnnotableBase implements Cloneable,
    */
   public void setParentElement(Element parentElement) {
     this.parentElement = parentElement;
+    if (parentElement != null) {
+      parentElement.invalidateGeometry();
+    }
   }
 
   public <E extends Element, L extends ElementList<E>> L getElementList() {
@@ -0,0 +1,62 @@
+/*
+ *   Copyright 2020 Goldman Sachs.
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ */
+
+package com.gs.ep.docknight.model;
+
+import com.gs.ep.docknight.model.attribute.Color;
+import com.gs.ep.docknight.model.attribute.FontFamily;
+import com.gs.ep.docknight.model.attribute.FontSize;
+import com.gs.ep.docknight.model.attribute.Height;
+import com.gs.ep.docknight.model.attribute.Left;
+import com.gs.ep.docknight.model.attribute.LetterSpacing;
+import com.gs.ep.docknight.model.attribute.Stretch;
+import com.gs.ep.docknight.model.attribute.Text;
+import com.gs.ep.docknight.model.attribute.TextStyles;
+import com.gs.ep.docknight.model.attribute.Top;
+import com.gs.ep.docknight.model.attribute.Width;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Slot numbers of attribute classes within the attribute array of an {@link Element}. Attributes
+ * carried by text elements get the lowest slots so that their arrays stay short; other attribute
+ * classes are numbered on first use. Slots are only valid within the running JVM.
+ */
+final class AttributeSlots {
+
+  private static final List<Class<?>> COMMON_ATTRIBUTES = Arrays.asList(Text.class, Top.class,
+      Left.class, Width.class, Height.class, FontSize.class, FontFamily.class, Color.class,
+      TextStyles.class, LetterSpacing.class, Stretch.class);
+  private static final AtomicInteger NEXT_SLOT = new AtomicInteger(COMMON_ATTRIBUTES.size());
+  private static final ClassValue<Integer> SLOTS = new ClassValue<Integer>() {
+    @Override
+    protected Integer computeValue(Class<?> attributeClass) {
+      int slot = COMMON_ATTRIBUTES.indexOf(attributeClass);
+      return slot >= 0 ? slot : NEXT_SLOT.getAndIncrement();
+    }
+  };
+
+  private AttributeSlots() {
+  }
+
+  /**
+   * @return slot of {@code attributeClass} within element attribute arrays
+   */
+  static int of(Class<?> attributeClass) {
+    return SLOTS.get(attributeClass);
+  }
+}
@@ -18,20 +18,41 @@ package com.gs.ep.docknight.model;
 
 import com.gs.ep.docknight.util.ImageUtils;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.WritableRaster;
 import java.io.Serializable;
+import java.util.Arrays;
 
 /**
- * Class to store buffered image.
+ * Class to store buffered image. Equality and hashing are based on the pixel content of the image.
+ * A 64 bit content hash is computed once on first use, so that lookups in hash based collections
+ * do not require pixel by pixel comparisons.
  */
 public class ComparableBufferedImage implements Serializable {
 
   private static final long serialVersionUID = 8802953033942202195L;
+  private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
   private transient BufferedImage image;
+  private transient long contentHash;
+  private transient boolean isContentHashComputed;
+  private transient EncodedImage encodedImage;
 
   public ComparableBufferedImage(BufferedImage image) {
     this.image = image;
   }
 
+  /**
+   * @param image        decoded image
+   * @param encodedImage encoded stream from which {@code image} was decoded, or null if unknown
+   */
+  public ComparableBufferedImage(BufferedImage image, EncodedImage encodedImage) {
+    this.image = image;
+    this.encodedImage = encodedImage;
+  }
+
   /**
    * Create the buffered image from the image representation in base 64
    *
@@ -46,6 +67,14 @@ public class ComparableBufferedImage implements Serializable {
     return this.image;
   }
 
+  /**
+   * @return encoded stream of the source document from which the image was decoded, or null if the
+   * image has no such stream or was derived from another image
+   */
+  public EncodedImage getEncodedImage() {
+    return this.encodedImage;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) {
@@ -57,27 +86,116 @@ public class ComparableBufferedImage implements Serializable {
 
     ComparableBufferedImage that = (ComparableBufferedImage) o;
 
-    if (this.image.getWidth() == that.image.getWidth() && this.image.getHeight() == that.image
-        .getHeight()) {
-      for (int x = 0; x < this.image.getWidth(); x++) {
-        for (int y = 0; y < this.image.getHeight(); y++) {
-          if (this.image.getRGB(x, y) != that.image.getRGB(x, y)) {
-            return false;
-          }
-        }
-      }
-    } else {
+    if (this.image.getWidth() != that.image.getWidth() || this.image.getHeight() != that.image
+        .getHeight() || this.getContentHash() != that.getContentHash()) {
       return false;
     }
-
+    if (hasComparableDataBuffers(this.image, that.image)) {
+      return areDataBuffersEqual(this.image.getRaster().getDataBuffer(),
+          that.image.getRaster().getDataBuffer());
+    }
+    int width = this.image.getWidth();
+    int[] thisRow = new int[width];
+    int[] thatRow = new int[width];
+    for (int y = 0; y < this.image.getHeight(); y++) {
+      this.image.getRGB(0, y, width, 1, thisRow, 0, width);
+      that.image.getRGB(0, y, width, 1, thatRow, 0, width);
+      if (!Arrays.equals(thisRow, thatRow)) {
+        return false;
+      }
+    }
     return true;
   }
 
   @Override
   public int hashCode() {
-    return this.image.getWidth() > 0 && this.image.getHeight() > 0 ?
-        this.image.getRGB(0, 0) / 2
-            + this.image.getRGB(this.image.getWidth() / 2, this.image.getHeight() / 2) / 2 : 0;
+    long hash = this.getContentHash();
+    return (int) (hash ^ (hash >>> 32));
+  }
+
+  /**
+   * @return 64 bit hash of the ARGB pixel values of the image. It is computed once and cached.
+   */
+  public long getContentHash() {
+    if (!this.isContentHashComputed) {
+      this.contentHash = computeContentHash(this.image);
+      this.isContentHashComputed = true;
+    }
+    return this.contentHash;
+  }
+
+  /**
+   * Compute the hash of {@code image} over its ARGB pixel values, reading one row at a time. ARGB
+   * values are used instead of raw samples so that images with identical pixels but different
+   * storage types (for example a png read from disk and the same image decoded from pdf) have the
+   * same hash.
+   */
+  private static long computeContentHash(BufferedImage image) {
+    int width = image.getWidth();
+    int height = image.getHeight();
+    long hash = 31L * width + height;
+    if (width == 0 || height == 0) {
+      return hash;
+    }
+    int[] row = new int[width];
+    for (int y = 0; y < height; y++) {
+      image.getRGB(0, y, width, 1, row, 0, width);
+      for (int pixel : row) {
+        hash = (hash ^ pixel) * HASH_MULTIPLIER;
+      }
+    }
+    return hash ^ (hash >>> 29);
+  }
+
+  /**
+   * @return True if the backing data buffers of {@code image1} and {@code image2} have the same
+   * layout, so that comparing the buffers is equivalent to comparing the pixels.
+   */
+  private static boolean hasComparableDataBuffers(BufferedImage image1, BufferedImage image2) {
+    int type = image1.getType();
+    if (type != image2.getType() || type == BufferedImage.TYPE_CUSTOM
+        || type == BufferedImage.TYPE_BYTE_BINARY || type == BufferedImage.TYPE_BYTE_INDEXED) {
+      return false;
+    }
+    return isStandaloneRaster(image1.getRaster()) && isStandaloneRaster(image2.getRaster());
+  }
+
+  /**
+   * @return True if {@code raster} is not a view over a bigger raster
+   */
+  private static boolean isStandaloneRaster(WritableRaster raster) {
+    return raster.getParent() == null && raster.getSampleModelTranslateX() == 0
+        && raster.getSampleModelTranslateY() == 0;
+  }
+
+  /**
+   * @return True if the data buffers {@code buffer1} and {@code buffer2} hold identical data
+   */
+  private static boolean areDataBuffersEqual(DataBuffer buffer1, DataBuffer buffer2) {
+    if (buffer1.getClass() != buffer2.getClass() || buffer1.getSize() != buffer2.getSize()
+        || buffer1.getNumBanks() != buffer2.getNumBanks()) {
+      return false;
+    }
+    if (buffer1 instanceof DataBufferByte) {
+      return Arrays.deepEquals(((DataBufferByte) buffer1).getBankData(),
+          ((DataBufferByte) buffer2).getBankData());
+    }
+    if (buffer1 instanceof DataBufferInt) {
+      return Arrays.deepEquals(((DataBufferInt) buffer1).getBankData(),
+          ((DataBufferInt) buffer2).getBankData());
+    }
+    if (buffer1 instanceof DataBufferUShort) {
+      return Arrays.deepEquals(((DataBufferUShort) buffer1).getBankData(),
+          ((DataBufferUShort) buffer2).getBankData());
+    }
+    for (int bank = 0; bank < buffer1.getNumBanks(); bank++) {
+      for (int i = 0; i < buffer1.getSize(); i++) {
+        if (buffer1.getElem(bank, i) != buffer2.getElem(bank, i)) {
+          return false;
+        }
+      }
+    }
+    return true;
   }
 
   @Override
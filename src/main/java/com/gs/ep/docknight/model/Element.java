@@ -19,17 +19,24 @@ package com.gs.ep.docknight.model;
 import org.eclipse.collections.api.block.predicate.Predicate;
 import org.eclipse.collections.api.block.predicate.Predicate2;
 import org.eclipse.collections.api.list.MutableList;
-import org.eclipse.collections.api.map.MutableMap;
 import org.eclipse.collections.api.tuple.Pair;
 import org.eclipse.collections.impl.factory.Lists;
-import org.eclipse.collections.impl.factory.Maps;
 import org.eclipse.collections.impl.tuple.Tuples;
 import com.gs.ep.docknight.model.ElementIterable.IterationDirection;
 import com.gs.ep.docknight.model.attribute.Color;
 import com.gs.ep.docknight.model.attribute.FontFamily;
 import com.gs.ep.docknight.model.attribute.FontSize;
+import com.gs.ep.docknight.model.attribute.Height;
 import com.gs.ep.docknight.model.attribute.Layout;
+import com.gs.ep.docknight.model.attribute.Left;
+import com.gs.ep.docknight.model.attribute.Stretch;
 import com.gs.ep.docknight.model.attribute.TextStyles;
+import com.gs.ep.docknight.model.attribute.Top;
+import com.gs.ep.docknight.model.attribute.Width;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
 import java.util.List;
 import org.apache.commons.collections4.CollectionUtils;
 
@@ -42,16 +49,30 @@ public abstract class Element extends AnnotableBase implements CloneableWithRefe
   public static final String INTRA_LINE_SEP = "\t";
   public static final String INTER_LINE_SEP = "\n";
   private static final double MAX_FONT_SIZE_CHANGE_RATIO = 0.15;
-  private static final long serialVersionUID = 2434870611400888428L;
-
-  private MutableMap<Class<? extends Attribute>, Attribute> attributesMap;
+  private static final long serialVersionUID = 2434870611400888429L;
+  private static final int TOP_CACHED = 1;
+  private static final int LEFT_CACHED = 1 << 1;
+  private static final int WIDTH_CACHED = 1 << 2;
+  private static final int HEIGHT_CACHED = 1 << 3;
+  private static final int STRETCH_CACHED = 1 << 4;
+  private static final Attribute[] NO_ATTRIBUTES = new Attribute[0];
+
+  // Attributes indexed by the slot of their class (see AttributeSlots), trailing empty slots omitted
+  private transient Attribute[] attributes;
   private Pair<ElementList<? extends Element>, Integer> elementListContext;
   private transient PositionalContext<? extends Element> positionalContext;
   private transient Element currentClone;
   private boolean isIdentityBased;
+  // Magnitudes of layout box attributes, valid for the bits set in geometryCacheMask
+  private transient int geometryCacheMask;
+  private transient double top;
+  private transient double left;
+  private transient double width;
+  private transient double height;
+  private transient double stretch;
 
   protected Element() {
-    this.attributesMap = Maps.mutable.empty();
+    this.attributes = NO_ATTRIBUTES;
   }
 
   public String getName() {
@@ -59,7 +80,13 @@ public abstract class Element extends AnnotableBase implements CloneableWithRefe
   }
 
   public List<Attribute> getAttributes() {
-    return this.attributesMap.toList();
+    MutableList<Attribute> attributes = Lists.mutable.empty();
+    for (Attribute attribute : this.attributes) {
+      if (attribute != null) {
+        attributes.add(attribute);
+      }
+    }
+    return attributes;
   }
 
   /**
@@ -102,6 +129,10 @@ public abstract class Element extends AnnotableBase implements CloneableWithRefe
     return this;
   }
 
+  public boolean isIdentityBased() {
+    return this.isIdentityBased;
+  }
+
   @Override
   public MutableList<Element> getElements() {
     return Lists.mutable.of(this);
@@ -134,7 +165,8 @@ public abstract class Element extends AnnotableBase implements CloneableWithRefe
    * @return attribute corresponding to attribute class {@code attributeClass}
    */
   public <A extends Attribute> A getAttribute(Class<A> attributeClass) {
-    return (A) this.attributesMap.get(attributeClass);
+    int slot = AttributeSlots.of(attributeClass);
+    return slot < this.attributes.length ? (A) this.attributes[slot] : null;
   }
 
   /**
@@ -142,7 +174,7 @@ public abstract class Element extends AnnotableBase implements CloneableWithRefe
    * present in this element, otherwise return {@code defaultValue}
    */
   public <K> K getAttributeValue(Class<? extends Attribute<K>> attributeClass, K defaultValue) {
-    Attribute<K> attribute = this.attributesMap.get(attributeClass);
+    Attribute<K> attribute = this.getAttribute(attributeClass);
     return attribute == null ? defaultValue : attribute.getValue();
   }
 
@@ -150,7 +182,18 @@ public abstract class Element extends AnnotableBase implements CloneableWithRefe
    * Remove the {@code attributeClass} from this element
    */
   public <A extends Attribute> void removeAttribute(Class<A> attributeClass) {
-    this.attributesMap.removeKey(attributeClass);
+    int slot = AttributeSlots.of(attributeClass);
+    if (slot < this.attributes.length) {
+      this.attributes[slot] = null;
+      int length = this.attributes.length;
+      while (length > 0 && this.attributes[length - 1] == null) {
+        length--;
+      }
+      if (length < this.attributes.length) {
+        this.attributes = length == 0 ? NO_ATTRIBUTES : Arrays.copyOf(this.attributes, length);
+      }
+    }
+    this.invalidateGeometry();
   }
 
   /**
@@ -171,9 +214,8 @@ public abstract class Element extends AnnotableBase implements CloneableWithRefe
    * Method to add {@code attribute} in this element
    */
   public void addAttribute(Attribute attribute) {
-    Class attributeClass = attribute.getClass();
-    Attribute existingAttribute = this.attributesMap.get(attributeClass);
-    if (existingAttribute != null) {
+    int slot = AttributeSlots.of(attribute.getClass());
+    if (slot < this.attributes.length && this.attributes[slot] != null) {
       throw new RuntimeException(
           "Attribute " + attribute.getName() + " already exists in element " + this.getName());
     }
@@ -181,17 +223,128 @@ public abstract class Element extends AnnotableBase implements CloneableWithRefe
       throw new RuntimeException(
           "Attribute " + attribute.getName() + " not allowed in element " + this.getName());
     }
-    this.attributesMap.put(attributeClass, attribute);
+    if (slot >= this.attributes.length) {
+      this.attributes = Arrays.copyOf(this.attributes, slot + 1);
+    }
+    this.attributes[slot] = attribute;
     attribute.setParentElement(this);
   }
 
+  /**
+   * @return magnitude of {@link Top} attribute of this element, 0 if it is absent. Same as {@code
+   * getAttribute(Top.class).getMagnitude()} but cached in a primitive field until the attribute
+   * changes.
+   */
+  public double getTopMagnitude() {
+    if ((this.geometryCacheMask & TOP_CACHED) == 0) {
+      this.top = this.getLengthMagnitude(Top.class);
+      this.geometryCacheMask |= TOP_CACHED;
+    }
+    return this.top;
+  }
+
+  /**
+   * @return magnitude of {@link Left} attribute of this element, 0 if it is absent
+   */
+  public double getLeftMagnitude() {
+    if ((this.geometryCacheMask & LEFT_CACHED) == 0) {
+      this.left = this.getLengthMagnitude(Left.class);
+      this.geometryCacheMask |= LEFT_CACHED;
+    }
+    return this.left;
+  }
+
+  /**
+   * @return magnitude of {@link Width} attribute of this element, 0 if it is absent
+   */
+  public double getWidthMagnitude() {
+    if ((this.geometryCacheMask & WIDTH_CACHED) == 0) {
+      this.width = this.getLengthMagnitude(Width.class);
+      this.geometryCacheMask |= WIDTH_CACHED;
+    }
+    return this.width;
+  }
+
+  /**
+   * @return magnitude of {@link Height} attribute of this element, 0 if it is absent
+   */
+  public double getHeightMagnitude() {
+    if ((this.geometryCacheMask & HEIGHT_CACHED) == 0) {
+      this.height = this.getLengthMagnitude(Height.class);
+      this.geometryCacheMask |= HEIGHT_CACHED;
+    }
+    return this.height;
+  }
+
+  /**
+   * @return magnitude of {@link Stretch} attribute of this element, 0 if it is absent
+   */
+  public double getStretchMagnitude() {
+    if ((this.geometryCacheMask & STRETCH_CACHED) == 0) {
+      this.stretch = this.getLengthMagnitude(Stretch.class);
+      this.geometryCacheMask |= STRETCH_CACHED;
+    }
+    return this.stretch;
+  }
+
+  /**
+   * @return top + height of this element
+   */
+  public double getBottomMagnitude() {
+    return this.getTopMagnitude() + this.getHeightMagnitude();
+  }
+
+  /**
+   * @return left + width of this element
+   */
+  public double getRightMagnitude() {
+    return this.getLeftMagnitude() + this.getWidthMagnitude();
+  }
+
+  private double getLengthMagnitude(Class<? extends LengthAttribute> attributeClass) {
+    LengthAttribute attribute = this.getAttribute(attributeClass);
+    return attribute == null ? 0 : attribute.getMagnitude();
+  }
+
+  /**
+   * Discard cached geometry magnitudes. Called whenever an attribute of this element is added,
+   * removed or changes its value.
+   */
+  void invalidateGeometry() {
+    this.geometryCacheMask = 0;
+  }
+
+  /**
+   * Attribute slots are assigned per JVM, so attributes are serialized as a list
+   */
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    out.defaultWriteObject();
+    out.writeObject(this.getAttributes());
+  }
+
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    this.attributes = NO_ATTRIBUTES;
+    for (Attribute attribute : (List<Attribute>) in.readObject()) {
+      int slot = AttributeSlots.of(attribute.getClass());
+      if (slot >= this.attributes.length) {
+        this.attributes = Arrays.copyOf(this.attributes, slot + 1);
+      }
+      this.attributes[slot] = attribute;
+    }
+  }
+
   @Override
   public Element clone() {
     try {
       Element element = (Element) super.clone();
-      element.attributesMap = Maps.mutable.empty();
-      for (Attribute attribute : this.getAttributes()) {
-        element.attributesMap.put(attribute.getClass(), attribute.clone(element));
+      element.attributes = this.attributes.length == 0 ? NO_ATTRIBUTES
+          : new Attribute[this.attributes.length];
+      element.invalidateGeometry();
+      for (int slot = 0; slot < this.attributes.length; slot++) {
+        if (this.attributes[slot] != null) {
+          element.attributes[slot] = this.attributes[slot].clone(element);
+        }
       }
       this.currentClone = element;
       return this.currentClone;
@@ -413,7 +566,7 @@ public abstract class Element extends AnnotableBase implements CloneableWithRefe
     if (!this.getClass().equals(element.getClass())) {
       return false;
     }
-    return this.attributesMap.equals(element.attributesMap);
+    return Arrays.equals(this.attributes, element.attributes);
   }
 
   @Override
@@ -421,7 +574,13 @@ public abstract class Element extends AnnotableBase implements CloneableWithRefe
     if (this.isIdentityBased) {
       return this.getElementPath().hashCode();
     }
-    int result = this.attributesMap.hashCode();
+    // Same as the hash code of a map from attribute class to attribute
+    int result = 0;
+    for (Attribute attribute : this.attributes) {
+      if (attribute != null) {
+        result += attribute.getClass().hashCode() ^ attribute.hashCode();
+      }
+    }
     result = 31 * result + this.getClass().hashCode();
     return result;
   }
@@ -0,0 +1,75 @@
+/*
+ *   Copyright 2020 Goldman Sachs.
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ */
+
+package com.gs.ep.docknight.model;
+
+/**
+ * Encoded stream of an image as it appears in the source document, for example a DCT (jpeg), JPX
+ * or JBIG2 stream. Renderers can copy the stream into their output instead of encoding the decoded
+ * pixels again, as long as the image is not modified. Only streams which are fully described by
+ * the fields below are kept, i.e. streams with a single filter, a device color space and no masks.
+ */
+public final class EncodedImage {
+
+  private final byte[] data;
+  private final String filter;
+  private final int width;
+  private final int height;
+  private final int bitsPerComponent;
+  private final String colorSpace;
+
+  /**
+   * @param data             encoded bytes of the stream, which are not copied
+   * @param filter           name of the filter which decodes {@code data}, such as DCTDecode
+   * @param width            width of the image in pixels
+   * @param height           height of the image in pixels
+   * @param bitsPerComponent bits per color component, or 0 if the filter defines it
+   * @param colorSpace       name of the device color space, or null if the filter defines it
+   */
+  public EncodedImage(byte[] data, String filter, int width, int height, int bitsPerComponent,
+      String colorSpace) {
+    this.data = data;
+    this.filter = filter;
+    this.width = width;
+    this.height = height;
+    this.bitsPerComponent = bitsPerComponent;
+    this.colorSpace = colorSpace;
+  }
+
+  public byte[] getData() {
+    return this.data;
+  }
+
+  public String getFilter() {
+    return this.filter;
+  }
+
+  public int getWidth() {
+    return this.width;
+  }
+
+  public int getHeight() {
+    return this.height;
+  }
+
+  public int getBitsPerComponent() {
+    return this.bitsPerComponent;
+  }
+
+  public String getColorSpace() {
+    return this.colorSpace;
+  }
+}
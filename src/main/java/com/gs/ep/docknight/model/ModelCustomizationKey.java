@@ -56,6 +56,10 @@ public final class ModelCustomizationKey<V> {
       new ModelCustomizationKey<>("PositionalGroupingMaxDistanceFactor",
           p -> Double.parseDouble(p.get(0)));
 
+  public static final ModelCustomizationKey<Integer> POSITIONAL_GROUPING_PARALLELISM =
+      new ModelCustomizationKey<>("PositionalGroupingParallelism",
+          p -> Integer.parseInt(p.get(0)));
+
   public static final ModelCustomizationKey<Boolean> DETECT_UNDERLINE =
       new ModelCustomizationKey<>("DetectUnderline", p -> Boolean.parseBoolean(p.get(0)));
 
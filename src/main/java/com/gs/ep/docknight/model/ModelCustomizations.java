@@ -97,6 +97,17 @@ public class ModelCustomizations {
     return combinedModelCustomizations;
   }
 
+  /**
+   * @return string identifying the customizations stored in this object, independent of the order
+   * in which they were added
+   */
+  public String getFingerprint() {
+    return this.customizationsMap.keyValuesView()
+        .collect(keyValuePair -> keyValuePair.getOne().getName() + "=" + keyValuePair.getTwo())
+        .toSortedList()
+        .makeString(",");
+  }
+
   /**
    * @return string representation of customization object
    */
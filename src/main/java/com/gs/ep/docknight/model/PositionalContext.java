@@ -25,28 +25,35 @@ import com.gs.ep.docknight.model.attribute.Top;
 import com.gs.ep.docknight.model.context.PagePartitionType;
 import com.gs.ep.docknight.model.element.GraphicalElement;
 import java.awt.geom.Rectangle2D;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.util.List;
 
 /**
  * Class which captures positional context (like neighbouring element information) for the element.
+ * Neighbour groups (below, above, left and right elements) can be left to a {@link
+ * NeighbourFinder}, in which case each group is only computed when it is first accessed.
  */
 public class PositionalContext<E extends Element> extends ElementListData implements Cloneable {
 
   public static final int SIGNIFICANT_ELEMENT_MIN_CHARS = 3;
-  private static final long serialVersionUID = -3538842840234180456L;
+  private static final long serialVersionUID = -3538842840234180455L;
   private static final double UNDER_AND_OVER_LINE_DISTANCE_FACTOR = 1;
+  private static final int TOP = 1;
+  private static final int BOTTOM = 1 << 1;
+  private static final int LEFT = 1 << 2;
+  private static final int RIGHT = 1 << 3;
+  private static final int ALL_SIDES = TOP | BOTTOM | LEFT | RIGHT;
   private final E self;
   private PagePartitionType pagePartitionType = PagePartitionType.CONTENT;
   private double visualTop;
   private double visualBottom;
   private double visualLeft;
   private double visualRight;
-  private boolean isVisualTopBorder;
-  private boolean isVisualBottomBorder;
-  private boolean isVisualLeftBorder;
-  private boolean isVisualRightBorder;
+  private byte visualBorders;
   private double alignmentLeft;
   private double alignmentRight;
+  // Shared by the contexts of all elements within the same bordered box, which compare it by identity
   @SuppressWarnings("NonSerializableFieldInSerializableClass")
   private Rectangle2D boundingRectangle;
   private ElementGroup<E> belowElements;
@@ -61,6 +68,8 @@ public class PositionalContext<E extends Element> extends ElementListData implem
   private TabularElementGroup<E> tabularGroup;
   private Integer tabularRow;
   private Integer tabularColumn;
+  private transient NeighbourFinder<E> neighbourFinder;
+  private transient volatile byte pendingNeighbours;
 
   public PositionalContext(E self) {
     this.self = self;
@@ -83,11 +92,10 @@ public class PositionalContext<E extends Element> extends ElementListData implem
     clonedPositionalContext.visualRight = this.visualRight;
     clonedPositionalContext.alignmentLeft = this.alignmentLeft;
     clonedPositionalContext.alignmentRight = this.alignmentRight;
-    clonedPositionalContext.isVisualTopBorder = this.isVisualTopBorder;
-    clonedPositionalContext.isVisualBottomBorder = this.isVisualBottomBorder;
-    clonedPositionalContext.isVisualLeftBorder = this.isVisualLeftBorder;
-    clonedPositionalContext.isVisualRightBorder = this.isVisualRightBorder;
+    clonedPositionalContext.visualBorders = this.visualBorders;
 
+    // Finder works on the elements of this context, hence pending groups are computed before cloning
+    this.findPendingNeighbours();
     if (this.belowElements != null) {
       clonedPositionalContext.belowElements = this.belowElements.getCurrentClone();
     }
@@ -179,35 +187,35 @@ public class PositionalContext<E extends Element> extends ElementListData implem
   }
 
   public boolean isVisualTopBorder() {
-    return this.isVisualTopBorder;
+    return (this.visualBorders & TOP) != 0;
   }
 
   public void setVisualTopBorder(boolean visualTopBorder) {
-    this.isVisualTopBorder = visualTopBorder;
+    this.visualBorders = setFlag(this.visualBorders, TOP, visualTopBorder);
   }
 
   public boolean isVisualBottomBorder() {
-    return this.isVisualBottomBorder;
+    return (this.visualBorders & BOTTOM) != 0;
   }
 
   public void setVisualBottomBorder(boolean visualBottomBorder) {
-    this.isVisualBottomBorder = visualBottomBorder;
+    this.visualBorders = setFlag(this.visualBorders, BOTTOM, visualBottomBorder);
   }
 
   public boolean isVisualLeftBorder() {
-    return this.isVisualLeftBorder;
+    return (this.visualBorders & LEFT) != 0;
   }
 
   public void setVisualLeftBorder(boolean visualLeftBorder) {
-    this.isVisualLeftBorder = visualLeftBorder;
+    this.visualBorders = setFlag(this.visualBorders, LEFT, visualLeftBorder);
   }
 
   public boolean isVisualRightBorder() {
-    return this.isVisualRightBorder;
+    return (this.visualBorders & RIGHT) != 0;
   }
 
   public void setVisualRightBorder(boolean visualRightBorder) {
-    this.isVisualRightBorder = visualRightBorder;
+    this.visualBorders = setFlag(this.visualBorders, RIGHT, visualRightBorder);
   }
 
 
@@ -236,19 +244,91 @@ public class PositionalContext<E extends Element> extends ElementListData implem
   }
 
   public ElementGroup<E> getBelowElements() {
+    if (this.isPendingNeighbour(BOTTOM)) {
+      this.findPendingNeighbour(BOTTOM);
+    }
     return this.belowElements;
   }
 
-  public void setBelowElements(ElementGroup<E> belowElements) {
+  public synchronized void setBelowElements(ElementGroup<E> belowElements) {
     this.belowElements = belowElements;
+    this.resolveNeighbour(BOTTOM);
   }
 
   public ElementGroup<E> getAboveElements() {
+    if (this.isPendingNeighbour(TOP)) {
+      this.findPendingNeighbour(TOP);
+    }
     return this.aboveElements;
   }
 
-  public void setAboveElements(ElementGroup<E> aboveElements) {
+  public synchronized void setAboveElements(ElementGroup<E> aboveElements) {
     this.aboveElements = aboveElements;
+    this.resolveNeighbour(TOP);
+  }
+
+  /**
+   * Leave the below, above, left and right elements of this context to {@code neighbourFinder}.
+   * Each group is found on its first access, and the finder is released once all the groups are
+   * found. Groups are found under the lock of this context, so that the context can be read from
+   * several threads.
+   *
+   * @param neighbourFinder finder of neighbour groups of this context
+   */
+  public synchronized void setNeighbourFinder(NeighbourFinder<E> neighbourFinder) {
+    this.neighbourFinder = neighbourFinder;
+    this.pendingNeighbours = neighbourFinder == null ? 0 : (byte) ALL_SIDES;
+  }
+
+  private boolean isPendingNeighbour(int side) {
+    return (this.pendingNeighbours & side) != 0;
+  }
+
+  private synchronized void findPendingNeighbour(int side) {
+    if (!this.isPendingNeighbour(side)) {
+      return;
+    }
+    switch (side) {
+      case BOTTOM:
+        this.belowElements = this.neighbourFinder.findBelowElements(this);
+        break;
+      case TOP:
+        this.aboveElements = this.neighbourFinder.findAboveElements(this);
+        break;
+      case LEFT:
+        this.leftElements = this.neighbourFinder.findLeftElements(this);
+        break;
+      default:
+        this.rightElements = this.neighbourFinder.findRightElements(this);
+    }
+    this.resolveNeighbour(side);
+  }
+
+  /**
+   * Mark the group on {@code side} as found. Called with the lock of this context held, after the
+   * group is assigned, so that readers which see the group as found also see the group.
+   */
+  private void resolveNeighbour(int side) {
+    this.pendingNeighbours = setFlag(this.pendingNeighbours, side, false);
+    if (this.pendingNeighbours == 0) {
+      this.neighbourFinder = null;
+    }
+  }
+
+  private void findPendingNeighbours() {
+    this.getBelowElements();
+    this.getAboveElements();
+    this.getLeftElements();
+    this.getRightElements();
+  }
+
+  private static byte setFlag(byte flags, int flag, boolean value) {
+    return (byte) (value ? flags | flag : flags & ~flag);
+  }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    this.findPendingNeighbours();
+    out.defaultWriteObject();
   }
 
   public E getShadowedBelowElement() {
@@ -268,19 +348,27 @@ public class PositionalContext<E extends Element> extends ElementListData implem
   }
 
   public ElementGroup<E> getLeftElements() {
+    if (this.isPendingNeighbour(LEFT)) {
+      this.findPendingNeighbour(LEFT);
+    }
     return this.leftElements;
   }
 
-  public void setLeftElements(ElementGroup<E> leftElements) {
+  public synchronized void setLeftElements(ElementGroup<E> leftElements) {
     this.leftElements = leftElements;
+    this.resolveNeighbour(LEFT);
   }
 
   public ElementGroup<E> getRightElements() {
+    if (this.isPendingNeighbour(RIGHT)) {
+      this.findPendingNeighbour(RIGHT);
+    }
     return this.rightElements;
   }
 
-  public void setRightElements(ElementGroup<E> rightElements) {
+  public synchronized void setRightElements(ElementGroup<E> rightElements) {
     this.rightElements = rightElements;
+    this.resolveNeighbour(RIGHT);
   }
 
   public E getShadowedLeftElement() {
@@ -345,13 +433,13 @@ public class PositionalContext<E extends Element> extends ElementListData implem
     double acceptableUnderlinedBorderThreshold =
         UNDER_AND_OVER_LINE_DISTANCE_FACTOR * this.self.getAttribute(FontSize.class).getMagnitude();
     double bottomBorderDistanceFromElement =
-        this.visualBottom - this.self.getAttribute(Top.class).getMagnitude() - this.self
-            .getAttribute(Height.class).getMagnitude();
-    if (this.isVisualBottomBorder
+        this.visualBottom - this.self.getTopMagnitude() - this.self
+            .getHeightMagnitude();
+    if (this.isVisualBottomBorder()
         && Double.compare(bottomBorderDistanceFromElement, acceptableUnderlinedBorderThreshold)
         < 0) {
       return this.shadowedBelowElement == null || Double.compare(bottomBorderDistanceFromElement,
-          this.shadowedBelowElement.getAttribute(Top.class).getMagnitude() - this.visualBottom) < 0;
+          this.shadowedBelowElement.getTopMagnitude() - this.visualBottom) < 0;
     }
     return false;
   }
@@ -363,13 +451,13 @@ public class PositionalContext<E extends Element> extends ElementListData implem
     double acceptableOverlinedBorderThreshold =
         UNDER_AND_OVER_LINE_DISTANCE_FACTOR * this.self.getAttribute(FontSize.class).getMagnitude();
     double topBorderDistanceFromElement =
-        this.self.getAttribute(Top.class).getMagnitude() - this.visualTop;
-    if (this.isVisualTopBorder
+        this.self.getTopMagnitude() - this.visualTop;
+    if (this.isVisualTopBorder()
         && Double.compare(topBorderDistanceFromElement, acceptableOverlinedBorderThreshold) < 0) {
       return this.shadowedAboveElement == null ||
           Double.compare(topBorderDistanceFromElement,
-              this.visualTop - this.shadowedAboveElement.getAttribute(Top.class).getMagnitude()
-                  - this.shadowedAboveElement.getAttribute(Height.class).getMagnitude()) < 0;
+              this.visualTop - this.shadowedAboveElement.getTopMagnitude()
+                  - this.shadowedAboveElement.getHeightMagnitude()) < 0;
     }
     return false;
   }
@@ -402,12 +490,28 @@ public class PositionalContext<E extends Element> extends ElementListData implem
    * @return True if below elements forms nested header else return False
    */
   public boolean isPluralHeader() {
-    if (this.belowElements.size() > 1) {
-      E firstElement = this.belowElements.getFirst();
-      return this.belowElements.getElements()
+    ElementGroup<E> belowElements = this.getBelowElements();
+    if (belowElements.size() > 1) {
+      E firstElement = belowElements.getFirst();
+      return belowElements.getElements()
           .count(e -> e.getTextStr().length() >= SIGNIFICANT_ELEMENT_MIN_CHARS &&
               PositionalElementList.compareByHorizontalAlignment(e, firstElement) == 0) > 1;
     }
     return false;
   }
+
+  /**
+   * Finder of neighbour groups of a positional context, used to compute them on first access. A
+   * finder is shared by the contexts of a page and may be called for different contexts at once.
+   */
+  public interface NeighbourFinder<E extends Element> {
+
+    ElementGroup<E> findBelowElements(PositionalContext<E> context);
+
+    ElementGroup<E> findAboveElements(PositionalContext<E> context);
+
+    ElementGroup<E> findLeftElements(PositionalContext<E> context);
+
+    ElementGroup<E> findRightElements(PositionalContext<E> context);
+  }
 }
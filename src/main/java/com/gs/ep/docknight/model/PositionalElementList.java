@@ -81,11 +81,11 @@ public class PositionalElementList<E extends Element> extends ElementList<E> {
       return 1;
     }
 
-    double top1 = element1.getAttribute(Top.class).getValue().getMagnitude();
+    double top1 = element1.getTopMagnitude();
     Height height1 = element1.getAttribute(Height.class);
     double bottom1 = top1 + (height1 == null ? 1 : height1.getValue().getMagnitude());
 
-    double top2 = element2.getAttribute(Top.class).getValue().getMagnitude();
+    double top2 = element2.getTopMagnitude();
     Height height2 = element2.getAttribute(Height.class);
     double bottom2 = top2 + (height2 == null ? 1 : height2.getValue().getMagnitude());
 
@@ -114,11 +114,11 @@ public class PositionalElementList<E extends Element> extends ElementList<E> {
    * element1 is at left position than element2, return negative else return positive
    */
   public static int compareByVerticalAlignment(Element element1, Element element2) {
-    double left1 = element1.getAttribute(Left.class).getValue().getMagnitude();
+    double left1 = element1.getLeftMagnitude();
     Width width1 = element1.getAttribute(Width.class);
     double lineDelta1 = width1 == null ? 1 : width1.getValue().getMagnitude() / 2;
 
-    double left2 = element2.getAttribute(Left.class).getValue().getMagnitude();
+    double left2 = element2.getLeftMagnitude();
     Width width2 = element2.getAttribute(Width.class);
     double lineDelta2 = width2 == null ? 1 : width2.getValue().getMagnitude() / 2;
 
@@ -134,8 +134,8 @@ public class PositionalElementList<E extends Element> extends ElementList<E> {
       Element element2) {
     int lineSignum = compareByHorizontalAlignment(element1, element2);
     if (lineSignum == 0) {
-      double left1 = element1.getAttribute(Left.class).getValue().getMagnitude();
-      double left2 = element2.getAttribute(Left.class).getValue().getMagnitude();
+      double left1 = element1.getLeftMagnitude();
+      double left2 = element2.getLeftMagnitude();
       return Double.compare(left1, left2);
     } else {
       return lineSignum;
@@ -23,6 +23,7 @@ import com.gs.ep.docknight.model.transformer.tabledetection.process.AbstractProc
 import java.io.Serializable;
 import org.eclipse.collections.api.list.MutableList;
 import org.eclipse.collections.api.list.primitive.IntList;
+import org.eclipse.collections.api.map.MapIterable;
 import org.eclipse.collections.api.map.MutableMap;
 import org.eclipse.collections.api.multimap.MutableMultimap;
 import org.eclipse.collections.api.set.MutableSet;
@@ -170,6 +171,13 @@ public class TabularElementGroup<E extends Element> implements
     return this.confidenceMap.get(feature);
   }
 
+  /**
+   * @return unmodifiable view of the confidences of all features set on this table
+   */
+  public MapIterable<TableDetectionConfidenceFeatures, Double> getConfidences() {
+    return this.confidenceMap.asUnmodifiable();
+  }
+
   /**
    * If cell at position ({@code row}, {@code col}) is part of a cell that is spanning multiple
    * rows/columns, then we will return the content of whole span, otherwise return the cell content
@@ -0,0 +1,58 @@
+/*
+ *   Copyright 2020 Goldman Sachs.
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ */
+
+package com.gs.ep.docknight.model;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Pool of canonical instances for attribute values that repeat across many elements, such as font
+ * sizes, font families, colors and text style lists. Pooled values are shared between elements and
+ * must not be modified. Once the pool is full, new values are returned as they are.
+ */
+public final class ValuePool<T> {
+
+  private final int maxSize;
+  private final ConcurrentMap<T, T> values = new ConcurrentHashMap<>();
+
+  public ValuePool(int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * @return pooled instance equal to {@code value}, or {@code value} itself if it is null or the
+   * pool is full
+   */
+  public T intern(T value) {
+    if (value == null) {
+      return null;
+    }
+    T pooled = this.values.get(value);
+    if (pooled != null) {
+      return pooled;
+    }
+    if (this.values.size() >= this.maxSize) {
+      return value;
+    }
+    pooled = this.values.putIfAbsent(value, value);
+    return pooled == null ? value : pooled;
+  }
+
+  public int size() {
+    return this.values.size();
+  }
+}
@@ -18,6 +18,7 @@ package com.gs.ep.docknight.model.attribute;
 
 import com.gs.ep.docknight.model.Attribute;
 import com.gs.ep.docknight.model.Element;
+import com.gs.ep.docknight.model.ValuePool;
 
 /**
  * Attribute defined for color of the element
@@ -25,11 +26,17 @@ import com.gs.ep.docknight.model.Element;
 public class Color extends Attribute<java.awt.Color> {
 
   private static final long serialVersionUID = -3278423492467870506L;
+  private static final ValuePool<java.awt.Color> COLORS = new ValuePool<>(1024);
 
   public Color(java.awt.Color value) {
     this.setValue(value);
   }
 
+  @Override
+  protected java.awt.Color intern(java.awt.Color value) {
+    return COLORS.intern(value);
+  }
+
   @Override
   public Class getHolderInterface() {
     return Holder.class;
@@ -18,6 +18,7 @@ package com.gs.ep.docknight.model.attribute;
 
 import com.gs.ep.docknight.model.Attribute;
 import com.gs.ep.docknight.model.Element;
+import com.gs.ep.docknight.model.ValuePool;
 
 /**
  * Attribute defined for font family of the element
@@ -28,11 +29,17 @@ public class FontFamily extends Attribute<String> {
   public static final String HELVETICA = "Helvetica";
   public static final String COURIER = "Courier";
   private static final long serialVersionUID = -2379436421721600665L;
+  private static final ValuePool<String> FONT_FAMILIES = new ValuePool<>(1024);
 
   public FontFamily(String value) {
     this.setValue(value);
   }
 
+  @Override
+  protected String intern(String value) {
+    return FONT_FAMILIES.intern(value);
+  }
+
   @Override
   public Class getHolderInterface() {
     return Holder.class;
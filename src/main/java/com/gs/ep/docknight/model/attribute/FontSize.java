@@ -19,6 +19,7 @@ package com.gs.ep.docknight.model.attribute;
 import com.gs.ep.docknight.model.Element;
 import com.gs.ep.docknight.model.Length;
 import com.gs.ep.docknight.model.LengthAttribute;
+import com.gs.ep.docknight.model.ValuePool;
 
 /**
  * Attribute defined for font size of the element
@@ -26,11 +27,17 @@ import com.gs.ep.docknight.model.LengthAttribute;
 public class FontSize extends LengthAttribute {
 
   private static final long serialVersionUID = 1558185750481768641L;
+  private static final ValuePool<Length> FONT_SIZES = new ValuePool<>(1024);
 
   public FontSize(Length value) {
     this.setValue(value);
   }
 
+  @Override
+  protected Length intern(Length value) {
+    return FONT_SIZES.intern(value);
+  }
+
   @Override
   public Class getHolderInterface() {
     return Holder.class;
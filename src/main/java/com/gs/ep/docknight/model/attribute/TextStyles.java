@@ -18,6 +18,9 @@ package com.gs.ep.docknight.model.attribute;
 
 import com.gs.ep.docknight.model.Attribute;
 import com.gs.ep.docknight.model.Element;
+import com.gs.ep.docknight.model.ValuePool;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -40,6 +43,7 @@ public class TextStyles extends Attribute<List<String>> {
   public static final String UNDERLINE = "underline";
   public static final String URL = "url";
   private static final long serialVersionUID = 9076010971976452370L;
+  private static final ValuePool<List<String>> TEXT_STYLES = new ValuePool<>(1024);
 
   public TextStyles(List<String> value) {
     this.setValue(value);
@@ -49,6 +53,15 @@ public class TextStyles extends Attribute<List<String>> {
     this.setValueFromArray(value);
   }
 
+  /**
+   * Pooled lists are shared between elements, hence an unmodifiable copy of {@code value} is pooled
+   */
+  @Override
+  protected List<String> intern(List<String> value) {
+    return value == null ? null
+        : TEXT_STYLES.intern(Collections.unmodifiableList(new ArrayList<>(value)));
+  }
+
   @Override
   public Class getHolderInterface() {
     return Holder.class;
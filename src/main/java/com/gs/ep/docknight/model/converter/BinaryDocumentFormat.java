@@ -0,0 +1,79 @@
+/*
+ *   Copyright 2020 Goldman Sachs.
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ */
+
+package com.gs.ep.docknight.model.converter;
+
+/**
+ * Constants of the binary format of {@see com.gs.ep.docknight.model.element.Document document
+ * model}, written by {@see com.gs.ep.docknight.model.renderer.BinaryDocumentRenderer} and read by
+ * {@link BinaryDocumentParser}. All numbers are big endian; counts, ids and references are unsigned
+ * varints, where references are stored as id + 1 and 0 stands for null.
+ * <pre>
+ * file     : MAGIC VERSION document-block page-block* string-table footer footer-offset(long)
+ * footer   : document-offset(long) page-count(int) page-offset(long)* string-table-offset(long)
+ * block    : element groups tables positional-lists positional-contexts
+ * element  : class(string) flags(byte) annotations attribute-count attribute*
+ * attribute: class(string) annotations value-tag(byte) value
+ * </pre>
+ * Document elements additionally store their document source and intermediate sources right after
+ * their annotations.
+ * Each block is decoded on its own: elements are numbered in the order they are written within the
+ * block, and groups, tables and positional contexts refer to elements of the same block by that
+ * number. The document block holds the document element without its pages, which are stored in
+ * their own blocks so that a single page can be read without decoding the others. Strings (texts,
+ * font families, class names, enum names) are stored once in the string table and referred to by
+ * id.
+ */
+public final class BinaryDocumentFormat {
+
+  public static final int MAGIC = 0x444B4E44;
+  public static final int VERSION = 2;
+
+  public static final int IDENTITY_BASED_FLAG = 1;
+
+  public static final byte NULL_VALUE = 0;
+  // Length value: tag followed by unit ordinal (byte) and magnitude as float or as double
+  public static final byte FLOAT_LENGTH_VALUE = 1;
+  public static final byte DOUBLE_LENGTH_VALUE = 2;
+  public static final byte STRING_VALUE = 3;
+  public static final byte COLOR_VALUE = 4;
+  public static final byte STRING_LIST_VALUE = 5;
+  public static final byte ELEMENT_LIST_VALUE = 6;
+  public static final byte POSITIONAL_ELEMENT_LIST_VALUE = 7;
+  public static final byte ELEMENTS_VALUE = 8;
+  // Image value: buffered image type, then width, height, sample count and the samples of the
+  // image as held in memory (or png bytes if the type is TYPE_CUSTOM), then the encoded stream of
+  // the source document if any
+  public static final byte IMAGE_VALUE = 9;
+  public static final byte IMAGE_REFERENCE_VALUE = 10;
+  // Content of the document, whose elements are stored in the page blocks
+  public static final byte PAGES_VALUE = 11;
+  // Any other serializable value, stored with java serialization. Only model classes and the
+  // collections, numbers and awt shapes they are made of are deserialized
+  public static final byte SERIALIZED_VALUE = 12;
+
+  // Doubles of positional contexts are stored as float when that is lossless
+  public static final byte FLOAT_NUMBER = 0;
+  public static final byte DOUBLE_NUMBER = 1;
+
+  // Flags of groups and table cells
+  public static final int VERTICALLY_MERGED_FLAG = 1;
+  public static final int HORIZONTALLY_MERGED_FLAG = 1 << 1;
+  public static final int CELL_GROUP_FLAG = 1 << 2;
+
+  private BinaryDocumentFormat() {
+  }
+}
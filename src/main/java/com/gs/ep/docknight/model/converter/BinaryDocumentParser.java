@@ -0,0 +1,629 @@
+/*
+ *   Copyright 2020 Goldman Sachs.
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ */
+
+package com.gs.ep.docknight.model.converter;
+
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.CELL_GROUP_FLAG;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.COLOR_VALUE;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.DOUBLE_LENGTH_VALUE;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.ELEMENTS_VALUE;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.ELEMENT_LIST_VALUE;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.FLOAT_LENGTH_VALUE;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.FLOAT_NUMBER;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.HORIZONTALLY_MERGED_FLAG;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.IDENTITY_BASED_FLAG;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.IMAGE_REFERENCE_VALUE;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.IMAGE_VALUE;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.MAGIC;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.NULL_VALUE;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.PAGES_VALUE;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.POSITIONAL_ELEMENT_LIST_VALUE;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.SERIALIZED_VALUE;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.STRING_LIST_VALUE;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.STRING_VALUE;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.VERSION;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.VERTICALLY_MERGED_FLAG;
+
+import com.gs.ep.docknight.model.AnnotableBase;
+import com.gs.ep.docknight.model.Attribute;
+import com.gs.ep.docknight.model.ComparableBufferedImage;
+import com.gs.ep.docknight.model.Element;
+import com.gs.ep.docknight.model.ElementGroup;
+import com.gs.ep.docknight.model.ElementList;
+import com.gs.ep.docknight.model.EncodedImage;
+import com.gs.ep.docknight.model.Length;
+import com.gs.ep.docknight.model.Length.Unit;
+import com.gs.ep.docknight.model.Parser;
+import com.gs.ep.docknight.model.PositionalContext;
+import com.gs.ep.docknight.model.PositionalElementList;
+import com.gs.ep.docknight.model.TabularCellElementGroup;
+import com.gs.ep.docknight.model.TabularElementGroup;
+import com.gs.ep.docknight.model.TabularElementGroup.VectorTag;
+import com.gs.ep.docknight.model.context.PagePartitionType;
+import com.gs.ep.docknight.model.element.Document;
+import com.gs.ep.docknight.model.element.Document.SourceType;
+import com.gs.ep.docknight.model.transformer.tabledetection.TableDetectionConfidenceFeatures;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferUShort;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.lang.reflect.Constructor;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Set;
+import javax.imageio.ImageIO;
+import org.apache.commons.io.IOUtils;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.Maps;
+import org.eclipse.collections.impl.factory.Sets;
+
+/**
+ * Parser to read {@see Document document model} written by {@see
+ * com.gs.ep.docknight.model.renderer.BinaryDocumentRenderer}. Files can be memory mapped with
+ * {@link #map(Path)}, in which case pages are decoded only when they are read.
+ */
+public class BinaryDocumentParser implements Parser<InputStream> {
+
+  private static final ClassValue<Constructor<?>> ELEMENT_CONSTRUCTORS = new ClassValue<Constructor<?>>() {
+    @Override
+    protected Constructor<?> computeValue(Class<?> elementClass) {
+      try {
+        Constructor<?> constructor = elementClass.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        return constructor;
+      } catch (NoSuchMethodException e) {
+        return null;
+      }
+    }
+  };
+
+  // Constructors of attribute classes which take the attribute value as their only argument
+  private static final ClassValue<MutableList<Constructor<?>>> ATTRIBUTE_CONSTRUCTORS = new ClassValue<MutableList<Constructor<?>>>() {
+    @Override
+    protected MutableList<Constructor<?>> computeValue(Class<?> attributeClass) {
+      return Lists.mutable.<Constructor<?>>of(attributeClass.getConstructors())
+          .select(constructor -> constructor.getParameterCount() == 1
+              && !constructor.getParameterTypes()[0].isArray());
+    }
+  };
+
+  @Override
+  public Document parse(InputStream input) throws IOException {
+    return this.parse(IOUtils.toByteArray(input));
+  }
+
+  /**
+   * Parse the binary document held in {@code bytes}
+   */
+  public Document parse(byte[] bytes) throws IOException {
+    return new MappedDocument(ByteBuffer.wrap(bytes)).getDocument();
+  }
+
+  /**
+   * Parse the binary document stored at {@code path}
+   */
+  public Document parse(Path path) throws IOException {
+    return this.map(path).getDocument();
+  }
+
+  /**
+   * Memory map the binary document stored at {@code path}. Only the string table is decoded
+   * upfront; the document and its pages are decoded when they are read.
+   *
+   * @param path path of the binary document
+   * @return mapped binary document
+   * @throws IOException exception to throw if file is not a binary document of supported version
+   */
+  public MappedDocument map(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      if (channel.size() > Integer.MAX_VALUE) {
+        throw new IOException("Binary document " + path + " is too large to be mapped");
+      }
+      return new MappedDocument(channel.map(MapMode.READ_ONLY, 0, channel.size()));
+    }
+  }
+
+  private static int readVarInt(ByteBuffer buffer) {
+    int value = 0;
+    int shift = 0;
+    byte b;
+    do {
+      b = buffer.get();
+      value |= (b & 0x7F) << shift;
+      shift += 7;
+    } while (b < 0);
+    return value;
+  }
+
+  private static byte[] readBytes(ByteBuffer buffer) {
+    byte[] bytes = new byte[readVarInt(buffer)];
+    buffer.get(bytes);
+    return bytes;
+  }
+
+  /**
+   * Binary document whose blocks are decoded on demand. Instances are not thread safe.
+   */
+  public static final class MappedDocument {
+
+    private final ByteBuffer buffer;
+    private final int documentOffset;
+    private final int[] pageOffsets;
+    private final String[] strings;
+    private final Class<?>[] classes;
+
+    private MappedDocument(ByteBuffer buffer) throws IOException {
+      this.buffer = buffer;
+      if (buffer.limit() < 16 || buffer.getInt(0) != MAGIC) {
+        throw new IOException("Not a binary document");
+      }
+      int version = buffer.getInt(4);
+      if (version != VERSION) {
+        throw new IOException("Unsupported binary document version " + version);
+      }
+      ByteBuffer footer = this.blockAt((int) buffer.getLong(buffer.limit() - 8));
+      this.documentOffset = (int) footer.getLong();
+      this.pageOffsets = new int[footer.getInt()];
+      for (int i = 0; i < this.pageOffsets.length; i++) {
+        this.pageOffsets[i] = (int) footer.getLong();
+      }
+      ByteBuffer stringTable = this.blockAt((int) footer.getLong());
+      this.strings = new String[readVarInt(stringTable)];
+      for (int i = 0; i < this.strings.length; i++) {
+        this.strings[i] = new String(readBytes(stringTable), StandardCharsets.UTF_8);
+      }
+      this.classes = new Class<?>[this.strings.length];
+    }
+
+    public int getPageCount() {
+      return this.pageOffsets.length;
+    }
+
+    /**
+     * Decode the page at {@code pageIndex} on its own. The page is not attached to any document.
+     */
+    public Element getPage(int pageIndex) throws IOException {
+      return new BlockReader(this.blockAt(this.pageOffsets[pageIndex])).read();
+    }
+
+    /**
+     * Decode the whole document including all its pages
+     */
+    public Document getDocument() throws IOException {
+      return (Document) new BlockReader(this.blockAt(this.documentOffset)).read();
+    }
+
+    private ByteBuffer blockAt(int offset) {
+      ByteBuffer block = this.buffer.duplicate();
+      block.position(offset);
+      return block;
+    }
+
+    private String string(int reference) {
+      return reference == 0 ? null : this.strings[reference - 1];
+    }
+
+    private <T> Class<? extends T> toClass(int reference, Class<T> baseClass) throws IOException {
+      Class<?> resolvedClass = this.classes[reference - 1];
+      if (resolvedClass == null) {
+        try {
+          // The class is not initialized here, so that nothing runs before its type is checked
+          resolvedClass = Class.forName(this.strings[reference - 1], false,
+              BinaryDocumentParser.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+          throw new IOException("Unknown class " + this.strings[reference - 1], e);
+        }
+        this.classes[reference - 1] = resolvedClass;
+      }
+      if (!baseClass.isAssignableFrom(resolvedClass)) {
+        throw new IOException(resolvedClass.getName() + " is not a " + baseClass.getSimpleName());
+      }
+      return (Class<? extends T>) resolvedClass;
+    }
+
+    /**
+     * Reader of a single block, see {@link BinaryDocumentFormat}
+     */
+    private final class BlockReader {
+
+      private final ByteBuffer buffer;
+      private final MutableList<Element> elements = Lists.mutable.empty();
+      private final MutableList<PositionalElementList<Element>> positionalLists = Lists.mutable
+          .empty();
+      private final MutableList<ComparableBufferedImage> images = Lists.mutable.empty();
+      // Bounding rectangles are shared by the contexts of the elements within the same box
+      private final MutableMap<Rectangle2D, Rectangle2D> boundingRectangles = Maps.mutable.empty();
+
+      /**
+       * @param buffer buffer positioned at the start of the block
+       */
+      BlockReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+      }
+
+      Element read() throws IOException {
+        Element root = this.readElement();
+        ElementGroup<Element>[] groups = new ElementGroup[readVarInt(this.buffer)];
+        for (int i = 0; i < groups.length; i++) {
+          groups[i] = this.readGroup();
+        }
+        TabularElementGroup<Element>[] tables = new TabularElementGroup[readVarInt(this.buffer)];
+        for (int i = 0; i < tables.length; i++) {
+          tables[i] = this.readTable(groups);
+        }
+        int positionalListCount = readVarInt(this.buffer);
+        if (positionalListCount != this.positionalLists.size()) {
+          throw new IOException("Corrupt binary document");
+        }
+        for (PositionalElementList<Element> positionalList : this.positionalLists) {
+          int verticalGroupCount = readVarInt(this.buffer);
+          for (int i = 0; i < verticalGroupCount; i++) {
+            positionalList.addVerticalGroup(groups[readVarInt(this.buffer) - 1]);
+          }
+          int tableCount = readVarInt(this.buffer);
+          for (int i = 0; i < tableCount; i++) {
+            positionalList.addTabularGroup(tables[readVarInt(this.buffer) - 1]);
+          }
+        }
+        int contextCount = readVarInt(this.buffer);
+        for (int i = 0; i < contextCount; i++) {
+          this.readPositionalContext(groups, tables);
+        }
+        return root;
+      }
+
+      private Element readElement() throws IOException {
+        Class<? extends Element> elementClass = this.readClass(Element.class);
+        Element element = (Element) newInstance(ELEMENT_CONSTRUCTORS.get(elementClass),
+            elementClass);
+        this.elements.add(element);
+        if ((this.buffer.get() & IDENTITY_BASED_FLAG) != 0) {
+          element.withIdentity(true);
+        }
+        this.readAnnotations(element);
+        if (element instanceof Document) {
+          Document document = (Document) element;
+          document.setDocumentSource(this.readString());
+          int sourceCount = readVarInt(this.buffer);
+          for (int i = 0; i < sourceCount; i++) {
+            document.addTransformedIntermediateSource(SourceType.valueOf(this.readString()),
+                readBytes(this.buffer));
+          }
+        }
+        int attributeCount = readVarInt(this.buffer);
+        for (int i = 0; i < attributeCount; i++) {
+          element.addAttribute(this.readAttribute());
+        }
+        return element;
+      }
+
+      private Attribute readAttribute() throws IOException {
+        Class<? extends Attribute> attributeClass = this.readClass(Attribute.class);
+        String[] annotations = new String[2 * readVarInt(this.buffer)];
+        for (int i = 0; i < annotations.length; i++) {
+          annotations[i] = this.readString();
+        }
+        Object value = this.readValue(this.buffer.get());
+        Constructor<?> constructor = ATTRIBUTE_CONSTRUCTORS.get(attributeClass)
+            .detect(c -> value == null || c.getParameterTypes()[0].isInstance(value));
+        Attribute attribute = (Attribute) newInstance(constructor, attributeClass, value);
+        for (int i = 0; i < annotations.length; i += 2) {
+          attribute.addAnnotation(annotations[i], annotations[i + 1]);
+        }
+        return attribute;
+      }
+
+      private Object readValue(byte valueTag) throws IOException {
+        switch (valueTag) {
+          case PAGES_VALUE:
+            MutableList<Element> pages = Lists.mutable
+                .withInitialCapacity(MappedDocument.this.getPageCount());
+            for (int pageIndex = 0; pageIndex < MappedDocument.this.getPageCount(); pageIndex++) {
+              pages.add(MappedDocument.this.getPage(pageIndex));
+            }
+            return new ElementList<>(pages);
+          case NULL_VALUE:
+            return null;
+          case FLOAT_LENGTH_VALUE:
+            Unit floatUnit = Unit.values()[this.buffer.get()];
+            return new Length(this.buffer.getFloat(), floatUnit);
+          case DOUBLE_LENGTH_VALUE:
+            Unit doubleUnit = Unit.values()[this.buffer.get()];
+            return new Length(this.buffer.getDouble(), doubleUnit);
+          case STRING_VALUE:
+            return this.readString();
+          case COLOR_VALUE:
+            return new java.awt.Color(this.buffer.getInt(), true);
+          case STRING_LIST_VALUE:
+            int stringCount = readVarInt(this.buffer);
+            MutableList<String> strings = Lists.mutable.withInitialCapacity(stringCount);
+            for (int i = 0; i < stringCount; i++) {
+              strings.add(this.readString());
+            }
+            return strings;
+          case ELEMENT_LIST_VALUE:
+            return new ElementList<>(this.readElements());
+          case POSITIONAL_ELEMENT_LIST_VALUE:
+            // The list is numbered before its elements, which may have positional lists themselves
+            int positionalListId = this.positionalLists.size();
+            this.positionalLists.add(null);
+            PositionalElementList<Element> positionalList = new PositionalElementList<>(
+                this.readElements(), false);
+            this.positionalLists.set(positionalListId, positionalList);
+            return positionalList;
+          case ELEMENTS_VALUE:
+            return this.readElements();
+          case IMAGE_VALUE:
+            return this.readImage();
+          case IMAGE_REFERENCE_VALUE:
+            return this.images.get(readVarInt(this.buffer));
+          case SERIALIZED_VALUE:
+            try (ObjectInputStream objectInputStream = new AttributeValueInputStream(
+                new ByteArrayInputStream(readBytes(this.buffer)))) {
+              return objectInputStream.readObject();
+            } catch (ClassNotFoundException e) {
+              throw new IOException(e);
+            }
+          default:
+            throw new IOException("Unknown value tag " + valueTag);
+        }
+      }
+
+      private MutableList<Element> readElements() throws IOException {
+        int count = readVarInt(this.buffer);
+        MutableList<Element> elements = Lists.mutable.withInitialCapacity(count);
+        for (int i = 0; i < count; i++) {
+          elements.add(this.readElement());
+        }
+        return elements;
+      }
+
+      private ComparableBufferedImage readImage() throws IOException {
+        BufferedImage bufferedImage = this.readPixels();
+        EncodedImage encodedImage = null;
+        if (this.buffer.get() != 0) {
+          encodedImage = new EncodedImage(readBytes(this.buffer), this.readString(),
+              readVarInt(this.buffer), readVarInt(this.buffer), readVarInt(this.buffer),
+              this.readString());
+        }
+        ComparableBufferedImage image = new ComparableBufferedImage(bufferedImage, encodedImage);
+        this.images.add(image);
+        return image;
+      }
+
+      private BufferedImage readPixels() throws IOException {
+        int imageType = readVarInt(this.buffer);
+        if (imageType == BufferedImage.TYPE_CUSTOM) {
+          return ImageIO.read(new ByteArrayInputStream(readBytes(this.buffer)));
+        }
+        BufferedImage image = new BufferedImage(readVarInt(this.buffer), readVarInt(this.buffer),
+            imageType);
+        DataBuffer dataBuffer = image.getRaster().getDataBuffer();
+        if (readVarInt(this.buffer) != dataBuffer.getSize()) {
+          throw new IOException("Corrupt binary document");
+        }
+        if (dataBuffer instanceof DataBufferByte) {
+          this.buffer.get(((DataBufferByte) dataBuffer).getData());
+        } else if (dataBuffer instanceof DataBufferInt) {
+          int[] data = ((DataBufferInt) dataBuffer).getData();
+          this.buffer.asIntBuffer().get(data);
+          this.buffer.position(this.buffer.position() + 4 * data.length);
+        } else {
+          short[] data = ((DataBufferUShort) dataBuffer).getData();
+          this.buffer.asShortBuffer().get(data);
+          this.buffer.position(this.buffer.position() + 2 * data.length);
+        }
+        return image;
+      }
+
+      private ElementGroup<Element> readGroup() throws IOException {
+        int flags = this.buffer.get();
+        ElementGroup<Element> group = (flags & CELL_GROUP_FLAG) != 0 ? newCell(flags)
+            : new ElementGroup<>();
+        this.readElementReferences(group.getElements());
+        return group;
+      }
+
+      private TabularElementGroup<Element> readTable(ElementGroup<Element>[] groups)
+          throws IOException {
+        TabularElementGroup<Element> table = new TabularElementGroup<>(0, 0,
+            readVarInt(this.buffer));
+        int rowCount = readVarInt(this.buffer);
+        for (int rowIndex = 0; rowIndex < rowCount; rowIndex++) {
+          int columnCount = readVarInt(this.buffer);
+          MutableList<TabularCellElementGroup<Element>> row = Lists.mutable
+              .withInitialCapacity(columnCount);
+          for (int columnIndex = 0; columnIndex < columnCount; columnIndex++) {
+            TabularCellElementGroup<Element> cell = newCell(this.buffer.get());
+            this.readElementReferences(cell.getElements());
+            row.add(cell);
+          }
+          table.addRow(row, rowIndex);
+        }
+        int caption = readVarInt(this.buffer);
+        table.setCaption(caption == 0 ? null : groups[caption - 1]);
+        int confidenceCount = readVarInt(this.buffer);
+        for (int i = 0; i < confidenceCount; i++) {
+          table.setConfidence(TableDetectionConfidenceFeatures.valueOf(this.readString()),
+              this.buffer.getDouble());
+        }
+        int vectorTagCount = readVarInt(this.buffer);
+        for (int i = 0; i < vectorTagCount; i++) {
+          VectorTag vectorTag = VectorTag.valueOf(this.readString());
+          int indexCount = readVarInt(this.buffer);
+          for (int j = 0; j < indexCount; j++) {
+            table.addVectorTag(vectorTag, readVarInt(this.buffer));
+          }
+        }
+        return table;
+      }
+
+      private void readPositionalContext(ElementGroup<Element>[] groups,
+          TabularElementGroup<Element>[] tables) throws IOException {
+        Element element = this.elements.get(readVarInt(this.buffer));
+        PositionalContext<Element> context = new PositionalContext<>(element);
+        String pagePartitionType = this.readString();
+        context.setPagePartitionType(
+            pagePartitionType == null ? null : PagePartitionType.valueOf(pagePartitionType));
+        context.setVisualTop(this.readNumber());
+        context.setVisualBottom(this.readNumber());
+        context.setVisualLeft(this.readNumber());
+        context.setVisualRight(this.readNumber());
+        context.setVisualTopBorder(this.buffer.get() != 0);
+        context.setVisualBottomBorder(this.buffer.get() != 0);
+        context.setVisualLeftBorder(this.buffer.get() != 0);
+        context.setVisualRightBorder(this.buffer.get() != 0);
+        context.setAlignmentLeft(this.readNumber());
+        context.setAlignmentRight(this.readNumber());
+        if (this.buffer.get() != 0) {
+          Rectangle2D boundingRectangle = new Rectangle2D.Double(this.readNumber(),
+              this.readNumber(), this.readNumber(), this.readNumber());
+          context.setBoundingRectangle(
+              this.boundingRectangles.getIfAbsentPut(boundingRectangle, boundingRectangle));
+        }
+        context.setBelowElements(this.readReference(groups));
+        context.setAboveElements(this.readReference(groups));
+        context.setLeftElements(this.readReference(groups));
+        context.setRightElements(this.readReference(groups));
+        context.setVerticalGroup(this.readReference(groups));
+        context.setShadowedBelowElement(this.readElementReference());
+        context.setShadowedAboveElement(this.readElementReference());
+        context.setShadowedLeftElement(this.readElementReference());
+        context.setShadowedRightElement(this.readElementReference());
+        context.setTabularGroup(this.readReference(tables));
+        int tabularRow = readVarInt(this.buffer);
+        context.setTabularRow(tabularRow == 0 ? null : tabularRow - 1);
+        int tabularColumn = readVarInt(this.buffer);
+        context.setTabularColumn(tabularColumn == 0 ? null : tabularColumn - 1);
+        element.setPositionalContext(context);
+      }
+
+      private void readElementReferences(MutableList<Element> target) {
+        int count = readVarInt(this.buffer);
+        for (int i = 0; i < count; i++) {
+          target.add(this.elements.get(readVarInt(this.buffer)));
+        }
+      }
+
+      private Element readElementReference() {
+        int reference = readVarInt(this.buffer);
+        return reference == 0 ? null : this.elements.get(reference - 1);
+      }
+
+      private <T> T readReference(T[] items) {
+        int reference = readVarInt(this.buffer);
+        return reference == 0 ? null : items[reference - 1];
+      }
+
+      private void readAnnotations(AnnotableBase annotable) {
+        int count = readVarInt(this.buffer);
+        for (int i = 0; i < count; i++) {
+          annotable.addAnnotation(this.readString(), this.readString());
+        }
+      }
+
+      private double readNumber() {
+        return this.buffer.get() == FLOAT_NUMBER ? this.buffer.getFloat()
+            : this.buffer.getDouble();
+      }
+
+      private String readString() {
+        return MappedDocument.this.string(readVarInt(this.buffer));
+      }
+
+      private <T> Class<? extends T> readClass(Class<T> baseClass) throws IOException {
+        return MappedDocument.this.toClass(readVarInt(this.buffer), baseClass);
+      }
+    }
+
+    private static TabularCellElementGroup<Element> newCell(int flags) {
+      return new TabularCellElementGroup<>((flags & VERTICALLY_MERGED_FLAG) != 0,
+          (flags & HORIZONTALLY_MERGED_FLAG) != 0);
+    }
+
+    private static Object newInstance(Constructor<?> constructor, Class<?> instanceClass,
+        Object... arguments) throws IOException {
+      if (constructor == null) {
+        throw new IOException("Cannot create " + instanceClass.getName());
+      }
+      try {
+        return constructor.newInstance(arguments);
+      } catch (ReflectiveOperationException e) {
+        throw new IOException("Cannot create " + instanceClass.getName(), e);
+      }
+    }
+  }
+
+  /**
+   * Stream to deserialize attribute values stored with java serialization. Binary documents may be
+   * read from shared storage, hence only the classes which attribute values are made of can be
+   * deserialized.
+   */
+  private static final class AttributeValueInputStream extends ObjectInputStream {
+
+    private static final String MODEL_PACKAGE = "com.gs.ep.docknight.model.";
+    private static final Set<String> ALLOWED_CLASSES = Sets.immutable.of(
+        "java.lang.Boolean", "java.lang.Double", "java.lang.Enum", "java.lang.Float",
+        "java.lang.Integer", "java.lang.Long", "java.lang.Number", "java.lang.String",
+        "java.awt.Color", "java.awt.Point", "java.awt.Rectangle", "java.util.ArrayList",
+        "java.util.Arrays$ArrayList", "java.util.Collections$EmptyList",
+        "java.util.Collections$EmptyMap", "java.util.Collections$EmptySet",
+        "java.util.Collections$SingletonList", "java.util.Collections$UnmodifiableCollection",
+        "java.util.Collections$UnmodifiableList", "java.util.Collections$UnmodifiableRandomAccessList",
+        "java.util.HashMap", "java.util.HashSet", "java.util.LinkedHashMap",
+        "java.util.LinkedHashSet", "java.util.LinkedList",
+        "org.eclipse.collections.impl.list.mutable.FastList",
+        "org.eclipse.collections.impl.map.mutable.UnifiedMap",
+        "org.eclipse.collections.impl.set.mutable.UnifiedSet",
+        "org.eclipse.collections.impl.tuple.PairImpl").castToSet();
+
+    AttributeValueInputStream(InputStream input) throws IOException {
+      super(input);
+    }
+
+    @Override
+    protected Class<?> resolveClass(ObjectStreamClass description)
+        throws IOException, ClassNotFoundException {
+      String name = description.getName();
+      int dimensions = 0;
+      while (name.charAt(dimensions) == '[') {
+        dimensions++;
+      }
+      String componentName = dimensions == 0 ? name
+          : name.charAt(dimensions) == 'L' ? name.substring(dimensions + 1, name.length() - 1)
+              : null;
+      if (componentName != null && !componentName.startsWith(MODEL_PACKAGE)
+          && !ALLOWED_CLASSES.contains(componentName)) {
+        throw new InvalidClassException(name, "Class is not allowed in attribute values");
+      }
+      return super.resolveClass(description);
+    }
+  }
+}
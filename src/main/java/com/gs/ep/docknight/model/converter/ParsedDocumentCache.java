@@ -0,0 +1,246 @@
+/*
+ *   Copyright 2020 Goldman Sachs.
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ */
+
+package com.gs.ep.docknight.model.converter;
+
+import com.gs.ep.docknight.model.element.Document;
+import com.gs.ep.docknight.model.renderer.BinaryDocumentRenderer;
+import com.gs.ep.docknight.util.StatsDClientWrapper;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.xml.bind.DatatypeConverter;
+import org.apache.commons.io.IOUtils;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.tuple.Pair;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.tuple.Tuples;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of parsed documents, stored on disk in the format of {@link BinaryDocumentFormat}. Entries
+ * are keyed by a hash of the source document bytes and a fingerprint of the settings with which it
+ * is parsed (see {@see com.gs.ep.docknight.model.converter.pdfparser.ParserSettings#getFingerprint()}
+ * and {@see com.gs.ep.docknight.model.ModelCustomizations#getFingerprint()}), so that a source
+ * document which is submitted again is loaded instead of being parsed again. Least recently used
+ * entries are evicted once the size of the store exceeds the configured maximum, except the entry
+ * which is just stored. Hit, miss and eviction counts are tracked and reported to statsD to monitor
+ * the effectiveness of the cache.
+ */
+public class ParsedDocumentCache {
+
+  /**
+   * Version of the parsing and grouping logic, which is part of the key of the entries. It should be
+   * incremented by changes which alter the parsed documents, so that entries stored before such a
+   * change are not loaded.
+   */
+  public static final int MODEL_VERSION = 1;
+  protected static final Logger LOGGER = LoggerFactory.getLogger(ParsedDocumentCache.class);
+  private static final String ENTRY_SUFFIX = ".bin";
+  private final Path directory;
+  private final long maxSizeInBytes;
+  private final AtomicLong hitCount;
+  private final AtomicLong missCount;
+  private final AtomicLong evictionCount;
+
+  /**
+   * @param directory      directory in which the parsed documents are stored. It is created if it
+   *                       does not exist
+   * @param maxSizeInBytes maximum total size of the stored documents
+   */
+  public ParsedDocumentCache(Path directory, long maxSizeInBytes) throws IOException {
+    this.directory = Files.createDirectories(directory);
+    this.maxSizeInBytes = maxSizeInBytes;
+    this.hitCount = new AtomicLong();
+    this.missCount = new AtomicLong();
+    this.evictionCount = new AtomicLong();
+  }
+
+  /**
+   * @return key of the document whose source is {@code bytes} parsed with settings {@code
+   * settingsFingerprint} by the current {@link #MODEL_VERSION} and stored in the current {@link
+   * BinaryDocumentFormat#VERSION}
+   */
+  static String getKey(byte[] bytes, String settingsFingerprint) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      digest.update(bytes);
+      digest.update((byte) 0);
+      digest.update(settingsFingerprint.getBytes(StandardCharsets.UTF_8));
+      digest.update(ByteBuffer.allocate(8).putInt(MODEL_VERSION)
+          .putInt(BinaryDocumentFormat.VERSION).array());
+      return DatatypeConverter.printHexBinary(digest.digest());
+    } catch (NoSuchAlgorithmException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Return the document parsed from {@code input}, loading it from the store if the same source was
+   * parsed before with the same settings, and otherwise parsing it with {@code parser} and storing
+   * the result.
+   *
+   * @param input               source document
+   * @param settingsFingerprint fingerprint of the settings used by {@code parser}
+   * @param parser              function to parse the source document on cache miss
+   * @return parsed document
+   */
+  public Document get(InputStream input, String settingsFingerprint, DocumentParser parser)
+      throws Exception {
+    byte[] bytes = IOUtils.toByteArray(input);
+    Path entry = this.directory.resolve(getKey(bytes, settingsFingerprint) + ENTRY_SUFFIX);
+    Document document = this.read(entry);
+    if (document != null) {
+      this.hitCount.incrementAndGet();
+      StatsDClientWrapper.increment("parsed_document_cache_hits_total", 1);
+      return document;
+    }
+    this.missCount.incrementAndGet();
+    StatsDClientWrapper.increment("parsed_document_cache_misses_total", 1);
+    document = parser.parse(new ByteArrayInputStream(bytes));
+    this.write(entry, document);
+    return document;
+  }
+
+  private Document read(Path entry) {
+    try {
+      byte[] bytes = Files.readAllBytes(entry);
+      Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+      return new BinaryDocumentParser().parse(bytes);
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("Discarding unreadable parsed document " + entry, e);
+      this.delete(entry);
+      return null;
+    }
+  }
+
+  private void write(Path entry, Document document) {
+    Path temporaryFile = null;
+    try {
+      temporaryFile = Files.createTempFile(this.directory, "document", ".tmp");
+      try (OutputStream outputStream = new BufferedOutputStream(
+          Files.newOutputStream(temporaryFile))) {
+        new BinaryDocumentRenderer().render(document, outputStream);
+      }
+      Files.move(temporaryFile, entry, StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("Unable to store parsed document " + entry, e);
+      if (temporaryFile != null) {
+        this.delete(temporaryFile);
+      }
+      return;
+    }
+    this.evict(entry);
+  }
+
+  /**
+   * Delete least recently used documents other than {@code latestEntry} till the size of the store
+   * is within the maximum size
+   */
+  private synchronized void evict(Path latestEntry) {
+    MutableList<Pair<Path, BasicFileAttributes>> entries = Lists.mutable.empty();
+    long size = 0;
+    try (DirectoryStream<Path> paths = Files.newDirectoryStream(this.directory, "*" + ENTRY_SUFFIX)) {
+      for (Path path : paths) {
+        try {
+          BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+          entries.add(Tuples.pair(path, attributes));
+          size += attributes.size();
+        } catch (NoSuchFileException e) {
+          // Entry is deleted concurrently
+        }
+      }
+    } catch (IOException e) {
+      LOGGER.warn("Unable to list parsed documents in " + this.directory, e);
+      return;
+    }
+    if (size <= this.maxSizeInBytes) {
+      return;
+    }
+    entries.sortThisBy(entry -> entry.getTwo().lastModifiedTime());
+    int evictedCount = 0;
+    for (Pair<Path, BasicFileAttributes> entry : entries) {
+      if (size <= this.maxSizeInBytes) {
+        break;
+      }
+      if (!entry.getOne().equals(latestEntry) && this.delete(entry.getOne())) {
+        size -= entry.getTwo().size();
+        evictedCount++;
+      }
+    }
+    if (evictedCount > 0) {
+      this.evictionCount.addAndGet(evictedCount);
+      StatsDClientWrapper.increment("parsed_document_cache_evictions_total", evictedCount);
+    }
+  }
+
+  private boolean delete(Path path) {
+    try {
+      return Files.deleteIfExists(path);
+    } catch (IOException e) {
+      LOGGER.warn("Unable to delete " + path, e);
+      return false;
+    }
+  }
+
+  public long getHitCount() {
+    return this.hitCount.get();
+  }
+
+  public long getMissCount() {
+    return this.missCount.get();
+  }
+
+  public long getEvictionCount() {
+    return this.evictionCount.get();
+  }
+
+  /**
+   * @return ratio of lookups which were served from the cache
+   */
+  public double getHitRate() {
+    long hits = this.hitCount.get();
+    long total = hits + this.missCount.get();
+    return total == 0 ? 0 : (double) hits / total;
+  }
+
+  /**
+   * Function to parse the source document on cache miss
+   */
+  @FunctionalInterface
+  public interface DocumentParser {
+
+    Document parse(InputStream input) throws Exception;
+  }
+}
@@ -43,6 +43,7 @@ import com.gs.ep.docknight.model.attribute.TextAlign;
 import com.gs.ep.docknight.model.attribute.Top;
 import com.gs.ep.docknight.model.attribute.Width;
 import com.gs.ep.docknight.model.converter.pdfparser.AdjustedPDPage;
+import com.gs.ep.docknight.model.converter.pdfparser.FontMetricsCache;
 import com.gs.ep.docknight.model.converter.pdfparser.PDFDocumentStripper;
 import com.gs.ep.docknight.model.converter.pdfparser.ParserSettings;
 import com.gs.ep.docknight.model.element.Document;
@@ -176,6 +177,11 @@ public class PdfParser implements Parser<InputStream> {
     return this;
   }
 
+  public PdfParser withHandWrittenTextDetectionDpi(float handWrittenTextDetectionDpi) {
+    this.settings.setHandWrittenTextDetectionDpi(handWrittenTextDetectionDpi);
+    return this;
+  }
+
   public PdfParser withSpacingFactor(double spacingFactor) {
     this.settings.setSpacingFactor(spacingFactor);
     return this;
@@ -232,6 +238,11 @@ public class PdfParser implements Parser<InputStream> {
     return this;
   }
 
+  public PdfParser withFontMetricsCache(FontMetricsCache fontMetricsCache) {
+    this.settings.setFontMetricsCache(fontMetricsCache);
+    return this;
+  }
+
   @Override
   public Document parse(InputStream input) throws Exception {
     Document document = null;
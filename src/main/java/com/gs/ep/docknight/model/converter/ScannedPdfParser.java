@@ -39,6 +39,8 @@ import com.gs.ep.docknight.model.element.Page;
 import com.gs.ep.docknight.model.element.TextElement;
 import com.gs.ep.docknight.util.ImageUtils;
 import com.gs.ep.docknight.util.StatsDClientWrapper;
+import com.gs.ep.docknight.util.TesseractPool;
+import com.gs.ep.docknight.util.TesseractPool.PooledTesseract;
 import com.gs.ep.docknight.util.abbyy.AbbyyAPI;
 import com.gs.ep.docknight.util.abbyy.AbbyyParams;
 import java.awt.Rectangle;
@@ -79,8 +81,12 @@ public class ScannedPdfParser implements Parser<InputStream> {
   private final int ocrResolution;
   private final double ocrFactor;
   private final OCREngine ocrEngine;
+  private final List<String> languages;
   private AbbyyAPI abbyyAPI;
-  private TessBaseAPI tesseractAPI;
+  private int renderingThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 4);
+  private int ocrThreads = Runtime.getRuntime().availableProcessors();
+  // Null till set explicitly, in which case it is derived from the number of OCR threads
+  private Integer maxPendingPageImages;
 
   /**
    * @param languages the languages should recognize in the given documents for parsing. For each
@@ -91,19 +97,66 @@ public class ScannedPdfParser implements Parser<InputStream> {
   public ScannedPdfParser(List<String> languages, int ocrResolution, OCREngine ocrEngine)
       throws Exception {
     if (ocrEngine == OCREngine.TESSERACT) {
-      this.tesseractAPI = ImageUtils.getTesseractAPI(languages, tesseract.PSM_AUTO_OSD);
+      // Initialize a tesseract instance upfront so that missing language models are reported here
+      TesseractPool.borrow(languages, tesseract.PSM_AUTO_OSD).close();
     } else {
       this.abbyyAPI = AbbyyAPI.getAPI();
     }
     this.ocrResolution = ocrResolution;
     this.ocrFactor = ocrResolution / 72.0; // 1 pt is 72 dpi
     this.ocrEngine = ocrEngine;
+    this.languages = languages;
   }
 
   public ScannedPdfParser(OCREngine ocrEngine) throws Exception {
     this(Lists.mutable.of("eng"), 300, ocrEngine);
   }
 
+  /**
+   * Set the number of threads which rasterize pages and which apply tesseract OCR on them. Each OCR
+   * thread uses its own tesseract instance from {@link TesseractPool}. Unless set by {@link
+   * #withMaxPendingPageImages(int)}, the maximum number of pages waiting for OCR is twice the
+   * number of OCR threads.
+   *
+   * @throws IllegalArgumentException if either number of threads is less than 1
+   */
+  public ScannedPdfParser withParallelism(int renderingThreads, int ocrThreads) {
+    checkAtLeastOne(renderingThreads, "Number of rendering threads");
+    checkAtLeastOne(ocrThreads, "Number of OCR threads");
+    this.renderingThreads = renderingThreads;
+    this.ocrThreads = ocrThreads;
+    return this;
+  }
+
+  /**
+   * Set the maximum number of rasterized pages waiting for OCR, which bounds the memory held by page
+   * images
+   *
+   * @throws IllegalArgumentException if {@code maxPendingPageImages} is less than 1
+   */
+  public ScannedPdfParser withMaxPendingPageImages(int maxPendingPageImages) {
+    checkAtLeastOne(maxPendingPageImages, "Maximum number of pending page images");
+    this.maxPendingPageImages = maxPendingPageImages;
+    return this;
+  }
+
+  private static void checkAtLeastOne(int value, String name) {
+    if (value < 1) {
+      throw new IllegalArgumentException(name + " must be at least 1, but is " + value);
+    }
+  }
+
+  private int getMaxPendingPageImages() {
+    return this.maxPendingPageImages == null ? 2 * this.ocrThreads : this.maxPendingPageImages;
+  }
+
+  /**
+   * @return string identifying the ocr configuration of this parser
+   */
+  public String getFingerprint() {
+    return this.ocrEngine + ":" + this.languages + ":" + this.ocrResolution;
+  }
+
   /**
    * Comparator to sort the words in left to right and then top to bottom reading order
    */
@@ -179,21 +232,21 @@ public class ScannedPdfParser implements Parser<InputStream> {
   public Document parse(InputStream input, Document unDigitizedDocument) throws Exception {
     Document document = null;
     if (this.ocrEngine == OCREngine.TESSERACT) {
-      List<Element> pages = Lists.mutable.empty();
-      ImageUtils.processImagesFromPdfUsingPdfBox(input, this.ocrResolution, image ->
-      {
-        List<Element> pageElements = Lists.mutable.empty();
-        try {
-          pageElements.addAll(this.findTextElements(image));
-        } catch (IOException e) {
-          throw new RuntimeException(e);
-        }
-        Page newPage = new Page()
-            .add(new Height(new Length(image.getHeight() / this.ocrFactor, Unit.pt)))
-            .add(new Width(new Length(image.getWidth() / this.ocrFactor, Unit.pt)))
-            .add(new PositionalContent(new PositionalElementList<>(pageElements)));
-        pages.add(newPage);
-      });
+      List<Element> pages = ImageUtils
+          .processImagesFromPdfUsingPdfBox(input, this.ocrResolution, this.renderingThreads,
+              this.ocrThreads, this.getMaxPendingPageImages(), image ->
+              {
+                List<Element> pageElements = Lists.mutable.empty();
+                try {
+                  pageElements.addAll(this.findTextElements(image));
+                } catch (IOException e) {
+                  throw new RuntimeException(e);
+                }
+                return new Page()
+                    .add(new Height(new Length(image.getHeight() / this.ocrFactor, Unit.pt)))
+                    .add(new Width(new Length(image.getWidth() / this.ocrFactor, Unit.pt)))
+                    .add(new PositionalContent(new PositionalElementList<>(pageElements)));
+              });
       StatsDClientWrapper.increment("tesseract_processed_pages_total", pages.size());
       document = new Document()
           .add(new PageStructure(PageStructure.FLOW_PAGE_BREAK))
@@ -235,28 +288,32 @@ public class ScannedPdfParser implements Parser<InputStream> {
    */
   private List<Element> findTextElements(BufferedImage image) throws IOException {
     PIX pixImage = ImageUtils.toPIXImage(image);
-    this.tesseractAPI.SetImage(pixImage);
-    this.tesseractAPI.Recognize(new ETEXT_DESC());
-    ResultIterator resultIterator = this.tesseractAPI.GetIterator();
-    boolean hasText = resultIterator != null;
     List<WordInfo> words = Lists.mutable.empty();
-
-    while (hasText) {
-      WordInfo wordInfo = new WordInfo();
-      populateWordInfo(resultIterator, wordInfo);
-
-      if (wordInfo.getWord() != null && !wordInfo.getWord().trim().isEmpty()) {
-        words.add(wordInfo);
+    try (PooledTesseract pooledTesseract = TesseractPool
+        .borrow(this.languages, tesseract.PSM_AUTO_OSD)) {
+      TessBaseAPI tesseractAPI = pooledTesseract.getAPI();
+      tesseractAPI.SetImage(pixImage);
+      tesseractAPI.Recognize(new ETEXT_DESC());
+      ResultIterator resultIterator = tesseractAPI.GetIterator();
+      boolean hasText = resultIterator != null;
+
+      while (hasText) {
+        WordInfo wordInfo = new WordInfo();
+        populateWordInfo(resultIterator, wordInfo);
+
+        if (wordInfo.getWord() != null && !wordInfo.getWord().trim().isEmpty()) {
+          words.add(wordInfo);
+        }
+        hasText = resultIterator.Next(
+            tesseract.RIL_WORD); // lgtm resultIterator cannot be null, as previous loop does a check
       }
-      hasText = resultIterator.Next(
-          tesseract.RIL_WORD); // lgtm resultIterator cannot be null, as previous loop does a check
-    }
 
-    pixImage.deallocate();
-    if (resultIterator != null) {
-      resultIterator.deallocate();
+      if (resultIterator != null) {
+        resultIterator.deallocate();
+      }
+    } finally {
+      pixImage.deallocate();
     }
-    this.tesseractAPI.Clear();
 
     QuickSort.sort(words, this.getWordInfoComparator());
 
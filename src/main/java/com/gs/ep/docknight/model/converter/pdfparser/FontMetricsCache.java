@@ -0,0 +1,286 @@
+/*
+ *   Copyright 2020 Goldman Sachs.
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ */
+package com.gs.ep.docknight.model.converter.pdfparser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.xml.bind.DatatypeConverter;
+import org.apache.fontbox.cmap.CMap;
+import org.apache.pdfbox.cos.COSArray;
+import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSObject;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.cos.COSString;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.eclipse.collections.impl.factory.Lists;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Cache of font level metrics used while stripping text from pdf. Entries are keyed by a hash of
+ * the font dictionary including the embedded font program, so that fonts of documents coming from
+ * the same producer are analyzed only once. A process wide instance is available through {@link
+ * #getShared()}. Hit and miss counts are tracked to monitor the effectiveness of the cache.
+ */
+public class FontMetricsCache {
+
+  protected static final Logger LOGGER = LoggerFactory.getLogger(FontMetricsCache.class);
+  private static final int DEFAULT_MAX_SIZE = 1000;
+  private static final float DEFAULT_SPACE_WIDTH = 250;
+  private static final FontMetricsCache SHARED = new FontMetricsCache(DEFAULT_MAX_SIZE);
+  private static Field toUnicodeCMapField;
+  private final Map<String, FontMetrics> metricsByFingerprint;
+  private final AtomicLong hitCount;
+  private final AtomicLong missCount;
+
+  public FontMetricsCache(int maxSize) {
+    this.metricsByFingerprint = Collections
+        .synchronizedMap(new LinkedHashMap<String, FontMetrics>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, FontMetrics> eldest) {
+            return this.size() > maxSize;
+          }
+        });
+    this.hitCount = new AtomicLong();
+    this.missCount = new AtomicLong();
+  }
+
+  /**
+   * @return font metrics cache shared by all the parsers in the process
+   */
+  public static FontMetricsCache getShared() {
+    return SHARED;
+  }
+
+  private static synchronized Field getToUnicodeCMapField() {
+    if (toUnicodeCMapField == null) {
+      try {
+        toUnicodeCMapField = PDFont.class.getDeclaredField("toUnicodeCMap");
+      } catch (NoSuchFieldException e) {
+        throw new RuntimeException(e);
+      }
+      toUnicodeCMapField.setAccessible(true);
+    }
+    return toUnicodeCMapField;
+  }
+
+  private static CMap getToUnicodeCMap(PDFont font) {
+    try {
+      return (CMap) getToUnicodeCMapField().get(font);
+    } catch (IllegalAccessException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * @return width of space character as definer in pdfbox version 2.0
+   */
+  private static float getSpaceWidthAsPerPdfBoxV2_0_0(PDFont font) {
+    float fontWidthOfSpace = -1.0f;
+    CMap toUnicodeCMap = getToUnicodeCMap(font);
+    try {
+      if (toUnicodeCMap != null) {
+        int spaceMapping = toUnicodeCMap.getSpaceMapping();
+        if (spaceMapping > -1) {
+          fontWidthOfSpace = font.getWidth(spaceMapping);
+        }
+      } else {
+        fontWidthOfSpace = font.getWidth(32);
+      }
+    } catch (Exception e) {
+      LOGGER.error("Can't determine the width of the space character, assuming 250", e);
+      fontWidthOfSpace = DEFAULT_SPACE_WIDTH;
+    }
+    return fontWidthOfSpace;
+  }
+
+  /**
+   * @return hash of the font dictionary of {@code font}, including all the objects and streams
+   * (like embedded font program, widths and to unicode cmap) reachable from it.
+   */
+  static String getFingerprint(PDFont font) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      updateDigest(digest, font.getCOSObject(),
+          Collections.newSetFromMap(new IdentityHashMap<>()));
+      return DatatypeConverter.printHexBinary(digest.digest());
+    } catch (NoSuchAlgorithmException | IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static void updateDigest(MessageDigest digest, COSBase base, Set<COSBase> visited)
+      throws IOException {
+    if (base instanceof COSObject) {
+      base = ((COSObject) base).getObject();
+    }
+    if (base == null) {
+      digest.update((byte) 0);
+      return;
+    }
+    if (base instanceof COSDictionary || base instanceof COSArray) {
+      if (!visited.add(base)) {
+        digest.update((byte) 1);
+        return;
+      }
+    }
+    if (base instanceof COSStream) {
+      try (InputStream rawStream = ((COSStream) base).createRawInputStream()) {
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = rawStream.read(buffer)) != -1) {
+          digest.update(buffer, 0, read);
+        }
+      }
+    }
+    if (base instanceof COSDictionary) {
+      COSDictionary dictionary = (COSDictionary) base;
+      List<COSName> keys = Lists.mutable.ofAll(dictionary.keySet()).sortThis();
+      digest.update((byte) '<');
+      for (COSName key : keys) {
+        digest.update(key.getName().getBytes(StandardCharsets.UTF_8));
+        updateDigest(digest, dictionary.getItem(key), visited);
+      }
+      digest.update((byte) '>');
+    } else if (base instanceof COSArray) {
+      digest.update((byte) '[');
+      for (COSBase item : (COSArray) base) {
+        updateDigest(digest, item, visited);
+      }
+      digest.update((byte) ']');
+    } else if (base instanceof COSString) {
+      digest.update(((COSString) base).getBytes());
+    } else {
+      digest.update(base.toString().getBytes(StandardCharsets.UTF_8));
+    }
+  }
+
+  /**
+   * @return metrics of {@code font}, computing them if they are not present in cache
+   */
+  FontMetrics get(PDFont font) {
+    String fingerprint = getFingerprint(font);
+    FontMetrics fontMetrics = this.metricsByFingerprint.get(fingerprint);
+    if (fontMetrics == null) {
+      this.missCount.incrementAndGet();
+      fontMetrics = new FontMetrics(font);
+      this.metricsByFingerprint.put(fingerprint, fontMetrics);
+    } else {
+      this.hitCount.incrementAndGet();
+    }
+    return fontMetrics;
+  }
+
+  public long getHitCount() {
+    return this.hitCount.get();
+  }
+
+  public long getMissCount() {
+    return this.missCount.get();
+  }
+
+  /**
+   * @return ratio of lookups which were served from the cache
+   */
+  public double getHitRate() {
+    long hits = this.hitCount.get();
+    long total = hits + this.missCount.get();
+    return total == 0 ? 0 : (double) hits / total;
+  }
+
+  public int size() {
+    return this.metricsByFingerprint.size();
+  }
+
+  public void clear() {
+    this.metricsByFingerprint.clear();
+  }
+
+  /**
+   * Class representing metrics of a font which do not depend on the size at which font is used
+   */
+  static final class FontMetrics {
+
+    final float widthOfSpacePerFontSize;
+    final StandardizedFont standardizedFont;
+    private final ConcurrentMap<CharacterCodes, String> ligatures;
+
+    private FontMetrics(PDFont font) {
+      float widthOfSpacePerFontSize =
+          font instanceof PDType0Font ? getSpaceWidthAsPerPdfBoxV2_0_0(font) : font.getSpaceWidth();
+      this.widthOfSpacePerFontSize =
+          widthOfSpacePerFontSize > 0 ? widthOfSpacePerFontSize : DEFAULT_SPACE_WIDTH;
+      this.standardizedFont = new StandardizedFont(font);
+      this.ligatures = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @return ligature previously resolved for the character codes {@code codes} of this font
+     */
+    String getLigature(int[] codes) {
+      return this.ligatures.get(new CharacterCodes(codes));
+    }
+
+    void putLigature(int[] codes, String ligature) {
+      this.ligatures.put(new CharacterCodes(codes), ligature);
+    }
+  }
+
+  /**
+   * Class representing character codes of a glyph, usable as a hash key
+   */
+  private static final class CharacterCodes {
+
+    private final int[] codes;
+
+    private CharacterCodes(int[] codes) {
+      this.codes = codes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || this.getClass() != o.getClass()) {
+        return false;
+      }
+      return Arrays.equals(this.codes, ((CharacterCodes) o).codes);
+    }
+
+    @Override
+    public int hashCode() {
+      return Arrays.hashCode(this.codes);
+    }
+  }
+}
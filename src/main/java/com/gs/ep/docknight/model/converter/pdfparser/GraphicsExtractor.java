@@ -18,12 +18,15 @@ package com.gs.ep.docknight.model.converter.pdfparser;
 
 import org.eclipse.collections.api.list.MutableList;
 import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.api.set.ImmutableSet;
 import org.eclipse.collections.api.tuple.Pair;
 import org.eclipse.collections.impl.factory.Lists;
 import org.eclipse.collections.impl.factory.Maps;
+import org.eclipse.collections.impl.factory.Sets;
 import org.eclipse.collections.impl.tuple.Tuples;
 import com.gs.ep.docknight.model.ComparableBufferedImage;
 import com.gs.ep.docknight.model.Element;
+import com.gs.ep.docknight.model.EncodedImage;
 import com.gs.ep.docknight.model.Form;
 import com.gs.ep.docknight.model.Length;
 import com.gs.ep.docknight.model.Length.Unit;
@@ -41,6 +44,8 @@ import com.gs.ep.docknight.model.element.Image;
 import com.gs.ep.docknight.model.element.VerticalLine;
 import com.gs.ep.docknight.util.ImageUtils;
 import com.gs.ep.docknight.util.LRUCache;
+import com.gs.ep.docknight.util.TesseractPool;
+import com.gs.ep.docknight.util.TesseractPool.PooledTesseract;
 import java.awt.Rectangle;
 import java.awt.geom.AffineTransform;
 import java.awt.geom.Area;
@@ -51,12 +56,18 @@ import java.awt.geom.Point2D;
 import java.awt.geom.Rectangle2D;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import org.apache.commons.io.IOUtils;
 import org.apache.pdfbox.contentstream.PDFGraphicsStreamEngine;
 import org.apache.pdfbox.contentstream.operator.Operator;
+import org.apache.pdfbox.cos.COSArray;
 import org.apache.pdfbox.cos.COSBase;
 import org.apache.pdfbox.cos.COSName;
-import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.cos.COSStream;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.graphics.PDXObject;
@@ -66,10 +77,10 @@ import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImage;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
 import org.apache.pdfbox.pdmodel.graphics.state.PDGraphicsState;
-import org.apache.pdfbox.rendering.PDFRenderer;
 import org.apache.pdfbox.util.Matrix;
 import org.apache.pdfbox.util.QuickSort;
 import org.bytedeco.javacpp.BytePointer;
+import org.bytedeco.javacpp.lept.PIX;
 import org.bytedeco.javacpp.tesseract;
 import org.bytedeco.javacpp.tesseract.ETEXT_DESC;
 import org.bytedeco.javacpp.tesseract.TessBaseAPI;
@@ -87,16 +98,24 @@ class GraphicsExtractor extends PDFGraphicsStreamEngine {
   static final int TRANSPARENT_COLOR = -1;
   static final int BLACK = 0;
   private static final double DISTINCT_EPSILON = 0.01;
+  private static final ImmutableSet<COSName> PASS_THROUGH_FILTERS = Sets.immutable
+      .of(COSName.DCT_DECODE, COSName.JPX_DECODE, COSName.JBIG2_DECODE);
+  private static final ImmutableSet<COSName> DEVICE_COLOR_SPACES = Sets.immutable
+      .of(COSName.DEVICEGRAY, COSName.DEVICERGB, COSName.DEVICECMYK);
   private static final double THRESHOLD = 5;
   private static final double MAX_THRESHOLD_FOR_FORM_IMAGE = 30;
   // 允许最多占页面 60% 的图片被提取（支持较大的图表/流程图）
   private static final double MAX_IMAGE_BY_PAGE_AREA_RATIO = 0.60;
   private static final double SCANNED_PAGE_IMAGE_BY_PAGE_AREA_RATIO = 0.9;
+  // Beyond this ratio of image regions to page area, the whole page is rasterized at once
+  private static final double MAX_RASTERIZED_REGIONS_BY_PAGE_AREA_RATIO = 0.5;
+  // Margin (in points) around image regions, to keep hand writing spilling over an image uncut
+  private static final double RASTERIZED_REGION_PADDING = 18;
   private static final double MIN_SLOPE_VERTICAL_LINE = 5.67;  // tan(80 degree)
   private static final double MAX_SLOPE_HORIZONTAL_LINE = 0.18;  // tan(10 degree)
   private static final PDColor WHITE_PDCOLOR = new PDColor(new float[]{1}, PDDeviceGray.INSTANCE);
   private static final LRUCache<Pair<PDColor, Integer>> RGB_CACHE = new LRUCache<>(4);
-  private final PDDocument document;
+  private final PageRasterizer pageRasterizer;
   private final int pageNo;
   private final ParserSettings settings;
   private final GeneralPath linePath;
@@ -109,21 +128,26 @@ class GraphicsExtractor extends PDFGraphicsStreamEngine {
   private final double pageWidth;
   private final AdjustedPDPage adjustedPage;
   private final List<ColoredArea> coloredAreas;
-  private final List<Rectangle> handWrittenAreas;
+  private Future<List<Rectangle>> handWrittenAreas;
   private final MutableList<Area> textClippers;
   private final MutableList<ImageString> imageStrings;
-  private MutableMap<ComparableBufferedImage, ImageString> imageStringMap;
-  private TessBaseAPI tesseractAPI;
+  private final MutableMap<ComparableBufferedImage, ImageString> imageStringMap;
+  private final MutableMap<ComparableBufferedImage, Form> formImageMap;
+  private boolean isTesseractUnavailable;
   private int textOperationIndex;
   private int clipWindingRule = -1;
   private ExtractedLines extractedLines;
   private double totalImageArea;
   private final MutableList<FormXObjectInfo> largeFormXObjects;
 
-  GraphicsExtractor(PDPage page, PDDocument document, int pageNo, int textRotation,
-      ParserSettings settings) {
+  /**
+   * @param imageStringMap cache of characters detected in images. It is shared across all the
+   * pages of the document, so that a glyph image is recognized only once per document.
+   */
+  GraphicsExtractor(PDPage page, PageRasterizer pageRasterizer, int pageNo, int textRotation,
+      ParserSettings settings, MutableMap<ComparableBufferedImage, ImageString> imageStringMap) {
     super(page);
-    this.document = document;
+    this.pageRasterizer = pageRasterizer;
     this.pageNo = pageNo;
     this.settings = settings;
     this.extractedLinesList = Lists.mutable.empty();
@@ -138,8 +162,9 @@ class GraphicsExtractor extends PDFGraphicsStreamEngine {
     this.coloredAreas = Lists.mutable.empty();
     this.textClippers = Lists.mutable.of(new Area(this.pageRectangle));
     this.imageStrings = Lists.mutable.empty();
-    this.handWrittenAreas = Lists.mutable.empty();
     this.largeFormXObjects = Lists.mutable.empty();
+    this.formImageMap = Maps.mutable.empty();
+    this.imageStringMap = imageStringMap;
   }
 
   /**
@@ -303,13 +328,55 @@ class GraphicsExtractor extends PDFGraphicsStreamEngine {
         || this.totalImageArea / this.pageArea >= SCANNED_PAGE_IMAGE_BY_PAGE_AREA_RATIO)
         && this.settings.isHandWrittenTextDetection()) {
       LOGGER.debug("Converting page to image for pageNo " + this.pageNo);
-      BufferedImage image = new PDFRenderer(this.document).renderImage(this.pageNo);
-      this.handWrittenAreas.addAll(ImageUtils.findHandWrittenAreas(image));
+      this.handWrittenAreas = this.pageRasterizer
+          .detectHandWrittenAreas(this.pageNo, this.getRegionsToRasterize(),
+              this.settings.getHandWrittenTextDetectionDpi());
     }
     page.setCropBox(cropBox);
     page.setMediaBox(mediaBox);
   }
 
+  /**
+   * @return regions of the page which contain images and need to be rasterized for hand written
+   * text detection, or null if the whole page needs to be rasterized
+   */
+  private List<Rectangle2D> getRegionsToRasterize() {
+    if (this.totalImageArea / this.pageArea >= SCANNED_PAGE_IMAGE_BY_PAGE_AREA_RATIO) {
+      return null;
+    }
+    List<Rectangle2D> regions = Lists.mutable.empty();
+    for (Image image : this.images) {
+      Rectangle2D region = new Rectangle2D.Double(
+          image.getAttribute(Left.class).getMagnitude() - RASTERIZED_REGION_PADDING,
+          image.getAttribute(Top.class).getMagnitude() - RASTERIZED_REGION_PADDING,
+          image.getAttribute(Width.class).getMagnitude() + 2 * RASTERIZED_REGION_PADDING,
+          image.getAttribute(Height.class).getMagnitude() + 2 * RASTERIZED_REGION_PADDING)
+          .createIntersection(this.pageRectangle);
+      if (region.isEmpty()) {
+        continue;
+      }
+      // Overlapping regions are rasterized together, so that areas within both are found once
+      boolean merged;
+      do {
+        merged = false;
+        for (Iterator<Rectangle2D> iterator = regions.iterator(); iterator.hasNext(); ) {
+          Rectangle2D otherRegion = iterator.next();
+          if (otherRegion.intersects(region)) {
+            region = region.createUnion(otherRegion);
+            iterator.remove();
+            merged = true;
+          }
+        }
+      } while (merged);
+      regions.add(region);
+    }
+    double regionsArea = 0;
+    for (Rectangle2D region : regions) {
+      regionsArea += region.getWidth() * region.getHeight();
+    }
+    return regionsArea / this.pageArea > MAX_RASTERIZED_REGIONS_BY_PAGE_AREA_RATIO ? null : regions;
+  }
+
   @Override
   public Point2D.Float transformedPoint(float x, float y) {
     Point2D.Float transformedPoint = super.transformedPoint(x, y);
@@ -436,8 +503,23 @@ class GraphicsExtractor extends PDFGraphicsStreamEngine {
     return this.coloredAreas;
   }
 
+  /**
+   * @return hand written areas of the page. This waits for the hand written text detection of the
+   * page to complete.
+   */
   public List<Rectangle> getHandWrittenAreas() {
-    return this.handWrittenAreas;
+    if (this.handWrittenAreas == null) {
+      return Lists.mutable.empty();
+    }
+    try {
+      return this.handWrittenAreas.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException(e);
+    } catch (ExecutionException e) {
+      throw new RuntimeException("Hand written text detection failed for pageNo " + this.pageNo,
+          e.getCause());
+    }
   }
 
   public List<Area> getTextClippers() {
@@ -522,14 +604,15 @@ class GraphicsExtractor extends PDFGraphicsStreamEngine {
 
     if (imageArea / this.pageArea <= MAX_IMAGE_BY_PAGE_AREA_RATIO && imageHeight >= THRESHOLD
         && imageWidth >= THRESHOLD) {
-      ComparableBufferedImage imageData = new ComparableBufferedImage(pdImage.getImage());
+      ComparableBufferedImage imageData = new ComparableBufferedImage(pdImage.getImage(),
+          getEncodedImage(pdImage));
       Image image = this
           .setRectangularElementAttributes(new Image(), imageXY, imageWidth, imageHeight)
           .add(new ImageData(imageData));
 
       if (this.settings.isImageBasedFormDetection() && imageHeight <= MAX_THRESHOLD_FOR_FORM_IMAGE
           && imageWidth <= MAX_THRESHOLD_FOR_FORM_IMAGE) {
-        Form form = ImageUtils.parseAsForm(imageData.getBufferedImage());
+        Form form = this.parseAsForm(imageData);
         if (form != null) {
           image.add(new AlternateRepresentations(Lists.mutable.of(
               this.setRectangularElementAttributes(new FormElement(), imageXY, imageWidth,
@@ -573,6 +656,41 @@ class GraphicsExtractor extends PDFGraphicsStreamEngine {
     }
   }
 
+  /**
+   * @return encoded stream of {@code pdImage} if renderers can copy it as it is, i.e. if it is a
+   * DCT, JPX or JBIG2 stream without decode parameters, masks or decode arrays and in a device color
+   * space. Otherwise return null.
+   */
+  private static EncodedImage getEncodedImage(PDImage pdImage) {
+    if (!(pdImage instanceof PDImageXObject) || pdImage.isStencil()) {
+      return null;
+    }
+    COSStream stream = ((PDImageXObject) pdImage).getCOSObject();
+    COSBase filter = stream.getDictionaryObject(COSName.FILTER);
+    if (filter instanceof COSArray && ((COSArray) filter).size() == 1) {
+      filter = ((COSArray) filter).getObject(0);
+    }
+    if (!PASS_THROUGH_FILTERS.contains(filter) || stream.containsKey(COSName.DECODE_PARMS)
+        || stream.containsKey(COSName.DP) || stream.containsKey(COSName.SMASK)
+        || stream.containsKey(COSName.MASK) || stream.containsKey(COSName.DECODE)) {
+      return null;
+    }
+    COSBase colorSpace = stream.getDictionaryObject(COSName.COLORSPACE, COSName.CS);
+    if (colorSpace == null ? filter != COSName.JPX_DECODE
+        : !DEVICE_COLOR_SPACES.contains(colorSpace)) {
+      return null;
+    }
+    try (InputStream rawStream = stream.createRawInputStream()) {
+      return new EncodedImage(IOUtils.toByteArray(rawStream), ((COSName) filter).getName(),
+          pdImage.getWidth(), pdImage.getHeight(),
+          stream.getInt(COSName.BITS_PER_COMPONENT, COSName.BPC, 0),
+          colorSpace == null ? null : ((COSName) colorSpace).getName());
+    } catch (IOException e) {
+      LOGGER.warn("Error encountered while reading encoded image stream", e);
+      return null;
+    }
+  }
+
   /**
    * Add attributes Top, Left, Height and Width to the {@code element}
    */
@@ -586,33 +704,31 @@ class GraphicsExtractor extends PDFGraphicsStreamEngine {
     return element;
   }
 
+  /**
+   * @return Form object parsed from {@code image}. Forms are cached by image content, since the
+   * same checkbox or radio button image is usually drawn many times on a page.
+   */
+  private Form parseAsForm(ComparableBufferedImage image) {
+    if (this.formImageMap.containsKey(image)) {
+      return this.formImageMap.get(image);
+    }
+    Form form = ImageUtils.parseAsForm(image.getBufferedImage());
+    this.formImageMap.put(image, form);
+    return form;
+  }
+
   /**
    * @return text from {@code image} using tesseract and if that failed, try to extract using
    * heuristics else return null
    */
   private ImageString detectCharInImage(ComparableBufferedImage image) throws IOException {
-    if (this.imageStringMap == null) {
-      this.imageStringMap = Maps.mutable.empty();
-      try {
-        this.tesseractAPI = ImageUtils
-            .getTesseractAPI(Lists.mutable.of("eng"), tesseract.PSM_SINGLE_CHAR);
-      } catch (Exception ignored) {
-      }
-    }
     ImageString imageString = this.imageStringMap.get(image);
     if (imageString == null) {
       Rectangle visibleImageArea = ImageUtils.extractVisibleAreaFromImage(image.getBufferedImage());
       if (visibleImageArea == null) {
         return null;
       }
-      String text = "";
-      if (this.tesseractAPI != null) {
-        this.tesseractAPI.SetImage(ImageUtils.toPIXImage(image.getBufferedImage()));
-        this.tesseractAPI.Recognize(new ETEXT_DESC());
-        BytePointer textPointer = this.tesseractAPI.GetUTF8Text();
-        text = textPointer.getString().trim();
-        textPointer.deallocate();
-      }
+      String text = this.recognizeChar(image.getBufferedImage());
       if (text.isEmpty()) {
         // if tesseract fails, try heuristic based on char's bounding rectangle
         double widthHeightRatio = (double) visibleImageArea.width / visibleImageArea.height;
@@ -625,6 +741,34 @@ class GraphicsExtractor extends PDFGraphicsStreamEngine {
     return imageString;
   }
 
+  /**
+   * @return character recognized from {@code image} using a pooled tesseract instance, or empty
+   * string if tesseract is not available
+   */
+  private String recognizeChar(BufferedImage image) throws IOException {
+    if (this.isTesseractUnavailable) {
+      return "";
+    }
+    PooledTesseract pooledTesseract;
+    try {
+      pooledTesseract = TesseractPool.borrow(Lists.mutable.of("eng"), tesseract.PSM_SINGLE_CHAR);
+    } catch (RuntimeException | UnsatisfiedLinkError e) {
+      this.isTesseractUnavailable = true;
+      return "";
+    }
+    try (PooledTesseract borrowedTesseract = pooledTesseract) {
+      TessBaseAPI tesseractAPI = borrowedTesseract.getAPI();
+      PIX pixImage = ImageUtils.toPIXImage(image);
+      tesseractAPI.SetImage(pixImage);
+      tesseractAPI.Recognize(new ETEXT_DESC());
+      BytePointer textPointer = tesseractAPI.GetUTF8Text();
+      String text = textPointer.getString().trim();
+      textPointer.deallocate();
+      pixImage.deallocate();
+      return text;
+    }
+  }
+
   @Override
   public void clip(int windingRule) {
     this.clipWindingRule = windingRule;
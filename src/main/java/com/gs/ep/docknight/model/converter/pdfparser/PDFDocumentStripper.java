@@ -20,6 +20,7 @@ import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.eclipse.collections.api.block.function.Function;
 import org.eclipse.collections.api.list.MutableList;
 import org.eclipse.collections.api.map.MutableMap;
+import org.eclipse.collections.api.map.primitive.MutableFloatObjectMap;
 import org.eclipse.collections.api.map.sorted.MutableSortedMap;
 import org.eclipse.collections.api.multimap.list.MutableListMultimap;
 import org.eclipse.collections.api.set.MutableSet;
@@ -31,7 +32,7 @@ import org.eclipse.collections.impl.factory.Sets;
 import org.eclipse.collections.impl.factory.SortedMaps;
 import org.eclipse.collections.impl.list.fixed.ArrayAdapter;
 import org.eclipse.collections.impl.list.mutable.ListAdapter;
-import org.eclipse.collections.impl.map.mutable.UnifiedMap;
+import org.eclipse.collections.impl.map.mutable.primitive.FloatObjectHashMap;
 import org.eclipse.collections.impl.tuple.Tuples;
 import org.eclipse.collections.impl.utility.ListIterate;
 import com.gs.ep.docknight.model.Element;
@@ -56,6 +57,7 @@ import com.gs.ep.docknight.model.attribute.TextStyles;
 import com.gs.ep.docknight.model.attribute.Top;
 import com.gs.ep.docknight.model.attribute.Width;
 import com.gs.ep.docknight.model.converter.PdfParser.UnDigitizedPdfException;
+import com.gs.ep.docknight.model.converter.pdfparser.FontMetricsCache.FontMetrics;
 import com.gs.ep.docknight.model.converter.pdfparser.GraphicsExtractor.ColoredArea;
 import com.gs.ep.docknight.model.element.Document;
 import com.gs.ep.docknight.model.element.FormElement;
@@ -65,7 +67,6 @@ import com.gs.ep.docknight.model.element.TextElement;
 import com.gs.ep.docknight.model.element.VerticalLine;
 import com.gs.ep.docknight.util.EnglishDictionary;
 import com.gs.ep.docknight.util.ImageUtils;
-import com.gs.ep.docknight.util.LRUCache;
 import com.gs.ep.docknight.util.SemanticsChecker;
 import java.awt.Rectangle;
 import java.awt.geom.Area;
@@ -74,14 +75,11 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.Field;
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang.StringUtils;
-import org.apache.fontbox.cmap.CMap;
-import org.apache.fontbox.ttf.TrueTypeFont;
 import org.apache.pdfbox.contentstream.operator.Operator;
 import org.apache.pdfbox.contentstream.operator.color.SetNonStrokingColor;
 import org.apache.pdfbox.contentstream.operator.color.SetNonStrokingColorN;
@@ -96,20 +94,15 @@ import org.apache.pdfbox.contentstream.operator.color.SetStrokingDeviceCMYKColor
 import org.apache.pdfbox.contentstream.operator.color.SetStrokingDeviceGrayColor;
 import org.apache.pdfbox.contentstream.operator.color.SetStrokingDeviceRGBColor;
 import org.apache.pdfbox.cos.COSBase;
+import org.apache.pdfbox.cos.COSDictionary;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
-import org.apache.pdfbox.rendering.PDFRenderer;
 import java.awt.image.BufferedImage;
 import com.gs.ep.docknight.model.ComparableBufferedImage;
 import com.gs.ep.docknight.model.attribute.ImageData;
 import com.gs.ep.docknight.model.element.Image;
-import org.apache.pdfbox.pdmodel.font.PDCIDFont;
-import org.apache.pdfbox.pdmodel.font.PDCIDFontType2;
 import org.apache.pdfbox.pdmodel.font.PDFont;
-import org.apache.pdfbox.pdmodel.font.PDFontDescriptor;
 import org.apache.pdfbox.pdmodel.font.PDSimpleFont;
-import org.apache.pdfbox.pdmodel.font.PDType0Font;
-import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.font.encoding.GlyphList;
 import org.apache.pdfbox.pdmodel.graphics.state.PDGraphicsState;
 import org.apache.pdfbox.pdmodel.graphics.state.RenderingMode;
@@ -140,7 +133,6 @@ public class PDFDocumentStripper extends PDFTextStripper {
   private static final float HEIGHT_TO_FONT_RATIO = 1.25f;
   private static final double MAX_ABS_LETTER_SPACING = 0.1;
   private static final double MAX_ALLOWED_DEVIATION_IN_EXPECTED_WIDTH = 5;
-  private static final int FONT_CACHE_SIZE = 5;
   private static final double ALLOWED_SPACE_COMPRESSION_FACTOR = .325;
   private static final int MAX_UNRECOGNIZED_UNICODE_COUNT = 500;
   private static final float UNDERLINE_DISTANCE_FACTOR = 0.4f;
@@ -148,9 +140,10 @@ public class PDFDocumentStripper extends PDFTextStripper {
   private final ParserSettings settings;
   private final double spacingFactor;
   private final MutableListMultimap<Integer, FormElement> formElementsByPage;
-  private final LRUCache<FontInfo> fontCache;
   private final GlyphList glyphList;
-  private final MutableMap<NullLigatureKey, String> ligatureCache;
+  private final MutableMap<COSDictionary, FontMetrics> fontMetricsByFont;
+  private final MutableMap<COSDictionary, MutableFloatObjectMap<FontInfo>> fontInfosByFont;
+  private MutableMap<ComparableBufferedImage, ImageString> imageStringCache;
   private MutableList<Element> textElements;
   private MutableList<Element> images;
   private List<ImageString> imageStrings;
@@ -160,6 +153,8 @@ public class PDFDocumentStripper extends PDFTextStripper {
   private List<Element> pages;
   private Document document;
   private PDDocument pdDocument;
+  private PageRasterizer pageRasterizer;
+  private GraphicsExtractor graphicsExtractor;
   private List<Integer> pageNosToOcr;
   private int numOfPagesWithImagesOnly;
   private int numOfPagesWithBadGlyphs;
@@ -201,8 +196,8 @@ public class PDFDocumentStripper extends PDFTextStripper {
     this.settings = settings;
     this.spacingFactor = spacingFactor;
     this.formElementsByPage = formElementsByPage;
-    this.fontCache = new LRUCache<>(FONT_CACHE_SIZE);
-    this.ligatureCache = Maps.mutable.empty();
+    this.fontMetricsByFont = Maps.mutable.empty();
+    this.fontInfosByFont = Maps.mutable.empty();
     this.isReportedSpaceWidthScaled = false;
 
     this.addOperator(new SetStrokingColorSpace());
@@ -273,43 +268,6 @@ public class PDFDocumentStripper extends PDFTextStripper {
     return originalTextBuilder.toString();
   }
 
-  private static CMap getToUnicodeCMap(PDFont font) {
-    Field toUnicodeCMap;
-    try {
-      toUnicodeCMap = PDFont.class.getDeclaredField("toUnicodeCMap");
-    } catch (NoSuchFieldException e) {
-      throw new RuntimeException(e);
-    }
-    toUnicodeCMap.setAccessible(true);
-    try {
-      return (CMap) toUnicodeCMap.get(font);
-    } catch (IllegalAccessException e) {
-      throw new RuntimeException(e);
-    }
-  }
-
-  /**
-   * @return width of space character as definer in pdfbox version 2.0
-   */
-  private static float getSpaceWidthAsPerPdfBoxV2_0_0(PDFont font) {
-    float fontWidthOfSpace = -1.0f;
-    CMap toUnicodeCMap = getToUnicodeCMap(font);
-    try {
-      if (toUnicodeCMap != null) {
-        int spaceMapping = toUnicodeCMap.getSpaceMapping();
-        if (spaceMapping > -1) {
-          fontWidthOfSpace = font.getWidth(spaceMapping);
-        }
-      } else {
-        fontWidthOfSpace = font.getWidth(32);
-      }
-    } catch (Exception e) {
-      LOGGER.error("Can't determine the width of the space character, assuming 250", e);
-      fontWidthOfSpace = 250f;
-    }
-    return fontWidthOfSpace;
-  }
-
   /**
    * Determine letter spacing (space between letters) and adjusted font size
    *
@@ -945,12 +903,13 @@ public class PDFDocumentStripper extends PDFTextStripper {
         String word = indexedWord.getString().toLowerCase();
         while ((nullIndex = word.indexOf("\0", nullIndex + 1)) >= 0
             && (nullPosIndex = positions.detectIndex(p -> p.getUnicode().equals("\0"))) >= 0) {
-          NullLigatureKey nullLigatureKey = new NullLigatureKey(positions.get(nullPosIndex));
-          String ligature = this.ligatureCache.get(nullLigatureKey);
+          TextPosition nullPosition = positions.get(nullPosIndex);
+          FontMetrics fontMetrics = this.getFontMetrics(nullPosition.getFont());
+          String ligature = fontMetrics.getLigature(nullPosition.getCharacterCodes());
           if (ligature == null) {
             ligature = EnglishDictionary.getLigaturizedDictionary().get(word);
             if (ligature != null) {
-              this.ligatureCache.put(nullLigatureKey, ligature);
+              fontMetrics.putLigature(nullPosition.getCharacterCodes(), ligature);
             }
           }
           if (ligature != null) {
@@ -1100,6 +1059,15 @@ public class PDFDocumentStripper extends PDFTextStripper {
     return normalizeHomoglyphs(text.toString());
   }
 
+  /**
+   * @return metrics of {@code font}. Fonts are looked up by identity within the document, and by
+   * fingerprint in the font metrics cache which can be shared across documents.
+   */
+  private FontMetrics getFontMetrics(PDFont font) {
+    return this.fontMetricsByFont.getIfAbsentPut(font.getCOSObject(),
+        () -> this.settings.getFontMetricsCache().get(font));
+  }
+
   /**
    * Construct font info object from the input {@code position}
    */
@@ -1107,14 +1075,14 @@ public class PDFDocumentStripper extends PDFTextStripper {
     PDFont font = position.getFont();
     float fontSizeStored = Math
         .abs(position.getFontSizeInPt()); // sometimes pdfbox gives negative values
-    FontInfo fontInfo = this.fontCache
-        .get(f -> f.font == font && f.storedFontSize == fontSizeStored);
+    MutableFloatObjectMap<FontInfo> fontInfoBySize = this.fontInfosByFont
+        .getIfAbsentPut(font.getCOSObject(), FloatObjectHashMap::new);
+    FontInfo fontInfo = fontInfoBySize.get(fontSizeStored);
 
     if (fontInfo == null) {
+      FontMetrics fontMetrics = this.getFontMetrics(font);
       float widthOfSpace = position.getWidthOfSpace();
-      float widthOfSpacePerFontSize = font instanceof PDType0Font ? getSpaceWidthAsPerPdfBoxV2_0_0(font)
-          : font.getSpaceWidth();
-      widthOfSpacePerFontSize = widthOfSpacePerFontSize > 0 ? widthOfSpacePerFontSize : 250;
+      float widthOfSpacePerFontSize = fontMetrics.widthOfSpacePerFontSize;
       float fontSize = fontSizeStored > 6 * widthOfSpace && widthOfSpace > 0 ? widthOfSpace * 1000
           / widthOfSpacePerFontSize : fontSizeStored; // font correction
       float fontSizeFromWidth;
@@ -1128,9 +1096,8 @@ public class PDFDocumentStripper extends PDFTextStripper {
       fontSize = fontSize > 0 ? fontSize : 11; // when everything fails
       widthOfSpace = widthOfSpacePerFontSize * fontSize / 1000;
 
-      fontInfo = new FontInfo(font, fontSizeStored, fontSize, widthOfSpace,
-          new StandardizedFont(font));
-      this.fontCache.add(fontInfo);
+      fontInfo = new FontInfo(fontSize, widthOfSpace, fontMetrics.standardizedFont);
+      fontInfoBySize.put(fontSizeStored, fontInfo);
     }
     return fontInfo;
   }
@@ -1159,8 +1126,9 @@ public class PDFDocumentStripper extends PDFTextStripper {
     this.lastSpacingSplitElementIndex = 0;
     this.lastSpacingSplitWordIndex = 0;
 
-    GraphicsExtractor graphicsExtractor = new GraphicsExtractor(page, this.pdDocument,
-        this.pages.size(), this.textRotation, this.settings);
+    GraphicsExtractor graphicsExtractor = new GraphicsExtractor(page, this.pageRasterizer,
+        this.pages.size(), this.textRotation, this.settings, this.imageStringCache);
+    this.graphicsExtractor = graphicsExtractor;
     graphicsExtractor.processPage(page);
     
     // 获取页面尺寸（此时this.pageWidth和this.pageHeight还是0，需要从graphicsExtractor获取）
@@ -1192,8 +1160,6 @@ public class PDFDocumentStripper extends PDFTextStripper {
     }
     
     this.layoutAreas = Lists.mutable.empty();
-    this.layoutAreas.addAll(ListIterate.collect(graphicsExtractor.getHandWrittenAreas(),
-        r -> Tuples.pair(r, PageLayout.HAND_WRITTEN)));
     this.coloredAreas = Lists.mutable.empty();
     this.textOperationIndex = 0;
     this.pageWidth = graphicsExtractor.getPageWidth();
@@ -1269,6 +1235,9 @@ public class PDFDocumentStripper extends PDFTextStripper {
 
     this.processPage();
 
+    // Hand written areas are detected in background while the text of the page is processed
+    this.layoutAreas.addAll(ListIterate.collect(this.graphicsExtractor.getHandWrittenAreas(),
+        r -> Tuples.pair(r, PageLayout.HAND_WRITTEN)));
 
     // Only consider as "image-only" page if there's no text, images, or other elements
     
@@ -1338,13 +1307,18 @@ public class PDFDocumentStripper extends PDFTextStripper {
   protected void startDocument(PDDocument document) throws IOException {
     this.pages = Lists.mutable.empty();
     this.pdDocument = document;
+    this.pageRasterizer = new PageRasterizer(document);
     this.document = null;
+    this.imageStringCache = Maps.mutable.empty();
     this.totalScannedness = 0;
     this.pageNosToOcr = this.settings.getPageNosToOcr();
   }
 
   @Override
   protected void endDocument(PDDocument document) throws IOException {
+    FontMetricsCache fontMetricsCache = this.settings.getFontMetricsCache();
+    LOGGER.debug("Font metrics cache size: {}, hit rate: {}", fontMetricsCache.size(),
+        fontMetricsCache.getHitRate());
     
     // 统计每页的图片数量
     for (int i = 0; i < this.pages.size(); i++) {
@@ -1426,46 +1400,6 @@ public class PDFDocumentStripper extends PDFTextStripper {
     }
   }
 
-  /**
-   * Class to represent key for null ligature. Ligature occurs where two or more
-   * letters are joined
-   * as a single glyph. Example:æ
-   */
-  private static final class NullLigatureKey {
-
-    private final int[] code;
-    private final PDFont font;
-
-    NullLigatureKey(TextPosition position) {
-      this.code = position.getCharacterCodes();
-      this.font = position.getFont();
-    }
-
-    @Override
-    public boolean equals(Object o) {
-      if (this == o) {
-        return true;
-      }
-      if (o == null || this.getClass() != o.getClass()) {
-        return false;
-      }
-
-      NullLigatureKey that = (NullLigatureKey) o;
-
-      if (!Arrays.equals(this.code, that.code)) {
-        return false;
-      }
-      return this.font == that.font;
-    }
-
-    @Override
-    public int hashCode() {
-      int result = Arrays.hashCode(this.code);
-      result = 31 * result + System.identityHashCode(this.font);
-      return result;
-    }
-  }
-
   /**
    * Class to represent position for white space character
    */
@@ -1508,93 +1442,17 @@ public class PDFDocumentStripper extends PDFTextStripper {
    */
   private static final class FontInfo {
 
-    private final PDFont font;
-    private final float storedFontSize; // Font size stored in pdfbox
     private final float fontSize; // Font size after correction
     private final float widthOfSpace;
     private final StandardizedFont standardizedFont;
 
-    FontInfo(PDFont font, float storedFontSize, float fontSize, float widthOfSpace,
-        StandardizedFont standardizedFont) {
-      this.font = font;
-      this.storedFontSize = storedFontSize;
+    FontInfo(float fontSize, float widthOfSpace, StandardizedFont standardizedFont) {
       this.fontSize = fontSize;
       this.widthOfSpace = widthOfSpace;
       this.standardizedFont = standardizedFont;
     }
   }
 
-  /**
-   * Class representing standardized font (font, font family, text styles)
-   */
-  private static final class StandardizedFont {
-
-    private static final MutableList<Pair<String, String>> PDF_FONT_TEXTSTYLES = Lists.mutable.of(
-        Tuples.pair("Bold", TextStyles.BOLD),
-        Tuples.pair("Italic", TextStyles.ITALIC),
-        Tuples.pair("Oblique", TextStyles.ITALIC));
-    private static final Map<String, PDFont> STANDARD_FONTS = UnifiedMap.newMapWith(
-        Tuples.pair(FontFamily.TIMES, PDType1Font.TIMES_ROMAN),
-        Tuples.pair(FontFamily.TIMES + TextStyles.BOLD, PDType1Font.TIMES_BOLD),
-        Tuples.pair(FontFamily.TIMES + TextStyles.ITALIC, PDType1Font.TIMES_ITALIC),
-        Tuples.pair(FontFamily.TIMES + TextStyles.BOLD + TextStyles.ITALIC,
-            PDType1Font.TIMES_BOLD_ITALIC),
-        Tuples.pair(FontFamily.HELVETICA, PDType1Font.HELVETICA),
-        Tuples.pair(FontFamily.HELVETICA + TextStyles.BOLD, PDType1Font.HELVETICA_BOLD),
-        Tuples.pair(FontFamily.HELVETICA + TextStyles.ITALIC, PDType1Font.HELVETICA_OBLIQUE),
-        Tuples.pair(FontFamily.HELVETICA + TextStyles.BOLD + TextStyles.ITALIC,
-            PDType1Font.HELVETICA_BOLD_OBLIQUE),
-        Tuples.pair(FontFamily.COURIER, PDType1Font.COURIER),
-        Tuples.pair(FontFamily.COURIER + TextStyles.BOLD, PDType1Font.COURIER_BOLD),
-        Tuples.pair(FontFamily.COURIER + TextStyles.ITALIC, PDType1Font.COURIER_OBLIQUE),
-        Tuples.pair(FontFamily.COURIER + TextStyles.BOLD + TextStyles.ITALIC,
-            PDType1Font.COURIER_BOLD_OBLIQUE));
-    private static final MutableList<String> STANDARD_FONT_FAMILY_NAMES = Lists.mutable
-        .of(FontFamily.TIMES, FontFamily.HELVETICA, FontFamily.COURIER);
-    private static final String DEFAULT_FONT_FAMILY = FontFamily.TIMES;
-    private final PDFont font;
-    private final String fontFamily;
-    private final MutableList<String> textStyles;
-
-    StandardizedFont(PDFont font) {
-      String pdfFontName = getPdfFontName(font);
-      this.textStyles = PDF_FONT_TEXTSTYLES
-          .collectIf(tsp -> pdfFontName.contains(tsp.getOne()), Pair::getTwo);
-      this.fontFamily = STANDARD_FONT_FAMILY_NAMES
-          .detectIfNone(n -> pdfFontName.contains(n), () -> DEFAULT_FONT_FAMILY);
-      this.font = STANDARD_FONTS.get(this.fontFamily + this.textStyles.makeString(""));
-    }
-
-    private static String getPdfFontName(PDFont font) {
-      String pdfFontName = makeNonNull(font.getName());
-      if (font instanceof PDType0Font) {
-        PDCIDFont descendantFont = ((PDType0Font) font).getDescendantFont();
-        if (descendantFont instanceof PDCIDFontType2) {
-          TrueTypeFont trueTypeFont = ((PDCIDFontType2) descendantFont).getTrueTypeFont();
-          if (trueTypeFont != null) {
-            try {
-              pdfFontName += "," + makeNonNull(trueTypeFont.getName());
-            } catch (IOException ignored) {
-            }
-          }
-        }
-      }
-      PDFontDescriptor fontDescriptor = font.getFontDescriptor();
-      if (fontDescriptor != null && (fontDescriptor.getFontWeight() >= 700 || fontDescriptor
-          .getFontName().toLowerCase().contains("bold"))) {
-        pdfFontName += ",Bold";
-      }
-      return pdfFontName;
-    }
-
-    /**
-     * @return string if it is not null else return empty string
-     */
-    private static String makeNonNull(String str) {
-      return str == null ? "" : str;
-    }
-  }
-
   /**
    * 裁剪结果，包含裁剪后的图片和偏移量
    */
@@ -1774,9 +1632,9 @@ public class PDFDocumentStripper extends PDFTextStripper {
       double pageWidth, double pageHeight) throws IOException {
     
     // 渲染整个页面
-    PDFRenderer renderer = new PDFRenderer(this.pdDocument);
-    float scale = 150f / 72f; // 150 DPI
-    BufferedImage fullPageImage = renderer.renderImage(pageIndex, scale);
+    float dpi = 150f;
+    float scale = dpi / 72f;
+    BufferedImage fullPageImage = this.pageRasterizer.renderPage(pageIndex, dpi);
     
     // 计算FormXObject在页面上的位置
     // 变换矩阵将FormXObject的BBox坐标转换到页面坐标
@@ -0,0 +1,130 @@
+/*
+ *   Copyright 2020 Goldman Sachs.
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ */
+
+package com.gs.ep.docknight.model.converter.pdfparser;
+
+import com.gs.ep.docknight.util.ImageUtils;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.tuple.Pair;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.tuple.Tuples;
+
+/**
+ * Class to rasterize pages, or regions of pages, of a pdf document. A single renderer is shared by
+ * all the pages of the document so that fonts and images decoded by the renderer are reused.
+ * Rendering is done on the calling thread since pdfbox documents are not thread safe; the image
+ * analysis performed on the rendered images runs on a shared worker pool.
+ */
+class PageRasterizer {
+
+  static final float DEFAULT_DPI = 72;
+  private static final double POINTS_PER_INCH = 72;
+  private static final ExecutorService IMAGE_ANALYSIS_EXECUTOR = Executors.newFixedThreadPool(
+      Math.max(1, Runtime.getRuntime().availableProcessors() / 2), runnable -> {
+        Thread thread = new Thread(runnable, "page-rasterizer-analysis");
+        thread.setDaemon(true);
+        return thread;
+      });
+  private final PDFRenderer renderer;
+
+  PageRasterizer(PDDocument document) {
+    this.renderer = new PDFRenderer(document);
+  }
+
+  /**
+   * @return image of the page with index {@code pageIndex} rendered at resolution {@code dpi}
+   */
+  BufferedImage renderPage(int pageIndex, float dpi) throws IOException {
+    return this.renderer.renderImageWithDPI(pageIndex, dpi);
+  }
+
+  /**
+   * @return image of the area {@code region} (in points, with origin at top left of the page) of
+   * the page with index {@code pageIndex} rendered at resolution {@code dpi}
+   */
+  BufferedImage renderRegion(int pageIndex, Rectangle2D region, float dpi) throws IOException {
+    double scale = dpi / POINTS_PER_INCH;
+    int width = Math.max(1, (int) Math.ceil(region.getWidth() * scale));
+    int height = Math.max(1, (int) Math.ceil(region.getHeight() * scale));
+    BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    Graphics2D graphics = image.createGraphics();
+    try {
+      graphics.setBackground(Color.WHITE);
+      graphics.clearRect(0, 0, width, height);
+      graphics.translate(-region.getX() * scale, -region.getY() * scale);
+      this.renderer.renderPageToGraphics(pageIndex, graphics, (float) scale);
+    } finally {
+      graphics.dispose();
+    }
+    return image;
+  }
+
+  /**
+   * @return area {@code area}, in pixels of the image of the region {@code region} rendered at
+   * resolution {@code dpi}, in points with origin at top left of the page
+   */
+  static Rectangle toPageArea(Rectangle2D region, Rectangle area, float dpi) {
+    double factor = POINTS_PER_INCH / dpi;
+    return new Rectangle(
+        (int) Math.round(region.getX() + area.x * factor),
+        (int) Math.round(region.getY() + area.y * factor),
+        (int) Math.round(area.width * factor),
+        (int) Math.round(area.height * factor));
+  }
+
+  /**
+   * Rasterize the areas {@code regions} of the page with index {@code pageIndex} at resolution
+   * {@code dpi} and detect hand written areas within them. If {@code regions} is null, the whole
+   * page is rasterized. Contours crossing the edge of a region are cut by it, so callers should pad
+   * the regions by the extent of hand writing expected around them.
+   *
+   * @return future of hand written areas, in points with origin at top left of the page
+   */
+  Future<List<Rectangle>> detectHandWrittenAreas(int pageIndex, List<Rectangle2D> regions,
+      float dpi) throws IOException {
+    MutableList<Pair<Rectangle2D, BufferedImage>> regionImages = Lists.mutable.empty();
+    if (regions == null) {
+      regionImages.add(Tuples.pair(new Rectangle2D.Double(), this.renderPage(pageIndex, dpi)));
+    } else {
+      for (Rectangle2D region : regions) {
+        regionImages.add(Tuples.pair(region, this.renderRegion(pageIndex, region, dpi)));
+      }
+    }
+    double scale = dpi / POINTS_PER_INCH;
+    return IMAGE_ANALYSIS_EXECUTOR.submit(() -> {
+      List<Rectangle> handWrittenAreas = Lists.mutable.empty();
+      for (Pair<Rectangle2D, BufferedImage> regionImage : regionImages) {
+        Rectangle2D region = regionImage.getOne();
+        for (Rectangle area : ImageUtils.findHandWrittenAreas(regionImage.getTwo(), scale)) {
+          handWrittenAreas.add(toPageArea(region, area, dpi));
+        }
+      }
+      return handWrittenAreas;
+    });
+  }
+}
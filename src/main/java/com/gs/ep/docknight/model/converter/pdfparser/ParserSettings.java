@@ -37,6 +37,7 @@ public class ParserSettings {
       .empty(); // page numbers which will be parsed using scanned pdf parser
   private boolean imageBasedFormDetection = true; // boolean to extract form from images or not
   private boolean handWrittenTextDetection = false; // boolearn to detect hand written areas from image
+  private float handWrittenTextDetectionDpi = PageRasterizer.DEFAULT_DPI; // resolution at which image areas are rasterized for hand written text detection
   private double spacingFactor = 1.0; // Factor is used to check whether spacing is same between consecutive words or not. If not, separate text elements are created.
   private Consumer<Integer> badPageSignaler = pageNo -> nothing();  // Consumer on how to handle pages which contain unrecognized glyphs
   private boolean ignoreNonRenderableText;
@@ -60,6 +61,7 @@ public class ParserSettings {
    */
   private boolean pageLevelOcr;  // If true, then scanned pdf parser will work on individual pages if scanned is below allowedScannedness
   private int maxPagesAllowed = Integer.MAX_VALUE;
+  private FontMetricsCache fontMetricsCache = FontMetricsCache.getShared(); // Cache of font metrics, shared across documents by default
 
   /**
    * Used to {@throws MaxPagesAllowedExceededException} if number of pages in document >
@@ -69,6 +71,32 @@ public class ParserSettings {
   private static void nothing() {
   }
 
+  /**
+   * @return string identifying the settings which affect the parsed document. Documents parsed with
+   * settings of same fingerprint are same.
+   */
+  public String getFingerprint() {
+    return Lists.mutable.<Object>of(
+        this.scannedPdfParser == null ? null : this.scannedPdfParser.getFingerprint(),
+        this.fontChangeSegmentation, this.underlineDetection, this.startPage, this.endPage,
+        this.imageBasedCharDetection, this.lineMergeEpsilon, this.pageNosToOcr,
+        this.imageBasedFormDetection, this.handWrittenTextDetection,
+        this.handWrittenTextDetectionDpi, this.spacingFactor, this.ignoreNonRenderableText,
+        this.maxTextElementToLineCountRatio, this.dynamicSpaceWidthComputationEnabled,
+        this.scanned, this.pageLevelSpacingScaling, this.allowedScannedness, this.minChars,
+        this.pageLevelOcr, this.maxPagesAllowed).makeString(",");
+  }
+
+  public FontMetricsCache getFontMetricsCache() {
+    return this.fontMetricsCache;
+  }
+
+  public void setFontMetricsCache(FontMetricsCache fontMetricsCache) {
+    if (fontMetricsCache != null) {
+      this.fontMetricsCache = fontMetricsCache;
+    }
+  }
+
   public int getMaxPagesAllowed() {
     return this.maxPagesAllowed;
   }
@@ -177,6 +205,14 @@ public class ParserSettings {
     this.handWrittenTextDetection = handWrittenTextDetection;
   }
 
+  public float getHandWrittenTextDetectionDpi() {
+    return this.handWrittenTextDetectionDpi;
+  }
+
+  public void setHandWrittenTextDetectionDpi(float handWrittenTextDetectionDpi) {
+    this.handWrittenTextDetectionDpi = handWrittenTextDetectionDpi;
+  }
+
   public double getSpacingFactor() {
     return this.spacingFactor;
   }
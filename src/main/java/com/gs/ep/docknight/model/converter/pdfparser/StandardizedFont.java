@@ -0,0 +1,105 @@
+/*
+ *   Copyright 2020 Goldman Sachs.
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ */
+
+package com.gs.ep.docknight.model.converter.pdfparser;
+
+import com.gs.ep.docknight.model.attribute.FontFamily;
+import com.gs.ep.docknight.model.attribute.TextStyles;
+import java.io.IOException;
+import java.util.Map;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.apache.pdfbox.pdmodel.font.PDCIDFont;
+import org.apache.pdfbox.pdmodel.font.PDCIDFontType2;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDFontDescriptor;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.tuple.Pair;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.map.mutable.UnifiedMap;
+import org.eclipse.collections.impl.tuple.Tuples;
+
+/**
+ * Class representing standardized font (font, font family, text styles)
+ */
+final class StandardizedFont {
+
+  private static final MutableList<Pair<String, String>> PDF_FONT_TEXTSTYLES = Lists.mutable.of(
+      Tuples.pair("Bold", TextStyles.BOLD),
+      Tuples.pair("Italic", TextStyles.ITALIC),
+      Tuples.pair("Oblique", TextStyles.ITALIC));
+  private static final Map<String, PDFont> STANDARD_FONTS = UnifiedMap.newMapWith(
+      Tuples.pair(FontFamily.TIMES, PDType1Font.TIMES_ROMAN),
+      Tuples.pair(FontFamily.TIMES + TextStyles.BOLD, PDType1Font.TIMES_BOLD),
+      Tuples.pair(FontFamily.TIMES + TextStyles.ITALIC, PDType1Font.TIMES_ITALIC),
+      Tuples.pair(FontFamily.TIMES + TextStyles.BOLD + TextStyles.ITALIC,
+          PDType1Font.TIMES_BOLD_ITALIC),
+      Tuples.pair(FontFamily.HELVETICA, PDType1Font.HELVETICA),
+      Tuples.pair(FontFamily.HELVETICA + TextStyles.BOLD, PDType1Font.HELVETICA_BOLD),
+      Tuples.pair(FontFamily.HELVETICA + TextStyles.ITALIC, PDType1Font.HELVETICA_OBLIQUE),
+      Tuples.pair(FontFamily.HELVETICA + TextStyles.BOLD + TextStyles.ITALIC,
+          PDType1Font.HELVETICA_BOLD_OBLIQUE),
+      Tuples.pair(FontFamily.COURIER, PDType1Font.COURIER),
+      Tuples.pair(FontFamily.COURIER + TextStyles.BOLD, PDType1Font.COURIER_BOLD),
+      Tuples.pair(FontFamily.COURIER + TextStyles.ITALIC, PDType1Font.COURIER_OBLIQUE),
+      Tuples.pair(FontFamily.COURIER + TextStyles.BOLD + TextStyles.ITALIC,
+          PDType1Font.COURIER_BOLD_OBLIQUE));
+  private static final MutableList<String> STANDARD_FONT_FAMILY_NAMES = Lists.mutable
+      .of(FontFamily.TIMES, FontFamily.HELVETICA, FontFamily.COURIER);
+  private static final String DEFAULT_FONT_FAMILY = FontFamily.TIMES;
+  final PDFont font;
+  final String fontFamily;
+  final MutableList<String> textStyles;
+
+  StandardizedFont(PDFont font) {
+    String pdfFontName = getPdfFontName(font);
+    this.textStyles = PDF_FONT_TEXTSTYLES
+        .collectIf(tsp -> pdfFontName.contains(tsp.getOne()), Pair::getTwo);
+    this.fontFamily = STANDARD_FONT_FAMILY_NAMES
+        .detectIfNone(n -> pdfFontName.contains(n), () -> DEFAULT_FONT_FAMILY);
+    this.font = STANDARD_FONTS.get(this.fontFamily + this.textStyles.makeString(""));
+  }
+
+  private static String getPdfFontName(PDFont font) {
+    String pdfFontName = makeNonNull(font.getName());
+    if (font instanceof PDType0Font) {
+      PDCIDFont descendantFont = ((PDType0Font) font).getDescendantFont();
+      if (descendantFont instanceof PDCIDFontType2) {
+        TrueTypeFont trueTypeFont = ((PDCIDFontType2) descendantFont).getTrueTypeFont();
+        if (trueTypeFont != null) {
+          try {
+            pdfFontName += "," + makeNonNull(trueTypeFont.getName());
+          } catch (IOException ignored) {
+          }
+        }
+      }
+    }
+    PDFontDescriptor fontDescriptor = font.getFontDescriptor();
+    if (fontDescriptor != null && (fontDescriptor.getFontWeight() >= 700 || fontDescriptor
+        .getFontName().toLowerCase().contains("bold"))) {
+      pdfFontName += ",Bold";
+    }
+    return pdfFontName;
+  }
+
+  /**
+   * @return string if it is not null else return empty string
+   */
+  private static String makeNonNull(String str) {
+    return str == null ? "" : str;
+  }
+}
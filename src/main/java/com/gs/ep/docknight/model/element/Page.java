@@ -35,9 +35,35 @@ public class Page extends TextRectangle<Page> implements
 
   private static final long serialVersionUID = 7244915848277591913L;
 
+  // Page level layout analysis cached by layout analyzers; neither serialized nor cloned
+  private transient Object layoutProfile;
+
   @Override
   public List<Class<? extends ElementAttribute>> getDefaultLayout() {
     return this.hasAttribute(Content.class) ? Lists.mutable.of(Content.class)
         : Lists.mutable.of(PositionalContent.class);
   }
+
+  /**
+   * @return layout analysis result stored with {@link #setLayoutProfile(Object)}, or null if none
+   */
+  public Object getLayoutProfile() {
+    return this.layoutProfile;
+  }
+
+  /**
+   * Cache a layout analysis result on this page. The caller is responsible for checking that the
+   * cached result still matches the page content before reusing it. Transformers which regroup the
+   * page in place clear it.
+   */
+  public void setLayoutProfile(Object layoutProfile) {
+    this.layoutProfile = layoutProfile;
+  }
+
+  @Override
+  public Page clone() {
+    Page page = (Page) super.clone();
+    page.layoutProfile = null;
+    return page;
+  }
 }
@@ -16,9 +16,13 @@
 
 package com.gs.ep.docknight.model.extractor;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonSerializable;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
 import com.gs.ep.docknight.model.Element;
 import com.gs.ep.docknight.model.ElementGroup;
 import com.gs.ep.docknight.model.Length;
@@ -66,9 +70,10 @@ import com.gs.ep.docknight.util.StatsDClientWrapper;
 import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -77,6 +82,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -91,6 +97,7 @@ import java.util.regex.Pattern;
 import org.apache.commons.collections4.IterableUtils;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.commons.io.output.CloseShieldOutputStream;
 import org.docopt.Docopt;
 import org.eclipse.collections.api.list.MutableList;
 import org.eclipse.collections.api.map.MutableMap;
@@ -114,6 +121,9 @@ public class PhraseExtractor {
   public static final String XLS = "xls";
   public static final String DOCX = "docx";
   protected static final Logger LOGGER = LoggerFactory.getLogger(PhraseExtractor.class);
+  private static final ObjectMapper JSON_MAPPER = new ObjectMapper()
+      .configure(SerializationFeature.INDENT_OUTPUT, true)
+      .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
   private static final int CALL_ERROR = 1;
   private static final int ARG_VALUE_ERROR = 2;
   private static final int INTERNAL_ERROR = 3;
@@ -606,36 +616,39 @@ public class PhraseExtractor {
    * @throws JsonProcessingException exception to throw in case processing failed
    */
   public static String jsonify(Object object) throws JsonProcessingException {
-    ObjectMapper mapper = new ObjectMapper();
-    mapper.configure(SerializationFeature.INDENT_OUTPUT, true);
-    mapper.configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
-    return mapper.writeValueAsString(object);
+    return JSON_MAPPER.writeValueAsString(object);
   }
 
   /**
-   * Create the outputfile with data {@code output}. If output file already
-   * exists, delete that
-   * file.
+   * Write json representation of {@code object} to {@code outputStream} in UTF-8. Output is the
+   * same as {@link #jsonify(Object)}, but it is written through the json generator while the
+   * object is serialized. {@code outputStream} is left open.
    *
-   * @param outputDir    directory where the output file will be created
-   * @param inputFile    file from which the filename will be taken for output
-   *                     file
-   * @param outExtension This extension will be used as extension of output file
-   * @param output       data that will be written in output file
-   * @throws IOException exception to throw if file creation failed
+   * @param object       object to jsonify
+   * @param outputStream stream to write json representation to
+   * @throws IOException exception to throw in case writing failed
    */
-  private static void createOutputFile(File outputDir, File inputFile, String outExtension,
-      String output) throws FileNotFoundException {
+  public static void writeJson(Object object, OutputStream outputStream) throws IOException {
+    JSON_MAPPER.writeValue(new CloseShieldOutputStream(outputStream), object);
+  }
+
+  /**
+   * Write json representation of {@code object} to {@code outFile}
+   */
+  private static void writeJson(Object object, File outFile) throws IOException {
+    try (OutputStream outputStream = new FileOutputStream(outFile)) {
+      writeJson(object, outputStream);
+    }
+  }
+
+  /**
+   * @return file in {@code outputDir} for the output of {@code inputFile} with extension {@code
+   * outExtension}. {@code outputDir} is created if it does not exist.
+   */
+  private static File getOutputFile(File outputDir, File inputFile, String outExtension) {
     String fileNameWithoutExtn = inputFile.getName().substring(0, inputFile.getName().length() - 3);
     outputDir.mkdirs();
-    File outFile = new File(outputDir, fileNameWithoutExtn + outExtension);
-    if (output != null && !output.isEmpty()) {
-      try (PrintWriter pw = new PrintWriter(outFile)) {
-        pw.print(output);
-      }
-    } else if (outFile.exists()) {
-      outFile.delete();
-    }
+    return new File(outputDir, fileNameWithoutExtn + outExtension);
   }
 
   /**
@@ -725,7 +738,7 @@ public class PhraseExtractor {
           () -> {
             try {
               Document document;
-              Map<String, Object> phrases;
+              Map<Integer, Integer> groupings = Maps.mutable.empty();
               if (mixedLayout) {
                 try (FileInputStream fileInputStream = new FileInputStream(f)) {
                   document = parseMixedLayoutDocument(fileInputStream, ocrEngine,
@@ -736,10 +749,9 @@ public class PhraseExtractor {
                 if (document == null) {
                   return;
                 }
-                Map<String, Object> result = new VisualJsonRenderer().renderAsMap(document);
-                String json = jsonify(result);
-                phrases = (Map<String, Object>) result.get("phrases");
-                createOutputFile(new File(outputDir, "vj"), f, "json", json);
+                Map<String, Object> result = new VisualJsonRenderer()
+                    .renderAsLazyMap(document, page -> addGroupings(page, groupings));
+                writeJson(result, getOutputFile(new File(outputDir, "vj"), f, "json"));
               } else {
                 MutableMap<Integer, Double> widthByPage = Maps.mutable.empty();
                 MutableMap<Integer, Double> scannedness = Maps.mutable.empty();
@@ -756,23 +768,25 @@ public class PhraseExtractor {
 
                 getDocumentScannedness(document, scannedness);
 
-                phrases = phraseExtractor.extract(document, scannedness, widthByPage);
+                // Pages are generated and written one at a time instead of being built in memory
+                Map<String, Object> phrases = phraseExtractor.extractLazily(document, scannedness,
+                    widthByPage, page -> addGroupings(page, groupings));
                 phrases.put("version", getVersion());
-                String phrasesJson = jsonify(phrases);
-                createOutputFile(new File(outputDir, "phrase"), f, "json", phrasesJson);
+                writeJson(phrases, getOutputFile(new File(outputDir, "phrase"), f, "json"));
 
                 String fileNameWithoutExtn = f.getName().substring(0, f.getName().length() - 3);
                 Map<String, Object> tables = (Map<String, Object>) TableExtractor
                     .extract(document, fileNameWithoutExtn);
-                String tablesJson = jsonify(tables);
-                createOutputFile(new File(outputDir, "table"), f, "table.json", tablesJson);
+                writeJson(tables, getOutputFile(new File(outputDir, "table"), f, "table.json"));
               }
 
               if (html) {
-                Map<Integer, Integer> groupings = getGroupings(phrases);
-                createOutputFile(new File(outputDir, "html"), f, "html",
-                    new HtmlRenderer().withVisualDebuggingEnabled(true).withPageBreakNos(true)
-                        .render(document, groupings));
+                // Html is written element by element instead of being built in memory
+                try (PrintWriter htmlWriter = new PrintWriter(
+                    getOutputFile(new File(outputDir, "html"), f, "html"))) {
+                  new HtmlRenderer().withVisualDebuggingEnabled(true).withPageBreakNos(true)
+                      .render(document, groupings, htmlWriter);
+                }
                 byte[] pdfAbbyyBytes = ListIterate
                     .collectIf(document.getTransformedIntermediateSources(),
                         x -> x.getOne() == SourceType.OCRED_DOC, Pair::getTwo)
@@ -793,32 +807,28 @@ public class PhraseExtractor {
   }
 
   /**
-   * Get the map with key as first integer in segment id and value as group id.
+   * Populate the map with key as first integer in segment id and value as group id.
    * Group id is
    * calculated by taking first integer in first segment of that group.
    *
-   * @param phrases phrase representation of document model
-   * @return map with key as first integer in segment id and value as group id.
+   * @param page      page of phrase representation of document model
+   * @param groupings output map with key as first integer in segment id and value as group id.
    */
-  private static Map<Integer, Integer> getGroupings(Map<String, Object> phrases) {
-    Map<Integer, Integer> groupings = Maps.mutable.empty();
-    for (Map page : (List<Map>) phrases.get("pages")) {
-      for (Map group : (List<Map>) page.getOrDefault("groups", Lists.mutable.empty())) {
-        MutableList<Integer> grouping = Lists.mutable.empty();
-        for (Map line : (List<Map>) group.get("lines")) {
-          for (Map segment : (List<Map>) line.get("segments")) {
-            grouping.add(Integer.parseInt(((String) segment.get("id")).split("_")[0]));
-          }
+  private static void addGroupings(Map page, Map<Integer, Integer> groupings) {
+    for (Map group : (List<Map>) page.getOrDefault("groups", Lists.mutable.empty())) {
+      MutableList<Integer> grouping = Lists.mutable.empty();
+      for (Map line : (List<Map>) group.get("lines")) {
+        for (Map segment : (List<Map>) line.get("segments")) {
+          grouping.add(Integer.parseInt(((String) segment.get("id")).split("_")[0]));
         }
-        grouping = grouping.distinct();
-        if (grouping.size() > 1) {
-          for (Integer g : grouping) {
-            groupings.put(g, grouping.get(0));
-          }
+      }
+      grouping = grouping.distinct();
+      if (grouping.size() > 1) {
+        for (Integer g : grouping) {
+          groupings.put(g, grouping.get(0));
         }
       }
     }
-    return groupings;
   }
 
   /**
@@ -1004,6 +1014,58 @@ public class PhraseExtractor {
    */
   private Map<String, Object> extract(Document document, boolean isVGOrder,
       MutableMap<Integer, Double> scannedness, MutableMap<Integer, Double> widthByPage) {
+    Map<String, Object> phrases = this
+        .extractLazily(document, isVGOrder, scannedness, widthByPage, page -> {
+        });
+    phrases.put("pages", Lists.mutable.ofAll((Iterable<Map>) phrases.get("pages")));
+    return phrases;
+  }
+
+  /**
+   * Create the phrase map representation for {@code document} whose pages are generated lazily.
+   * Value of "pages" is an iterable which builds one page map at a time while the document is
+   * traversed, so serializing the returned map through {@link #writeJson(Object, OutputStream)}
+   * never holds more than one page of the phrase json in memory.
+   *
+   * @param document     document model for which to create phrase map representation
+   * @param scannedness  map containing scannedness of each page
+   * @param widthByPage  map with key page index to page width
+   * @param pageListener listener called with each page map once it is generated
+   * @return phrase map representation with lazily generated pages
+   */
+  public Map<String, Object> extractLazily(Document document,
+      MutableMap<Integer, Double> scannedness, MutableMap<Integer, Double> widthByPage,
+      Consumer<Map> pageListener) {
+    return this.extractLazily(document, false, scannedness, widthByPage, pageListener);
+  }
+
+  /**
+   * Create the phrase map representation for {@code document} in vertical group order whose pages
+   * are generated lazily.
+   *
+   * @param document     document model for which to create phrase map representation
+   * @param pageListener listener called with each page map once it is generated
+   * @return phrase map representation with lazily generated pages
+   * @see #extractLazily(Document, MutableMap, MutableMap, Consumer)
+   */
+  public Map<String, Object> extractInVGOrderLazily(Document document,
+      Consumer<Map> pageListener) {
+    return this.extractLazily(document, true, null, null, pageListener);
+  }
+
+  /**
+   * Create the phrase map representation for {@code document} whose pages are generated lazily
+   *
+   * @param document     document model for which to create phrase map representation
+   * @param isVGOrder    boolean flag to process elements in vertical group order
+   * @param scannedness  map containing scannedness of each page
+   * @param widthByPage  map with key page index to page width
+   * @param pageListener listener called with each page map once it is generated
+   * @return phrase map representation with lazily generated pages
+   */
+  private Map<String, Object> extractLazily(Document document, boolean isVGOrder,
+      MutableMap<Integer, Double> scannedness, MutableMap<Integer, Double> widthByPage,
+      Consumer<Map> pageListener) {
     if (scannedness == null) {
       scannedness = Maps.mutable.empty();
       getDocumentScannedness(document, scannedness);
@@ -1022,46 +1084,19 @@ public class PhraseExtractor {
         "right", format(pageWidth), "bottom", format(pageHeight)));
     builder.getDocument().put("handWrittenAreas", this.getHandWrittenAreas(page));
 
-    int pageNo = 0;
-    double pageTop = 0.0;
-    double prevPageBottom = 0;
-
-    Set<ElementGroup<Element>> vgsInPage = new LinkedHashSet<>();
-    List<Element> elemsInPage = Lists.mutable.empty();
-
-    for (Element element : this.getTerminalElemIteratorEndingWithNull(document)) {
-      if (element instanceof PageBreak || element == null) {
-        builder.startPage();
-        pageTop = element == null ? pageHeight : element.getAttribute(Top.class).getMagnitude();
-        builder.getPage()
-            .put("box", Maps.mutable.of("left", format(0), "top", format(prevPageBottom),
-                "right", format(pageWidth), "bottom", format(pageTop)));
-        builder.getPage().put("width", format(widthByPage.getOrDefault(pageNo, pageWidth)));
-        builder.getPage().put("scannedness", format(scannedness.getOrDefault(pageNo, 0.0)));
-
-        if (!isVGOrder || this.isSingleColLayout(elemsInPage, prevPageBottom, pageTop)) {
-          this.processInAppearanceOrder(builder, elemsInPage);
-        } else {
-          this.processInVGOrder(builder, vgsInPage);
-        }
-        vgsInPage = new LinkedHashSet<>();
-        elemsInPage = Lists.mutable.empty();
-        pageNo++;
-        prevPageBottom = pageTop;
-      } else if (element instanceof TextElement) {
-        if (isVGOrder) {
-          vgsInPage.add(element.getPositionalContext().getVerticalGroup());
-        }
-        elemsInPage.add(element);
-      } else if (element instanceof GraphicalElement) {
-        String linesKey = element instanceof HorizontalLine ? "horizontalLines" : "verticalLines";
-        List lines = (List) builder.getDocument()
-            .computeIfAbsent(linesKey, x -> Lists.mutable.empty());
-        lines.add(Lists.mutable.of(format(element.getAttribute(Left.class).getMagnitude()),
-            format(element.getAttribute(Top.class).getMagnitude()),
-            format(element.getAttribute(Stretch.class).getMagnitude())));
-      }
+    // Lines are few and sort before and after "pages", so they are collected upfront
+    for (Element element : document.getContainingElements(
+        x -> x.isTerminal() && x instanceof GraphicalElement && !(x instanceof PageBreak))) {
+      String linesKey = element instanceof HorizontalLine ? "horizontalLines" : "verticalLines";
+      VisualJsonBuilder.append(builder.getDocument(), linesKey,
+          Lists.mutable.of(format(element.getAttribute(Left.class).getMagnitude()),
+              format(element.getAttribute(Top.class).getMagnitude()),
+              format(element.getAttribute(Stretch.class).getMagnitude())));
     }
+
+    builder.getDocument().put("pages",
+        new PhrasePages(document, isVGOrder, scannedness, widthByPage, pageWidth, pageHeight,
+            pageListener));
     return builder.getDocument();
   }
 
@@ -1407,4 +1442,102 @@ public class PhraseExtractor {
       return this.extensions;
     }
   }
+
+  /**
+   * Pages of the phrase json. Each iteration traverses the document again and builds the page maps
+   * one at a time, and serialization writes each page as soon as it is built.
+   */
+  private final class PhrasePages extends JsonSerializable.Base implements Iterable<Map> {
+
+    private final Document document;
+    private final boolean isVGOrder;
+    private final MutableMap<Integer, Double> scannedness;
+    private final MutableMap<Integer, Double> widthByPage;
+    private final double pageWidth;
+    private final double pageHeight;
+    private final Consumer<Map> pageListener;
+
+    private PhrasePages(Document document, boolean isVGOrder,
+        MutableMap<Integer, Double> scannedness, MutableMap<Integer, Double> widthByPage,
+        double pageWidth, double pageHeight, Consumer<Map> pageListener) {
+      this.document = document;
+      this.isVGOrder = isVGOrder;
+      this.scannedness = scannedness;
+      this.widthByPage = widthByPage;
+      this.pageWidth = pageWidth;
+      this.pageHeight = pageHeight;
+      this.pageListener = pageListener;
+    }
+
+    @Override
+    public Iterator<Map> iterator() {
+      Iterator<Element> elements = PhraseExtractor.this
+          .getTerminalElemIteratorEndingWithNull(this.document).iterator();
+      VisualJsonBuilder builder = new VisualJsonBuilder();
+      builder.startDocument();
+      return new Iterator<Map>() {
+        private int pageNo = 0;
+        private double prevPageBottom = 0;
+
+        @Override
+        public boolean hasNext() {
+          return elements.hasNext();
+        }
+
+        @Override
+        public Map next() {
+          Set<ElementGroup<Element>> vgsInPage = new LinkedHashSet<>();
+          List<Element> elemsInPage = Lists.mutable.empty();
+          Element element = elements.next();
+          while (!(element instanceof PageBreak || element == null)) {
+            if (element instanceof TextElement) {
+              if (PhrasePages.this.isVGOrder) {
+                vgsInPage.add(element.getPositionalContext().getVerticalGroup());
+              }
+              elemsInPage.add(element);
+            }
+            element = elements.next();
+          }
+
+          builder.setPage(VisualJsonBuilder.dict());
+          double pageTop = element == null ? PhrasePages.this.pageHeight
+              : element.getAttribute(Top.class).getMagnitude();
+          builder.getPage()
+              .put("box", Maps.mutable.of("left", format(0), "top", format(this.prevPageBottom),
+                  "right", format(PhrasePages.this.pageWidth), "bottom", format(pageTop)));
+          builder.getPage().put("width", format(PhrasePages.this.widthByPage
+              .getOrDefault(this.pageNo, PhrasePages.this.pageWidth)));
+          builder.getPage().put("scannedness",
+              format(PhrasePages.this.scannedness.getOrDefault(this.pageNo, 0.0)));
+
+          if (!PhrasePages.this.isVGOrder || PhraseExtractor.this
+              .isSingleColLayout(elemsInPage, this.prevPageBottom, pageTop)) {
+            PhraseExtractor.this.processInAppearanceOrder(builder, elemsInPage);
+          } else {
+            PhraseExtractor.this.processInVGOrder(builder, vgsInPage);
+          }
+          this.pageNo++;
+          this.prevPageBottom = pageTop;
+          PhrasePages.this.pageListener.accept(builder.getPage());
+          return builder.getPage();
+        }
+      };
+    }
+
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider serializers)
+        throws IOException {
+      generator.writeStartArray();
+      for (Map page : this) {
+        serializers.defaultSerializeValue(page, generator);
+      }
+      generator.writeEndArray();
+    }
+
+    @Override
+    public void serializeWithType(JsonGenerator generator, SerializerProvider serializers,
+        TypeSerializer typeSerializer) throws IOException {
+      this.serialize(generator, serializers);
+    }
+  }
 }
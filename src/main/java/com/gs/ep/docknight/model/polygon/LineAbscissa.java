@@ -63,7 +63,7 @@ public class LineAbscissa {
           @Override
           public double getAbscissaValue(Element e) throws IllegalArgumentException {
             if (e instanceof HorizontalLine) {
-              return ((HorizontalLine) e).getAttribute(Left.class).getMagnitude();
+              return ((HorizontalLine) e).getLeftMagnitude();
             }
             throw new IllegalArgumentException("Element must be an instance of HorizontalLine");
           }
@@ -73,7 +73,7 @@ public class LineAbscissa {
           @Override
           public double getAbscissaValue(Element e) throws IllegalArgumentException {
             if (e instanceof VerticalLine) {
-              return ((VerticalLine) e).getAttribute(Left.class).getMagnitude();
+              return ((VerticalLine) e).getLeftMagnitude();
             }
             throw new IllegalArgumentException("Element must be an instance of VerticalLine");
           }
@@ -84,8 +84,8 @@ public class LineAbscissa {
           public double getAbscissaValue(Element e) throws IllegalArgumentException {
             if (e instanceof HorizontalLine) {
               HorizontalLine horizontalLine = (HorizontalLine) e;
-              double leftAbscissa = horizontalLine.getAttribute(Left.class).getMagnitude();
-              double horizontalStretch = horizontalLine.getAttribute(Stretch.class).getMagnitude();
+              double leftAbscissa = horizontalLine.getLeftMagnitude();
+              double horizontalStretch = horizontalLine.getStretchMagnitude();
               return leftAbscissa + horizontalStretch;
             }
             throw new IllegalArgumentException("Element must be an instance of HorizontalLine");
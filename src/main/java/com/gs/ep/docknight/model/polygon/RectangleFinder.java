@@ -56,11 +56,11 @@ public class RectangleFinder {
 
     for (LineAbscissa lineAbscissa : lineAbscissas) {
       if (AbscissaType.HORIZONTAL_LINE_LEFT.equals(lineAbscissa.getAbscissaType())) {
-        currentHorizontalLines.put(lineAbscissa.getElement().getAttribute(Top.class).getMagnitude(),
+        currentHorizontalLines.put(lineAbscissa.getElement().getTopMagnitude(),
             (HorizontalLine) lineAbscissa.getElement());
       } else if (AbscissaType.HORIZONTAL_LINE_RIGHT.equals(lineAbscissa.getAbscissaType())) {
         currentHorizontalLines
-            .remove(lineAbscissa.getElement().getAttribute(Top.class).getMagnitude());
+            .remove(lineAbscissa.getElement().getTopMagnitude());
       } else {
         VerticalLine verticalLine = (VerticalLine) lineAbscissa.getElement();
         MutableList<HorizontalLine> horizontalLinesClosedOnLeftSide = Lists.mutable.empty();
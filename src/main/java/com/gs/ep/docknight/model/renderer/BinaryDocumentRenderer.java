@@ -0,0 +1,598 @@
+/*
+ *   Copyright 2020 Goldman Sachs.
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ */
+
+package com.gs.ep.docknight.model.renderer;
+
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.CELL_GROUP_FLAG;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.COLOR_VALUE;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.DOUBLE_LENGTH_VALUE;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.DOUBLE_NUMBER;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.ELEMENTS_VALUE;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.ELEMENT_LIST_VALUE;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.FLOAT_LENGTH_VALUE;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.FLOAT_NUMBER;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.HORIZONTALLY_MERGED_FLAG;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.IDENTITY_BASED_FLAG;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.IMAGE_REFERENCE_VALUE;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.IMAGE_VALUE;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.MAGIC;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.NULL_VALUE;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.PAGES_VALUE;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.POSITIONAL_ELEMENT_LIST_VALUE;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.SERIALIZED_VALUE;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.STRING_LIST_VALUE;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.STRING_VALUE;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.VERSION;
+import static com.gs.ep.docknight.model.converter.BinaryDocumentFormat.VERTICALLY_MERGED_FLAG;
+
+import com.gs.ep.docknight.model.AnnotableBase;
+import com.gs.ep.docknight.model.Attribute;
+import com.gs.ep.docknight.model.ComparableBufferedImage;
+import com.gs.ep.docknight.model.Element;
+import com.gs.ep.docknight.model.ElementGroup;
+import com.gs.ep.docknight.model.ElementList;
+import com.gs.ep.docknight.model.EncodedImage;
+import com.gs.ep.docknight.model.Length;
+import com.gs.ep.docknight.model.PositionalContext;
+import com.gs.ep.docknight.model.PositionalElementList;
+import com.gs.ep.docknight.model.Renderer;
+import com.gs.ep.docknight.model.TabularCellElementGroup;
+import com.gs.ep.docknight.model.TabularElementGroup;
+import com.gs.ep.docknight.model.TabularElementGroup.VectorTag;
+import com.gs.ep.docknight.model.attribute.Content;
+import com.gs.ep.docknight.model.element.Document;
+import com.gs.ep.docknight.model.element.Document.SourceType;
+import com.gs.ep.docknight.model.transformer.tabledetection.TableDetectionConfidenceFeatures;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferUShort;
+import java.awt.image.WritableRaster;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.imageio.ImageIO;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.set.primitive.ImmutableIntSet;
+import org.eclipse.collections.api.tuple.Pair;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.factory.primitive.IntSets;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMap;
+
+/**
+ * Renderer to write {@see com.gs.ep.docknight.model.element.Document document model} in the
+ * compact binary format of {@see com.gs.ep.docknight.model.converter.BinaryDocumentFormat}, so
+ * that a parsed document can be stored and loaded again with {@see
+ * com.gs.ep.docknight.model.converter.BinaryDocumentParser} instead of parsing the source document
+ * again. Attributes, vertical groups, tables and positional contexts (including neighbour groups,
+ * which are computed if they are still pending) are written.
+ */
+public class BinaryDocumentRenderer implements Renderer<byte[]> {
+
+  // Image types whose samples are written as they are held in memory
+  private static final ImmutableIntSet RAW_IMAGE_TYPES = IntSets.immutable.of(
+      BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_INT_ARGB_PRE,
+      BufferedImage.TYPE_INT_BGR, BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR,
+      BufferedImage.TYPE_4BYTE_ABGR_PRE, BufferedImage.TYPE_BYTE_GRAY,
+      BufferedImage.TYPE_USHORT_GRAY);
+  private static final int PIXEL_CHUNK_SIZE = 1 << 16;
+
+  @Override
+  public byte[] render(Document document) {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    try {
+      this.render(document, outputStream);
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+    return outputStream.toByteArray();
+  }
+
+  /**
+   * Write the {@code document} in binary format to {@code outputStream}, one page at a time.
+   * {@code outputStream} is flushed but left open.
+   *
+   * @param document     document model which is to be written
+   * @param outputStream stream to write the document to
+   * @throws IOException exception to throw if writing failed
+   */
+  public void render(Document document, OutputStream outputStream) throws IOException {
+    StringTable strings = new StringTable();
+    CountingOutputStream countingStream = new CountingOutputStream(
+        new BufferedOutputStream(outputStream));
+    DataOutputStream out = new DataOutputStream(countingStream);
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+
+    long documentOffset = countingStream.getByteCount();
+    new BlockWriter(strings, document).write(document, out);
+    List<Element> pages = document.hasAttribute(Content.class) ? document.getContent().getElements()
+        : Collections.emptyList();
+    long[] pageOffsets = new long[pages.size()];
+    for (int i = 0; i < pages.size(); i++) {
+      pageOffsets[i] = countingStream.getByteCount();
+      new BlockWriter(strings, null).write(pages.get(i), out);
+    }
+    long stringTableOffset = countingStream.getByteCount();
+    strings.write(out);
+
+    long footerOffset = countingStream.getByteCount();
+    out.writeLong(documentOffset);
+    out.writeInt(pages.size());
+    for (long pageOffset : pageOffsets) {
+      out.writeLong(pageOffset);
+    }
+    out.writeLong(stringTableOffset);
+    out.writeLong(footerOffset);
+    out.flush();
+  }
+
+  /**
+   * @return True if {@code raster} is not a view over a bigger raster
+   */
+  private static boolean isStandaloneRaster(WritableRaster raster) {
+    return raster.getParent() == null && raster.getSampleModelTranslateX() == 0
+        && raster.getSampleModelTranslateY() == 0;
+  }
+
+  private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+    while ((value & ~0x7F) != 0) {
+      out.writeByte((value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    out.writeByte(value);
+  }
+
+  /**
+   * Strings of the document, each stored once and referred to by id
+   */
+  private static final class StringTable {
+
+    private final MutableList<String> strings = Lists.mutable.empty();
+    private final ObjectIntHashMap<String> stringIds = new ObjectIntHashMap<>();
+
+    /**
+     * @return id of {@code string} + 1, or 0 if {@code string} is null
+     */
+    int reference(String string) {
+      if (string == null) {
+        return 0;
+      }
+      int id = this.stringIds.getIfAbsent(string, -1);
+      if (id < 0) {
+        id = this.strings.size();
+        this.strings.add(string);
+        this.stringIds.put(string, id);
+      }
+      return id + 1;
+    }
+
+    void write(DataOutputStream out) throws IOException {
+      writeVarInt(out, this.strings.size());
+      for (String string : this.strings) {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+      }
+    }
+  }
+
+  /**
+   * Writer of a single block, i.e. of the document element without its pages or of one page
+   */
+  private static final class BlockWriter {
+
+    private final StringTable strings;
+    private final Element pagesOwner;
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final DataOutputStream out = new DataOutputStream(this.bytes);
+    private final Map<Element, Integer> elementIds = new IdentityHashMap<>();
+    private final MutableList<Element> elementsWithContext = Lists.mutable.empty();
+    private final MutableList<PositionalElementList<?>> positionalLists = Lists.mutable.empty();
+    private final Map<Object, Integer> groupIds = new IdentityHashMap<>();
+    private final MutableList<ElementGroup<?>> groups = Lists.mutable.empty();
+    private final Map<Object, Integer> tableIds = new IdentityHashMap<>();
+    private final MutableList<TabularElementGroup<?>> tables = Lists.mutable.empty();
+    private final Map<Object, Integer> imageIds = new IdentityHashMap<>();
+
+    /**
+     * @param strings    string table of the document
+     * @param pagesOwner element whose content is stored in page blocks, or null
+     */
+    BlockWriter(StringTable strings, Element pagesOwner) {
+      this.strings = strings;
+      this.pagesOwner = pagesOwner;
+    }
+
+    void write(Element root, DataOutputStream target) throws IOException {
+      this.writeElement(root);
+
+      // Numbers of groups and tables are assigned before any of them is written
+      for (PositionalElementList<?> positionalList : this.positionalLists) {
+        positionalList.getVerticalGroups().forEach(this::groupReference);
+        positionalList.getTabularGroups().forEach(this::tableReference);
+      }
+      for (Element element : this.elementsWithContext) {
+        PositionalContext<Element> context = element.getPositionalContext();
+        this.groupReference(context.getBelowElements());
+        this.groupReference(context.getAboveElements());
+        this.groupReference(context.getLeftElements());
+        this.groupReference(context.getRightElements());
+        this.groupReference(context.getVerticalGroup());
+        this.tableReference(context.getTabularGroup());
+      }
+      for (TabularElementGroup<?> table : this.tables) {
+        this.groupReference(table.getCaption());
+      }
+
+      writeVarInt(this.out, this.groups.size());
+      for (ElementGroup<?> group : this.groups) {
+        this.writeGroup(group);
+      }
+      writeVarInt(this.out, this.tables.size());
+      for (TabularElementGroup<?> table : this.tables) {
+        this.writeTable(table);
+      }
+      writeVarInt(this.out, this.positionalLists.size());
+      for (PositionalElementList<?> positionalList : this.positionalLists) {
+        writeVarInt(this.out, positionalList.getVerticalGroups().size());
+        for (ElementGroup<?> verticalGroup : positionalList.getVerticalGroups()) {
+          writeVarInt(this.out, this.groupReference(verticalGroup));
+        }
+        writeVarInt(this.out, positionalList.getTabularGroups().size());
+        for (TabularElementGroup<?> table : positionalList.getTabularGroups()) {
+          writeVarInt(this.out, this.tableReference(table));
+        }
+      }
+      writeVarInt(this.out, this.elementsWithContext.size());
+      for (Element element : this.elementsWithContext) {
+        this.writePositionalContext(element);
+      }
+
+      this.out.flush();
+      this.bytes.writeTo(target);
+    }
+
+    private void writeElement(Element element) throws IOException {
+      this.elementIds.put(element, this.elementIds.size());
+      this.writeString(element.getClass().getName());
+      this.out.writeByte(element.isIdentityBased() ? IDENTITY_BASED_FLAG : 0);
+      this.writeAnnotations(element);
+      if (element instanceof Document) {
+        Document document = (Document) element;
+        this.writeString(document.getDocumentSource());
+        writeVarInt(this.out, document.getTransformedIntermediateSources().size());
+        for (Pair<SourceType, byte[]> source : document.getTransformedIntermediateSources()) {
+          this.writeString(source.getOne().name());
+          this.writeBytes(source.getTwo());
+        }
+      }
+      List<Attribute> attributes = element.getAttributes();
+      writeVarInt(this.out, attributes.size());
+      for (Attribute attribute : attributes) {
+        this.writeAttribute(element, attribute);
+      }
+      if (element.hasPositionalContext()) {
+        this.elementsWithContext.add(element);
+      }
+    }
+
+    private void writeAttribute(Element element, Attribute attribute) throws IOException {
+      this.writeString(attribute.getClass().getName());
+      this.writeAnnotations(attribute);
+      Object value = attribute.getValue();
+      if (element == this.pagesOwner && attribute instanceof Content) {
+        this.out.writeByte(PAGES_VALUE);
+      } else if (value == null) {
+        this.out.writeByte(NULL_VALUE);
+      } else if (value instanceof Length) {
+        Length length = (Length) value;
+        float magnitude = (float) length.getMagnitude();
+        boolean isFloat = magnitude == length.getMagnitude();
+        this.out.writeByte(isFloat ? FLOAT_LENGTH_VALUE : DOUBLE_LENGTH_VALUE);
+        this.out.writeByte(length.getUnit().ordinal());
+        if (isFloat) {
+          this.out.writeFloat(magnitude);
+        } else {
+          this.out.writeDouble(length.getMagnitude());
+        }
+      } else if (value instanceof String) {
+        this.out.writeByte(STRING_VALUE);
+        this.writeString((String) value);
+      } else if (value instanceof java.awt.Color) {
+        this.out.writeByte(COLOR_VALUE);
+        this.out.writeInt(((java.awt.Color) value).getRGB());
+      } else if (value instanceof ElementList) {
+        ElementList<?> elementList = (ElementList<?>) value;
+        if (elementList instanceof PositionalElementList) {
+          this.out.writeByte(POSITIONAL_ELEMENT_LIST_VALUE);
+          this.positionalLists.add((PositionalElementList<?>) elementList);
+        } else {
+          this.out.writeByte(ELEMENT_LIST_VALUE);
+        }
+        this.writeElements(elementList.getElements());
+      } else if (value instanceof ComparableBufferedImage) {
+        this.writeImage((ComparableBufferedImage) value);
+      } else if (value instanceof List && isListOf((List<?>) value, String.class)) {
+        this.out.writeByte(STRING_LIST_VALUE);
+        writeVarInt(this.out, ((List<?>) value).size());
+        for (Object string : (List<?>) value) {
+          this.writeString((String) string);
+        }
+      } else if (value instanceof List && isListOf((List<?>) value, Element.class)) {
+        this.out.writeByte(ELEMENTS_VALUE);
+        this.writeElements((List<? extends Element>) value);
+      } else {
+        this.out.writeByte(SERIALIZED_VALUE);
+        ByteArrayOutputStream serialized = new ByteArrayOutputStream();
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(serialized)) {
+          objectOutputStream.writeObject(value);
+        }
+        this.writeBytes(serialized.toByteArray());
+      }
+    }
+
+    private void writeElements(List<? extends Element> elements) throws IOException {
+      writeVarInt(this.out, elements.size());
+      for (Element element : elements) {
+        this.writeElement(element);
+      }
+    }
+
+    private void writeImage(ComparableBufferedImage image) throws IOException {
+      Integer imageId = this.imageIds.get(image);
+      if (imageId != null) {
+        this.out.writeByte(IMAGE_REFERENCE_VALUE);
+        writeVarInt(this.out, imageId);
+        return;
+      }
+      this.imageIds.put(image, this.imageIds.size());
+      this.out.writeByte(IMAGE_VALUE);
+      this.writePixels(image.getBufferedImage());
+      EncodedImage encodedImage = image.getEncodedImage();
+      this.out.writeBoolean(encodedImage != null);
+      if (encodedImage != null) {
+        this.writeBytes(encodedImage.getData());
+        this.writeString(encodedImage.getFilter());
+        writeVarInt(this.out, encodedImage.getWidth());
+        writeVarInt(this.out, encodedImage.getHeight());
+        writeVarInt(this.out, encodedImage.getBitsPerComponent());
+        this.writeString(encodedImage.getColorSpace());
+      }
+    }
+
+    /**
+     * Write the samples of {@code image} as they are held in memory, so that loading the image is a
+     * copy instead of decoding it. Images whose layout cannot be recreated from their type alone are
+     * written as png.
+     */
+    private void writePixels(BufferedImage image) throws IOException {
+      if (!RAW_IMAGE_TYPES.contains(image.getType()) || !isStandaloneRaster(image.getRaster())) {
+        writeVarInt(this.out, BufferedImage.TYPE_CUSTOM);
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", png);
+        this.writeBytes(png.toByteArray());
+        return;
+      }
+      writeVarInt(this.out, image.getType());
+      writeVarInt(this.out, image.getWidth());
+      writeVarInt(this.out, image.getHeight());
+      DataBuffer dataBuffer = image.getRaster().getDataBuffer();
+      writeVarInt(this.out, dataBuffer.getSize());
+      if (dataBuffer instanceof DataBufferByte) {
+        this.out.write(((DataBufferByte) dataBuffer).getData());
+        return;
+      }
+      ByteBuffer chunk = ByteBuffer.allocate(PIXEL_CHUNK_SIZE);
+      if (dataBuffer instanceof DataBufferInt) {
+        IntBuffer samples = IntBuffer.wrap(((DataBufferInt) dataBuffer).getData());
+        while (samples.hasRemaining()) {
+          int count = Math.min(samples.remaining(), PIXEL_CHUNK_SIZE / 4);
+          chunk.asIntBuffer().put(samples.array(), samples.position(), count);
+          samples.position(samples.position() + count);
+          this.out.write(chunk.array(), 0, 4 * count);
+        }
+      } else {
+        ShortBuffer samples = ShortBuffer.wrap(((DataBufferUShort) dataBuffer).getData());
+        while (samples.hasRemaining()) {
+          int count = Math.min(samples.remaining(), PIXEL_CHUNK_SIZE / 2);
+          chunk.asShortBuffer().put(samples.array(), samples.position(), count);
+          samples.position(samples.position() + count);
+          this.out.write(chunk.array(), 0, 2 * count);
+        }
+      }
+    }
+
+    private void writeGroup(ElementGroup<?> group) throws IOException {
+      int flags = 0;
+      if (group instanceof TabularCellElementGroup) {
+        flags = CELL_GROUP_FLAG | getCellFlags((TabularCellElementGroup<?>) group);
+      }
+      this.out.writeByte(flags);
+      this.writeElementReferences(group.getElements());
+    }
+
+    private void writeTable(TabularElementGroup<?> table) throws IOException {
+      writeVarInt(this.out, table.getColumnHeaderCount());
+      writeVarInt(this.out, table.numberOfRows());
+      for (List<? extends TabularCellElementGroup<?>> row : table.getCells()) {
+        writeVarInt(this.out, row.size());
+        for (TabularCellElementGroup<?> cell : row) {
+          this.out.writeByte(getCellFlags(cell));
+          this.writeElementReferences(cell.getElements());
+        }
+      }
+      writeVarInt(this.out, this.groupReference(table.getCaption()));
+      writeVarInt(this.out, table.getConfidences().size());
+      for (Pair<TableDetectionConfidenceFeatures, Double> confidence : table.getConfidences()
+          .keyValuesView()) {
+        this.writeString(confidence.getOne().name());
+        this.out.writeDouble(confidence.getTwo());
+      }
+      MutableList<VectorTag> vectorTags = Lists.mutable.of(VectorTag.values())
+          .select(vectorTag -> table.getVectorIndicesForTag(vectorTag).notEmpty());
+      writeVarInt(this.out, vectorTags.size());
+      for (VectorTag vectorTag : vectorTags) {
+        this.writeString(vectorTag.name());
+        Set<Integer> indices = table.getVectorIndicesForTag(vectorTag);
+        writeVarInt(this.out, indices.size());
+        for (int index : indices) {
+          writeVarInt(this.out, index);
+        }
+      }
+    }
+
+    private void writePositionalContext(Element element) throws IOException {
+      PositionalContext<Element> context = element.getPositionalContext();
+      writeVarInt(this.out, this.elementIds.get(element));
+      this.writeString(
+          context.getPagePartitionType() == null ? null : context.getPagePartitionType().name());
+      this.writeNumber(context.getVisualTop());
+      this.writeNumber(context.getVisualBottom());
+      this.writeNumber(context.getVisualLeft());
+      this.writeNumber(context.getVisualRight());
+      this.out.writeBoolean(context.isVisualTopBorder());
+      this.out.writeBoolean(context.isVisualBottomBorder());
+      this.out.writeBoolean(context.isVisualLeftBorder());
+      this.out.writeBoolean(context.isVisualRightBorder());
+      this.writeNumber(context.getAlignmentLeft());
+      this.writeNumber(context.getAlignmentRight());
+      Rectangle2D boundingRectangle = context.getBoundingRectangle();
+      this.out.writeBoolean(boundingRectangle != null);
+      if (boundingRectangle != null) {
+        this.writeNumber(boundingRectangle.getX());
+        this.writeNumber(boundingRectangle.getY());
+        this.writeNumber(boundingRectangle.getWidth());
+        this.writeNumber(boundingRectangle.getHeight());
+      }
+      writeVarInt(this.out, this.groupReference(context.getBelowElements()));
+      writeVarInt(this.out, this.groupReference(context.getAboveElements()));
+      writeVarInt(this.out, this.groupReference(context.getLeftElements()));
+      writeVarInt(this.out, this.groupReference(context.getRightElements()));
+      writeVarInt(this.out, this.groupReference(context.getVerticalGroup()));
+      writeVarInt(this.out, this.elementReference(context.getShadowedBelowElement()));
+      writeVarInt(this.out, this.elementReference(context.getShadowedAboveElement()));
+      writeVarInt(this.out, this.elementReference(context.getShadowedLeftElement()));
+      writeVarInt(this.out, this.elementReference(context.getShadowedRightElement()));
+      writeVarInt(this.out, this.tableReference(context.getTabularGroup()));
+      writeVarInt(this.out, context.getTabularRow() == null ? 0 : context.getTabularRow() + 1);
+      writeVarInt(this.out,
+          context.getTabularColumn() == null ? 0 : context.getTabularColumn() + 1);
+    }
+
+    private void writeElementReferences(List<? extends Element> elements) throws IOException {
+      writeVarInt(this.out, elements.size());
+      for (Element element : elements) {
+        writeVarInt(this.out, this.elementReference(element) - 1);
+      }
+    }
+
+    private int elementReference(Element element) {
+      if (element == null) {
+        return 0;
+      }
+      Integer elementId = this.elementIds.get(element);
+      if (elementId == null) {
+        throw new IllegalStateException(
+            "Element '" + element.getTextStr() + "' is referenced from outside of its page");
+      }
+      return elementId + 1;
+    }
+
+    private int groupReference(ElementGroup<?> group) {
+      return reference(this.groupIds, this.groups, group);
+    }
+
+    private int tableReference(TabularElementGroup<?> table) {
+      return reference(this.tableIds, this.tables, table);
+    }
+
+    /**
+     * @return id + 1 of {@code item} within {@code items}, adding it if it is not there yet, or 0
+     * if {@code item} is null
+     */
+    private static <T> int reference(Map<Object, Integer> ids, MutableList<T> items, T item) {
+      if (item == null) {
+        return 0;
+      }
+      Integer id = ids.get(item);
+      if (id == null) {
+        id = items.size();
+        ids.put(item, id);
+        items.add(item);
+      }
+      return id + 1;
+    }
+
+    private void writeAnnotations(AnnotableBase annotable) throws IOException {
+      Map<String, String> annotations = annotable.getAnnotations();
+      writeVarInt(this.out, annotations.size());
+      for (Map.Entry<String, String> annotation : annotations.entrySet()) {
+        this.writeString(annotation.getKey());
+        this.writeString(annotation.getValue());
+      }
+    }
+
+    private void writeNumber(double number) throws IOException {
+      float floatNumber = (float) number;
+      if (floatNumber == number) {
+        this.out.writeByte(FLOAT_NUMBER);
+        this.out.writeFloat(floatNumber);
+      } else {
+        this.out.writeByte(DOUBLE_NUMBER);
+        this.out.writeDouble(number);
+      }
+    }
+
+    private void writeString(String string) throws IOException {
+      writeVarInt(this.out, this.strings.reference(string));
+    }
+
+    private void writeBytes(byte[] data) throws IOException {
+      writeVarInt(this.out, data.length);
+      this.out.write(data);
+    }
+
+    private static int getCellFlags(TabularCellElementGroup<?> cell) {
+      return (cell.isVerticallyMerged() ? VERTICALLY_MERGED_FLAG : 0)
+          | (cell.isHorizontallyMerged() ? HORIZONTALLY_MERGED_FLAG : 0);
+    }
+
+    private static boolean isListOf(List<?> list, Class<?> itemClass) {
+      for (Object item : list) {
+        if (!itemClass.isInstance(item)) {
+          return false;
+        }
+      }
+      return true;
+    }
+  }
+}
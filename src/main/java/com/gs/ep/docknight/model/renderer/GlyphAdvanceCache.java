@@ -0,0 +1,79 @@
+package com.gs.ep.docknight.model.renderer;
+
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.eclipse.collections.api.map.primitive.MutableCharFloatMap;
+import org.eclipse.collections.impl.factory.primitive.CharFloatMaps;
+
+import java.io.IOException;
+
+/**
+ * Advance widths of the characters of one font, in font units (1/1000 of the font size), looked up
+ * from the font once per character. Widths of a text at another font size are obtained by scaling,
+ * without measuring the text again. The cache is shared between threads, hence the font is only
+ * accessed while holding its lock.
+ */
+final class GlyphAdvanceCache {
+
+    /**
+     * Marks characters which the font cannot encode
+     */
+    private static final float MISSING = Float.NaN;
+    private static final float FALLBACK_ADVANCE = 500;
+
+    private final PDFont font;
+    private final MutableCharFloatMap advances = CharFloatMaps.mutable.empty();
+
+    GlyphAdvanceCache(PDFont font) {
+        this.font = font;
+    }
+
+    PDFont getFont() {
+        return this.font;
+    }
+
+    /**
+     * @return advance width of {@code c} in font units, or NaN if the font cannot encode it
+     */
+    synchronized float getAdvance(char c) {
+        return this.advances.getIfAbsentPut(c, () -> this.lookUpAdvance(c));
+    }
+
+    private float lookUpAdvance(char c) {
+        try {
+            return this.font.getStringWidth(String.valueOf(c));
+        } catch (Exception e) {
+            return MISSING;
+        }
+    }
+
+    /**
+     * @return advances of all characters of {@code text} in font units, with characters which the
+     * font cannot encode measured as half of the font size
+     */
+    float[] measure(String text) {
+        float[] result = new float[text.length()];
+        for (int i = 0; i < text.length(); i++) {
+            float advance = this.getAdvance(text.charAt(i));
+            result[i] = Float.isNaN(advance) ? FALLBACK_ADVANCE : advance;
+        }
+        return result;
+    }
+
+    /**
+     * @return width of {@code text} at {@code fontSize}, as given by {@link PDFont#getStringWidth}
+     */
+    float getStringWidth(String text, float fontSize) throws IOException {
+        float width = 0;
+        for (int i = 0; i < text.length(); i++) {
+            float advance = this.getAdvance(text.charAt(i));
+            if (Float.isNaN(advance)) {
+                // Characters such as surrogate pairs are only encodable together
+                synchronized (this) {
+                    return this.font.getStringWidth(text) / 1000 * fontSize;
+                }
+            }
+            width += advance;
+        }
+        return width / 1000 * fontSize;
+    }
+}
@@ -83,6 +83,8 @@ import com.gs.ep.docknight.model.element.TextElement;
 import com.gs.ep.docknight.model.element.VerticalLine;
 import com.gs.ep.docknight.model.renderer.construct.HtmlConstruct;
 import com.gs.ep.docknight.model.renderer.construct.HtmlDataSuffix;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
@@ -101,6 +103,7 @@ import org.jsoup.parser.Tag;
 public class HtmlRenderer implements Renderer<String>, AttributeVisitor<org.jsoup.nodes.Element>,
     ElementVisitor<org.jsoup.nodes.Element> {
 
+  private static final String STREAMED_CONTENT_PLACEHOLDER_ID = "docknight-streamed-content";
   private static final List<String> COLORS = Lists.mutable
       .of("Blue", "Brown", "Coral", "DarkGreen", "DarkMagenta", "DarkViolet", "DeepPink",
           "FireBrick",
@@ -116,6 +119,9 @@ public class HtmlRenderer implements Renderer<String>, AttributeVisitor<org.jsou
   private boolean isPositional;
   private boolean pageBreakNosEnabled;
   private Map<Integer, Integer> customGroupings;
+  private boolean isStreaming;
+  private Content streamedContent;
+  private org.jsoup.nodes.Element streamedContentPlaceholder;
 
   public HtmlRenderer() {
   }
@@ -282,6 +288,82 @@ public class HtmlRenderer implements Renderer<String>, AttributeVisitor<org.jsou
     return htmlNode.toString();
   }
 
+  /**
+   * Write the html of {@see com.gs.ep.docknight.model.element.Document document model} to {@code
+   * writer}. The html DOM of the whole document is never built: the skeleton of the html (head,
+   * page header and footer) is built first, then every element of the document content is rendered
+   * within the skeleton, written and discarded before the next one. Attributes are sorted element
+   * by element if required. The output is identical to the one of {@link #render(Document, Map)}.
+   *
+   * @param document document model which is to be converted
+   * @param customGroupings map with key as first integer in segment id and value as group id.
+   * @param writer writer to which the html is written. It is not closed.
+   */
+  public void render(Document document, Map<Integer, Integer> customGroupings, Writer writer)
+      throws IOException {
+    this.customGroupings = customGroupings;
+    org.jsoup.nodes.Document docNode = this.getHtmlDocumentNode();
+    Content content;
+    org.jsoup.nodes.Element placeholder;
+    this.isStreaming = true;
+    try {
+      this.handleElement(document, docNode.body());
+    } finally {
+      content = this.streamedContent;
+      placeholder = this.streamedContentPlaceholder;
+      this.isStreaming = false;
+      this.streamedContent = null;
+      this.streamedContentPlaceholder = null;
+    }
+    org.jsoup.nodes.Element htmlNode =
+        this.withHtmlTag ? docNode : docNode.body().children().first();
+    if (this.sortHtmlAttributesWhileRendering) {
+      sortHtmlNodeAttributes(htmlNode);
+    }
+
+    List<Element> elements = content == null ? Lists.mutable.empty()
+        : content.getValue().getElements();
+    if (elements.isEmpty()) {
+      if (placeholder != null) {
+        placeholder.remove();
+      }
+      writer.write(htmlNode.toString());
+      return;
+    }
+
+    // The html of the skeleton before the placeholder (and its indentation) and after it is the
+    // same with every content element inserted before the placeholder, which gives the html of
+    // the content element alone.
+    String skeletonHtml = htmlNode.toString();
+    String placeholderHtml = placeholder.outerHtml();
+    int placeholderEnd = skeletonHtml.indexOf(placeholderHtml) + placeholderHtml.length();
+    int contentStart = placeholderEnd - placeholderHtml.length();
+    while (contentStart > 0 && Character.isWhitespace(skeletonHtml.charAt(contentStart - 1))) {
+      contentStart--;
+    }
+    int skeletonSuffixLength = skeletonHtml.length() - contentStart;
+    writer.write(skeletonHtml, 0, contentStart);
+
+    org.jsoup.nodes.Element contentNode = placeholder.parent();
+    for (Element element : elements) {
+      int childNodeCount = contentNode.childNodeSize();
+      this.handleElementWithAnnotations(element, contentNode);
+      List<org.jsoup.nodes.Node> elementNodes = Lists.mutable
+          .ofAll(contentNode.childNodes().subList(childNodeCount, contentNode.childNodeSize()));
+      for (org.jsoup.nodes.Node elementNode : elementNodes) {
+        placeholder.before(elementNode);
+        if (this.sortHtmlAttributesWhileRendering
+            && elementNode instanceof org.jsoup.nodes.Element) {
+          sortHtmlNodeAttributes((org.jsoup.nodes.Element) elementNode);
+        }
+      }
+      String html = htmlNode.toString();
+      writer.write(html, contentStart, html.length() - skeletonSuffixLength - contentStart);
+      elementNodes.forEach(org.jsoup.nodes.Node::remove);
+    }
+    writer.write(skeletonHtml, placeholderEnd, skeletonHtml.length() - placeholderEnd);
+  }
+
   /**
    * Get the empty html DOM.
    *
@@ -504,6 +586,13 @@ public class HtmlRenderer implements Renderer<String>, AttributeVisitor<org.jsou
   }
 
   public void handleAttribute(Content content, org.jsoup.nodes.Element htmlNode) {
+    if (this.isStreaming && content.getParentElement() instanceof Document) {
+      // Content of the document is rendered element by element by the streaming renderer
+      this.streamedContent = content;
+      this.streamedContentPlaceholder = htmlNode.appendElement(HtmlConstruct.DIV_TAG)
+          .attr(HtmlConstruct.ID, STREAMED_CONTENT_PLACEHOLDER_ID);
+      return;
+    }
     org.jsoup.nodes.Element wrapperNode = this
         .getWrapperHtmlNodeForContentElement(content, htmlNode);
     for (Element element : content.getValue().getElements()) {
@@ -0,0 +1,81 @@
+package com.gs.ep.docknight.model.renderer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Breaks a text into lines fitting the given widths. Character advances are measured once in font
+ * units, so breaking the same text at another font size only scales and scans them again.
+ */
+final class LineBreaker {
+
+    /**
+     * Lines are only broken when the available width is larger than this
+     */
+    private static final float MIN_BREAK_WIDTH = 10;
+
+    private final String text;
+    private final float[] advances;
+
+    LineBreaker(String text, GlyphAdvanceCache advanceCache) {
+        this.text = text;
+        this.advances = advanceCache.measure(text);
+    }
+
+    String getText() {
+        return this.text;
+    }
+
+    /**
+     * Break the text into lines. Newlines are hard breaks; other lines are broken before the
+     * character which would overflow the width, and are trimmed.
+     *
+     * @param fontSize           font size of the text
+     * @param maxWidthFirstLine  width available to the first line
+     * @param maxWidthOtherLines width available to the other lines
+     * @return lines of the text
+     */
+    List<String> breakLines(float fontSize, float maxWidthFirstLine, float maxWidthOtherLines) {
+        List<String> lines = new ArrayList<>();
+        int end = this.text.length();
+        // Trailing empty blocks are dropped, as String.split does
+        while (end > 0 && this.text.charAt(end - 1) == '\n') {
+            end--;
+        }
+        if (end == 0 && !this.text.isEmpty()) {
+            return lines;
+        }
+        int blockStart = 0;
+        while (blockStart <= end) {
+            int blockEnd = this.text.indexOf('\n', blockStart);
+            if (blockEnd < 0 || blockEnd > end) {
+                blockEnd = end;
+            }
+            if (blockStart == blockEnd) {
+                lines.add("");
+            } else {
+                this.breakBlock(blockStart, blockEnd, fontSize,
+                        lines.isEmpty() ? maxWidthFirstLine : maxWidthOtherLines, maxWidthOtherLines, lines);
+            }
+            blockStart = blockEnd + 1;
+        }
+        return lines;
+    }
+
+    private void breakBlock(int start, int end, float fontSize, float maxWidth, float maxWidthOtherLines,
+            List<String> lines) {
+        int lineStart = start;
+        float currentWidth = 0;
+        for (int i = start; i < end; i++) {
+            float charWidth = this.advances[i] / 1000 * fontSize;
+            if (i > lineStart && maxWidth > MIN_BREAK_WIDTH && currentWidth + charWidth > maxWidth) {
+                lines.add(this.text.substring(lineStart, i).trim());
+                lineStart = i;
+                currentWidth = 0;
+                maxWidth = maxWidthOtherLines;
+            }
+            currentWidth += charWidth;
+        }
+        lines.add(this.text.substring(lineStart, end).trim());
+    }
+}
@@ -1,6 +1,8 @@
 package com.gs.ep.docknight.model.renderer;
 
+import com.gs.ep.docknight.model.ComparableBufferedImage;
 import com.gs.ep.docknight.model.Element;
+import com.gs.ep.docknight.model.EncodedImage;
 import com.gs.ep.docknight.model.Renderer;
 import com.gs.ep.docknight.model.attribute.*;
 import com.gs.ep.docknight.model.element.Document;
@@ -10,12 +12,18 @@ import com.gs.ep.docknight.model.element.Page;
 import com.gs.ep.docknight.model.element.TextElement;
 import com.gs.ep.docknight.model.element.VerticalLine;
 import com.gs.ep.docknight.model.attribute.FirstLineIndent;
+import org.apache.commons.io.output.CloseShieldOutputStream;
+import org.apache.pdfbox.cos.COSDictionary;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import org.apache.pdfbox.multipdf.PDFCloneUtility;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.pdmodel.PDPage;
 import org.apache.pdfbox.pdmodel.PDPageContentStream;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.common.PDStream;
 import org.apache.pdfbox.pdmodel.font.PDFont;
-import org.apache.pdfbox.pdmodel.font.PDType0Font;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
@@ -23,69 +31,274 @@ import org.eclipse.collections.api.tuple.Pair;
 
 import java.awt.Color;
 import java.io.ByteArrayOutputStream;
-import java.io.File;
+import java.io.Closeable;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Renders a DocModel Document back to a PDF file.
  */
 public class PdfRenderer implements Renderer<byte[]> {
 
+    public static final String DEFAULT_FONTS_DIR = "src/main/resources/fonts";
+    // 并行生成页面时每个线程最多缓冲的页数
+    private static final int MAX_BUFFERED_PAGES_PER_THREAD = 2;
+
     private PDFont regularFont;
     private PDFont boldFont;
     private final String fontsDir;
+    // 与翻译器共享的文本测量，字符宽度按字体缓存
+    private final TextMeasurer textMeasurer;
+    private final MemoryUsageSetting memoryUsageSetting;
+    private int parallelism = 1;
+    // 当前文档中已写入的图片
+    private final Map<ComparableBufferedImage, PDImageXObject> imageObjects = new IdentityHashMap<>();
 
     public PdfRenderer() {
-        this("src/main/resources/fonts");
+        this(DEFAULT_FONTS_DIR);
     }
 
     public PdfRenderer(String fontsDir) {
+        this(fontsDir, MemoryUsageSetting.setupMainMemoryOnly());
+    }
+
+    /**
+     * @param memoryUsageSetting 渲染中页面内容流和图片流的存放位置。大文档可使用
+     *                           {@link MemoryUsageSetting#setupTempFileOnly()} 等临时文件设置，
+     *                           使内存占用不随输出大小增长
+     */
+    public PdfRenderer(String fontsDir, MemoryUsageSetting memoryUsageSetting) {
         this.fontsDir = fontsDir;
+        this.textMeasurer = TextMeasurer.of(fontsDir);
+        this.memoryUsageSetting = memoryUsageSetting;
     }
 
     @Override
     public byte[] render(Document document) {
-        try (PDDocument pdDocument = new PDDocument()) {
-            loadFonts(pdDocument);
-            for (Element element : document.getContainingElements(Page.class)) {
-                renderPage(pdDocument, (Page) element);
-            }
+        try {
             ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            pdDocument.save(baos);
+            render(document, baos);
             return baos.toByteArray();
         } catch (IOException e) {
             throw new RuntimeException("Failed to render PDF", e);
         }
     }
 
-    private void loadFonts(PDDocument pdDocument) {
-        try {
-            File regFile = new File(fontsDir, "NotoSansSC-Regular.ttf");
-            if (regFile.exists()) {
-                this.regularFont = PDType0Font.load(pdDocument, regFile);
+    /**
+     * 将文档渲染为 PDF 并直接写入输出流，不在内存中保留整个输出文件。输出流不会被关闭。
+     */
+    public void render(Document document, OutputStream outputStream) throws IOException {
+        List<Page> pages = new ArrayList<>();
+        for (Element element : document.getContainingElements(Page.class)) {
+            pages.add((Page) element);
+        }
+        try (PDDocument pdDocument = new PDDocument(memoryUsageSetting)) {
+            loadFonts(pdDocument);
+            if (Math.min(parallelism, pages.size()) > 1) {
+                renderPagesInParallel(pdDocument, pages);
             } else {
-                this.regularFont = PDType1Font.HELVETICA;
+                for (Page page : pages) {
+                    PDPage pdPage = createPage(page);
+                    pdDocument.addPage(pdPage);
+                    renderPage(pdDocument, pdPage, page, imageObjects);
+                }
             }
+            // PDDocument.save 写完后会关闭输出流
+            pdDocument.save(new CloseShieldOutputStream(outputStream));
+        } finally {
+            imageObjects.clear();
+        }
+    }
 
-            File boldFile = new File(fontsDir, "NotoSansSC-Bold.ttf");
-            if (boldFile.exists()) {
-                this.boldFont = PDType0Font.load(pdDocument, boldFile);
-            } else {
-                this.boldFont = this.regularFont;
+    /**
+     * 设置并行生成页面内容的线程数，默认为 1，即在当前线程中逐页生成
+     */
+    public PdfRenderer withParallelism(int parallelism) {
+        this.parallelism = Math.max(1, parallelism);
+        return this;
+    }
+
+    /**
+     * 在工作线程中并行生成页面：每页的内容流和图片写入该页独立的临时文档，再由当前线程按页序
+     * 复制到输出文档中。PDDocument 不是线程安全的，输出文档只在当前线程中访问。同时缓冲的页数
+     * 有上限，使内存占用不随页数增长。
+     */
+    private void renderPagesInParallel(PDDocument pdDocument, List<Page> pages) throws IOException {
+        int poolSize = Math.min(parallelism, pages.size());
+        ExecutorService executor = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "pdf-renderer-page");
+            thread.setDaemon(true);
+            return thread;
+        });
+        PDFCloneUtility cloneUtility = new PDFCloneUtility(pdDocument);
+        Deque<Future<PageBuffer>> pendingPages = new ArrayDeque<>();
+        Set<PDFont> usedFonts = new LinkedHashSet<>();
+        try {
+            int nextPage = 0;
+            while (nextPage < pages.size() || !pendingPages.isEmpty()) {
+                while (nextPage < pages.size() && pendingPages.size() < MAX_BUFFERED_PAGES_PER_THREAD * poolSize) {
+                    Page page = pages.get(nextPage++);
+                    pendingPages.add(executor.submit(() -> bufferPage(page)));
+                }
+                try (PageBuffer pageBuffer = getPageBuffer(pendingPages.poll())) {
+                    addBufferedPage(pdDocument, cloneUtility, pageBuffer, usedFonts);
+                }
+            }
+            registerFontsToSubset(pdDocument, usedFonts);
+        } finally {
+            executor.shutdownNow();
+            for (Future<PageBuffer> pendingPage : pendingPages) {
+                if (!pendingPage.cancel(true)) {
+                    try {
+                        getPageBuffer(pendingPage).close();
+                    } catch (IOException | RuntimeException e) {
+                        // 该页本身已失败，异常已由之前的页抛出
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * 字体只对调用 setFont 的内容流所属文档登记子集化，页面在临时文档中生成时需单独向输出文档登记
+     */
+    private static void registerFontsToSubset(PDDocument pdDocument, Set<PDFont> fonts) throws IOException {
+        try (PDPageContentStream contentStream = new PDPageContentStream(pdDocument, new PDPage())) {
+            for (PDFont font : fonts) {
+                contentStream.setFont(font, 1);
+            }
+        }
+    }
+
+    private PageBuffer bufferPage(Page page) throws IOException {
+        PDDocument scratchDocument = new PDDocument(memoryUsageSetting);
+        try {
+            PDPage pdPage = createPage(page);
+            Map<ComparableBufferedImage, PDImageXObject> pageImages = new IdentityHashMap<>();
+            renderPage(scratchDocument, pdPage, page, pageImages);
+            return new PageBuffer(scratchDocument, pdPage, pageImages);
+        } catch (IOException | RuntimeException e) {
+            scratchDocument.close();
+            throw e;
+        }
+    }
+
+    private static PageBuffer getPageBuffer(Future<PageBuffer> pendingPage) throws IOException {
+        try {
+            return pendingPage.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while rendering pages");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("Failed to render page", e.getCause());
+        }
+    }
+
+    /**
+     * 将临时文档中生成的页面复制到输出文档：内容流和图片复制到输出文档中，字体本就属于输出文档。
+     * 与之前页面相同的图片只引用已复制的图片。
+     */
+    private void addBufferedPage(PDDocument pdDocument, PDFCloneUtility cloneUtility, PageBuffer pageBuffer,
+            Set<PDFont> usedFonts) throws IOException {
+        PDPage pdPage = pageBuffer.page;
+        COSDictionary fonts = pdPage.getResources() == null ? null
+                : pdPage.getResources().getCOSObject().getCOSDictionary(COSName.FONT);
+        if (fonts != null) {
+            for (PDFont font : new PDFont[]{regularFont, boldFont}) {
+                if (fonts.getValues().contains(font.getCOSObject())) {
+                    usedFonts.add(font);
+                }
+            }
+        }
+        COSDictionary pageDictionary = pdPage.getCOSObject();
+        pageDictionary.setItem(COSName.CONTENTS,
+                cloneUtility.cloneForNewDocument(pageDictionary.getDictionaryObject(COSName.CONTENTS)));
+        COSDictionary xObjects = pageBuffer.images.isEmpty() ? null
+                : pdPage.getResources().getCOSObject().getCOSDictionary(COSName.XOBJECT);
+        for (Map.Entry<ComparableBufferedImage, PDImageXObject> pageImage : pageBuffer.images.entrySet()) {
+            PDImageXObject imageXObject = imageObjects.get(pageImage.getKey());
+            if (imageXObject == null) {
+                COSStream imageStream = (COSStream) cloneUtility
+                        .cloneForNewDocument(pageImage.getValue().getCOSObject());
+                imageXObject = new PDImageXObject(new PDStream(imageStream), null);
+                imageObjects.put(pageImage.getKey(), imageXObject);
+            }
+            for (COSName name : xObjects.keySet()) {
+                if (xObjects.getDictionaryObject(name) == pageImage.getValue().getCOSObject()) {
+                    xObjects.setItem(name, imageXObject);
+                }
             }
+        }
+        pdDocument.addPage(pdPage);
+    }
+
+    /**
+     * 在工作线程中生成的页面，其内容流和图片保存在该页的临时文档中，直到被复制到输出文档
+     */
+    private static final class PageBuffer implements Closeable {
+
+        private final PDDocument scratchDocument;
+        private final PDPage page;
+        private final Map<ComparableBufferedImage, PDImageXObject> images;
+
+        private PageBuffer(PDDocument scratchDocument, PDPage page,
+                Map<ComparableBufferedImage, PDImageXObject> images) {
+            this.scratchDocument = scratchDocument;
+            this.page = page;
+            this.images = images;
+        }
+
+        @Override
+        public void close() throws IOException {
+            scratchDocument.close();
+        }
+    }
+
+    private void loadFonts(PDDocument pdDocument) {
+        try {
+            // 字体文件每个进程只解析一次，每个文档只创建嵌入子集所需的字体对象
+            RendererFonts fonts = RendererFonts.of(fontsDir);
+            this.regularFont = fonts.loadRegular(pdDocument);
+            this.boldFont = fonts.loadBold(pdDocument, this.regularFont);
         } catch (IOException e) {
             this.regularFont = PDType1Font.HELVETICA;
             this.boldFont = PDType1Font.HELVETICA;
         }
     }
 
-    private void renderPage(PDDocument pdDocument, Page page) throws IOException {
+    private static PDPage createPage(Page page) {
         double width = page.getAttribute(Width.class).getMagnitude();
         double height = page.getAttribute(Height.class).getMagnitude();
+        return new PDPage(new PDRectangle((float) width, (float) height));
+    }
 
-        PDPage pdPage = new PDPage(new PDRectangle((float) width, (float) height));
-        pdDocument.addPage(pdPage);
+    /**
+     * 将页面内容写入 {@code pdPage}，图片写入 {@code pdDocument}
+     *
+     * @param imageObjects {@code pdDocument} 中已写入的图片
+     */
+    private void renderPage(PDDocument pdDocument, PDPage pdPage, Page page,
+            Map<ComparableBufferedImage, PDImageXObject> imageObjects) throws IOException {
+        double height = page.getAttribute(Height.class).getMagnitude();
 
         try (PDPageContentStream contentStream = new PDPageContentStream(pdDocument, pdPage)) {
             // 1. Draw Page Background Colors
@@ -210,7 +423,7 @@ public class PdfRenderer implements Renderer<byte[]> {
                     if (element instanceof TextElement) {
                         renderText(contentStream, (TextElement) element, height);
                     } else if (element instanceof Image) {
-                        renderImage(pdDocument, contentStream, (Image) element, height);
+                        renderImage(pdDocument, contentStream, (Image) element, height, imageObjects);
                     } else if (element instanceof HorizontalLine) {
                         // Only render lines that are part of tables
                         if (isTableLine(element, tableRegions)) {
@@ -318,6 +531,7 @@ public class PdfRenderer implements Renderer<byte[]> {
 
         // Font selection
         PDFont font = isBold ? boldFont : regularFont;
+        GlyphAdvanceCache advanceCache = textMeasurer.getAdvances(isBold);
 
         // Color selection
         if (element.hasAttribute(com.gs.ep.docknight.model.attribute.Color.class)) {
@@ -329,18 +543,20 @@ public class PdfRenderer implements Renderer<byte[]> {
 
         // Slight font size adjustment (make smaller by 1 as requested)
         // Ensure effective font size doesn't drop too low before shrinking logic
-        fontSize = Math.max(6.0f, (float) fontSize - 1.0f);
+        fontSize = TextMeasurer.getRenderFontSize(fontSize);
 
         // Split text into lines (respecting existing newlines and first line indent)
+        // Character widths are measured once; re-wrapping at another font size only scales them
+        LineBreaker lineBreaker = new LineBreaker(text, advanceCache);
         List<String> lines;
         if (firstLineIndent > 0) {
-            lines = wrapText(text, font, (float) fontSize, (float) (elementWidth - firstLineIndent),
+            lines = lineBreaker.breakLines((float) fontSize, (float) (elementWidth - firstLineIndent),
                     (float) elementWidth);
         } else {
-            lines = wrapText(text, font, (float) fontSize, (float) elementWidth, (float) elementWidth);
+            lines = lineBreaker.breakLines((float) fontSize, (float) elementWidth, (float) elementWidth);
         }
 
-        float lineHeightFactor = 1.4f; // reduced from 1.4f as requested
+        float lineHeightFactor = TextMeasurer.LINE_HEIGHT_FACTOR;
         float lineHeight = (float) fontSize * lineHeightFactor;
         float totalTextHeight = lines.size() * lineHeight;
 
@@ -360,11 +576,12 @@ public class PdfRenderer implements Renderer<byte[]> {
                 }
 
                 // Re-wrap to check
+                lineBreaker = new LineBreaker(tempText, advanceCache);
                 if (firstLineIndent > 0) {
-                    lines = wrapText(tempText, font, (float) fontSize, (float) (elementWidth - firstLineIndent),
+                    lines = lineBreaker.breakLines((float) fontSize, (float) (elementWidth - firstLineIndent),
                             (float) elementWidth);
                 } else {
-                    lines = wrapText(tempText, font, (float) fontSize, (float) elementWidth, (float) elementWidth);
+                    lines = lineBreaker.breakLines((float) fontSize, (float) elementWidth, (float) elementWidth);
                 }
 
                 dotIndex = tempText.lastIndexOf("....");
@@ -388,10 +605,10 @@ public class PdfRenderer implements Renderer<byte[]> {
             if (firstLineIndent > 0) {
                 // Scale indent proportionally if needed, or keep fixed. Keeping fixed usually
                 // safer.
-                lines = wrapText(text, font, (float) fontSize, (float) (elementWidth - firstLineIndent),
+                lines = lineBreaker.breakLines((float) fontSize, (float) (elementWidth - firstLineIndent),
                         (float) elementWidth);
             } else {
-                lines = wrapText(text, font, (float) fontSize, (float) elementWidth, (float) elementWidth);
+                lines = lineBreaker.breakLines((float) fontSize, (float) elementWidth, (float) elementWidth);
             }
             totalTextHeight = lines.size() * lineHeight;
         }
@@ -408,7 +625,7 @@ public class PdfRenderer implements Renderer<byte[]> {
             String line = lines.get(i);
             float lineWidth = 0;
             try {
-                lineWidth = font.getStringWidth(line) / 1000 * (float) fontSize;
+                lineWidth = advanceCache.getStringWidth(line, (float) fontSize);
             } catch (Exception e) {
                 lineWidth = (float) elementWidth;
             }
@@ -434,7 +651,10 @@ public class PdfRenderer implements Renderer<byte[]> {
             contentStream.setFont(font, (float) fontSize);
             contentStream.newLineAtOffset(x, y);
             try {
-                contentStream.showText(line);
+                // 并行生成页面时字体被多个线程共享，编码文本会记录子集所需字符
+                synchronized (font) {
+                    contentStream.showText(line);
+                }
             } catch (Exception e) {
                 // If character encoding fails, skip or use fallback (skipped for now)
             }
@@ -442,97 +662,22 @@ public class PdfRenderer implements Renderer<byte[]> {
         }
     }
 
-    private List<String> wrapText(String text, PDFont font, float fontSize, float maxWidthFirstLine,
-            float maxWidthOtherLines) throws IOException {
-        List<String> lines = new java.util.ArrayList<>();
-        String[] blocks = text.split("\n");
-        for (String block : blocks) {
-            if (block.isEmpty()) {
-                lines.add("");
-                continue;
-            }
-            StringBuilder currentLine = new StringBuilder();
-            float currentWidth = 0;
-            float maxWidth = (lines.isEmpty() && currentLine.length() == 0) ? maxWidthFirstLine : maxWidthOtherLines;
-
-            for (int i = 0; i < block.length(); i++) {
-                char c = block.charAt(i);
-                String segment = String.valueOf(c);
-                float charWidth = 0;
-                try {
-                    charWidth = font.getStringWidth(segment) / 1000 * fontSize;
-                } catch (Exception e) {
-                    charWidth = fontSize * 0.5f;
-                }
-
-                // Update maxWidth based on whether we are on a new line that isn't the
-                // text-block's very first line logic?
-                // Actually simple logic: if we just added a line to 'lines', all subsequent
-                // lines use maxWidthOtherLines.
-                // But specifically inside this loop we are building ONE logical paragraph
-                // (block).
-                // The first line of this BLOCK uses maxWidthFirstLine ONLY if it's the very
-                // first line of the function call?
-                // No, standard hanging indent applies to the paragraph. Assuming 'text' passed
-                // here is a paragraph.
-
-                // Correction: If 'wrapText' is called with a full text, and we split by \n,
-                // each \n is a hard break.
-                // Usually hanging indent applies to the *visual* lines of a single paragraph.
-                // If the text contains multiple paragraphs (hard newlines), we might need to
-                // reset.
-                // However, our translator usually sends one paragraph per element.
-                // Let's assume 'text' is one paragraph. If it has \n, treat them as hard
-                // breaks,
-                // but strictly speaking, hanging indent usually resets after a hard break.
-                // Let's just assume simple wrapping: "Lines" list index determines indentation.
-                // Index 0 -> First Line Width. Index > 0 -> Other Line Width.
-
-                // Wait, the inner loop builds lines.
-                // We need to check if we are *starting* a new line.
-
-                if (currentLine.length() > 0 && maxWidth > 10 && currentWidth + charWidth > maxWidth) {
-                    lines.add(currentLine.toString().trim());
-                    currentLine = new StringBuilder();
-                    currentWidth = 0;
-                    maxWidth = maxWidthOtherLines; // Subsequent lines in this block
-                }
-                currentLine.append(c);
-                currentWidth += charWidth;
-            }
-            if (currentLine.length() > 0) {
-                lines.add(currentLine.toString().trim());
-            }
-            // After a hard newline (end of block), typically the *next* block starts as a
-            // new paragraph.
-            // If we want to support multiple paragraphs in one element with hanging indent,
-            // logic should probably reset to maxWidthFirstLine for the next block?
-            // BUT, usually we only use hanging indent for single "List Item" paragraphs.
-            // Let's stick to the current logic which effectively treats the whole text as
-            // one flow
-            // EXCEPT that I need to ensure lines added preserve the logic.
-        }
-        return lines;
-    }
-
-    // Helper for backward compatibility or simpler calls if needed, though not
-    // strictly required if we update all calls.
-    // But modifying the signature directly is fine since this is private.
-    private List<String> wrapText(String text, PDFont font, float fontSize, float maxWidth) throws IOException {
-        return wrapText(text, font, fontSize, maxWidth, maxWidth);
-    }
-
-    private void renderImage(PDDocument pdDocument, PDPageContentStream contentStream, Image element, double pageHeight)
-            throws IOException {
+    private void renderImage(PDDocument pdDocument, PDPageContentStream contentStream, Image element, double pageHeight,
+            Map<ComparableBufferedImage, PDImageXObject> imageObjects) throws IOException {
         if (!element.hasAttribute(ImageData.class))
             return;
 
-        com.gs.ep.docknight.model.ComparableBufferedImage cbi = element.getAttribute(ImageData.class).getValue();
+        ComparableBufferedImage cbi = element.getAttribute(ImageData.class).getValue();
         if (cbi == null || cbi.getBufferedImage() == null)
             return;
 
         java.awt.image.BufferedImage bufferedImage = cbi.getBufferedImage();
-        PDImageXObject imageXObject = LosslessFactory.createFromImage(pdDocument, bufferedImage);
+        // 同一图片在文档中只写入一次
+        PDImageXObject imageXObject = imageObjects.get(cbi);
+        if (imageXObject == null) {
+            imageXObject = createImageObject(pdDocument, cbi);
+            imageObjects.put(cbi, imageXObject);
+        }
 
         double left = element.getAttribute(Left.class).getMagnitude();
         double top = element.getAttribute(Top.class).getMagnitude();
@@ -575,6 +720,34 @@ public class PdfRenderer implements Renderer<byte[]> {
                 (float) renderHeight);
     }
 
+    /**
+     * 未修改的图片直接复制源文档中的编码流（DCT/JPX/JBIG2），避免重新解码和无损压缩；其余图片用
+     * {@link LosslessFactory} 编码
+     */
+    private static PDImageXObject createImageObject(PDDocument pdDocument, ComparableBufferedImage image)
+            throws IOException {
+        EncodedImage encodedImage = image.getEncodedImage();
+        if (encodedImage == null) {
+            return LosslessFactory.createFromImage(pdDocument, image.getBufferedImage());
+        }
+        COSStream stream = pdDocument.getDocument().createCOSStream();
+        try (OutputStream rawStream = stream.createRawOutputStream()) {
+            rawStream.write(encodedImage.getData());
+        }
+        stream.setItem(COSName.TYPE, COSName.XOBJECT);
+        stream.setItem(COSName.SUBTYPE, COSName.IMAGE);
+        stream.setItem(COSName.FILTER, COSName.getPDFName(encodedImage.getFilter()));
+        stream.setInt(COSName.WIDTH, encodedImage.getWidth());
+        stream.setInt(COSName.HEIGHT, encodedImage.getHeight());
+        if (encodedImage.getBitsPerComponent() > 0) {
+            stream.setInt(COSName.BITS_PER_COMPONENT, encodedImage.getBitsPerComponent());
+        }
+        if (encodedImage.getColorSpace() != null) {
+            stream.setItem(COSName.COLORSPACE, COSName.getPDFName(encodedImage.getColorSpace()));
+        }
+        return new PDImageXObject(new PDStream(stream), null);
+    }
+
     private void renderHorizontalLine(PDPageContentStream contentStream, HorizontalLine element, double pageHeight)
             throws IOException {
         double top = element.getAttribute(Top.class).getMagnitude();
@@ -0,0 +1,96 @@
+package com.gs.ep.docknight.model.renderer;
+
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * TrueType fonts of a fonts directory, parsed once per process. Every document only gets its own
+ * {@link PDType0Font} on top of the parsed font, which embeds the subset of glyphs the document uses
+ * when it is saved. Helvetica is used when the font files are missing or cannot be read.
+ */
+final class RendererFonts {
+
+    static final String REGULAR_FONT_FILE = "NotoSansSC-Regular.ttf";
+    static final String BOLD_FONT_FILE = "NotoSansSC-Bold.ttf";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RendererFonts.class);
+    private static final Map<String, RendererFonts> FONTS = new ConcurrentHashMap<>();
+
+    private final SharedFont regularFont;
+    private final SharedFont boldFont;
+
+    private RendererFonts(String fontsDir) {
+        this.regularFont = new SharedFont(new File(fontsDir, REGULAR_FONT_FILE));
+        this.boldFont = new SharedFont(new File(fontsDir, BOLD_FONT_FILE));
+    }
+
+    /**
+     * @return fonts of {@code fontsDir}, shared by the whole process
+     */
+    static RendererFonts of(String fontsDir) {
+        return FONTS.computeIfAbsent(new File(fontsDir).getAbsolutePath(), RendererFonts::new);
+    }
+
+    /**
+     * @return regular font to use within {@code pdDocument}
+     */
+    PDFont loadRegular(PDDocument pdDocument) throws IOException {
+        TrueTypeFont font = this.regularFont.get();
+        return font == null ? PDType1Font.HELVETICA : PDType0Font.load(pdDocument, font, true);
+    }
+
+    /**
+     * @return bold font to use within {@code pdDocument}, or {@code regularFont} if there is no bold font
+     */
+    PDFont loadBold(PDDocument pdDocument, PDFont regularFont) throws IOException {
+        TrueTypeFont font = this.boldFont.get();
+        return font == null ? regularFont : PDType0Font.load(pdDocument, font, true);
+    }
+
+    /**
+     * Font file which is parsed on first use. Only a successfully parsed font is kept; a missing or
+     * unreadable file is tried again on the next use.
+     */
+    private static final class SharedFont {
+
+        private final File fontFile;
+        // Parsed font is never closed, since documents of the whole process share it
+        private volatile TrueTypeFont font;
+
+        SharedFont(File fontFile) {
+            this.fontFile = fontFile;
+        }
+
+        /**
+         * @return parsed font, or null if the font file is missing or cannot be read
+         */
+        TrueTypeFont get() {
+            TrueTypeFont parsedFont = this.font;
+            if (parsedFont == null && this.fontFile.exists()) {
+                synchronized (this) {
+                    parsedFont = this.font;
+                    if (parsedFont == null) {
+                        try {
+                            parsedFont = new TTFParser().parse(this.fontFile);
+                            this.font = parsedFont;
+                        } catch (IOException e) {
+                            LOGGER.warn("Unable to read font " + this.fontFile + ", a fallback font is used instead", e);
+                        }
+                    }
+                }
+            }
+            return parsedFont;
+        }
+    }
+}
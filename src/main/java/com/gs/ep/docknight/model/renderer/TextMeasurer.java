@@ -0,0 +1,107 @@
+package com.gs.ep.docknight.model.renderer;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Measures text with the fonts used by {@link PdfRenderer}, so that the translator can lay out
+ * translated text with the line breaks and heights it will be rendered with. Character advances of
+ * the fonts are cached; one instance per fonts directory is shared by all the translators and
+ * renderers of the process.
+ */
+public final class TextMeasurer {
+
+    /**
+     * Line height of rendered text relative to its font size
+     */
+    public static final float LINE_HEIGHT_FACTOR = 1.4f;
+    private static final float MIN_FONT_SIZE = 6.0f;
+
+    private static final Map<String, TextMeasurer> MEASURERS = new ConcurrentHashMap<>();
+
+    // Fonts are only measured, the document is never saved
+    private final PDDocument fontDocument = new PDDocument();
+    private final GlyphAdvanceCache regularAdvances;
+    private final GlyphAdvanceCache boldAdvances;
+
+    private TextMeasurer(String fontsDir) {
+        PDFont regularFont;
+        PDFont boldFont;
+        try {
+            RendererFonts fonts = RendererFonts.of(fontsDir);
+            regularFont = fonts.loadRegular(this.fontDocument);
+            boldFont = fonts.loadBold(this.fontDocument, regularFont);
+        } catch (IOException e) {
+            regularFont = PDType1Font.HELVETICA;
+            boldFont = PDType1Font.HELVETICA;
+        }
+        this.regularAdvances = new GlyphAdvanceCache(regularFont);
+        this.boldAdvances = boldFont == regularFont ? this.regularAdvances : new GlyphAdvanceCache(boldFont);
+    }
+
+    /**
+     * @return measurer of the fonts in {@code fontsDir}, shared by the whole process
+     */
+    public static TextMeasurer of(String fontsDir) {
+        return MEASURERS.computeIfAbsent(new File(fontsDir).getAbsolutePath(), TextMeasurer::new);
+    }
+
+    /**
+     * @return font size with which text of {@code fontSize} is rendered
+     */
+    public static float getRenderFontSize(double fontSize) {
+        return Math.max(MIN_FONT_SIZE, (float) fontSize - 1.0f);
+    }
+
+    GlyphAdvanceCache getAdvances(boolean bold) {
+        return bold ? this.boldAdvances : this.regularAdvances;
+    }
+
+    /**
+     * Break {@code text} into the lines it is rendered with
+     *
+     * @param text               text to break
+     * @param bold               whether the text is rendered in bold font
+     * @param fontSize           render font size
+     * @param maxWidthFirstLine  width available to the first line
+     * @param maxWidthOtherLines width available to the other lines
+     * @return lines of the text
+     */
+    public List<String> breakLines(String text, boolean bold, float fontSize, float maxWidthFirstLine,
+            float maxWidthOtherLines) {
+        return new LineBreaker(text, this.getAdvances(bold)).breakLines(fontSize, maxWidthFirstLine,
+                maxWidthOtherLines);
+    }
+
+    /**
+     * @return height of {@code text} rendered within {@code width}, with its first line indented by
+     * {@code firstLineIndent}
+     */
+    public float getTextHeight(String text, boolean bold, float fontSize, float width, float firstLineIndent) {
+        int lineCount = this.breakLines(text, bold, fontSize, width - firstLineIndent, width).size();
+        return lineCount * (fontSize * LINE_HEIGHT_FACTOR);
+    }
+
+    /**
+     * @return width of the widest of the lines of {@code text} separated by newlines
+     */
+    public float getMaxLineWidth(String text, boolean bold, float fontSize) {
+        GlyphAdvanceCache advances = this.getAdvances(bold);
+        float maxWidth = 0;
+        for (String line : text.split("\n")) {
+            try {
+                maxWidth = Math.max(maxWidth, advances.getStringWidth(line, fontSize));
+            } catch (Exception e) {
+                maxWidth = Math.max(maxWidth, line.length() * fontSize);
+            }
+        }
+        return maxWidth;
+    }
+}
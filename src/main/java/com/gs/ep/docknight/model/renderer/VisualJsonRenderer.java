@@ -22,7 +22,10 @@ import com.gs.ep.docknight.model.Renderer;
 import com.gs.ep.docknight.model.element.Document;
 import com.gs.ep.docknight.model.extractor.PhraseExtractor;
 import com.gs.ep.docknight.model.extractor.TableExtractor;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.Map;
+import java.util.function.Consumer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -54,6 +57,42 @@ public class VisualJsonRenderer implements Renderer<String> {
     return combined;
   }
 
+  /**
+   * Render the {@code document} into map object whose phrase pages are generated while the map is
+   * serialized
+   *
+   * @param document     document model
+   * @param pageListener listener called with each phrase page map once it is generated
+   * @return map representation of document model with lazily generated phrase pages
+   * @see PhraseExtractor#extractInVGOrderLazily(Document, Consumer)
+   */
+  public Map<String, Object> renderAsLazyMap(Document document, Consumer<Map> pageListener) {
+    Map<String, Object> phrases = new PhraseExtractor()
+        .extractInVGOrderLazily(document, pageListener);
+    Map<String, Object> tables = (Map<String, Object>) TableExtractor
+        .extract(document, document.getName(), false);
+    return Maps.mutable.of("phrases", phrases, "tables", tables);
+  }
+
+  /**
+   * Render the {@code document} as visual json into {@code outputStream}. Phrase pages are written
+   * one at a time as the document is traversed, instead of building the whole json in memory.
+   * {@code outputStream} is left open.
+   *
+   * @param document     document model
+   * @param outputStream stream to write visual json to
+   * @throws IOException exception to throw in case writing failed
+   */
+  public void render(Document document, OutputStream outputStream) throws IOException {
+    long startTime = System.currentTimeMillis();
+    PhraseExtractor.writeJson(this.renderAsLazyMap(document, page -> {
+    }), outputStream);
+    float timeTaken = (System.currentTimeMillis() - startTime) / 1000.0f;
+    LOGGER
+        .info("[{}] : {} took : {}s", document.getDocumentSource(), this.getClass().getSimpleName(),
+            timeTaken);
+  }
+
   @Override
   public String render(Document document) {
     try {
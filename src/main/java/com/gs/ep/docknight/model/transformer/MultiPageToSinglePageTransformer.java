@@ -102,8 +102,8 @@ public class MultiPageToSinglePageTransformer implements Transformer<Document, D
     double contentRight = 0;
 
     for (Element page : docContent) {
-      double pageHeight = page.getAttribute(Height.class).getMagnitude();
-      double pageWidth = page.getAttribute(Width.class).getMagnitude();
+      double pageHeight = page.getHeightMagnitude();
+      double pageWidth = page.getWidthMagnitude();
 
       for (Element element : page.getAttribute(PositionalContent.class).getElementList()
           .getElements()) {
@@ -113,14 +113,13 @@ public class MultiPageToSinglePageTransformer implements Transformer<Document, D
           element.removeAttribute(Color.class);
           Left leftAttribute = element.getAttribute(Left.class);
           double left = leftAttribute.getMagnitude();
-          double stretch = element instanceof GraphicalElement ? element.getAttribute(Stretch.class)
-              .getMagnitude() : 0;
+          double stretch = element instanceof GraphicalElement ? element.getStretchMagnitude() : 0;
           double height =
-              element instanceof Rectangle ? element.getAttribute(Height.class).getMagnitude() : 0;
+              element instanceof Rectangle ? element.getHeightMagnitude() : 0;
           double bottom =
               height > 0 ? top + height : element instanceof VerticalLine ? top + stretch : top;
           double width =
-              element instanceof Rectangle ? element.getAttribute(Width.class).getMagnitude() : 0;
+              element instanceof Rectangle ? element.getWidthMagnitude() : 0;
           double right =
               width > 0 ? left + width : element instanceof HorizontalLine ? left + stretch : left;
           double newLeft = this.shiftHorizontalCoordinate(left);
@@ -17,34 +17,23 @@
 package com.gs.ep.docknight.model.transformer;
 
 import static com.googlecode.cqengine.query.QueryFactory.and;
-import static com.googlecode.cqengine.query.QueryFactory.applyThresholds;
-import static com.googlecode.cqengine.query.QueryFactory.ascending;
 import static com.googlecode.cqengine.query.QueryFactory.between;
-import static com.googlecode.cqengine.query.QueryFactory.descending;
-import static com.googlecode.cqengine.query.QueryFactory.greaterThan;
-import static com.googlecode.cqengine.query.QueryFactory.lessThan;
 import static com.googlecode.cqengine.query.QueryFactory.or;
-import static com.googlecode.cqengine.query.QueryFactory.orderBy;
-import static com.googlecode.cqengine.query.QueryFactory.queryOptions;
-import static com.googlecode.cqengine.query.QueryFactory.threshold;
 
 import com.googlecode.cqengine.ConcurrentIndexedCollection;
 import com.googlecode.cqengine.IndexedCollection;
 import com.googlecode.cqengine.attribute.SimpleAttribute;
 import com.googlecode.cqengine.index.navigable.NavigableIndex;
-import com.googlecode.cqengine.query.Query;
 import com.googlecode.cqengine.query.logical.Or;
-import com.googlecode.cqengine.query.option.EngineThresholds;
-import com.googlecode.cqengine.query.option.OrderByOption;
 import com.googlecode.cqengine.query.option.QueryOptions;
-import com.googlecode.cqengine.query.option.Thresholds;
 import com.googlecode.cqengine.query.simple.Between;
-import com.googlecode.cqengine.resultset.ResultSet;
 import org.eclipse.collections.api.block.function.Function;
 import org.eclipse.collections.api.block.function.Function2;
 import org.eclipse.collections.api.block.function.Function3;
+import org.eclipse.collections.api.block.function.primitive.IntToDoubleFunction;
 import org.eclipse.collections.api.block.predicate.Predicate;
 import org.eclipse.collections.api.block.predicate.Predicate2;
+import org.eclipse.collections.api.block.predicate.primitive.IntPredicate;
 import org.eclipse.collections.api.list.MutableList;
 import org.eclipse.collections.api.map.MutableMap;
 import org.eclipse.collections.api.partition.list.PartitionMutableList;
@@ -59,10 +48,10 @@ import org.eclipse.collections.impl.utility.Iterate;
 import org.eclipse.collections.impl.utility.ListIterate;
 import com.gs.ep.docknight.model.Element;
 import com.gs.ep.docknight.model.ElementGroup;
-import com.gs.ep.docknight.model.LengthAttribute;
 import com.gs.ep.docknight.model.ModelCustomizationKey;
 import com.gs.ep.docknight.model.ModelCustomizations;
 import com.gs.ep.docknight.model.PositionalContext;
+import com.gs.ep.docknight.model.PositionalContext.NeighbourFinder;
 import com.gs.ep.docknight.model.PositionalElementList;
 import com.gs.ep.docknight.model.RectangleProperties;
 import com.gs.ep.docknight.model.TabularCellElementGroup;
@@ -70,13 +59,9 @@ import com.gs.ep.docknight.model.TabularElementGroup;
 import com.gs.ep.docknight.model.TabularElementGroup.GridType;
 import com.gs.ep.docknight.model.Transformer;
 import com.gs.ep.docknight.model.attribute.FontSize;
-import com.gs.ep.docknight.model.attribute.Height;
 import com.gs.ep.docknight.model.attribute.Left;
 import com.gs.ep.docknight.model.attribute.PageStructure;
-import com.gs.ep.docknight.model.attribute.Stretch;
 import com.gs.ep.docknight.model.attribute.TextStyles;
-import com.gs.ep.docknight.model.attribute.Top;
-import com.gs.ep.docknight.model.attribute.Width;
 import com.gs.ep.docknight.model.context.PagePartitionType;
 import com.gs.ep.docknight.model.element.Document;
 import com.gs.ep.docknight.model.element.HorizontalLine;
@@ -90,62 +75,27 @@ import com.gs.ep.docknight.model.polygon.OpenRectangle;
 import com.gs.ep.docknight.model.polygon.RectangleBuilder;
 import com.gs.ep.docknight.model.polygon.RectangleFinder;
 import com.gs.ep.docknight.model.polygon.RectilinearPolygon;
+import com.gs.ep.docknight.model.transformer.grouping.ElementSpatialIndex;
+import com.gs.ep.docknight.model.transformer.grouping.ElementSpatialIndex.Axis;
+import com.gs.ep.docknight.model.transformer.grouping.ElementSpatialIndex.Cursor;
 import com.gs.ep.docknight.model.transformer.grouping.PagePartition;
 import com.gs.ep.docknight.model.transformer.grouping.PagePartitioner;
 import com.gs.ep.docknight.util.SemanticsChecker;
 import java.awt.geom.Rectangle2D;
+import java.util.BitSet;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.regex.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 public class PositionalTextGroupingTransformer implements Transformer<Document, Document> {
 
-  private static final SimpleAttribute<Element, Double> TOP = simpleAttribute(Element.class,
-      Double.class, "top",
-      element -> element.getAttribute(Top.class).getMagnitude());
-
-  private static final SimpleAttribute<Element, Double> BOTTOM = simpleAttribute(Element.class,
-      Double.class, "bottom",
-      element -> element.getAttribute(Top.class).getMagnitude() + element.getAttribute(Height.class)
-          .getMagnitude());
-
-  private static final SimpleAttribute<Element, Double> LEFT = simpleAttribute(Element.class,
-      Double.class, "left",
-      element -> element.getAttribute(Left.class).getMagnitude());
-
-  private static final SimpleAttribute<Element, Double> RIGHT = simpleAttribute(Element.class,
-      Double.class, "right",
-      element -> element.getAttribute(Left.class).getMagnitude() + element.getAttribute(Width.class)
-          .getMagnitude());
-
-  private static final SimpleAttribute<Element, Double> HORIZONTAL_CENTRE = simpleAttribute(
-      Element.class, Double.class, "horizontal_centre",
-      element -> element.getAttribute(Left.class).getMagnitude()
-          + element.getAttribute(Width.class).getMagnitude() / 2);
-
-  private static final SimpleAttribute<Element, Double> VERTICAL_CENTRE = simpleAttribute(
-      Element.class, Double.class, "vertical_centre",
-      element -> element.getAttribute(Top.class).getMagnitude()
-          + element.getAttribute(Height.class).getMagnitude() / 2);
-
-  private static final SimpleAttribute<Element, Double> VERTICAL_END = simpleAttribute(
-      Element.class, Double.class, "vertical_end",
-      element -> element.getAttribute(Top.class).getMagnitude() + element
-          .getAttribute(Stretch.class).getMagnitude());
-
-  private static final SimpleAttribute<Element, Double> HORIZONTAL_END = simpleAttribute(
-      Element.class, Double.class, "horizontal_end",
-      element -> element.getAttribute(Left.class).getMagnitude() + element
-          .getAttribute(Stretch.class).getMagnitude());
-
-  private static final List<SimpleAttribute<Element, Double>> VERTICAL_ATTRS = Lists.mutable
-      .of(TOP, BOTTOM, VERTICAL_CENTRE, VERTICAL_END);
-
   private static final int BORDER_LINE_ADJUST_EPSILON = 2;
   private static final int VERTICAL_TRAVERSAL_THRESHOLD = 2;
   private static final int HORIZONTAL_TRAVERSAL_THRESHOLD = 2;
@@ -177,7 +127,6 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
   private static final Comparator<Double> DOUBLE_COMPARATOR_WO_EQUALITY = (x, y) -> x < y ? -1 : 1;
   private static final Logger LOGGER = LoggerFactory
       .getLogger(PositionalTextGroupingTransformer.class);
-  private final MutableSet<Element> foundNoiseElements;
   private final boolean isGridBasedTableDetectionEnabled;
   // Customizable Parameters
   private final Function2<MutableList<String>, MutableList<String>, Double> semanticJumpCalculator;
@@ -188,11 +137,7 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
   private final boolean detectUnderline;
   private final boolean isPageNumberedDoc;
   private final boolean useGridForTableExtent;
-  private IndexedCollection<Element> boxedElementIndex;
-  private IndexedCollection<Element> verticalLineIndex;
-  private IndexedCollection<Element> horizontalLineIndex;
-  private PagePartition pagePartition;
-  private double pageWidth;
+  private final int parallelism;
 
   public PositionalTextGroupingTransformer(ModelCustomizations customizations) {
     this.semanticJumpCalculator = customizations
@@ -218,7 +163,6 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
             DEFAULT_MAX_LINE_HEIGHT_AND_DISTANCE_FACTOR);
     this.detectUnderline = customizations
         .retrieveOrDefault(ModelCustomizationKey.DETECT_UNDERLINE, false);
-    this.foundNoiseElements = Sets.mutable.empty();
     this.isGridBasedTableDetectionEnabled = customizations
         .retrieveOrDefault(ModelCustomizationKey.ENABLE_GRID_BASED_TABLE_DETECTION, GridType.NONE) != GridType.NONE;
     this.isPageNumberedDoc = customizations
@@ -226,6 +170,9 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
     this.useGridForTableExtent = customizations
         .retrieveOrDefault(ModelCustomizationKey.ENABLE_GRID_BASED_TABLE_DETECTION,
             GridType.NONE) == GridType.ROW_AND_COL;
+    this.parallelism = customizations
+        .retrieveOrDefault(ModelCustomizationKey.POSITIONAL_GROUPING_PARALLELISM,
+            Runtime.getRuntime().availableProcessors());
   }
 
   public PositionalTextGroupingTransformer() {
@@ -248,33 +195,6 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
     return Tuples.pair(digits, nonDigits);
   }
 
-  /**
-   * Create indexed collection over attributes representing boxed element
-   *
-   * @return indexed collection
-   */
-  private static IndexedCollection<Element> createBoxedElementIndex() {
-    return createNavigableIndex(TOP, BOTTOM, LEFT, RIGHT, HORIZONTAL_CENTRE, VERTICAL_CENTRE);
-  }
-
-  /**
-   * Create indexed collection over attributes representing vertical line
-   *
-   * @return indexed collection
-   */
-  private static IndexedCollection<Element> createVerticalLineIndex() {
-    return createNavigableIndex(TOP, LEFT, VERTICAL_END);
-  }
-
-  /**
-   * Create indexed collection over attributes representing horizontal line
-   *
-   * @return indexed collection
-   */
-  private static IndexedCollection<Element> createHorizontalLineIndex() {
-    return createNavigableIndex(TOP, LEFT, HORIZONTAL_END);
-  }
-
   /**
    * Create indexed collection over simpleAttributes. Indexed collection helps in
    * retrieval of items
@@ -346,49 +266,6 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
     return between(attribute, lowerValue, false, upperValue, false);
   }
 
-  /**
-   * Apply the {@code query} on the {@code indexedCollection}. Results obtained
-   * should be sorted
-   * using the option {@code orderByOption}
-   *
-   * @param indexedCollection indexed collection on which is query will be
-   *                          executed
-   * @param query             Query which will be executed
-   * @param orderByOption     Option on how to sort the result
-   * @return results after performing the query
-   */
-  private static <O> ResultSet<O> retrieve(IndexedCollection<O> indexedCollection, Query<O> query,
-      OrderByOption<O> orderByOption) {
-    return retrieve(indexedCollection, query, orderByOption, true);
-  }
-
-  /**
-   * Apply the {@code query} on the {@code indexedCollection}. Results obtained
-   * should be sorted
-   * using the option {@code orderByOption}
-   *
-   * @param indexedCollection   indexed collection on which is query will be
-   *                            executed
-   * @param query               Query which will be executed
-   * @param orderByOption       Option on how to sort the result
-   * @param enableIndexOrdering boolean indicating which strategy to use. (if
-   *                            true, use index
-   *                            ordering strategy, else use materialize ordering
-   *                            strategy
-   * @return results after performing the query
-   */
-  private static <O> ResultSet<O> retrieve(IndexedCollection<O> indexedCollection, Query<O> query,
-      OrderByOption<O> orderByOption, boolean enableIndexOrdering) {
-    QueryOptions queryOptions = queryOptions(orderByOption);
-    if (enableIndexOrdering && VERTICAL_ATTRS
-        .contains(orderByOption.getAttributeOrders().get(0).getAttribute())) {
-      Thresholds thresholds = applyThresholds(
-          threshold(EngineThresholds.INDEX_ORDERING_SELECTIVITY, 1.0));
-      queryOptions.put(thresholds.getClass(), thresholds);
-    }
-    return indexedCollection.retrieve(query, queryOptions);
-  }
-
   /**
    * If all elements in {@possiblePrevTablesToCurTali} is subset of elements in
    * {@code
@@ -446,10 +323,10 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
     while (i < unionColumn.size() && j < newColumn.size()) {
       Element unionElement = unionColumn.get(i);
       Element newColumnElement = newColumn.get(j);
-      double unionElementTop = unionElement.getAttribute(Top.class).getMagnitude();
-      double newColumnElementTop = newColumnElement.getAttribute(Top.class).getMagnitude();
-      double unionElementBottom = unionElementTop + unionElement.getAttribute(Height.class).getMagnitude();
-      double newColumnElementBottom = newColumnElementTop + newColumnElement.getAttribute(Height.class).getMagnitude();
+      double unionElementTop = unionElement.getTopMagnitude();
+      double newColumnElementTop = newColumnElement.getTopMagnitude();
+      double unionElementBottom = unionElementTop + unionElement.getHeightMagnitude();
+      double newColumnElementBottom = newColumnElementTop + newColumnElement.getHeightMagnitude();
       if (unionElementTop > possibleTableBottom || newColumnElementTop > possibleTableBottom) {
         break;
       }
@@ -470,7 +347,7 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
 
     while (i < unionColumn.size()) {
       Element unionElement = unionColumn.get(i);
-      double unionElementTop = unionElement.getAttribute(Top.class).getMagnitude();
+      double unionElementTop = unionElement.getTopMagnitude();
       if (unionElementTop > possibleTableBottom) {
         break;
       } else {
@@ -481,7 +358,7 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
 
     while (j < newColumn.size()) {
       Element newColumnElement = newColumn.get(j);
-      double newColumnElementTop = newColumnElement.getAttribute(Top.class).getMagnitude();
+      double newColumnElementTop = newColumnElement.getTopMagnitude();
       if (newColumnElementTop > possibleTableBottom) {
         break;
       } else {
@@ -506,14 +383,14 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
           .getBoundingRectangle() || positionalContext.getTabularGroup() != null) {
         return false;
       }
-      double top = element.getAttribute(Top.class).getMagnitude();
-      double height = element.getAttribute(Height.class).getMagnitude();
+      double top = element.getTopMagnitude();
+      double height = element.getHeightMagnitude();
       double bottom = top + height;
-      double otherTop = otherElement.getAttribute(Top.class).getMagnitude();
-      double otherHeight = otherElement.getAttribute(Height.class).getMagnitude();
+      double otherTop = otherElement.getTopMagnitude();
+      double otherHeight = otherElement.getHeightMagnitude();
       double otherBottom = otherTop + otherHeight;
-      double left = element.getAttribute(Left.class).getMagnitude();
-      double otherLeft = otherElement.getAttribute(Left.class).getMagnitude();
+      double left = element.getLeftMagnitude();
+      double otherLeft = otherElement.getLeftMagnitude();
       double dis = Math.abs(left - otherLeft);
       if (Math.abs(top - otherTop) / dis > HORIZONTAL_ALIGNMENT_EPSILON
           && Math.abs(bottom - otherBottom) / dis > HORIZONTAL_ALIGNMENT_EPSILON) {
@@ -568,13 +445,12 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
       PositionalContext<Element> elementPositionalContext, Element leftElement) {
     return elementPositionalContext.isVisualLeftBorder() ? elementPositionalContext.getVisualLeft()
         : leftElement == null ? elementPositionalContext.getBelowElements().getElements()
-            .select(e -> e.getAttribute(Width.class).getMagnitude() > TABLE_SMALL_ELEM_MAX_SIZE)
+            .select(e -> e.getWidthMagnitude() > TABLE_SMALL_ELEM_MAX_SIZE)
             .collectDouble(
-                e -> e.getAttribute(Left.class).getMagnitude() + e.getAttribute(Width.class)
-                    .getMagnitude())
+                e -> e.getLeftMagnitude() + e.getWidthMagnitude())
             .select(r -> r < left).maxIfEmpty(elementPositionalContext.getVisualLeft())
-            : leftElement.getAttribute(Left.class).getMagnitude() + leftElement
-                .getAttribute(Width.class).getMagnitude();
+            : leftElement.getLeftMagnitude() + leftElement
+                .getWidthMagnitude();
   }
 
   /**
@@ -596,10 +472,10 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
     return elementPositionalContext.isVisualRightBorder() ? elementPositionalContext
         .getVisualRight()
         : rightElement == null ? elementPositionalContext.getBelowElements().getElements()
-            .select(e -> e.getAttribute(Width.class).getMagnitude() > TABLE_SMALL_ELEM_MAX_SIZE)
-            .collectDouble(e -> e.getAttribute(Left.class).getMagnitude())
+            .select(e -> e.getWidthMagnitude() > TABLE_SMALL_ELEM_MAX_SIZE)
+            .collectDouble(e -> e.getLeftMagnitude())
             .select(l -> l > right).minIfEmpty(elementPositionalContext.getVisualRight())
-            : rightElement.getAttribute(Left.class).getMagnitude();
+            : rightElement.getLeftMagnitude();
   }
 
   /**
@@ -615,9 +491,9 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
   private static boolean isTabularIntersecting(double columnLeft, double columnRight,
       Element elem) {
     if (elem != null) {
-      double elem2Width = elem.getAttribute(Width.class).getMagnitude();
+      double elem2Width = elem.getWidthMagnitude();
       if (elem2Width > TABLE_SMALL_ELEM_MAX_SIZE) {
-        double elem2Left = elem.getAttribute(Left.class).getMagnitude();
+        double elem2Left = elem.getLeftMagnitude();
         return Math.min(columnRight, elem2Left + elem2Width) > Math.max(columnLeft, elem2Left)
             + TABLE_SMALL_ELEM_MAX_SIZE;
       }
@@ -626,49 +502,25 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
   }
 
   /**
-   * Retrieve the first result from the {@code resultSet} if exists, else retrieve
-   * null
+   * Helper function to find the visual edge from the border lines in {@code borderLineIndex}
    *
-   * @param resultSet Result set whose element will be retrieved
-   * @return the first result from the {@code resultSet} if exists, else return
-   *         null
-   */
-  private static <O> O retrieveOnlyOneResultElseNull(ResultSet<O> resultSet) {
-    Iterator<O> iterator = resultSet.iterator();
-    return iterator.hasNext() ? iterator.next() : null;
-  }
-
-  /**
-   * Helper function to find the visual edge by executing query on borderLineIndex
-   *
-   * @param visualEdgeDefault                  default value of visual edge to
-   *                                           return in case no result is fetched
-   * @param edgeElementBoundary                boundary coordinate of
-   *                                           neighbouring/edge element
-   * @param isEdgeElementBoundaryAligning      boolean flag indicating whether
-   *                                           edge element boundary is
-   *                                           aligned
-   * @param elementBoundary                    boundary coordinate of current
-   *                                           element
-   * @param isElementBoundaryAligning          boolean flag indicating whether
-   *                                           current element boundary is
-   *                                           aligned
-   * @param axisAttrClass                      attribute class whose fetched value
-   *                                           from result will be used as visual
-   *                                           edge
-   * @param axisQueryForBorderLinesForElem     axis query to search for border
-   *                                           lines
-   * @param otherQueryForBorderLinesForElem    other query to search for border
-   *                                           lines
-   * @param axisQueryForBorderLinesForEdgeElem axis query to include in case edge
-   *                                           element boundary >
-   *                                           0
-   * @param borderLinesOrdering                option to sort the retrieved result
-   * @param borderLineIndex                    indexed collection on which to
-   *                                           execute the query
-   * @return pair of visual edge and boolean flag if the edge is border based
-   *         (extracted from
-   *         visible line)
+   * @param visualEdgeDefault             default value of visual edge to return in case no border
+   *                                      line is found
+   * @param edgeElementBoundary           boundary coordinate of neighbouring/edge element
+   * @param isEdgeElementBoundaryAligning boolean flag indicating whether edge element boundary is
+   *                                      aligned
+   * @param elementBoundary               boundary coordinate of current element
+   * @param isElementBoundaryAligning     boolean flag indicating whether current element boundary
+   *                                      is aligned
+   * @param borderLineIndex               index of border lines
+   * @param borderLines                   cursor over slots of border lines within the axis range,
+   *                                      nearest to the element first
+   * @param isBorderLine                  condition on the other axis which a border line slot
+   *                                      should satisfy
+   * @param borderLineEdge                coordinate of border line slot which is used as visual
+   *                                      edge
+   * @return pair of visual edge and boolean flag if the edge is border based (extracted from
+   * visible line)
    */
   private static Pair<Double, Boolean> findVisualEdge(
       double visualEdgeDefault,
@@ -676,16 +528,11 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
       boolean isEdgeElementBoundaryAligning,
       double elementBoundary,
       boolean isElementBoundaryAligning,
-      Class<? extends LengthAttribute> axisAttrClass,
-      Query<Element> axisQueryForBorderLinesForElem,
-      Query<Element> otherQueryForBorderLinesForElem,
-      Query<Element> axisQueryForBorderLinesForEdgeElem,
-      OrderByOption<Element> borderLinesOrdering,
-      IndexedCollection<Element> borderLineIndex) {
+      ElementSpatialIndex borderLineIndex,
+      Cursor borderLines,
+      IntPredicate isBorderLine,
+      IntToDoubleFunction borderLineEdge) {
     double visualEdge = visualEdgeDefault;
-    boolean isBorderBased = false;
-    Query<Element> queryForBorderLines = and(axisQueryForBorderLinesForElem,
-        otherQueryForBorderLinesForElem);
     if (edgeElementBoundary > 0) {
       if (isEdgeElementBoundaryAligning == isElementBoundaryAligning) {
         visualEdge = Math.min(edgeElementBoundary, elementBoundary)
@@ -693,17 +540,43 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
       } else {
         visualEdge = isElementBoundaryAligning ? elementBoundary : edgeElementBoundary;
       }
-      queryForBorderLines = and(queryForBorderLines, axisQueryForBorderLinesForEdgeElem);
     }
-
-    ResultSet<Element> results = retrieve(borderLineIndex, queryForBorderLines,
-        borderLinesOrdering);
-    Iterator<Element> resultsIterator = results.iterator();
-    if (resultsIterator.hasNext()) {
-      visualEdge = resultsIterator.next().getAttribute(axisAttrClass).getMagnitude();
-      isBorderBased = true;
+    for (int slot = borderLines.next(); slot >= 0; slot = borderLines.next()) {
+      if (isBorderLine.accept(slot)) {
+        return Tuples.pair(borderLineEdge.valueOf(slot), true);
+      }
     }
-    return Tuples.pair(visualEdge, isBorderBased);
+    return Tuples.pair(visualEdge, false);
+  }
+
+  /**
+   * @return predicate which is true for slot of vertical line in {@code lineIndex} that starts
+   * above {@code top} and ends within the element, or starts within the element and ends below
+   * {@code bottom}
+   */
+  private static IntPredicate isVerticalBorderLine(ElementSpatialIndex lineIndex, double top,
+      double bottom) {
+    return slot -> {
+      double lineTop = lineIndex.getTop(slot);
+      double lineBottom = lineIndex.getBottom(slot);
+      return lineTop > top - CONTEXT_LIMIT && lineTop < top
+          && lineBottom > top && lineBottom < top + CONTEXT_LIMIT
+          || lineTop > top && lineTop < bottom
+          && lineBottom > bottom && lineBottom < bottom + CONTEXT_LIMIT;
+    };
+  }
+
+  /**
+   * @return predicate which is true for slot of horizontal line in {@code lineIndex} that crosses
+   * abscissa {@code left} or {@code right}
+   */
+  private static IntPredicate isHorizontalBorderLine(ElementSpatialIndex lineIndex, double left,
+      double right) {
+    return slot -> {
+      double lineLeft = lineIndex.getLeft(slot);
+      double lineRight = lineIndex.getRight(slot);
+      return lineLeft < left && lineRight > left || lineLeft < right && lineRight > right;
+    };
   }
 
   private static int compareByHorizontalAlignment(Element prevToPrevElement,
@@ -726,10 +599,10 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
    *         {@code otherElement}
    */
   private static double calculateHorizontalIntersection(Element element, Element otherElement) {
-    double elementStart = element.getAttribute(Left.class).getMagnitude();
-    double elementEnd = elementStart + element.getAttribute(Width.class).getMagnitude();
-    double otherElementStart = otherElement.getAttribute(Left.class).getMagnitude();
-    double otherElementEnd = otherElementStart + otherElement.getAttribute(Width.class).getMagnitude();
+    double elementStart = element.getLeftMagnitude();
+    double elementEnd = elementStart + element.getWidthMagnitude();
+    double otherElementStart = otherElement.getLeftMagnitude();
+    double otherElementEnd = otherElementStart + otherElement.getWidthMagnitude();
     return Math
         .max(Math.min(elementEnd, otherElementEnd) - Math.max(elementStart, otherElementStart), 0);
   }
@@ -747,8 +620,8 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
    */
   private static boolean isHorizontallyIntersecting(Element element, double left, double right) {
     if (element != null) {
-      double elemLeft = element.getAttribute(Left.class).getMagnitude();
-      double elemRight = elemLeft + element.getAttribute(Width.class).getMagnitude();
+      double elemLeft = element.getLeftMagnitude();
+      double elemRight = elemLeft + element.getWidthMagnitude();
       return Math.min(elemRight, right) > Math.max(elemLeft, left);
     }
     return false;
@@ -764,8 +637,8 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
    */
   private static void findAlignmentWithHorizontalLine(Element line) {
     List<? extends Element> elements = line.getElementListContext().getOne().getElements();
-    double left = line.getAttribute(Left.class).getMagnitude();
-    double right = left + line.getAttribute(Stretch.class).getMagnitude();
+    double left = line.getLeftMagnitude();
+    double right = left + line.getStretchMagnitude();
     Element prevElem = null;
     Element aligningElem = null;
     for (int i = line.getElementListContext().getTwo() - 1; i >= 0; i--) {
@@ -775,8 +648,8 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
             && PositionalElementList.compareByHorizontalAlignment(elem, prevElem) != 0) {
           break;
         }
-        double elemLeft = elem.getAttribute(Left.class).getMagnitude();
-        double elemRight = elemLeft + elem.getAttribute(Width.class).getMagnitude();
+        double elemLeft = elem.getLeftMagnitude();
+        double elemRight = elemLeft + elem.getWidthMagnitude();
         if (elemLeft >= left && elemRight <= right) {
           if (aligningElem != null) {
             aligningElem = null;
@@ -808,110 +681,171 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
         !this.disableHeaderFooterDetection);
     pagePartitioner.withRegexBasedHeaderFooterDetection(true)
         .withTableBasedHeaderFooterDetection(true).withPageNumberedDoc(this.isPageNumberedDoc);
+
+    // Sequential pre-pass: line indexes, ruled rectangles and page partitions (header / footer
+    // detection across page breaks) are resolved before any page is grouped.
+    MutableList<PageContext> pageContexts = Lists.mutable.empty();
     for (Element docElement : document.getContent().getElementList().getElements()) {
-      Page page = (Page) docElement;
-      this.pageWidth = page.getAttribute(Width.class).getMagnitude();
-      PositionalElementList<Element> positionalElementList = page.getPositionalContent().getValue();
-      this.verticalLineIndex = createVerticalLineIndex();
-      this.horizontalLineIndex = createHorizontalLineIndex();
-      this.boxedElementIndex = createBoxedElementIndex();
-      MutableSet<Element> horizontalLinesForRectilinearPolygons = Sets.mutable.empty();
-      MutableSet<Element> verticalLinesForRectilinearPolygons = Sets.mutable.empty();
-      positionalElementList.getElements().forEach(e -> {
-        e.withIdentity(true);
-        if (e instanceof Rectangle) {
-          positionalElementList.initializeContext(e);
-          this.boxedElementIndex.add(e);
-        } else if (e instanceof VerticalLine) {
-          this.verticalLineIndex.add(e);
-          verticalLinesForRectilinearPolygons.add(e);
-        } else if (e instanceof HorizontalLine) {
-          this.horizontalLineIndex.add(e);
-          horizontalLinesForRectilinearPolygons.add(e);
-        }
-      });
-      positionalElementList.getElements().forEach(e -> {
-        if (e instanceof HorizontalLine) {
-          Rectangle2D rectangle = this.findRectangle(e, false);
-          if (rectangle != null) {
-            horizontalLinesForRectilinearPolygons
-                .removeAll(this.findContainedHorizontalLines(rectangle));
-            verticalLinesForRectilinearPolygons
-                .removeAll(this.findContainedVerticalLines(rectangle));
-          }
-        }
-      });
-      List<PagePartition> pagePartitions = pagePartitioner.getPartitions(page);
-      this.pageWidth = page.getWidth().getMagnitude();
+      PageContext context = new PageContext((Page) docElement);
+      this.preparePage(context, pagePartitioner);
+      pageContexts.add(context);
+    }
+    this.groupPages(pageContexts);
+    // document.getContainingElements(e -> e instanceof TextElement).forEach(element
+    // -> ((TextElement) element).addAsConcept(document.getConceptBase()));
 
-      for (PagePartition pagePartition : pagePartitions) {
-        this.boxedElementIndex = createBoxedElementIndex();
-        this.pagePartition = pagePartition;
+    float timeTaken = (System.currentTimeMillis() - startTime) / 1000.0f;
+    LOGGER.info("[{}][{}][{}s] Returning Text element groups found in document.",
+        document.getDocumentSource(), this.getClass().getSimpleName(), timeTaken);
 
-        for (Element elem : this.pagePartition.elements) {
-          if (elem instanceof TextRectangle) {
-            this.boxedElementIndex.add(elem);
-            elem.getPositionalContext().setPagePartitionType(this.pagePartition.partitionType);
-          }
+    return document;
+  }
+
+  /**
+   * Index the lines and rectangles of the page, find the ruled rectangles and partition the page.
+   *
+   * @param context         page grouping context
+   * @param pagePartitioner partitioner used to find header, footer and content partitions
+   */
+  private void preparePage(PageContext context, PagePartitioner pagePartitioner) {
+    PositionalElementList<Element> positionalElementList = context.page.getPositionalContent()
+        .getValue();
+    MutableList<Element> boxedElements = Lists.mutable.empty();
+    MutableList<Element> verticalLines = Lists.mutable.empty();
+    MutableList<Element> horizontalLines = Lists.mutable.empty();
+    positionalElementList.getElements().forEach(e -> {
+      e.withIdentity(true);
+      if (e instanceof Rectangle) {
+        positionalElementList.initializeContext(e);
+        boxedElements.add(e);
+      } else if (e instanceof VerticalLine) {
+        verticalLines.add(e);
+      } else if (e instanceof HorizontalLine) {
+        horizontalLines.add(e);
+      }
+    });
+    context.verticalLinesForRectilinearPolygons.addAll(verticalLines);
+    context.horizontalLinesForRectilinearPolygons.addAll(horizontalLines);
+
+    // Elements come in position order, so the indexes are bulk loaded once per page and reused by
+    // every partition of the page
+    context.verticalLineSpatialIndex = ElementSpatialIndex.ofVerticalLines(verticalLines);
+    context.horizontalLineSpatialIndex = ElementSpatialIndex.ofHorizontalLines(horizontalLines);
+    context.pageBoxedElementSpatialIndex = ElementSpatialIndex.ofBoxedElements(boxedElements);
+    context.boxedElementSpatialIndex = context.pageBoxedElementSpatialIndex;
+    positionalElementList.getElements().forEach(e -> {
+      if (e instanceof HorizontalLine) {
+        Rectangle2D rectangle = this.findRectangle(context, e, false);
+        if (rectangle != null) {
+          context.horizontalLinesForRectilinearPolygons
+              .removeAll(this.findContainedHorizontalLines(context, rectangle));
+          context.verticalLinesForRectilinearPolygons
+              .removeAll(this.findContainedVerticalLines(context, rectangle));
         }
+      }
+    });
+    context.pagePartitions = pagePartitioner.getPartitions(context.page);
+  }
 
-        for (Element elem : this.pagePartition.elements) {
-          if (elem instanceof Image) {
-            if (!this.isBackGroundImage(elem)) {
-              this.boxedElementIndex.add(elem);
-            }
-            elem.getPositionalContext().setPagePartitionType(this.pagePartition.partitionType);
-          }
+  /**
+   * Group the prepared pages. Pages only share immutable settings of this transformer, hence they
+   * are grouped concurrently on a fork join pool when more than one thread is allowed.
+   *
+   * @param pageContexts contexts of prepared pages
+   */
+  private void groupPages(MutableList<PageContext> pageContexts) {
+    int poolSize = Math.min(this.parallelism, pageContexts.size());
+    if (poolSize <= 1) {
+      pageContexts.forEach(this::groupPage);
+      return;
+    }
+    ForkJoinPool pool = new ForkJoinPool(poolSize);
+    try {
+      MutableList<ForkJoinTask<?>> tasks = Lists.mutable.empty();
+      for (PageContext context : pageContexts) {
+        tasks.add(pool.submit(() -> this.groupPage(context)));
+      }
+      tasks.forEach(ForkJoinTask::join);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  /**
+   * Find positional, vertical, alignment and tabular groups of the elements within the page
+   *
+   * @param context prepared page grouping context
+   */
+  private void groupPage(PageContext context) {
+    ElementSpatialIndex pageIndex = context.pageBoxedElementSpatialIndex;
+    for (PagePartition pagePartition : context.pagePartitions) {
+      // Boxed elements of the partition are selected through a mask over the page indexes
+      BitSet partitionSlots = new BitSet(pageIndex.size());
+      context.pagePartition = pagePartition;
+
+      for (Element elem : context.pagePartition.elements) {
+        if (elem instanceof TextRectangle) {
+          partitionSlots.set(pageIndex.slotOf(elem));
+          elem.getPositionalContext().setPagePartitionType(context.pagePartition.partitionType);
         }
+      }
 
-        for (Element elem : this.pagePartition.elements) {
-          if (elem instanceof Rectangle && elem.getPositionalContext().getAlignmentRight() == 0) {
-            this.findAlignmentGroup(elem);
-          }
-          if (elem instanceof HorizontalLine && !this.isTableDetectionDisabled) {
-            findAlignmentWithHorizontalLine(elem);
+      ElementSpatialIndex textIndex = pageIndex.restrictTo(partitionSlots);
+      MutableList<Element> foregroundImages = Lists.mutable.empty();
+      for (Element elem : context.pagePartition.elements) {
+        if (elem instanceof Image) {
+          if (!isBackGroundImage(textIndex, foregroundImages, elem)) {
+            partitionSlots.set(pageIndex.slotOf(elem));
+            foregroundImages.add(elem);
           }
+          elem.getPositionalContext().setPagePartitionType(context.pagePartition.partitionType);
         }
+      }
+      context.boxedElementSpatialIndex = foregroundImages.isEmpty() ? textIndex
+          : pageIndex.restrictTo(partitionSlots);
+      context.neighbourFinder = new PartitionNeighbourFinder(context.boxedElementSpatialIndex);
 
-        if (!this.isTableDetectionDisabled
-            && this.pagePartition.partitionType == PagePartitionType.CONTENT) {
-          this.findRectilinearPolygons(horizontalLinesForRectilinearPolygons,
-              verticalLinesForRectilinearPolygons);
+      for (Element elem : context.pagePartition.elements) {
+        if (elem instanceof Rectangle && elem.getPositionalContext().getAlignmentRight() == 0) {
+          this.findAlignmentGroup(context, elem);
+        }
+        if (elem instanceof HorizontalLine && !this.isTableDetectionDisabled) {
+          findAlignmentWithHorizontalLine(elem);
         }
+      }
 
-        for (Element elem : this.pagePartition.elements) {
-          if (elem instanceof Rectangle) {
-            this.populatePositionalContext(elem);
-          } else if (elem instanceof HorizontalLine) {
-            this.findRectangle(elem, true);
-          }
+      if (!this.isTableDetectionDisabled
+          && context.pagePartition.partitionType == PagePartitionType.CONTENT) {
+        this.findRectilinearPolygons(context, context.horizontalLinesForRectilinearPolygons,
+            context.verticalLinesForRectilinearPolygons);
+      }
+
+      for (Element elem : context.pagePartition.elements) {
+        if (elem instanceof Rectangle) {
+          this.populatePositionalContext(context, elem);
+        } else if (elem instanceof HorizontalLine) {
+          this.findRectangle(context, elem, true);
         }
-        for (Element elem : this.pagePartition.elements) {
-          if (elem instanceof Rectangle && elem.getPositionalContext().getVerticalGroup() == null) {
-            this.findVerticalGroup(elem);
-          }
+      }
+      for (Element elem : context.pagePartition.elements) {
+        if (elem instanceof Rectangle && elem.getPositionalContext().getVerticalGroup() == null) {
+          this.findVerticalGroup(context, elem);
         }
+      }
 
-        if (!this.isTableDetectionDisabled) {
-          for (Element elem : this.pagePartition.elements) {
-            PositionalContext<Element> context = elem.getPositionalContext();
-            if (elem instanceof TextElement && context.getTabularGroup() == null
-                && (context.getPagePartitionType() == null
-                    || context.getPagePartitionType() == PagePartitionType.CONTENT)) {
-              this.findTabularGroup(elem);
-            }
+      if (!this.isTableDetectionDisabled) {
+        for (Element elem : context.pagePartition.elements) {
+          PositionalContext<Element> positionalContext = elem.getPositionalContext();
+          if (elem instanceof TextElement && positionalContext.getTabularGroup() == null
+              && (positionalContext.getPagePartitionType() == null
+                  || positionalContext.getPagePartitionType() == PagePartitionType.CONTENT)) {
+            this.findTabularGroup(context, elem);
           }
         }
       }
     }
-    // document.getContainingElements(e -> e instanceof TextElement).forEach(element
-    // -> ((TextElement) element).addAsConcept(document.getConceptBase()));
-
-    float timeTaken = (System.currentTimeMillis() - startTime) / 1000.0f;
-    LOGGER.info("[{}][{}][{}s] Returning Text element groups found in document.",
-        document.getDocumentSource(), this.getClass().getSimpleName(), timeTaken);
-
-    return document;
+    // Layout analysis cached on the page was computed from the previous grouping
+    context.page.setLayoutProfile(null);
   }
 
   /**
@@ -919,35 +853,48 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
    * element area
    * overlaps with this element's area then {@code elem} is a background image.
    *
+   * @param textIndex index over the text elements of the partition
+   * @param foregroundImages images of the partition already found not to be in background
    * @param elem Element to be checked
    * @return boolean flag indicating whether
    */
-  private boolean isBackGroundImage(Element elem) {
-    double top = elem.getAttribute(Top.class).getMagnitude();
-    double bottom = top + elem.getAttribute(Height.class).getMagnitude();
-    double left = elem.getAttribute(Left.class).getMagnitude();
-    double right = left + elem.getAttribute(Width.class).getMagnitude();
-    for (Element textElement : this.boxedElementIndex
-        .retrieve(betweenExclusive(TOP, top, bottom))) {
-      double textLeft = textElement.getAttribute(Left.class).getMagnitude();
-      if (textLeft >= left && textLeft < right || left > textLeft && left < textLeft + textElement
-          .getAttribute(Width.class).getMagnitude()) {
+  private static boolean isBackGroundImage(ElementSpatialIndex textIndex,
+      MutableList<Element> foregroundImages, Element elem) {
+    double top = elem.getTopMagnitude();
+    double bottom = top + elem.getHeightMagnitude();
+    double left = elem.getLeftMagnitude();
+    double right = left + elem.getWidthMagnitude();
+    Cursor cursor = textIndex.ascending(Axis.TOP, top, false, bottom, false);
+    for (int slot = cursor.next(); slot >= 0; slot = cursor.next()) {
+      if (isOverlappingHorizontally(textIndex.getLeft(slot), textIndex.getRight(slot), left,
+          right)) {
         return true;
       }
     }
-    return false;
+    return foregroundImages.anySatisfy(image -> {
+      double imageTop = image.getTopMagnitude();
+      double imageLeft = image.getLeftMagnitude();
+      return imageTop > top && imageTop < bottom && isOverlappingHorizontally(imageLeft,
+          imageLeft + image.getWidthMagnitude(), left, right);
+    });
+  }
+
+  private static boolean isOverlappingHorizontally(double otherLeft, double otherRight,
+      double left, double right) {
+    return otherLeft >= left && otherLeft < right || left > otherLeft && left < otherRight;
   }
 
   /**
    * Populate the positional context with neighbouring element information
    *
+   * @param context page grouping context
    * @param elem element whose positional context is to be populated.
    */
-  private void populatePositionalContext(Element elem) {
-    double top = elem.getAttribute(Top.class).getMagnitude();
-    double height = elem.getAttribute(Height.class).getMagnitude();
-    double left = elem.getAttribute(Left.class).getMagnitude();
-    double width = elem.getAttribute(Width.class).getMagnitude();
+  private void populatePositionalContext(PageContext context, Element elem) {
+    double top = elem.getTopMagnitude();
+    double height = elem.getHeightMagnitude();
+    double left = elem.getLeftMagnitude();
+    double width = elem.getWidthMagnitude();
     double bottom = top + height;
     double right = left + width;
 
@@ -955,61 +902,60 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
     double alignmentLeft = positionalContext.getAlignmentLeft();
     double alignmentRight = positionalContext.getAlignmentRight();
 
-    Element shadowLeftElement = this.findShadowLeftElement(top, bottom, left);
+    Element shadowLeftElement = this.findShadowLeftElement(context, top, bottom, left);
     positionalContext.setShadowedLeftElement(shadowLeftElement);
 
-    Element shadowRightElement = this.findShadowRightElement(top, bottom, right);
+    Element shadowRightElement = this.findShadowRightElement(context, top, bottom, right);
     positionalContext.setShadowedRightElement(shadowRightElement);
 
     Pair<Double, Boolean> visualLeftInfo = this
-        .findVisualLeft(top, bottom, left, alignmentLeft, shadowLeftElement);
+        .findVisualLeft(context, top, bottom, left, alignmentLeft, shadowLeftElement);
     double visualLeft = visualLeftInfo.getOne();
     positionalContext.setVisualLeftBorder(visualLeftInfo.getTwo());
     positionalContext.setVisualLeft(visualLeft);
 
     Pair<Double, Boolean> visualRightInfo = this
-        .findVisualRight(top, bottom, right, alignmentRight, shadowRightElement);
+        .findVisualRight(context, top, bottom, right, alignmentRight, shadowRightElement);
     double visualRight = visualRightInfo.getOne();
     positionalContext.setVisualRightBorder(visualRightInfo.getTwo());
     positionalContext.setVisualRight(visualRight);
 
     Element shadowedBelowElement = this
-        .findShadowedBelowElement(top, visualLeft, visualRight, left, right);
+        .findShadowedBelowElement(context, top, visualLeft, visualRight, left, right);
     positionalContext.setShadowedBelowElement(shadowedBelowElement);
 
     Element shadowedAboveElement = this
-        .findShadowedAboveElement(bottom, visualLeft, visualRight, left, right);
+        .findShadowedAboveElement(context, bottom, visualLeft, visualRight, left, right);
     positionalContext.setShadowedAboveElement(shadowedAboveElement);
 
     Pair<Double, Boolean> visualTopInfo = this
-        .findVisualTop(top, left, right, shadowedAboveElement);
+        .findVisualTop(context, top, left, right, shadowedAboveElement);
     double visualTop = visualTopInfo.getOne();
     positionalContext.setVisualTopBorder(visualTopInfo.getTwo());
     positionalContext.setVisualTop(visualTop);
 
     Pair<Double, Boolean> visualBottomInfo = this
-        .findVisualBottom(bottom, left, right, shadowedBelowElement);
+        .findVisualBottom(context, bottom, left, right, shadowedBelowElement);
     double visualBottom = visualBottomInfo.getOne();
     positionalContext.setVisualBottomBorder(visualBottomInfo.getTwo());
     positionalContext.setVisualBottom(visualBottom);
 
-    positionalContext.setBelowElements(this.findBelowElements(top, visualLeft, visualRight));
-    positionalContext.setAboveElements(this.findAboveElements(bottom, visualLeft, visualRight));
-    positionalContext.setRightElements(this.findRightElements(right, visualTop, visualBottom));
-    positionalContext.setLeftElements(this.findLeftElements(left, visualTop, visualBottom));
+    // Neighbour groups are only needed by some consumers, hence they are found on first access
+    positionalContext.setNeighbourFinder(context.neighbourFinder);
   }
 
   /**
    * Find tabular group such that {@code elem} is present in first row
    *
+   * @param context page grouping context
    * @param elem element for which tabular group has to be found.
    */
-  private void findTabularGroup(Element elem) {
+  private void findTabularGroup(PageContext context, Element elem) {
     Element rightElement = elem.getPositionalContext().getShadowedRightElement();
     if (rightElement != null && isHorizontalAligning(elem, rightElement)) {
-      Column startingColumn = this.findColumnElements(elem, false);
+      Column startingColumn = this.findColumnElements(context, elem, false);
       if (startingColumn.elements.size() > 1 && startingColumn.direction != DIRECTION_NONE) {
-        RectangleProperties<Double> tableBoundary = this.findTableBoundary(startingColumn);
+        RectangleProperties<Double> tableBoundary = this.findTableBoundary(context, startingColumn);
         if (tableBoundary.getBottom() < tableBoundary.getTop()
             || tableBoundary.getRight() < tableBoundary.getLeft()) {
           return;
@@ -1019,12 +965,9 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
             && tableBoundary.getBottom() < boundingRect.getMaxY()) {
           tableBoundary.setBottom(boundingRect.getMaxY());
         }
-        Query<Element> queryForTableElements = and(
-            betweenExclusive(BOTTOM, tableBoundary.getTop(), tableBoundary.getBottom()),
-            greaterThan(RIGHT, tableBoundary.getLeft()), lessThan(LEFT, tableBoundary.getRight()));
-
-        Iterator<Element> iterator = retrieve(this.boxedElementIndex, queryForTableElements,
-            orderBy(ascending(TOP)), false).iterator();
+        Iterator<Element> iterator = findElementsWithinTableBoundary(context,
+            tableBoundary.getTop(), tableBoundary.getBottom(), tableBoundary)
+            .sortThis(Comparator.comparingDouble(Element::getTopMagnitude)).iterator();
         Element prevElement = null;
         int rowNumber = 0;
         MutableList<MutableList<Element>> firstRowWithVerticalGroupHeads = Lists.mutable.empty();
@@ -1060,21 +1003,21 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
               if (rowDistance > MAX_INTER_ROW_DISTANCE + (this.isGridBasedTableDetectionEnabled
                   ? ACROSS_PAGE_BREAK_FACTOR_FOR_ROW_DISTANCE
                   : 0)) {
-                tableBottom = element.getAttribute(Top.class).getMagnitude() - SEPARATION_EPSILON;
+                tableBottom = element.getTopMagnitude() - SEPARATION_EPSILON;
                 break;
               }
             } else if (!prevAndCurrElemPartOfSameBorderBox && (rowDistance > MAX_INTER_ROW_DISTANCE
                 || (maxRowDistance > 0 && rowNumber > 0
                     && rowDistance / maxRowDistance > TABLE_ROW_DISTANCE_VARIANCE))) {
-              tableBottom = element.getAttribute(Top.class).getMagnitude() - SEPARATION_EPSILON;
+              tableBottom = element.getTopMagnitude() - SEPARATION_EPSILON;
               break;
             } else if (element.getAttribute(FontSize.class).getMagnitude() / prevElement
                 .getAttribute(FontSize.class).getMagnitude() > FONT_SIZE_TABLE_BREAK_FACTOR) {
-              tableBottom = element.getAttribute(Top.class).getMagnitude() - SEPARATION_EPSILON;
+              tableBottom = element.getTopMagnitude() - SEPARATION_EPSILON;
               break;
             }
             if (prevRow != null && this.isSignificant(prevRow, currRow)) {
-              tableBottom = currRow.getFirst().getAttribute(Top.class).getMagnitude() - SEPARATION_EPSILON;
+              tableBottom = currRow.getFirst().getTopMagnitude() - SEPARATION_EPSILON;
               currRow = null;
               rowNumber--;
               break;
@@ -1159,7 +1102,7 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
 
         if (currRow != null) {
           if (prevRow != null && this.isSignificant(prevRow, currRow)) {
-            tableBottom = currRow.getFirst().getAttribute(Top.class).getMagnitude() - SEPARATION_EPSILON;
+            tableBottom = currRow.getFirst().getTopMagnitude() - SEPARATION_EPSILON;
             rowNumber--;
           } else {
             numProperRows += currRow.size() > 1 ? 1 : 0;
@@ -1174,11 +1117,10 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
         }
 
         // Assigning tabular columns for each table element
-        queryForTableElements = and(betweenExclusive(BOTTOM, tableBoundary.getTop(), tableBottom),
-            greaterThan(RIGHT, tableBoundary.getLeft()), lessThan(LEFT, tableBoundary.getRight()));
-        List<TextElement> elementsInColOrder = Lists.mutable
-            .ofAll(retrieve(this.boxedElementIndex, queryForTableElements,
-                orderBy(ascending(LEFT), ascending(TOP))))
+        List<TextElement> elementsInColOrder = findElementsWithinTableBoundary(context,
+            tableBoundary.getTop(), tableBottom, tableBoundary)
+            .sortThis(Comparator.comparingDouble(Element::getLeftMagnitude)
+                .thenComparingDouble(Element::getTopMagnitude))
             .selectInstancesOf(TextElement.class);
         SortedSet<Double> prevElementRights = SortedSets.mutable.of(DOUBLE_COMPARATOR_WO_EQUALITY);
         Set<Integer> prevElementRowNums = Sets.mutable.empty();
@@ -1186,14 +1128,14 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
         for (int i = 0; i < elementsInColOrder.size(); i++) {
           Element element = elementsInColOrder.get(i);
           PositionalContext<Element> posContext = element.getPositionalContext();
-          if (!this.foundNoiseElements.contains(element)) {
+          if (!context.foundNoiseElements.contains(element)) {
             int rowNum = posContext.getTabularRow();
-            double elementLeft = element.getAttribute(Left.class).getMagnitude();
-            double elementWidth = element.getAttribute(Width.class).getMagnitude();
+            double elementLeft = element.getLeftMagnitude();
+            double elementWidth = element.getWidthMagnitude();
             double elementRight = elementLeft + elementWidth;
             double intersection = i + 1 < elementsInColOrder.size() ? elementWidth - Math
                 .min(elementsInColOrder.get(i + 1)
-                    .getAttribute(Left.class).getMagnitude() - elementLeft, elementWidth)
+                    .getLeftMagnitude() - elementLeft, elementWidth)
                 : prevElementRights.isEmpty() || elementLeft > prevElementRights.last() ? elementWidth
                     : 0.0;
             int prevElemHeadSetSize = prevElementRights.headSet(elementLeft).size();
@@ -1265,6 +1207,31 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
         currRow.collect(Element::getTextStr)) > TABLE_SEMANTIC_BREAK_THRESHOLD;
   }
 
+  /**
+   * Find boxed elements of the partition whose bottom lies within ({@code top}, {@code bottom}) and
+   * which horizontally overlap the {@code tableBoundary}
+   *
+   * @param context       page grouping context
+   * @param top           exclusive lower bound of element bottom
+   * @param bottom        exclusive upper bound of element bottom
+   * @param tableBoundary boundary of table
+   * @return found elements in ascending order of their bottom
+   */
+  private static MutableList<Element> findElementsWithinTableBoundary(PageContext context,
+      double top, double bottom, RectangleProperties<Double> tableBoundary) {
+    ElementSpatialIndex index = context.boxedElementSpatialIndex;
+    double left = tableBoundary.getLeft();
+    double right = tableBoundary.getRight();
+    MutableList<Element> elements = Lists.mutable.empty();
+    Cursor cursor = index.ascending(Axis.BOTTOM, top, false, bottom, false);
+    for (int slot = cursor.next(); slot >= 0; slot = cursor.next()) {
+      if (index.getRight(slot) > left && index.getLeft(slot) < right) {
+        elements.add(index.getElement(slot));
+      }
+    }
+    return elements;
+  }
+
   /**
    * Finds the table boundary which has column {@code startingColumn} within it.
    * Table boundary is
@@ -1272,19 +1239,21 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
    * column {@code
    * startingColumn}
    *
+   * @param context page grouping context
    * @param startingColumn starting column
    * @return table boundary which contains the column {@code startingColumn}
    */
-  private RectangleProperties<Double> findTableBoundary(Column startingColumn) {
+  private RectangleProperties<Double> findTableBoundary(PageContext context,
+      Column startingColumn) {
     MutableList<Element> unionColumn = startingColumn.elements;
-    double tableTop = unionColumn.getFirst().getAttribute(Top.class).getMagnitude() - SEPARATION_EPSILON;
-    double tableLeft = unionColumn.collect(e -> e.getAttribute(Left.class).getMagnitude()).min()
+    double tableTop = unionColumn.getFirst().getTopMagnitude() - SEPARATION_EPSILON;
+    double tableLeft = unionColumn.collect(e -> e.getLeftMagnitude()).min()
         - SEPARATION_EPSILON;
     SortedSet<Double> colBoundaries = SortedSets.mutable
         .of(DOUBLE_COMPARATOR_WO_EQUALITY, startingColumn.boundary);
     double maxColBottom = startingColumn.bottom;
-    double tableRight = unionColumn.collect(e -> e.getAttribute(Left.class).getMagnitude() +
-        e.getAttribute(Width.class).getMagnitude()).max();
+    double tableRight = unionColumn.collect(e -> e.getLeftMagnitude() +
+        e.getWidthMagnitude()).max();
     if (startingColumn.direction == DIRECTION_RIGHT
         || startingColumn.direction == DIRECTION_LEFT_RIGHT_BOTH) {
       Element unionColElemWithRight = unionColumn
@@ -1295,8 +1264,8 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
       MutableList<Element> newColumnStarts = Lists.mutable.empty();
       while (newColumnStart != null) {
         newColumnStarts.add(newColumnStart);
-        Column newColumn = this.findColumnElements(newColumnStart, true);
-        if (newColumnStart.getAttribute(Left.class).getMagnitude() > tableRight) {
+        Column newColumn = this.findColumnElements(context, newColumnStart, true);
+        if (newColumnStart.getLeftMagnitude() > tableRight) {
           colBoundaries.add(newColumn.boundary);
           maxColBottom = Math.max(maxColBottom, newColumn.bottom);
         }
@@ -1304,8 +1273,8 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
         unionColumn = mergeColumns(unionColumn, newColumn.elements, newColumn.boundary);
 
         for (Element element : unionColumn) {
-          double elementLeft = element.getAttribute(Left.class).getMagnitude();
-          double elementRight = elementLeft + element.getAttribute(Width.class).getMagnitude();
+          double elementLeft = element.getLeftMagnitude();
+          double elementRight = elementLeft + element.getWidthMagnitude();
           tableRight = Math.max(tableRight, elementRight);
           Element rightElement = element.getPositionalContext().getShadowedRightElement();
           if (!isHorizontalAligning(element, rightElement)) {
@@ -1329,9 +1298,9 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
       MutableList<Element> newColumnStarts = Lists.mutable.empty();
       while (newColumnStart != null) {
         newColumnStarts.add(newColumnStart);
-        Column newColumn = this.findColumnElements(newColumnStart, true);
-        double newColumnStartRight = newColumnStart.getAttribute(Left.class).getMagnitude() +
-            newColumnStart.getAttribute(Width.class).getMagnitude();
+        Column newColumn = this.findColumnElements(context, newColumnStart, true);
+        double newColumnStartRight = newColumnStart.getLeftMagnitude() +
+            newColumnStart.getWidthMagnitude();
         if (newColumnStartRight < tableLeft) {
           colBoundaries.add(newColumn.boundary);
           maxColBottom = Math.max(maxColBottom, newColumn.bottom);
@@ -1340,13 +1309,13 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
         unionColumn = mergeColumns(unionColumn, newColumn.elements, newColumn.boundary);
 
         for (Element element : unionColumn) {
-          double elementLeft = element.getAttribute(Left.class).getMagnitude();
+          double elementLeft = element.getLeftMagnitude();
           tableLeft = Math.min(tableLeft, elementLeft);
           Element leftElement = element.getPositionalContext().getShadowedLeftElement();
           if (!isHorizontalAligning(element, leftElement)) {
             // If entered here and newColumnStart is null, then loop will end
             leftLimit = Math
-                .max(leftLimit, elementLeft + element.getAttribute(Width.class).getMagnitude());
+                .max(leftLimit, elementLeft + element.getWidthMagnitude());
           } else if (newColumnStart == null && leftElement != null && elementLeft > leftLimit
               && newColumnStarts.noneSatisfy(e -> e == leftElement)) {
             newColumnStart = leftElement;
@@ -1357,7 +1326,7 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
 
     int i = 1;
     double maxBadBoundaries = (1 - MIN_COLUMN_LEVEL_TABULAR_FITNESS) * colBoundaries.size();
-    double tableBottom = this.pagePartition.bottomBoundary;
+    double tableBottom = context.pagePartition.bottomBoundary;
     for (double boundary : colBoundaries) {
       if (i >= maxBadBoundaries || boundary > maxColBottom) {
         tableBottom = boundary;
@@ -1388,6 +1357,7 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
    * search for next below element</li>
    * </ol>
    *
+   * @param context page grouping context
    * @param elem                      top element in the column
    * @param ignoreHorizontalAlignment boolean flag indicating to compute
    *                                  horizontal alignment if it
@@ -1395,15 +1365,16 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
    *                                  horizontally aligned if it is true
    * @return column of table
    */
-  private Column findColumnElements(Element elem, boolean ignoreHorizontalAlignment) {
+  private Column findColumnElements(PageContext context,
+      Element elem, boolean ignoreHorizontalAlignment) {
     boolean isAligning = true;
     MutableList<Element> columnElements = Lists.mutable.empty();
     PositionalContext<Element> elementPositionalContext = elem.getPositionalContext();
     Element rightElement = elementPositionalContext.getShadowedRightElement();
     Element leftElement = elementPositionalContext.getShadowedLeftElement();
-    double elementLeft = elem.getAttribute(Left.class).getMagnitude();
-    double elementTop = elem.getAttribute(Top.class).getMagnitude();
-    double elementRight = elementLeft + elem.getAttribute(Width.class).getMagnitude();
+    double elementLeft = elem.getLeftMagnitude();
+    double elementTop = elem.getTopMagnitude();
+    double elementRight = elementLeft + elem.getWidthMagnitude();
     double elemVisualLeft = getVisualLeftForTable(elementLeft, elementPositionalContext,
         leftElement);
     double elemVisualRight = getVisualRightForTable(elementRight, elementPositionalContext,
@@ -1419,7 +1390,7 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
     while (isAligning) {
       columnElements.add(elem);
       Pair<Element, Pair<Double, Double>> belowElementWithVisualBounds = this
-          .findTabularBelowElement(elementTop, elemVisualLeft, elemVisualRight, columnLeft,
+          .findTabularBelowElement(context, elementTop, elemVisualLeft, elemVisualRight, columnLeft,
               columnRight);
       Element belowElement = belowElementWithVisualBounds.getOne();
       elemVisualLeft = belowElementWithVisualBounds.getTwo().getOne();
@@ -1446,10 +1417,10 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
             }
           }
           if (isHorizontallyAligned) {
-            double belowElementLeft = belowElement.getAttribute(Left.class).getMagnitude();
-            double belowElementRight = belowElementLeft + belowElement.getAttribute(Width.class).getMagnitude();
+            double belowElementLeft = belowElement.getLeftMagnitude();
+            double belowElementRight = belowElementLeft + belowElement.getWidthMagnitude();
 
-            elementTop = belowElement.getAttribute(Top.class).getMagnitude();
+            elementTop = belowElement.getTopMagnitude();
             // If below element is within visual boundary and its left and right elements
             // are not intersecting with current column.
             if (belowElementLeft >= elemVisualLeft - TABLE_COL_FIT_ALLOWANCE
@@ -1458,13 +1429,13 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
                 && !isTabularIntersecting(columnLeft, columnRight, belowRightElem)) {
               isAligning = true;
               if (belowLeftElem == null
-                  || belowLeftElem.getAttribute(Width.class).getMagnitude() > TABLE_SMALL_ELEM_MAX_SIZE) {
+                  || belowLeftElem.getWidthMagnitude() > TABLE_SMALL_ELEM_MAX_SIZE) {
                 double belowVisualLeft = getVisualLeftForTable(belowElementLeft, belowContext,
                     belowLeftElem);
                 elemVisualLeft = Math.max(elemVisualLeft, belowVisualLeft);
               }
               if (belowRightElem == null
-                  || belowRightElem.getAttribute(Width.class).getMagnitude() > TABLE_SMALL_ELEM_MAX_SIZE) {
+                  || belowRightElem.getWidthMagnitude() > TABLE_SMALL_ELEM_MAX_SIZE) {
                 double belowVisualRight = getVisualRightForTable(belowElementRight, belowContext,
                     belowRightElem);
                 elemVisualRight = Math.min(elemVisualRight, belowVisualRight);
@@ -1476,9 +1447,9 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
               columnLeft = Math.min(columnLeft, belowElementLeft);
               columnRight = Math.max(columnRight, belowElementRight);
             } else if (this.checkForTabularNoise(belowElement) || belowContext.getVerticalGroup()
-                .getElements().anySatisfy(this.foundNoiseElements::contains)) {
+                .getElements().anySatisfy(context.foundNoiseElements::contains)) {
               isAligning = true;
-              this.foundNoiseElements.add(belowElement);
+              context.foundNoiseElements.add(belowElement);
             }
           }
         }
@@ -1492,11 +1463,10 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
     elem = elem != null && elem.getPositionalContext().getVerticalGroup() == verticalGrp ? verticalGrp
         .getFirst() : elem;
     int direction = nonNullLeftElemCount > 0 ? DIRECTION_LEFT_RIGHT_BOTH : DIRECTION_RIGHT;
-    double boundary = elem == null ? this.pagePartition.bottomBoundary
-        : elem.getAttribute(Top.class).getMagnitude();
+    double boundary = elem == null ? context.pagePartition.bottomBoundary
+        : elem.getTopMagnitude();
     Element lastElem = columnElements.getLast();
-    double bottom = lastElem.getAttribute(Top.class).getMagnitude() + lastElem.getAttribute(Height.class)
-        .getMagnitude();
+    double bottom = lastElem.getTopMagnitude() + lastElem.getHeightMagnitude();
     return new Column(columnElements, direction, boundary, bottom);
   }
 
@@ -1516,15 +1486,16 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
    * Find rectangle by considering the {@code elem} the above horizontal line for
    * the rectangle
    *
+   * @param context page grouping context
    * @param elem          top horizontal line of the generated rectangle
    * @param includeBroken boolean flag to search for rectangle spanning multiple
    *                      paritions
    * @return generated rectangle
    */
-  private Rectangle2D findRectangle(Element elem, boolean includeBroken) {
-    double top = elem.getAttribute(Top.class).getMagnitude();
-    double left = elem.getAttribute(Left.class).getMagnitude();
-    double width = elem.getAttribute(Stretch.class).getMagnitude();
+  private Rectangle2D findRectangle(PageContext context, Element elem, boolean includeBroken) {
+    double top = elem.getTopMagnitude();
+    double left = elem.getLeftMagnitude();
+    double width = elem.getStretchMagnitude();
     double right = left + width;
 
     Element horizontalLine = null;
@@ -1534,37 +1505,22 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
     while (horizontalLine == null && isRectangleContinued) {
       isRectangleContinued = false;
       // Find the left and right border vertical line of the rectangle
-      Query<Element> queryForFirstVerticalLine = and(
-          between(TOP, down, true, nextTop + SEPARATION_EPSILON, false),
-          betweenExclusive(LEFT, left - SEPARATION_EPSILON, left + SEPARATION_EPSILON));
-      Query<Element> queryForSecondVerticalLine = and(
-          between(TOP, down, true, nextTop + SEPARATION_EPSILON, false),
-          betweenExclusive(LEFT, right - SEPARATION_EPSILON, right + SEPARATION_EPSILON));
       Pair<Element, Element> verticalLinesForRectangle = this
-          .findVerticalLinesForRectangle(queryForFirstVerticalLine, queryForSecondVerticalLine);
+          .findVerticalLinesForRectangle(context, down, nextTop + SEPARATION_EPSILON, left, right);
       if (verticalLinesForRectangle != null) {
         // Find the below horizontal line of the rectangle
         Element firstLine = verticalLinesForRectangle.getOne();
-        down = firstLine.getAttribute(Top.class).getMagnitude() + firstLine.getAttribute(Stretch.class)
-            .getMagnitude();
-        Query<Element> queryForHorizontalLine = and(
-            betweenExclusive(TOP, down - SEPARATION_EPSILON, down + SEPARATION_EPSILON),
-            betweenExclusive(LEFT, left - SEPARATION_EPSILON, left + SEPARATION_EPSILON),
-            betweenExclusive(HORIZONTAL_END, right - SEPARATION_EPSILON,
-                right + SEPARATION_EPSILON));
-        horizontalLine = retrieveOnlyOneResultElseNull(
-            this.horizontalLineIndex.retrieve(queryForHorizontalLine));
+        down = firstLine.getTopMagnitude() + firstLine.getStretchMagnitude();
+        horizontalLine = this.findHorizontalLine(context, down, left, right);
 
         // If horizontal line is not found, find box element below the current line and
         // try to find horizontal line again below the box element
         if (horizontalLine == null && includeBroken) {
-          Iterator<Element> nextBoxedElementsIterator = retrieve(this.boxedElementIndex,
-              betweenExclusive(TOP, down, down + CONTEXT_LIMIT), orderBy(ascending(TOP)))
-              .iterator();
-          if (nextBoxedElementsIterator.hasNext()) {
-            Element nextBoxedElement = nextBoxedElementsIterator.next();
-            nextTop = nextBoxedElement.getAttribute(Top.class).getMagnitude() + nextBoxedElement
-                .getAttribute(Height.class).getMagnitude();
+          ElementSpatialIndex boxedIndex = context.boxedElementSpatialIndex;
+          int nextBoxedSlot = boxedIndex
+              .ascending(Axis.TOP, down, false, down + CONTEXT_LIMIT, false).next();
+          if (nextBoxedSlot >= 0) {
+            nextTop = boxedIndex.getBottom(nextBoxedSlot);
             isRectangleContinued = true;
           }
         }
@@ -1575,7 +1531,7 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
     // set bounding rectangle for each element to the created rectangle
     if (horizontalLine != null) {
       Rectangle2D rectangle = new Rectangle2D.Double(left, top, width, down - top);
-      MutableList<Element> elementsInsideRectangle = this.findElementsWithinBoundingBox(rectangle);
+      MutableList<Element> elementsInsideRectangle = this.findElementsWithinBoundingBox(context, rectangle);
 
       if (this.areElementsAlignedTabularly(elementsInsideRectangle)) {
         for (Element element : elementsInsideRectangle) {
@@ -1590,51 +1546,67 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
   /**
    * Find the horizontal lines found within the {@code rectangle}
    *
+   * @param context page grouping context
    * @param rectangle rectangle where horizontal lines are being searched
    * @return horizontal lines
    */
-  private MutableSet<Element> findContainedHorizontalLines(Rectangle2D rectangle) {
+  private MutableSet<Element> findContainedHorizontalLines(PageContext context,
+      Rectangle2D rectangle) {
     double top = rectangle.getMinY();
     double bottom = rectangle.getMaxY();
     double left = rectangle.getMinX();
     double right = rectangle.getMaxX();
 
-    Query<Element> queryForContainedHorizontalLines = and(
-        betweenExclusive(TOP, top - SEPARATION_EPSILON, bottom + SEPARATION_EPSILON),
-        greaterThan(LEFT, left - SEPARATION_EPSILON),
-        lessThan(HORIZONTAL_END, right + SEPARATION_EPSILON));
-    return Sets.mutable.ofAll(retrieve(this.horizontalLineIndex, queryForContainedHorizontalLines,
-        orderBy(ascending(TOP))));
+    ElementSpatialIndex lineIndex = context.horizontalLineSpatialIndex;
+    MutableSet<Element> lines = Sets.mutable.empty();
+    Cursor cursor = lineIndex.ascending(Axis.TOP, top - SEPARATION_EPSILON, false,
+        bottom + SEPARATION_EPSILON, false);
+    for (int slot = cursor.next(); slot >= 0; slot = cursor.next()) {
+      if (lineIndex.getLeft(slot) > left - SEPARATION_EPSILON
+          && lineIndex.getRight(slot) < right + SEPARATION_EPSILON) {
+        lines.add(lineIndex.getElement(slot));
+      }
+    }
+    return lines;
   }
 
   /**
    * Find the vertical lines found within the {@code rectangle}
    *
+   * @param context page grouping context
    * @param rectangle rectangle where vertical lines are being searched
    * @return vertical lines
    */
-  private MutableSet<Element> findContainedVerticalLines(Rectangle2D rectangle) {
+  private MutableSet<Element> findContainedVerticalLines(PageContext context,
+      Rectangle2D rectangle) {
     double top = rectangle.getMinY();
     double bottom = rectangle.getMaxY();
     double left = rectangle.getMinX();
     double right = rectangle.getMaxX();
 
-    Query<Element> queryForContainedVerticalLines = and(
-        betweenExclusive(LEFT, left - SEPARATION_EPSILON, right + SEPARATION_EPSILON),
-        greaterThan(TOP, top - SEPARATION_EPSILON),
-        lessThan(VERTICAL_END, bottom + SEPARATION_EPSILON));
-    return Sets.mutable.ofAll(
-        retrieve(this.verticalLineIndex, queryForContainedVerticalLines, orderBy(ascending(LEFT))));
+    ElementSpatialIndex lineIndex = context.verticalLineSpatialIndex;
+    MutableSet<Element> lines = Sets.mutable.empty();
+    Cursor cursor = lineIndex.ascending(Axis.LEFT, left - SEPARATION_EPSILON, false,
+        right + SEPARATION_EPSILON, false);
+    for (int slot = cursor.next(); slot >= 0; slot = cursor.next()) {
+      if (lineIndex.getTop(slot) > top - SEPARATION_EPSILON
+          && lineIndex.getBottom(slot) < bottom + SEPARATION_EPSILON) {
+        lines.add(lineIndex.getElement(slot));
+      }
+    }
+    return lines;
   }
 
   /**
    * Find rectilinear polygons using the {@code horizontalLinesOnPage} and {@code
    * verticalLinesOnPage}.
    *
+   * @param context page grouping context
    * @param horizontalLinesOnPage horizontal lines within page.
    * @param verticalLinesOnPage   vertical lines within page.
    */
-  private void findRectilinearPolygons(MutableSet<Element> horizontalLinesOnPage,
+  private void findRectilinearPolygons(PageContext context,
+      MutableSet<Element> horizontalLinesOnPage,
       MutableSet<Element> verticalLinesOnPage) {
     RectangleFinder rectangleFinder = new RectangleFinder(horizontalLinesOnPage,
         verticalLinesOnPage);
@@ -1642,17 +1614,17 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
     MutableList<Rectangle2D> openRectanglesClosedVertically = rectangleFinder
         .getCreatedRectangleBuilders()
         .flatCollect(RectangleBuilder::getRightSideOpenRectangles)
-        .select(this.getVerticalOpenRectangleCombineCondition())
+        .select(this.getVerticalOpenRectangleCombineCondition(context))
         .collect(OpenRectangle::createClosedRectangle)
         .select(RectilinearPolygon::isValidRectangle);
     MutableList<Rectangle2D> openRectanglesClosedHorizontally = OpenRectangle
         .combineHorizontallyOpenRectangles(
             rectangleFinder.getHorizontallyOpenRectangles(),
-            this.getVerticalLineCombineCondition());
+            this.getVerticalLineCombineCondition(context));
     MutableList<RectilinearPolygon> rectilinearPolygons = RectilinearPolygon
         .buildRectilinearPolygons(foundRectangles
             .withAll(openRectanglesClosedVertically).withAll(openRectanglesClosedHorizontally));
-    this.assignBoundingBoxesForRectilinearPolygons(rectilinearPolygons);
+    this.assignBoundingBoxesForRectilinearPolygons(context, rectilinearPolygons);
   }
 
   /**
@@ -1668,7 +1640,7 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
    *
    * @return constructed predicate
    */
-  private Predicate2<VerticalLine, VerticalLine> getVerticalLineCombineCondition() {
+  private Predicate2<VerticalLine, VerticalLine> getVerticalLineCombineCondition(PageContext context) {
     return (aboveLine, belowLine) -> {
       PositionalElementList<Element> elementList = aboveLine.getElementList();
       int aboveLinePageBreakNumber = elementList.getPageBreakNumber(aboveLine);
@@ -1678,11 +1650,15 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
       if (aboveLinePageBreakNumber == belowLinePageBreakNumber) {
         return belowLineBeginY - aboveLineEndY < SEPARATION_EPSILON;
       }
-      MutableList<Element> boxedElementsBetweenBorders = Lists.mutable
-          .ofAll(this.boxedElementIndex.retrieve(betweenExclusive(
-              TOP, aboveLineEndY - SEPARATION_EPSILON, belowLineBeginY + SEPARATION_EPSILON)));
-      return Iterate.isEmpty(boxedElementsBetweenBorders) || boxedElementsBetweenBorders
-          .noneSatisfy(e -> e instanceof TextElement);
+      ElementSpatialIndex index = context.boxedElementSpatialIndex;
+      Cursor cursor = index.ascending(Axis.TOP, aboveLineEndY - SEPARATION_EPSILON, false,
+          belowLineBeginY + SEPARATION_EPSILON, false);
+      for (int slot = cursor.next(); slot >= 0; slot = cursor.next()) {
+        if (index.getElement(slot) instanceof TextElement) {
+          return false;
+        }
+      }
+      return true;
     };
   }
 
@@ -1693,35 +1669,39 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
    *
    * @return constructed predicate
    */
-  private Predicate<OpenRectangle> getVerticalOpenRectangleCombineCondition() {
+  private Predicate<OpenRectangle> getVerticalOpenRectangleCombineCondition(PageContext context) {
     return openRectangle -> {
       VerticalLine closingBorder = (VerticalLine) openRectangle.findClosingBorder();
       double closingBorderX = closingBorder.getLeft().getMagnitude();
       double closingBorderTopY = closingBorder.getTop().getMagnitude();
       double closingBorderBottomY = closingBorderTopY + closingBorder.getStretch().getMagnitude();
-      Query<Element> elementsOverlappingRightBorder = and(
-          greaterThan(BOTTOM, closingBorderTopY - SEPARATION_EPSILON),
-          lessThan(TOP, closingBorderBottomY + SEPARATION_EPSILON),
-          greaterThan(RIGHT, closingBorderX - SEPARATION_EPSILON),
-          lessThan(LEFT, closingBorderX + SEPARATION_EPSILON));
-      MutableList<Element> elements = Lists.mutable.ofAll(
-          retrieve(this.boxedElementIndex, elementsOverlappingRightBorder,
-              orderBy(ascending(TOP))));
-      return elements.isEmpty();
+      ElementSpatialIndex index = context.boxedElementSpatialIndex;
+      Cursor cursor = index.ascending(Axis.TOP, Double.NEGATIVE_INFINITY, true,
+          closingBorderBottomY + SEPARATION_EPSILON, false);
+      for (int slot = cursor.next(); slot >= 0; slot = cursor.next()) {
+        if (index.getBottom(slot) > closingBorderTopY - SEPARATION_EPSILON
+            && index.getRight(slot) > closingBorderX - SEPARATION_EPSILON
+            && index.getLeft(slot) < closingBorderX + SEPARATION_EPSILON) {
+          return false;
+        }
+      }
+      return true;
     };
   }
 
   /**
    * Assign bounding box for every element within {@code rectilinearPolygons}
    *
+   * @param context page grouping context
    * @param rectilinearPolygons polygon whose element's bounding box is to
    *                            assigned
    */
   private void assignBoundingBoxesForRectilinearPolygons(
+      PageContext context,
       MutableList<RectilinearPolygon> rectilinearPolygons) {
     for (RectilinearPolygon rectilinearPolygon : rectilinearPolygons) {
       Rectangle2D boundingRectangle = rectilinearPolygon.getBoundingRectangle();
-      MutableList<Element> elementsWithin = this.findElementsWithinBoundingBox(boundingRectangle);
+      MutableList<Element> elementsWithin = this.findElementsWithinBoundingBox(context, boundingRectangle);
       if (!this.areElementsAlignedTabularly(elementsWithin)
           || rectilinearPolygon.getEnclosedRectangles().size() == 1
           || rectilinearPolygon.getNumberOfRows() == 1
@@ -1740,19 +1720,27 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
   /**
    * Find all the rectangular elements present in {@code bounding box}
    *
+   * @param context page grouping context
    * @param boundingBox rectangular region where elements are being searched
    * @return all the elements founnd in the region
    */
-  private MutableList<Element> findElementsWithinBoundingBox(Rectangle2D boundingBox) {
+  private MutableList<Element> findElementsWithinBoundingBox(PageContext context,
+      Rectangle2D boundingBox) {
     double left = boundingBox.getMinX();
     double right = boundingBox.getMaxX();
     double top = boundingBox.getMinY();
     double down = boundingBox.getMaxY();
-    Query<Element> queryForElementsInsideRectangle = and(
-        betweenExclusive(LEFT, left - SEPARATION_EPSILON, right - SEPARATION_EPSILON),
-        betweenExclusive(TOP, top - 2 * SEPARATION_EPSILON, down - SEPARATION_EPSILON));
-    return Lists.mutable.ofAll(
-        retrieve(this.boxedElementIndex, queryForElementsInsideRectangle, orderBy(ascending(TOP))));
+    ElementSpatialIndex index = context.boxedElementSpatialIndex;
+    MutableList<Element> elements = Lists.mutable.empty();
+    Cursor cursor = index.ascending(Axis.TOP, top - 2 * SEPARATION_EPSILON, false,
+        down - SEPARATION_EPSILON, false);
+    for (int slot = cursor.next(); slot >= 0; slot = cursor.next()) {
+      double elementLeft = index.getLeft(slot);
+      if (elementLeft > left - SEPARATION_EPSILON && elementLeft < right - SEPARATION_EPSILON) {
+        elements.add(index.getElement(slot));
+      }
+    }
+    return elements;
   }
 
   /**
@@ -1797,20 +1785,22 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
    * lengths is less
    * than SEPARATION_EPSILOM
    *
-   * @param queryForFirstVerticalLine  query on how to find first vertical line
-   * @param queryForSecondVerticalLine query on how to find second vertical line
+   * @param context page grouping context
+   * @param fromTop lowest top (inclusive) of the border lines
+   * @param toTop   highest top (exclusive) of the border lines
+   * @param left    abscissa of left border line
+   * @param right   abscissa of right border line
    * @return pair of left and right border vertical lines
    */
-  private Pair<Element, Element> findVerticalLinesForRectangle(
-      Query<Element> queryForFirstVerticalLine, Query<Element> queryForSecondVerticalLine) {
-    Element firstLine = retrieveOnlyOneResultElseNull(
-        this.verticalLineIndex.retrieve(queryForFirstVerticalLine));
+  private Pair<Element, Element> findVerticalLinesForRectangle(PageContext context,
+      double fromTop, double toTop,
+      double left, double right) {
+    Element firstLine = this.findVerticalLine(context, fromTop, toTop, left);
     if (firstLine != null) {
-      Element secondLine = retrieveOnlyOneResultElseNull(
-          this.verticalLineIndex.retrieve(queryForSecondVerticalLine));
+      Element secondLine = this.findVerticalLine(context, fromTop, toTop, right);
       if (secondLine != null) {
-        double firstLineStretch = firstLine.getAttribute(Stretch.class).getMagnitude();
-        double secondLineStretch = secondLine.getAttribute(Stretch.class).getMagnitude();
+        double firstLineStretch = firstLine.getStretchMagnitude();
+        double secondLineStretch = secondLine.getStretchMagnitude();
         if (Math.abs(firstLineStretch - secondLineStretch) < SEPARATION_EPSILON) {
           return Tuples.pair(firstLine, secondLine);
         }
@@ -1819,9 +1809,49 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
     return null;
   }
 
+  /**
+   * Find vertical line whose top lies within [{@code fromTop}, {@code toTop}) and which is close to
+   * abscissa {@code x}
+   *
+   * @return first such vertical line, else null
+   */
+  private Element findVerticalLine(PageContext context, double fromTop, double toTop, double x) {
+    ElementSpatialIndex lineIndex = context.verticalLineSpatialIndex;
+    Cursor cursor = lineIndex.ascending(Axis.TOP, fromTop, true, toTop, false);
+    for (int slot = cursor.next(); slot >= 0; slot = cursor.next()) {
+      double lineLeft = lineIndex.getLeft(slot);
+      if (lineLeft > x - SEPARATION_EPSILON && lineLeft < x + SEPARATION_EPSILON) {
+        return lineIndex.getElement(slot);
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Find horizontal line which is close to ordinate {@code top} and whose ends are close to {@code
+   * left} and {@code right}
+   *
+   * @return first such horizontal line, else null
+   */
+  private Element findHorizontalLine(PageContext context, double top, double left, double right) {
+    ElementSpatialIndex lineIndex = context.horizontalLineSpatialIndex;
+    Cursor cursor = lineIndex.ascending(Axis.TOP, top - SEPARATION_EPSILON, false,
+        top + SEPARATION_EPSILON, false);
+    for (int slot = cursor.next(); slot >= 0; slot = cursor.next()) {
+      double lineLeft = lineIndex.getLeft(slot);
+      double lineRight = lineIndex.getRight(slot);
+      if (lineLeft > left - SEPARATION_EPSILON && lineLeft < left + SEPARATION_EPSILON
+          && lineRight > right - SEPARATION_EPSILON && lineRight < right + SEPARATION_EPSILON) {
+        return lineIndex.getElement(slot);
+      }
+    }
+    return null;
+  }
+
   /**
    * Method to get visual left of element
    *
+   * @param context page grouping context
    * @param top           top coordinate of element
    * @param bottom        bottom coordinte of element
    * @param left          left coordinate of element
@@ -1829,33 +1859,35 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
    * @param leftElement   shadow left element of element
    * @return visual left of element
    */
-  private Pair<Double, Boolean> findVisualLeft(double top, double bottom, double left,
+  private Pair<Double, Boolean> findVisualLeft(PageContext context,
+      double top, double bottom, double left,
       double alignmentLeft, Element leftElement) {
     double leftElementAlignmentRight = leftElement != null ? leftElement.getPositionalContext().getAlignmentRight() : 0;
-    double leftElementRight = leftElement != null ? leftElement.getAttribute(Left.class).getMagnitude() +
-        leftElement.getAttribute(Width.class).getMagnitude() : -1;
+    double leftElementRight = leftElement != null ? leftElement.getLeftMagnitude() +
+        leftElement.getWidthMagnitude() : -1;
     boolean isLeftElementBoundaryAligning = leftElementAlignmentRight > 0 && leftElementAlignmentRight < left;
     boolean isElementBoundaryAligning = alignmentLeft > 0 && alignmentLeft > leftElementRight;
+    double edgeElementBoundary =
+        isLeftElementBoundaryAligning ? leftElementAlignmentRight : leftElementRight;
+    ElementSpatialIndex lineIndex = context.verticalLineSpatialIndex;
     return findVisualEdge(
         0,
-        isLeftElementBoundaryAligning ? leftElementAlignmentRight : leftElementRight,
+        edgeElementBoundary,
         isLeftElementBoundaryAligning,
         isElementBoundaryAligning ? alignmentLeft : left,
         isElementBoundaryAligning,
-        Left.class,
-        lessThan(LEFT, left + BORDER_LINE_ADJUST_EPSILON),
-        or(and(betweenExclusive(TOP, top - CONTEXT_LIMIT, top),
-            betweenExclusive(VERTICAL_END, top, top + CONTEXT_LIMIT)),
-            and(betweenExclusive(TOP, top, bottom),
-                betweenExclusive(VERTICAL_END, bottom, bottom + CONTEXT_LIMIT))),
-        greaterThan(LEFT, leftElementRight - BORDER_LINE_ADJUST_EPSILON),
-        orderBy(descending(LEFT)),
-        this.verticalLineIndex);
+        lineIndex,
+        lineIndex.descending(Axis.LEFT, edgeElementBoundary > 0
+                ? leftElementRight - BORDER_LINE_ADJUST_EPSILON : Double.NEGATIVE_INFINITY, false,
+            left + BORDER_LINE_ADJUST_EPSILON, false),
+        isVerticalBorderLine(lineIndex, top, bottom),
+        lineIndex::getLeft);
   }
 
   /**
    * Method to get visual right of element
    *
+   * @param context page grouping context
    * @param top            top coordinate of element
    * @param bottom         bottom coordinte of element
    * @param right          right coordinate of element
@@ -1863,102 +1895,117 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
    * @param rightElement   shadow right element of element
    * @return visual right of element
    */
-  private Pair<Double, Boolean> findVisualRight(double top, double bottom, double right,
+  private Pair<Double, Boolean> findVisualRight(PageContext context,
+      double top, double bottom, double right,
       double alignmentRight, Element rightElement) {
     double rightElementAlignmentLeft = rightElement != null ? rightElement.getPositionalContext().getAlignmentLeft()
         : 0;
-    double rightElementLeft = rightElement != null ? rightElement.getAttribute(Left.class).getMagnitude() : -1;
+    double rightElementLeft = rightElement != null ? rightElement.getLeftMagnitude() : -1;
     boolean isRightElementBoundaryAligning = rightElementAlignmentLeft > right;
     boolean isElementBoundaryAligning = alignmentRight > 0 && alignmentRight < rightElementLeft;
+    double edgeElementBoundary =
+        isRightElementBoundaryAligning ? rightElementAlignmentLeft : rightElementLeft;
+    ElementSpatialIndex lineIndex = context.verticalLineSpatialIndex;
     return findVisualEdge(
-        this.pageWidth,
-        isRightElementBoundaryAligning ? rightElementAlignmentLeft : rightElementLeft,
+        context.pageWidth,
+        edgeElementBoundary,
         isRightElementBoundaryAligning,
         isElementBoundaryAligning ? alignmentRight : right,
         isElementBoundaryAligning,
-        Left.class,
-        greaterThan(LEFT, right - BORDER_LINE_ADJUST_EPSILON),
-        or(and(betweenExclusive(TOP, top - CONTEXT_LIMIT, top),
-            betweenExclusive(VERTICAL_END, top, top + CONTEXT_LIMIT)),
-            and(betweenExclusive(TOP, top, bottom),
-                betweenExclusive(VERTICAL_END, bottom, bottom + CONTEXT_LIMIT))),
-        lessThan(LEFT, rightElementLeft + BORDER_LINE_ADJUST_EPSILON),
-        orderBy(ascending(LEFT)),
-        this.verticalLineIndex);
+        lineIndex,
+        lineIndex.ascending(Axis.LEFT, right - BORDER_LINE_ADJUST_EPSILON, false,
+            edgeElementBoundary > 0 ? rightElementLeft + BORDER_LINE_ADJUST_EPSILON
+                : Double.POSITIVE_INFINITY, false),
+        isVerticalBorderLine(lineIndex, top, bottom),
+        lineIndex::getLeft);
   }
 
   /**
    * Method to get visual top of element
    *
+   * @param context page grouping context
    * @param top          top coordinate of element
    * @param left         left coordinate of element
    * @param right        right coordinate of element
    * @param aboveElement shadow above element of element
    * @return visual top of element
    */
-  private Pair<Double, Boolean> findVisualTop(double top, double left, double right,
+  private Pair<Double, Boolean> findVisualTop(PageContext context,
+      double top, double left, double right,
       Element aboveElement) {
-    double aboveElementBottom = aboveElement != null ? aboveElement.getAttribute(Top.class).getMagnitude() +
-        aboveElement.getAttribute(Height.class).getMagnitude() : this.pagePartition.topBoundary;
+    double aboveElementBottom = aboveElement != null ? aboveElement.getTopMagnitude() +
+        aboveElement.getHeightMagnitude() : context.pagePartition.topBoundary;
+    ElementSpatialIndex lineIndex = context.horizontalLineSpatialIndex;
+    double lower = top - CONTEXT_LIMIT;
+    double upper = top;
+    if (aboveElementBottom > 0) {
+      lower = Math.max(lower, aboveElementBottom);
+      upper = Math.min(upper, aboveElementBottom + CONTEXT_LIMIT);
+    }
     return findVisualEdge(
-        this.pagePartition.topBoundary,
+        context.pagePartition.topBoundary,
         aboveElementBottom,
         false,
         top,
         false,
-        Top.class,
-        betweenExclusive(TOP, top - CONTEXT_LIMIT, top),
-        or(and(lessThan(LEFT, left), greaterThan(HORIZONTAL_END, left)),
-            and(lessThan(LEFT, right), greaterThan(HORIZONTAL_END, right))),
-        betweenExclusive(TOP, aboveElementBottom, aboveElementBottom + CONTEXT_LIMIT),
-        orderBy(descending(TOP)),
-        this.horizontalLineIndex);
+        lineIndex,
+        lineIndex.descending(Axis.TOP, lower, false, upper, false),
+        isHorizontalBorderLine(lineIndex, left, right),
+        lineIndex::getTop);
   }
 
   /**
    * Method to get visual bottom of element
    *
+   * @param context page grouping context
    * @param bottom       bottom coordinate of element
    * @param left         left coordinate of element
    * @param right        right coordinate of element
    * @param belowElement shadow below element of element
    * @return visual bottom of element
    */
-  private Pair<Double, Boolean> findVisualBottom(double bottom, double left, double right,
+  private Pair<Double, Boolean> findVisualBottom(PageContext context,
+      double bottom, double left, double right,
       Element belowElement) {
-    double belowElementTop = belowElement != null ? belowElement.getAttribute(Top.class).getMagnitude()
-        : this.pagePartition.bottomBoundary;
+    double belowElementTop = belowElement != null ? belowElement.getTopMagnitude()
+        : context.pagePartition.bottomBoundary;
+    ElementSpatialIndex lineIndex = context.horizontalLineSpatialIndex;
+    double lower = bottom;
+    double upper = bottom + CONTEXT_LIMIT;
+    if (belowElementTop > 0) {
+      lower = Math.max(lower, belowElementTop - CONTEXT_LIMIT);
+      upper = Math.min(upper, belowElementTop);
+    }
     return findVisualEdge(
-        this.pagePartition.bottomBoundary,
+        context.pagePartition.bottomBoundary,
         belowElementTop,
         false,
         bottom,
         false,
-        Top.class,
-        betweenExclusive(TOP, bottom, bottom + CONTEXT_LIMIT),
-        or(and(lessThan(LEFT, left), greaterThan(HORIZONTAL_END, left)),
-            and(lessThan(LEFT, right), greaterThan(HORIZONTAL_END, right))),
-        betweenExclusive(TOP, belowElementTop - CONTEXT_LIMIT, belowElementTop),
-        orderBy(ascending(TOP)),
-        this.horizontalLineIndex);
+        lineIndex,
+        lineIndex.ascending(Axis.TOP, lower, false, upper, false),
+        isHorizontalBorderLine(lineIndex, left, right),
+        lineIndex::getTop);
   }
 
   /**
    * Find elements which is present at above position than current element
    *
+   * @param index spatial index of boxed elements of the partition
    * @param bottom      bottom coordinate of current element
    * @param visualLeft  visual left of current element
    * @param visualRight visual right of current element
    * @return above elements
    */
-  private ElementGroup<Element> findAboveElements(double bottom, double visualLeft,
+  private static ElementGroup<Element> findAboveElements(ElementSpatialIndex index,
+      double bottom, double visualLeft,
       double visualRight) {
-    return this.findSurroundingElements(
-        betweenExclusive(BOTTOM, bottom - CONTEXT_LIMIT, bottom - SEPARATION_EPSILON),
-        and(greaterThan(HORIZONTAL_CENTRE, visualLeft), lessThan(HORIZONTAL_CENTRE, visualRight)),
-        orderBy(descending(BOTTOM), ascending(HORIZONTAL_CENTRE)),
-        Left.class,
-        Width.class,
+    return findSurroundingElements(index,
+        index.descending(Axis.BOTTOM, bottom - CONTEXT_LIMIT, false, bottom - SEPARATION_EPSILON,
+            false),
+        slot -> index.getHorizontalCentre(slot) > visualLeft
+            && index.getHorizontalCentre(slot) < visualRight,
+        false,
         VERTICAL_TRAVERSAL_THRESHOLD,
         (x, y) -> PositionalElementList.compareByHorizontalAlignment(x, y) != 0);
   }
@@ -1966,19 +2013,20 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
   /**
    * Find elements which is present at below position than current element
    *
+   * @param index spatial index of boxed elements of the partition
    * @param top         top coordinate of current element
    * @param visualLeft  visual left of current element
    * @param visualRight visual right of current element
    * @return below elements
    */
-  private ElementGroup<Element> findBelowElements(double top, double visualLeft,
+  private static ElementGroup<Element> findBelowElements(ElementSpatialIndex index,
+      double top, double visualLeft,
       double visualRight) {
-    return this.findSurroundingElements(
-        betweenExclusive(TOP, top + SEPARATION_EPSILON, top + CONTEXT_LIMIT),
-        and(greaterThan(HORIZONTAL_CENTRE, visualLeft), lessThan(HORIZONTAL_CENTRE, visualRight)),
-        orderBy(ascending(TOP), ascending(HORIZONTAL_CENTRE)),
-        Left.class,
-        Width.class,
+    return findSurroundingElements(index,
+        index.ascending(Axis.TOP, top + SEPARATION_EPSILON, false, top + CONTEXT_LIMIT, false),
+        slot -> index.getHorizontalCentre(slot) > visualLeft
+            && index.getHorizontalCentre(slot) < visualRight,
+        false,
         VERTICAL_TRAVERSAL_THRESHOLD,
         (x, y) -> PositionalElementList.compareByHorizontalAlignment(x, y) != 0);
   }
@@ -1986,19 +2034,19 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
   /**
    * Find elements which is present at left position than current element
    *
+   * @param index spatial index of boxed elements of the partition
    * @param left         left coordinate of current element
    * @param visualTop    visual top of current element
    * @param visualBottom visual bottom of current element
    * @return left elements
    */
-  private ElementGroup<Element> findLeftElements(double left, double visualTop,
-      double visualBottom) {
-    return this.findSurroundingElements(
-        lessThan(RIGHT, left),
-        betweenExclusive(VERTICAL_CENTRE, visualTop, visualBottom),
-        orderBy(descending(RIGHT), ascending(VERTICAL_CENTRE)),
-        Top.class,
-        Height.class,
+  private static ElementGroup<Element> findLeftElements(ElementSpatialIndex index, double left,
+      double visualTop, double visualBottom) {
+    return findSurroundingElements(index,
+        index.descending(Axis.RIGHT, Double.NEGATIVE_INFINITY, true, left, false),
+        slot -> index.getVerticalCentre(slot) > visualTop
+            && index.getVerticalCentre(slot) < visualBottom,
+        true,
         HORIZONTAL_TRAVERSAL_THRESHOLD,
         (x, y) -> PositionalElementList.compareByVerticalAlignment(x, y) != 0);
   }
@@ -2006,19 +2054,20 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
   /**
    * Find elements which is present at right position than current element
    *
+   * @param index spatial index of boxed elements of the partition
    * @param right        right coordinate of current element
    * @param visualTop    visual top of current element
    * @param visualBottom visual bottom of current element
    * @return right elements
    */
-  private ElementGroup<Element> findRightElements(double right, double visualTop,
+  private static ElementGroup<Element> findRightElements(ElementSpatialIndex index,
+      double right, double visualTop,
       double visualBottom) {
-    return this.findSurroundingElements(
-        greaterThan(LEFT, right),
-        betweenExclusive(VERTICAL_CENTRE, visualTop, visualBottom),
-        orderBy(ascending(LEFT), ascending(VERTICAL_CENTRE)),
-        Top.class,
-        Height.class,
+    return findSurroundingElements(index,
+        index.ascending(Axis.LEFT, right, false, Double.POSITIVE_INFINITY, true),
+        slot -> index.getVerticalCentre(slot) > visualTop
+            && index.getVerticalCentre(slot) < visualBottom,
+        true,
         HORIZONTAL_TRAVERSAL_THRESHOLD,
         (x, y) -> PositionalElementList.compareByVerticalAlignment(x, y) != 0);
   }
@@ -2026,11 +2075,13 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
   /**
    * Find surrounding elements
    *
-   * @param axisCondition         axis query
-   * @param otherCondition        other condition to include in query
-   * @param elementOrdering       option to sort by the results
-   * @param otherStartAttrClass   -
-   * @param otherStretchAttrClass -
+   * @param index spatial index of boxed elements of the partition
+   * @param axisCursor            cursor over boxed elements satisfying the axis
+   *                              condition, in traversal order
+   * @param otherCondition        other condition on boxed element slot
+   * @param isOtherAxisVertical   boolean flag indicating whether the extent of
+   *                              results is compared on vertical axis (else
+   *                              horizontal axis)
    * @param traversalThreshold    Elements returned should be present in number of
    *                              lines which is less
    *                              than this threshold
@@ -2039,25 +2090,24 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
    *                              different line than current element
    * @return element group consisting of surrounding elements
    */
-  private ElementGroup<Element> findSurroundingElements(
-      Query<Element> axisCondition,
-      Query<Element> otherCondition,
-      OrderByOption<Element> elementOrdering,
-      Class<? extends LengthAttribute> otherStartAttrClass,
-      Class<? extends LengthAttribute> otherStretchAttrClass,
+  private static ElementGroup<Element> findSurroundingElements(
+      ElementSpatialIndex index,
+      Cursor axisCursor,
+      IntPredicate otherCondition,
+      boolean isOtherAxisVertical,
       int traversalThreshold,
       Function2<Element, Element, Boolean> isElementLineCrossed) {
-    Query<Element> query = and(axisCondition, otherCondition);
-    ResultSet<Element> results = retrieve(this.boxedElementIndex, query, elementOrdering);
-    Iterator<Element> resultsIterator = results.iterator();
     Element prevResultElement = null;
     int numOfElementLinesVisited = 0;
     ElementGroup<Element> resultElements = new ElementGroup<>();
     SortedSet<Pair<Double, Double>> elemIntervals = SortedSets.mutable
         .of(Comparator.comparingDouble(Pair::getOne));
 
-    while (resultsIterator.hasNext()) {
-      Element resultElement = resultsIterator.next();
+    for (int slot = axisCursor.next(); slot >= 0; slot = axisCursor.next()) {
+      if (!otherCondition.accept(slot)) {
+        continue;
+      }
+      Element resultElement = index.getElement(slot);
       if (prevResultElement != null && isElementLineCrossed
           .value(prevResultElement, resultElement)) {
         numOfElementLinesVisited++;
@@ -2065,8 +2115,8 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
           break;
         }
       }
-      double resultOtherStart = resultElement.getAttribute(otherStartAttrClass).getMagnitude();
-      double resultOtherEnd = resultOtherStart + resultElement.getAttribute(otherStretchAttrClass).getMagnitude();
+      double resultOtherStart = isOtherAxisVertical ? index.getTop(slot) : index.getLeft(slot);
+      double resultOtherEnd = isOtherAxisVertical ? index.getBottom(slot) : index.getRight(slot);
       Pair<Double, Double> elemInterval = Tuples.pair(resultOtherStart, resultOtherEnd);
       SortedSet<Pair<Double, Double>> intervalsHead = elemIntervals.headSet(elemInterval);
       SortedSet<Pair<Double, Double>> intervalsTail = elemIntervals.tailSet(elemInterval);
@@ -2080,7 +2130,6 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
     }
     return resultElements;
   }
-
   /**
    * Find the tabular below element of current element Algo: We keep iterating
    * below elements within
@@ -2088,6 +2137,7 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
    * is horizontally
    * intersecting
    *
+   * @param context page grouping context
    * @param top         top coordinate of current element
    * @param visualLeft  visual left of current element in table
    * @param visualRight visual right of current element in table
@@ -2095,18 +2145,19 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
    * @param right       right coordiant of current element
    * @return tabular below element
    */
-  private Pair<Element, Pair<Double, Double>> findTabularBelowElement(double top, double visualLeft,
+  private Pair<Element, Pair<Double, Double>> findTabularBelowElement(PageContext context,
+      double top, double visualLeft,
       double visualRight, double left, double right) {
     Element belowElement = null;
     double intersection = 0;
     while (intersection == 0) {
       if (belowElement != null) {
-        top = belowElement.getAttribute(Top.class).getMagnitude() + SEPARATION_EPSILON;
+        top = belowElement.getTopMagnitude() + SEPARATION_EPSILON;
       }
-      belowElement = this.findShadowedBelowElement(top, visualLeft, visualRight, left, right);
+      belowElement = this.findShadowedBelowElement(context, top, visualLeft, visualRight, left, right);
       if (belowElement instanceof TextElement) {
-        double belowElementLeft = belowElement.getAttribute(Left.class).getMagnitude();
-        double belowElementWidth = belowElement.getAttribute(Width.class).getMagnitude();
+        double belowElementLeft = belowElement.getLeftMagnitude();
+        double belowElementWidth = belowElement.getWidthMagnitude();
         double belowElementRight = belowElementLeft + belowElementWidth;
         intersection = Math
             .max(Math.min(belowElementRight, right) - Math.max(belowElementLeft, left), 0);
@@ -2127,6 +2178,7 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
   /**
    * Find shadow above element
    *
+   * @param context page grouping context
    * @param bottom      bottom coordinate of element whose shadow above element
    *                    has to be calculated.
    * @param visualLeft  visual left coordinate of element whose shadow above
@@ -2141,14 +2193,16 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
    *                    to be calculated.
    * @return shadow above element
    */
-  private Element findShadowedAboveElement(double bottom, double visualLeft, double visualRight,
+  private Element findShadowedAboveElement(PageContext context,
+      double bottom, double visualLeft, double visualRight,
       double left, double right) {
-    return this.findMostIntersectingShadowElement(
-        betweenExclusive(BOTTOM, bottom - CONTEXT_LIMIT, bottom - SEPARATION_EPSILON),
-        intersection(LEFT, RIGHT, visualLeft, visualRight),
-        orderBy(descending(BOTTOM)),
-        Left.class,
-        Width.class,
+    ElementSpatialIndex index = context.boxedElementSpatialIndex;
+    return this.findMostIntersectingShadowElement(context, 
+        index.descending(Axis.BOTTOM, bottom - CONTEXT_LIMIT, false, bottom - SEPARATION_EPSILON,
+            false),
+        slot -> isIntersecting(index.getLeft(slot), index.getRight(slot), visualLeft, visualRight,
+            Integer.MAX_VALUE),
+        false,
         left,
         right,
         (prevToPrevElement, prevElement, element) -> PositionalTextGroupingTransformer
@@ -2158,6 +2212,7 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
   /**
    * Find shadow below element
    *
+   * @param context page grouping context
    * @param top         top coordinate of element whose shadow below element has
    *                    to be calculated.
    * @param visualLeft  visual left coordinate of element whose shadow below
@@ -2172,14 +2227,15 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
    *                    to be calculated.
    * @return shadow below element
    */
-  private Element findShadowedBelowElement(double top, double visualLeft, double visualRight,
+  private Element findShadowedBelowElement(PageContext context,
+      double top, double visualLeft, double visualRight,
       double left, double right) {
-    return this.findMostIntersectingShadowElement(
-        betweenExclusive(TOP, top + SEPARATION_EPSILON, top + CONTEXT_LIMIT),
-        intersection(LEFT, RIGHT, visualLeft, visualRight),
-        orderBy(ascending(TOP)),
-        Left.class,
-        Width.class,
+    ElementSpatialIndex index = context.boxedElementSpatialIndex;
+    return this.findMostIntersectingShadowElement(context, 
+        index.ascending(Axis.TOP, top + SEPARATION_EPSILON, false, top + CONTEXT_LIMIT, false),
+        slot -> isIntersecting(index.getLeft(slot), index.getRight(slot), visualLeft, visualRight,
+            Integer.MAX_VALUE),
+        false,
         left,
         right,
         (prevToPrevElement, prevElement, element) -> PositionalTextGroupingTransformer
@@ -2189,6 +2245,7 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
   /**
    * Find shadow left element
    *
+   * @param context page grouping context
    * @param top    top coordinate of element whose shadow left element has to be
    *               calculated.
    * @param bottom bottom coordinate of element whose shadow left element has to
@@ -2197,13 +2254,14 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
    *               calculated.
    * @return shadow left element
    */
-  private Element findShadowLeftElement(double top, double bottom, double left) {
-    return this.findMostIntersectingShadowElement(
-        lessThan(RIGHT, left),
-        intersection(TOP, BOTTOM, top, bottom, CONTEXT_LIMIT),
-        orderBy(descending(RIGHT)),
-        Top.class,
-        Height.class,
+  private Element findShadowLeftElement(PageContext context,
+      double top, double bottom, double left) {
+    ElementSpatialIndex index = context.boxedElementSpatialIndex;
+    return this.findMostIntersectingShadowElement(context, 
+        index.descending(Axis.RIGHT, Double.NEGATIVE_INFINITY, true, left, false),
+        slot -> isIntersecting(index.getTop(slot), index.getBottom(slot), top, bottom,
+            CONTEXT_LIMIT),
+        true,
         top,
         bottom,
         (prevToPrevElement, prevElement,
@@ -2213,6 +2271,7 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
   /**
    * Find shadow right element
    *
+   * @param context page grouping context
    * @param top    top coordinate of element whose shadow right element has to be
    *               calculated.
    * @param bottom bottom coordinate of element whose shadow right element has to
@@ -2221,13 +2280,14 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
    *               be calculated.
    * @return shadow right element
    */
-  private Element findShadowRightElement(double top, double bottom, double right) {
-    return this.findMostIntersectingShadowElement(
-        greaterThan(LEFT, right),
-        intersection(TOP, BOTTOM, top, bottom, CONTEXT_LIMIT),
-        orderBy(ascending(LEFT)),
-        Top.class,
-        Height.class,
+  private Element findShadowRightElement(PageContext context,
+      double top, double bottom, double right) {
+    ElementSpatialIndex index = context.boxedElementSpatialIndex;
+    return this.findMostIntersectingShadowElement(context, 
+        index.ascending(Axis.LEFT, right, false, Double.POSITIVE_INFINITY, true),
+        slot -> isIntersecting(index.getTop(slot), index.getBottom(slot), top, bottom,
+            CONTEXT_LIMIT),
+        true,
         top,
         bottom,
         (prevToPrevElement, prevElement,
@@ -2235,25 +2295,32 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
   }
 
   /**
-   * Get the elements after applying the query constructed using
-   * {@code axisCondition} and {@code
-   * otherCondition} on boxed elements. Find the element from above list which
+   * Primitive counterpart of {@link #intersection(SimpleAttribute, SimpleAttribute, double, double,
+   * double)}: checks whether [{@code start}, {@code end}] intersects with [{@code lowerValue},
+   * {@code upperValue})
+   */
+  private static boolean isIntersecting(double start, double end, double lowerValue,
+      double upperValue, double maxContext) {
+    return start >= lowerValue && start < upperValue
+        || start > lowerValue - maxContext && start <= lowerValue
+        && end > lowerValue && end < lowerValue + maxContext;
+  }
+
+  /**
+   * Get the boxed elements from {@code axisCursor} satisfying {@code
+   * otherCondition}. Find the element from above list which
    * intersects most with
    * the range [{@code elemOtherAttrStartValue}, {@code elemOtherAttrEndValue}].
    * In above iteration,
-   * current element range is calculated by retrieving values corresponding to
-   * attributes {@code
-   * otherStartAttrClass} and {@code otherStretchAttrClass}
+   * current element range is calculated on the vertical axis if {@code
+   * isOtherAxisVertical}, else on the horizontal axis
    *
-   * @param axisCondition           query on 1 dimensional axis
-   * @param otherCondition          query on range (2D)
-   * @param elementOrdering         option to order the retrieve elements
-   * @param otherStartAttrClass     attribute used to calculate starting value.
-   *                                This value will be used
-   *                                to calculate range for element
-   * @param otherStretchAttrClass   attribute used to calculate stretch. Thus
-   *                                value will be used to
-   *                                calculate range for element
+   * @param context page grouping context
+   * @param axisCursor              cursor over boxed elements satisfying the
+   *                                query on 1 dimensional axis, in traversal order
+   * @param otherCondition          query on range (2D) over boxed element slot
+   * @param isOtherAxisVertical     boolean flag indicating whether the range for
+   *                                element is calculated on vertical axis
    * @param elemOtherAttrStartValue starting point of range query
    * @param elemOtherAttrEndValue   end point of range query
    * @param isElementLineNotCrossed predicate to check if element is eligible to
@@ -2262,29 +2329,28 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
    * @return most intersected shadow element
    */
   private Element findMostIntersectingShadowElement(
-      Query<Element> axisCondition,
-      Query<Element> otherCondition,
-      OrderByOption<Element> elementOrdering,
-      Class<? extends LengthAttribute> otherStartAttrClass,
-      Class<? extends LengthAttribute> otherStretchAttrClass,
+      PageContext context,
+      Cursor axisCursor,
+      IntPredicate otherCondition,
+      boolean isOtherAxisVertical,
       double elemOtherAttrStartValue,
       double elemOtherAttrEndValue,
       Function3<Element, Element, Element, Boolean> isElementLineNotCrossed) {
-    Query<Element> query = and(axisCondition, otherCondition);
-    ResultSet<Element> results = retrieve(this.boxedElementIndex, query, elementOrdering);
-    Iterator<Element> resultsIterator = results.iterator();
-
+    ElementSpatialIndex index = context.boxedElementSpatialIndex;
     Element prevToPrevElement = null;
     Element prevResultElement = null;
     Element mostIntersectingElement = null;
     double intersectionScore = -1;
 
-    while (resultsIterator.hasNext()) {
-      Element resultElement = resultsIterator.next();
+    for (int slot = axisCursor.next(); slot >= 0; slot = axisCursor.next()) {
+      if (!otherCondition.accept(slot)) {
+        continue;
+      }
+      Element resultElement = index.getElement(slot);
       if (prevResultElement == null || isElementLineNotCrossed
           .value(prevToPrevElement, prevResultElement, resultElement)) {
-        double resultOtherStart = resultElement.getAttribute(otherStartAttrClass).getMagnitude();
-        double resultOtherEnd = resultOtherStart + resultElement.getAttribute(otherStretchAttrClass).getMagnitude();
+        double resultOtherStart = isOtherAxisVertical ? index.getTop(slot) : index.getLeft(slot);
+        double resultOtherEnd = isOtherAxisVertical ? index.getBottom(slot) : index.getRight(slot);
         double currIntersectionScore = Math.max(
             Math.min(elemOtherAttrEndValue, resultOtherEnd) - Math
                 .max(elemOtherAttrStartValue, resultOtherStart),
@@ -2326,14 +2392,15 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
    * versa)</li>
    * </ol>
    *
+   * @param context page grouping context
    * @param elem element whose vertical group has to be found.
    */
-  private void findVerticalGroup(Element elem) {
+  private void findVerticalGroup(PageContext context, Element elem) {
     PositionalContext<Element> prevElemPositionalContext = elem.getPositionalContext();
-    double prevGroupElementHeight = elem.getAttribute(Height.class).getMagnitude();
-    double prevGroupElementBottom = elem.getAttribute(Top.class).getMagnitude() + prevGroupElementHeight;
-    double prevGroupElementLeft = elem.getAttribute(Left.class).getMagnitude();
-    double prevGroupElementRight = prevGroupElementLeft + elem.getAttribute(Width.class).getMagnitude();
+    double prevGroupElementHeight = elem.getHeightMagnitude();
+    double prevGroupElementBottom = elem.getTopMagnitude() + prevGroupElementHeight;
+    double prevGroupElementLeft = elem.getLeftMagnitude();
+    double prevGroupElementRight = prevGroupElementLeft + elem.getWidthMagnitude();
     ElementGroup<Element> verticalGroup = new ElementGroup<>();
     verticalGroup.add(elem);
     double prevLineDistance = -1;
@@ -2349,12 +2416,12 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
                   || nextElemPositionalContext.getVisualTop() - prevGroupElementBottom > BORDER_LINE_ADJUST_EPSILON)) {
         break;
       }
-      double nextGroupElementLeft = nextGroupElement.getAttribute(Left.class).getMagnitude();
-      double nextGroupElementRight = nextGroupElementLeft + nextGroupElement.getAttribute(Width.class).getMagnitude();
+      double nextGroupElementLeft = nextGroupElement.getLeftMagnitude();
+      double nextGroupElementRight = nextGroupElementLeft + nextGroupElement.getWidthMagnitude();
       if (Math.min(prevGroupElementRight, nextGroupElementRight) > Math
           .max(prevGroupElementLeft, nextGroupElementLeft)) {
-        double nextGroupElementTop = nextGroupElement.getAttribute(Top.class).getMagnitude();
-        double nextGroupElementHeight = nextGroupElement.getAttribute(Height.class).getMagnitude();
+        double nextGroupElementTop = nextGroupElement.getTopMagnitude();
+        double nextGroupElementHeight = nextGroupElement.getHeightMagnitude();
         double lineDistance = nextGroupElementTop - prevGroupElementBottom;
 
         // TOC Heuristic: Prevent merging if lines look like Table of Contents entries
@@ -2370,9 +2437,9 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
         // Prevent merging if both elements appear to be distinct right-aligned headers
         // Condition: Both have large Left margin (> 40% page width) AND are visually
         // aligned on the right
-        if (this.pageWidth > 0) {
-          boolean isPrevRightAligned = prevGroupElementLeft > this.pageWidth * 0.4;
-          boolean isNextRightAligned = nextGroupElementLeft > this.pageWidth * 0.4;
+        if (context.pageWidth > 0) {
+          boolean isPrevRightAligned = prevGroupElementLeft > context.pageWidth * 0.4;
+          boolean isNextRightAligned = nextGroupElementLeft > context.pageWidth * 0.4;
           boolean areRightAligned = Math.abs(prevGroupElementRight - nextGroupElementRight) < 20.0; // 20pt tolerance
 
           if (isPrevRightAligned && isNextRightAligned && areRightAligned) {
@@ -2445,35 +2512,42 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
    * in its positional
    * context of that group
    *
+   * @param context page grouping context
    * @param elem Element whose alignment group is to be found
    */
-  private void findAlignmentGroup(Element elem) {
-    double top = elem.getAttribute(Top.class).getMagnitude();
-    double height = elem.getAttribute(Height.class).getMagnitude();
-    double left = elem.getAttribute(Left.class).getMagnitude();
-    double width = elem.getAttribute(Width.class).getMagnitude();
+  private void findAlignmentGroup(PageContext context, Element elem) {
+    double top = elem.getTopMagnitude();
+    double height = elem.getHeightMagnitude();
+    double left = elem.getLeftMagnitude();
+    double width = elem.getWidthMagnitude();
     double bottom = top + height;
     double right = left + width;
     double centre = left + width / 2;
 
-    Query<Element> query = and(betweenExclusive(TOP, top + ALIGNMENT_EPSILON, top + CONTEXT_LIMIT),
-        intersection(LEFT, RIGHT, left - ALIGNMENT_EPSILON, right + ALIGNMENT_EPSILON));
-    ResultSet<Element> results = retrieve(this.boxedElementIndex, query, orderBy(ascending(TOP)));
+    // Elements below which intersect [left - ALIGNMENT_EPSILON, right + ALIGNMENT_EPSILON)
+    ElementSpatialIndex index = context.boxedElementSpatialIndex;
+    double intersectionLeft = left - ALIGNMENT_EPSILON;
+    double intersectionRight = right + ALIGNMENT_EPSILON;
+    Cursor cursor = index.ascending(Axis.TOP, top + ALIGNMENT_EPSILON, false, top + CONTEXT_LIMIT,
+        false);
 
     MutableList<Element> alignmentGroup = Lists.mutable.empty();
     alignmentGroup.add(elem);
     double prevGroupElementBottom = bottom;
     double prevGroupElementHeight = height;
 
-    Iterator<Element> resultsIterator = results.iterator();
-
-    while (resultsIterator.hasNext()) {
-      Element nextGroupElement = resultsIterator.next();
+    for (int slot = cursor.next(); slot >= 0; slot = cursor.next()) {
+      double slotLeft = index.getLeft(slot);
+      if (!(slotLeft >= intersectionLeft && slotLeft < intersectionRight
+          || slotLeft <= intersectionLeft && index.getRight(slot) > intersectionLeft)) {
+        continue;
+      }
+      Element nextGroupElement = index.getElement(slot);
       if (nextGroupElement.getPositionalContext().getAlignmentRight() != 0) {
         break;
       }
-      double nextGroupElementLeft = nextGroupElement.getAttribute(Left.class).getMagnitude();
-      double nextGroupElementWidth = nextGroupElement.getAttribute(Width.class).getMagnitude();
+      double nextGroupElementLeft = nextGroupElement.getLeftMagnitude();
+      double nextGroupElementWidth = nextGroupElement.getWidthMagnitude();
       double nextGroupElementRight = nextGroupElementLeft + nextGroupElementWidth;
       double nextGroupElementCentre = nextGroupElementLeft + nextGroupElementWidth / 2;
 
@@ -2488,8 +2562,8 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
           ||
           nextGroupElementCentre > centre - ALIGNMENT_EPSILON
               && nextGroupElementCentre < centre + ALIGNMENT_EPSILON) {
-        double nextGroupElementTop = nextGroupElement.getAttribute(Top.class).getMagnitude();
-        double nextGroupElementHeight = nextGroupElement.getAttribute(Height.class).getMagnitude();
+        double nextGroupElementTop = nextGroupElement.getTopMagnitude();
+        double nextGroupElementHeight = nextGroupElement.getHeightMagnitude();
         double lineDistance = nextGroupElementTop - prevGroupElementBottom;
         if (lineDistance > MAX_ALIGNMENT_LINE_HEIGHT_AND_DISTANCE_FACTOR * prevGroupElementHeight) {
           break;
@@ -2504,10 +2578,10 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
 
     // For each element in alignmentGroups, update alignments in positional content
     if (alignmentGroup.size() > 1) {
-      double alignmentLeft = alignmentGroup.collect(e -> e.getAttribute(Left.class).getMagnitude()).min()
+      double alignmentLeft = alignmentGroup.collect(e -> e.getLeftMagnitude()).min()
           - SEPARATION_EPSILON;
-      double alignmentRight = alignmentGroup.collect(e -> e.getAttribute(Left.class).getMagnitude() +
-          e.getAttribute(Width.class).getMagnitude()).max() + SEPARATION_EPSILON;
+      double alignmentRight = alignmentGroup.collect(e -> e.getLeftMagnitude() +
+          e.getWidthMagnitude()).max() + SEPARATION_EPSILON;
       for (Element alignmentGroupElem : alignmentGroup) {
         PositionalContext<Element> positionalContext = alignmentGroupElem.getPositionalContext();
         positionalContext.setAlignmentLeft(alignmentLeft);
@@ -2516,6 +2590,74 @@ public class PositionalTextGroupingTransformer implements Transformer<Document,
     }
   }
 
+  /**
+   * Working state for grouping a single page. Every page has its own context so that one
+   * transformer can group several pages at the same time.
+   */
+  private static final class PageContext {
+
+    private final Page page;
+    private final double pageWidth;
+    private final MutableSet<Element> foundNoiseElements = Sets.mutable.empty();
+    private final MutableSet<Element> horizontalLinesForRectilinearPolygons = Sets.mutable.empty();
+    private final MutableSet<Element> verticalLinesForRectilinearPolygons = Sets.mutable.empty();
+    private ElementSpatialIndex pageBoxedElementSpatialIndex;
+    private ElementSpatialIndex boxedElementSpatialIndex;
+    private ElementSpatialIndex verticalLineSpatialIndex;
+    private ElementSpatialIndex horizontalLineSpatialIndex;
+    private List<PagePartition> pagePartitions;
+    private PagePartition pagePartition;
+    private NeighbourFinder<Element> neighbourFinder;
+
+    private PageContext(Page page) {
+      this.page = page;
+      this.pageWidth = page.getWidth().getMagnitude();
+    }
+  }
+
+  /**
+   * Finds neighbour groups of elements of a partition on first access. Element bounds are read from
+   * the partition index, so that the groups are the same as when found while grouping the page. The
+   * finder keeps only the partition index (which shares the arrays of the page index) reachable, and
+   * it is released by each context once all its groups are found.
+   */
+  private static final class PartitionNeighbourFinder implements NeighbourFinder<Element> {
+
+    private final ElementSpatialIndex index;
+
+    private PartitionNeighbourFinder(ElementSpatialIndex index) {
+      this.index = index;
+    }
+
+    @Override
+    public ElementGroup<Element> findBelowElements(PositionalContext<Element> context) {
+      int slot = this.index.slotOf(context.getSelf());
+      return PositionalTextGroupingTransformer.findBelowElements(this.index,
+          this.index.getTop(slot), context.getVisualLeft(), context.getVisualRight());
+    }
+
+    @Override
+    public ElementGroup<Element> findAboveElements(PositionalContext<Element> context) {
+      int slot = this.index.slotOf(context.getSelf());
+      return PositionalTextGroupingTransformer.findAboveElements(this.index,
+          this.index.getBottom(slot), context.getVisualLeft(), context.getVisualRight());
+    }
+
+    @Override
+    public ElementGroup<Element> findLeftElements(PositionalContext<Element> context) {
+      int slot = this.index.slotOf(context.getSelf());
+      return PositionalTextGroupingTransformer.findLeftElements(this.index,
+          this.index.getLeft(slot), context.getVisualTop(), context.getVisualBottom());
+    }
+
+    @Override
+    public ElementGroup<Element> findRightElements(PositionalContext<Element> context) {
+      int slot = this.index.slotOf(context.getSelf());
+      return PositionalTextGroupingTransformer.findRightElements(this.index,
+          this.index.getRight(slot), context.getVisualTop(), context.getVisualBottom());
+    }
+  }
+
   /**
    * Class representing column of table
    */
@@ -131,6 +131,8 @@ public class TableDetectionTransformer implements Transformer<Document, Document
         processedTabularGroups.each(tabularElementGroupListIterator::add);
         currTableIndex++;
       }
+      // Layout analysis cached on the page was computed from the previous tabular groups
+      page.setLayoutProfile(null);
       currPageNum++;
     }
 
@@ -0,0 +1,396 @@
+/*
+ *   Copyright 2020 Goldman Sachs.
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ */
+
+package com.gs.ep.docknight.model.transformer.grouping;
+
+import com.gs.ep.docknight.model.Element;
+import com.gs.ep.docknight.model.attribute.Height;
+import com.gs.ep.docknight.model.attribute.Left;
+import com.gs.ep.docknight.model.attribute.Stretch;
+import com.gs.ep.docknight.model.attribute.Top;
+import com.gs.ep.docknight.model.attribute.Width;
+import java.util.BitSet;
+import java.util.List;
+import org.eclipse.collections.api.map.primitive.MutableObjectIntMap;
+import org.eclipse.collections.impl.block.factory.HashingStrategies;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.map.mutable.primitive.ObjectIntHashMapWithHashingStrategy;
+
+/**
+ * Immutable 2D index over element bounds, specialised for the neighbourhood queries issued during
+ * positional grouping. Bounds are held in primitive arrays addressed by slot, and for every axis a
+ * permutation of slots is kept sorted by (axis value, centre on the other axis), so that a range on
+ * one axis is answered by binary search followed by a scan in ascending or descending order.
+ * Input already ordered by position (as in a positional element list) is loaded in linear time.
+ *
+ * <p>A single index can serve several regions of a page: {@link #restrictTo(BitSet)} returns a
+ * view sharing the bounds and slots of the index, with sorted arrays of its own which only hold the
+ * slots of the region. Scans on the view only visit the elements of the region.
+ */
+public final class ElementSpatialIndex {
+
+  /**
+   * Axis on which the sorted range scan is performed
+   */
+  public enum Axis {
+    TOP, BOTTOM, LEFT, RIGHT
+  }
+
+  private final Element[] elements;
+  private final double[] tops;
+  private final double[] bottoms;
+  private final double[] lefts;
+  private final double[] rights;
+  private final double[] horizontalCentres;
+  private final double[] verticalCentres;
+  private final SortedAxis byTop;
+  private final SortedAxis byBottom;
+  private final SortedAxis byLeft;
+  private final SortedAxis byRight;
+  private final MutableObjectIntMap<Element> slotsByElement;
+  private final BitSet activeSlots;
+
+  private ElementSpatialIndex(ElementSpatialIndex index, BitSet activeSlots) {
+    // Bounds are shared while the sorted arrays are filtered to the active slots
+    this.elements = index.elements;
+    this.tops = index.tops;
+    this.bottoms = index.bottoms;
+    this.lefts = index.lefts;
+    this.rights = index.rights;
+    this.horizontalCentres = index.horizontalCentres;
+    this.verticalCentres = index.verticalCentres;
+    this.byTop = new SortedAxis(index.byTop, activeSlots);
+    this.byBottom = new SortedAxis(index.byBottom, activeSlots);
+    this.byLeft = new SortedAxis(index.byLeft, activeSlots);
+    this.byRight = new SortedAxis(index.byRight, activeSlots);
+    this.slotsByElement = index.slotsByElement;
+    this.activeSlots = activeSlots;
+  }
+
+  private ElementSpatialIndex(List<? extends Element> elements, boolean isHeightStretch,
+      boolean isWidthStretch) {
+    int size = elements.size();
+    this.elements = elements.toArray(new Element[size]);
+    this.tops = new double[size];
+    this.bottoms = new double[size];
+    this.lefts = new double[size];
+    this.rights = new double[size];
+    this.horizontalCentres = new double[size];
+    this.verticalCentres = new double[size];
+    this.slotsByElement = new ObjectIntHashMapWithHashingStrategy<>(
+        HashingStrategies.identityStrategy(), size);
+    this.activeSlots = null;
+    for (int slot = 0; slot < size; slot++) {
+      Element element = this.elements[slot];
+      double top = element.getTopMagnitude();
+      double left = element.getLeftMagnitude();
+      double height = isHeightStretch ? element.getStretchMagnitude()
+          : isWidthStretch ? 0 : element.getHeightMagnitude();
+      double width = isWidthStretch ? element.getStretchMagnitude()
+          : isHeightStretch ? 0 : element.getWidthMagnitude();
+      this.tops[slot] = top;
+      this.bottoms[slot] = top + height;
+      this.lefts[slot] = left;
+      this.rights[slot] = left + width;
+      this.horizontalCentres[slot] = left + width / 2;
+      this.verticalCentres[slot] = top + height / 2;
+      this.slotsByElement.put(element, slot);
+    }
+    this.byTop = new SortedAxis(this.tops, this.horizontalCentres);
+    this.byBottom = new SortedAxis(this.bottoms, this.horizontalCentres);
+    this.byLeft = new SortedAxis(this.lefts, this.verticalCentres);
+    this.byRight = new SortedAxis(this.rights, this.verticalCentres);
+  }
+
+  /**
+   * Create index over boxed elements, whose extent is given by {@link Width} and {@link Height}
+   *
+   * @param elements elements to index
+   * @return created index
+   */
+  public static ElementSpatialIndex ofBoxedElements(Iterable<? extends Element> elements) {
+    return new ElementSpatialIndex(Lists.mutable.ofAll(elements), false, false);
+  }
+
+  /**
+   * Create index over vertical lines, whose bottom is given by {@link Top} + {@link Stretch}
+   *
+   * @param elements vertical lines to index
+   * @return created index
+   */
+  public static ElementSpatialIndex ofVerticalLines(Iterable<? extends Element> elements) {
+    return new ElementSpatialIndex(Lists.mutable.ofAll(elements), true, false);
+  }
+
+  /**
+   * Create index over horizontal lines, whose right is given by {@link Left} + {@link Stretch}
+   *
+   * @param elements horizontal lines to index
+   * @return created index
+   */
+  public static ElementSpatialIndex ofHorizontalLines(Iterable<? extends Element> elements) {
+    return new ElementSpatialIndex(Lists.mutable.ofAll(elements), false, true);
+  }
+
+  /**
+   * Create view of this index whose scans only emit the slots set in {@code activeSlots}. Slots
+   * keep their numbering in this index. Creating the view takes time linear in the size of this
+   * index, and the view is not affected by later changes of {@code activeSlots}.
+   *
+   * @param activeSlots mask of slots visible through the view
+   * @return restricted view of this index
+   */
+  public ElementSpatialIndex restrictTo(BitSet activeSlots) {
+    BitSet viewSlots = (BitSet) activeSlots.clone();
+    if (this.activeSlots != null) {
+      viewSlots.and(this.activeSlots);
+    }
+    return new ElementSpatialIndex(this, viewSlots);
+  }
+
+  /**
+   * @return slot of {@code element} (compared by identity), or -1 if it is not indexed
+   */
+  public int slotOf(Element element) {
+    return this.slotsByElement.getIfAbsent(element, -1);
+  }
+
+  /**
+   * @return true if {@code slot} is visible through this index
+   */
+  public boolean isActive(int slot) {
+    return this.activeSlots == null || this.activeSlots.get(slot);
+  }
+
+  public int size() {
+    return this.elements.length;
+  }
+
+  public Element getElement(int slot) {
+    return this.elements[slot];
+  }
+
+  public double getTop(int slot) {
+    return this.tops[slot];
+  }
+
+  public double getBottom(int slot) {
+    return this.bottoms[slot];
+  }
+
+  public double getLeft(int slot) {
+    return this.lefts[slot];
+  }
+
+  public double getRight(int slot) {
+    return this.rights[slot];
+  }
+
+  public double getHorizontalCentre(int slot) {
+    return this.horizontalCentres[slot];
+  }
+
+  public double getVerticalCentre(int slot) {
+    return this.verticalCentres[slot];
+  }
+
+  /**
+   * Scan slots whose {@code axis} value lies within the given range in ascending order of axis
+   * value. Ties are ordered by ascending centre on the other axis.
+   *
+   * @param axis           axis on which range is applied
+   * @param lower          lower bound of range
+   * @param lowerInclusive boolean flag indicating whether lower bound is included
+   * @param upper          upper bound of range
+   * @param upperInclusive boolean flag indicating whether upper bound is included
+   * @return cursor over matching slots
+   */
+  public Cursor ascending(Axis axis, double lower, boolean lowerInclusive, double upper,
+      boolean upperInclusive) {
+    return this.getSortedAxis(axis)
+        .cursor(lower, lowerInclusive, upper, upperInclusive, false);
+  }
+
+  /**
+   * Scan slots whose {@code axis} value lies within the given range in descending order of axis
+   * value. Ties are ordered by ascending centre on the other axis.
+   *
+   * @param axis           axis on which range is applied
+   * @param lower          lower bound of range
+   * @param lowerInclusive boolean flag indicating whether lower bound is included
+   * @param upper          upper bound of range
+   * @param upperInclusive boolean flag indicating whether upper bound is included
+   * @return cursor over matching slots
+   */
+  public Cursor descending(Axis axis, double lower, boolean lowerInclusive, double upper,
+      boolean upperInclusive) {
+    return this.getSortedAxis(axis)
+        .cursor(lower, lowerInclusive, upper, upperInclusive, true);
+  }
+
+  private SortedAxis getSortedAxis(Axis axis) {
+    switch (axis) {
+      case TOP:
+        return this.byTop;
+      case BOTTOM:
+        return this.byBottom;
+      case LEFT:
+        return this.byLeft;
+      default:
+        return this.byRight;
+    }
+  }
+
+  /**
+   * Forward-only iterator over slots. {@link #next()} returns -1 once the range is exhausted.
+   */
+  public static final class Cursor {
+
+    private final int[] slots;
+    private final double[] keys;
+    private final int start;
+    private final boolean isDescending;
+    private int position;
+    private int runStart;
+    private int runEnd;
+
+    private Cursor(int[] slots, double[] keys, int start, int end, boolean isDescending) {
+      this.slots = slots;
+      this.keys = keys;
+      this.start = start;
+      this.isDescending = isDescending;
+      this.position = isDescending ? end : start;
+      this.runStart = end;
+      this.runEnd = end;
+    }
+
+    public int next() {
+      if (!this.isDescending) {
+        return this.position < this.runEnd ? this.slots[this.position++] : -1;
+      }
+      if (this.position == this.runEnd) {
+        // Move to the previous run of equal keys, which is emitted in ascending order
+        if (this.runStart <= this.start) {
+          return -1;
+        }
+        this.runEnd = this.runStart;
+        double key = this.keys[this.runEnd - 1];
+        int newRunStart = this.runEnd - 1;
+        while (newRunStart > this.start && this.keys[newRunStart - 1] == key) {
+          newRunStart--;
+        }
+        this.runStart = newRunStart;
+        this.position = newRunStart;
+      }
+      return this.slots[this.position++];
+    }
+  }
+
+  /**
+   * Slots sorted by a primary key with a secondary key as tie breaker
+   */
+  private static final class SortedAxis {
+
+    private final int[] slots;
+    private final double[] keys;
+
+    private SortedAxis(double[] primary, double[] secondary) {
+      int size = primary.length;
+      this.slots = new int[size];
+      for (int slot = 0; slot < size; slot++) {
+        this.slots[slot] = slot;
+      }
+      mergeSort(this.slots, new int[size], 0, size, primary, secondary);
+      this.keys = new double[size];
+      for (int i = 0; i < size; i++) {
+        this.keys[i] = primary[this.slots[i]];
+      }
+    }
+
+    /**
+     * Create sorted axis holding the slots of {@code axis} which are set in {@code activeSlots}, in
+     * the same order
+     */
+    private SortedAxis(SortedAxis axis, BitSet activeSlots) {
+      int size = activeSlots.cardinality();
+      this.slots = new int[size];
+      this.keys = new double[size];
+      int position = 0;
+      for (int i = 0; i < axis.slots.length && position < size; i++) {
+        if (activeSlots.get(axis.slots[i])) {
+          this.slots[position] = axis.slots[i];
+          this.keys[position] = axis.keys[i];
+          position++;
+        }
+      }
+    }
+
+    private static void mergeSort(int[] slots, int[] buffer, int from, int to, double[] primary,
+        double[] secondary) {
+      if (to - from < 2) {
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      mergeSort(slots, buffer, from, mid, primary, secondary);
+      mergeSort(slots, buffer, mid, to, primary, secondary);
+      if (compare(slots[mid - 1], slots[mid], primary, secondary) <= 0) {
+        // Halves are already in order, which is the common case for position sorted input
+        return;
+      }
+      System.arraycopy(slots, from, buffer, from, to - from);
+      int i = from;
+      int j = mid;
+      for (int k = from; k < to; k++) {
+        if (j >= to || i < mid && compare(buffer[i], buffer[j], primary, secondary) <= 0) {
+          slots[k] = buffer[i++];
+        } else {
+          slots[k] = buffer[j++];
+        }
+      }
+    }
+
+    private static int compare(int slot, int otherSlot, double[] primary, double[] secondary) {
+      int result = Double.compare(primary[slot], primary[otherSlot]);
+      return result != 0 ? result : Double.compare(secondary[slot], secondary[otherSlot]);
+    }
+
+    /**
+     * @return first position whose key is greater than (or equal to, if {@code inclusive}) {@code
+     * value}
+     */
+    private int lowerBound(double value, boolean inclusive) {
+      int low = 0;
+      int high = this.keys.length;
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        double key = this.keys[mid];
+        if (inclusive ? key < value : key <= value) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+      return low;
+    }
+
+    private Cursor cursor(double lower, boolean lowerInclusive, double upper,
+        boolean upperInclusive, boolean isDescending) {
+      int start = this.lowerBound(lower, lowerInclusive);
+      int end = Math.max(start, this.lowerBound(upper, !upperInclusive));
+      return new Cursor(this.slots, this.keys, start, end, isDescending);
+    }
+  }
+}
@@ -420,10 +420,9 @@ public class PagePartitioner {
     if (isReverse) {
       return getInterLineSpace(second, first, false);
     }
-    double secondTop = second.getAttribute(Top.class).getMagnitude();
+    double secondTop = second.getTopMagnitude();
     double firstBottom =
-        first.getAttribute(Top.class).getMagnitude() + first.getAttribute(Height.class)
-            .getMagnitude();
+        first.getTopMagnitude() + first.getHeightMagnitude();
     return secondTop - firstBottom;
   }
 
@@ -530,14 +529,14 @@ public class PagePartitioner {
           .subList(headerSize, partitionSize - footerSize);
       if (headerSize > 0) {
         Element lastHeaderElem = pagePartition.elements.get(headerSize - 1);
-        headerBottom = lastHeaderElem.getAttribute(Top.class).getMagnitude()
-            + lastHeaderElem.getAttribute(Height.class).getMagnitude() + PAGE_PARTITION_OFFSET;
+        headerBottom = lastHeaderElem.getTopMagnitude()
+            + lastHeaderElem.getHeightMagnitude() + PAGE_PARTITION_OFFSET;
         result.add(new PagePartition(pagePartition.elements.subList(0, headerSize),
             pagePartition.topBoundary, headerBottom, PagePartitionType.HEADER));
       }
       if (footerSize > 0) {
         Element firstFooterElem = pagePartition.elements.get(partitionSize - footerSize);
-        footerTop = firstFooterElem.getAttribute(Top.class).getMagnitude() - PAGE_PARTITION_OFFSET;
+        footerTop = firstFooterElem.getTopMagnitude() - PAGE_PARTITION_OFFSET;
       }
       if (this.allowContextAcrossPageBreaks) {
         content.addAll(partitionContent);
@@ -613,14 +612,14 @@ public class PagePartitioner {
 
           // If space between two lines is too much, add new cluster index to clusterChangeSizes
           interLineSpace = getInterLineSpace(currLine.getLast(), element, isFooter);
-          if (interLineSpace >= element.getAttribute(Height.class).getMagnitude()
+          if (interLineSpace >= element.getHeightMagnitude()
               * MAX_INTER_LINE_SPACE_TO_HEIGHT) {
             clusterChangeSizes.add(result.size());
           }
 
           if (prevLine == null) {
             // If current line top is within extremity threshold, add new cluster index to clusterChangeSizes
-            double currLineTop = currLine.getLast().getAttribute(Top.class).getMagnitude();
+            double currLineTop = currLine.getLast().getTopMagnitude();
             if (isFooter ? currLineTop > extremityThreshold : currLineTop < extremityThreshold) {
               clusterChangeSizes.add(result.size());
               hasExtremityCluster = true;
@@ -650,9 +649,8 @@ public class PagePartitioner {
         currLine.add(element);
 
         // If element is outside the threshold, set elemAfterResultEnd, otherwise, the current element is part header or footer
-        double elemEnd = isFooter ? element.getAttribute(Top.class).getMagnitude()
-            : element.getAttribute(Top.class).getMagnitude() + element.getAttribute(Height.class)
-                .getMagnitude();
+        double elemEnd = isFooter ? element.getTopMagnitude()
+            : element.getTopMagnitude() + element.getHeightMagnitude();
         double threshold = isFooter ? Math
             .max(prevElemTop - pageHeight * MAX_SPACE_BETWEEN_FOOTER_ELEMENTS, ultimateThreshold)
             : Math.min(prevElemTop + pageHeight * MAX_SPACE_BETWEEN_HEADER_ELEMENTS,
@@ -680,7 +678,7 @@ public class PagePartitioner {
     if (result.notEmpty() && elemAfterResultEnd != null) {
       double lastInterLineSpace = getInterLineSpace(result.getLast(), elemAfterResultEnd, isFooter);
       if (lastInterLineSpace < MAX_INTER_LINE_SPACE_TO_HEIGHT * elemAfterResultEnd
-          .getAttribute(Height.class).getMagnitude()
+          .getHeightMagnitude()
           && Math.abs(lastInterLineSpace - interLineSpace) / interLineSpace
           < PARA_INTER_LINE_SPACE_VARIATION) {
         if (clusterChangeSizes.notEmpty()) {
@@ -739,10 +737,10 @@ public class PagePartitioner {
      * @return alignment type of {@code line}
      */
     private static Alignment getAlignment(MutableList<Element> line, double pageWidth) {
-      double leftMargin = line.getFirst().getAttribute(Left.class).getMagnitude();
+      double leftMargin = line.getFirst().getLeftMagnitude();
       double rightMargin =
-          pageWidth - line.getLast().getAttribute(Left.class).getMagnitude() - line.getLast()
-              .getAttribute(Width.class).getMagnitude();
+          pageWidth - line.getLast().getLeftMagnitude() - line.getLast()
+              .getWidthMagnitude();
       if (leftMargin < EXTREMELY_SMALL_MARGIN_THRESHOLD) {
         return EXTREME_LEFT;
       }
@@ -137,8 +137,8 @@ public class ColumnHeaderExpansionProcessNode extends AbstractProcessNode {
    */
   private static boolean isElementBeyondBoundingBox(Element element, Rectangle2D tableBBox) {
     double bBoxLeft = tableBBox.getMinX();
-    double left = element.getAttribute(Left.class).getValue().getMagnitude();
-    double width = element.getAttribute(Width.class).getValue().getMagnitude();
+    double left = element.getLeftMagnitude();
+    double width = element.getWidthMagnitude();
     double right = left + width;
     return left < bBoxLeft - LEFT_TABLE_BOUNDARY_ALLOWANCE || right > tableBBox.getMaxX();
   }
@@ -165,8 +165,8 @@ public class ColumnHeaderExpansionProcessNode extends AbstractProcessNode {
     for (int j = 0; j < colCount; j++) {
       if (tabularGroup.getMergedCell(0, j).getElements().notEmpty()) {
         Element currentElement = tabularGroup.getMergedCell(0, j).getFirst();
-        if (currentElement.getAttribute(Top.class).getValue().getMagnitude() < top) {
-          top = currentElement.getAttribute(Top.class).getValue().getMagnitude();
+        if (currentElement.getTopMagnitude() < top) {
+          top = currentElement.getTopMagnitude();
           firstElement = currentElement;
         }
       }
@@ -415,8 +415,7 @@ public class ColumnHeaderExpansionProcessNode extends AbstractProcessNode {
 
     /*2. Choose the nearest one in the candidate row*/
     int nearestIndex = ArrayIterate.collect(aboveLine, e -> e == null ? 0
-        : (e.getAttribute(Top.class).getValue().getMagnitude() + e.getAttribute(Height.class)
-            .getValue().getMagnitude())).zipWithIndex().maxBy(Pair::getOne).getTwo();
+        : (e.getTopMagnitude() + e.getHeightMagnitude())).zipWithIndex().maxBy(Pair::getOne).getTwo();
 
     /*3. Retain all those are horizontally aligned with the nearest one and eliminate others*/
     filterAboveLineBasedOnHorAlignment(aboveLine, nearestIndex);
@@ -93,10 +93,10 @@ public class ColumnSplittingProcessNode extends AbstractProcessNode {
    * @return bounding box coordinates of {@code element}
    */
   private static RectangleProperties<Double> getElementBoundaries(Element element) {
-    double top = element.getAttribute(Top.class).getValue().getMagnitude();
-    double bottom = top + element.getAttribute(Height.class).getValue().getMagnitude();
-    double left = element.getAttribute(Left.class).getValue().getMagnitude();
-    double right = left + element.getAttribute(Width.class).getValue().getMagnitude();
+    double top = element.getTopMagnitude();
+    double bottom = top + element.getHeightMagnitude();
+    double left = element.getLeftMagnitude();
+    double right = left + element.getWidthMagnitude();
     return new RectangleProperties<>(top, right, bottom, left);
   }
 
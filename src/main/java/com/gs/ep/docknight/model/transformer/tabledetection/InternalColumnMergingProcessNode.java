@@ -99,7 +99,7 @@ public class InternalColumnMergingProcessNode extends AbstractProcessNode {
    */
   private static boolean hasNarrowContent(TabularCellElementGroup<Element> cell) {
     return cell.getElements().allSatisfy(
-        element -> element.getAttribute(Width.class).getValue().getMagnitude()
+        element -> element.getWidthMagnitude()
             <= MAX_MERGEABLE_COLUMN_WIDTH);
   }
 
@@ -130,9 +130,9 @@ public class InternalRowMergingProcessNode extends AbstractProcessNode {
       return onlyFirstAboveCellNonEmpty && !onlyFirstBelowCellNonEmpty
           && aboveElement != null && belowElement != null
           && Double.compare(Math.abs(
-          aboveElement.getAttribute(Left.class).getValue().getMagnitude() - belowElement
-              .getAttribute(Left.class).getValue().getMagnitude()),
-          aboveElement.getAttribute(Width.class).getMagnitude() / aboveElement.getTextStr()
+          aboveElement.getLeftMagnitude() - belowElement
+              .getLeftMagnitude()),
+          aboveElement.getWidthMagnitude() / aboveElement.getTextStr()
               .length()) <= 0
           && Objects.equals(belowElement.getPositionalContext().getVerticalGroup(),
           aboveElement.getPositionalContext().getVerticalGroup())
@@ -197,13 +197,12 @@ public class InternalRowMergingProcessNode extends AbstractProcessNode {
       MutableList<Element> belowCellElements, int columnNum,
       Pair<double[], double[]> columnBoundaries) {
     double aboveCellRightBoundary = aboveCellElements.collect(
-        e -> e.getAttribute(Left.class).getMagnitude() + e.getAttribute(Width.class).getMagnitude())
+        e -> e.getLeftMagnitude() + e.getWidthMagnitude())
         .max();
 
     if (isGridBasedElement(aboveCellElements.getFirst())) {
       double aboveCellRightBoundaryIfNotWrapped =
-          aboveCellRightBoundary + belowCellElements.getFirst().getAttribute(Width.class)
-              .getMagnitude();
+          aboveCellRightBoundary + belowCellElements.getFirst().getWidthMagnitude();
       double aboveCellGridRight = aboveCellElements.getFirst().getPositionalContext()
           .getVisualRight();
       double aboveCellGridWidth =
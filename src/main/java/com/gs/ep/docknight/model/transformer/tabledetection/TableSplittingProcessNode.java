@@ -406,7 +406,7 @@ public class TableSplittingProcessNode extends AbstractProcessNode {
 
       @Override
       public void updateStateForCell(Element cellElement, int row) {
-        double currHeight = cellElement.getAttribute(Height.class).getValue().getMagnitude();
+        double currHeight = cellElement.getHeightMagnitude();
         double currVariance = (currHeight / (double) this.criterionState.get("HEIGHT")) - 1;
         if (currVariance < -ROW_HEIGHT_VARIANCE_THRESHOLD
             && (double) this.criterionState.get("VARIANCE") > ROW_HEIGHT_VARIANCE_THRESHOLD) {
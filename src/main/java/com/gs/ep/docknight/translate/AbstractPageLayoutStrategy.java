@@ -2,17 +2,14 @@ package com.gs.ep.docknight.translate;
 
 import com.gs.ep.docknight.model.Element;
 import com.gs.ep.docknight.model.ElementGroup;
-import com.gs.ep.docknight.model.ElementList;
 import com.gs.ep.docknight.model.PositionalContext;
 import com.gs.ep.docknight.model.RectangleProperties;
 import com.gs.ep.docknight.model.TabularCellElementGroup;
 import com.gs.ep.docknight.model.TabularElementGroup;
 import com.gs.ep.docknight.model.attribute.Color;
-import com.gs.ep.docknight.model.attribute.Content;
 import com.gs.ep.docknight.model.attribute.FontSize;
 import com.gs.ep.docknight.model.attribute.Height;
 import com.gs.ep.docknight.model.attribute.Left;
-import com.gs.ep.docknight.model.attribute.PositionalContent;
 import com.gs.ep.docknight.model.attribute.Text;
 import com.gs.ep.docknight.model.attribute.TextStyles;
 import com.gs.ep.docknight.model.attribute.Top;
@@ -25,9 +22,7 @@ import org.eclipse.collections.impl.factory.Lists;
 import org.eclipse.collections.impl.factory.Sets;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 /**
  * 页面布局策略的抽象基类
@@ -109,41 +104,10 @@ public abstract class AbstractPageLayoutStrategy implements PageLayoutStrategy {
     // ==================== 公共工具方法 ====================
     
     /**
-     * 收集页面中的所有元素
+     * 收集页面中的所有元素（来自缓存在页面上的 {@link PageLayoutProfile}）
      */
     protected List<Element> collectAllElements(Page page) {
-        List<Element> allRaw = Lists.mutable.ofAll(page.getContainingElements(e -> true));
-        List<Element> allElements = new ArrayList<>();
-        
-        // Source of truth: PositionalContent
-        if (page.hasAttribute(PositionalContent.class)) {
-            allElements.addAll(page.getPositionalContent().getValue().getElements());
-        }
-        
-        // Fallback: Content attribute
-        if (page.hasAttribute(Content.class)) {
-            ElementList contentList = page.getAttribute(Content.class).getValue();
-            if (contentList != null) {
-                for (Object o : contentList.getElements()) {
-                    if (o instanceof Element && !allElements.contains(o)) {
-                        allElements.add((Element) o);
-                    }
-                }
-            }
-        }
-        
-        // Add any other text elements found recursively
-        Set<Element> currentSet = new HashSet<>(allElements);
-        for (Element e : allRaw) {
-            if (e instanceof TextElement || e.hasAttribute(Text.class)) {
-                if (!currentSet.contains(e)) {
-                    allElements.add(e);
-                    currentSet.add(e);
-                }
-            }
-        }
-        
-        return allElements;
+        return PageLayoutProfile.of(page).getElements();
     }
     
     /**
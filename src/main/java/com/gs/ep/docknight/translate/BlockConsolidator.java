@@ -0,0 +1,197 @@
+package com.gs.ep.docknight.translate;
+
+import org.eclipse.collections.impl.list.mutable.primitive.IntArrayList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.function.BiPredicate;
+import java.util.function.BinaryOperator;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Consolidates blocks by repeatedly merging the first pair (a, b), in list order, for which
+ * {@code a.top <= b.top} and the merge predicate holds, until no such pair is left. The merged
+ * block takes the position of the earlier of the two blocks.
+ *
+ * <p>
+ * 结果与逐对扫描（每次合并后从头开始）完全一致，但避免了重复比较：
+ * </p>
+ * <ul>
+ * <li>块按 top 建立有序索引，只比较 b.top 位于 [a.top, a.bottom + reach(a)) 内的块对，
+ * 其中 reach(a) 是合并谓词可能接受的最大垂直间距；</li>
+ * <li>扫描前沿（frontier）之前的块两两之间已确认不可合并，合并后只需将新块与它们比较。</li>
+ * </ul>
+ */
+final class BlockConsolidator {
+
+    // 浮点误差余量，保证候选窗口不会漏掉任何可能合并的块对
+    private static final double REACH_SLACK = 1.0;
+
+    private final LayoutEntity[] slots;
+    private final double[] reaches;
+    private final TreeMap<Double, IntArrayList> slotsByTop = new TreeMap<>();
+    private final BiPredicate<LayoutEntity, LayoutEntity> shouldMerge;
+    private final BinaryOperator<LayoutEntity> merge;
+    private final ToDoubleFunction<LayoutEntity> reach;
+
+    // 所有块的 (bottom - top + reach) 最大值，用于反向查找可能与某块合并的上方块
+    private double maxExtent = 0;
+    // frontier 之前的块（dirtySlot 除外）彼此之间均已确认不可合并
+    private int frontier = 0;
+    // 最近一次合并产生的块，尚未与 frontier 之前的块比较
+    private int dirtySlot = -1;
+
+    /**
+     * @param blocks      blocks in reading order
+     * @param shouldMerge predicate deciding whether the upper block a and block b are merged
+     * @param merge       function merging block a with block b
+     * @param reach       upper bound of the vertical gap below a block for which {@code
+     *                    shouldMerge} may hold
+     */
+    BlockConsolidator(List<LayoutEntity> blocks, BiPredicate<LayoutEntity, LayoutEntity> shouldMerge,
+            BinaryOperator<LayoutEntity> merge, ToDoubleFunction<LayoutEntity> reach) {
+        this.slots = blocks.toArray(new LayoutEntity[0]);
+        this.reaches = new double[this.slots.length];
+        this.shouldMerge = shouldMerge;
+        this.merge = merge;
+        this.reach = reach;
+        for (int slot = 0; slot < this.slots.length; slot++) {
+            this.index(slot);
+        }
+    }
+
+    List<LayoutEntity> consolidate() {
+        int[] pair;
+        while ((pair = this.findFirstMergeablePair()) != null) {
+            this.mergeSlots(pair[0], pair[1]);
+        }
+        List<LayoutEntity> result = new ArrayList<>();
+        for (LayoutEntity entity : this.slots) {
+            if (entity != null) {
+                result.add(entity);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return {row, column} slots of the first mergeable pair in list order, or null if none
+     */
+    private int[] findFirstMergeablePair() {
+        // frontier 之前的行只可能与最近合并出的块配对
+        if (this.dirtySlot >= 0) {
+            LayoutEntity dirty = this.slots[this.dirtySlot];
+            IntArrayList rows = this.findRowsReaching(this.dirtySlot);
+            for (int i = 0; i < rows.size(); i++) {
+                int row = rows.get(i);
+                if (row == this.dirtySlot) {
+                    int column = this.findFirstColumn(row);
+                    if (column >= 0) {
+                        return new int[]{row, column};
+                    }
+                } else if (this.shouldMerge.test(this.slots[row], dirty)) {
+                    return new int[]{row, this.dirtySlot};
+                }
+            }
+        }
+        for (; this.frontier < this.slots.length; this.frontier++) {
+            if (this.slots[this.frontier] != null) {
+                int column = this.findFirstColumn(this.frontier);
+                if (column >= 0) {
+                    return new int[]{this.frontier, column};
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return first slot, in list order, which the block at {@code row} merges with, or -1
+     */
+    private int findFirstColumn(int row) {
+        LayoutEntity a = this.slots[row];
+        if (a.isTable) {
+            return -1;
+        }
+        double upper = a.bottom + this.reaches[row] + REACH_SLACK;
+        if (!(upper > a.top)) {
+            return -1;
+        }
+        IntArrayList columns = new IntArrayList();
+        for (IntArrayList bucket : this.slotsByTop.subMap(a.top + 0.0, true, upper, false).values()) {
+            columns.addAll(bucket);
+        }
+        columns.sortThis();
+        for (int i = 0; i < columns.size(); i++) {
+            int column = columns.get(i);
+            if (column != row && this.shouldMerge.test(a, this.slots[column])) {
+                return column;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return sorted slots before the frontier whose block may merge with the block at {@code
+     * slot} placed below it, including {@code slot} itself if it lies before the frontier
+     */
+    private IntArrayList findRowsReaching(int slot) {
+        LayoutEntity b = this.slots[slot];
+        IntArrayList rows = new IntArrayList();
+        if (b.isTable) {
+            return rows;
+        }
+        double lower = b.top - this.maxExtent - REACH_SLACK;
+        for (IntArrayList bucket : this.slotsByTop.subMap(lower, true, b.top + 0.0, true).values()) {
+            for (int i = 0; i < bucket.size(); i++) {
+                int row = bucket.get(i);
+                LayoutEntity a = this.slots[row];
+                if (row < this.frontier && row != slot
+                        && b.top < a.bottom + this.reaches[row] + REACH_SLACK) {
+                    rows.add(row);
+                }
+            }
+        }
+        if (slot < this.frontier) {
+            rows.add(slot);
+        }
+        return rows.sortThis();
+    }
+
+    private void mergeSlots(int row, int column) {
+        LayoutEntity merged = this.merge.apply(this.slots[row], this.slots[column]);
+        int keptSlot = Math.min(row, column);
+        int removedSlot = Math.max(row, column);
+        this.unindex(row);
+        this.unindex(column);
+        this.slots[removedSlot] = null;
+        this.slots[keptSlot] = merged;
+        this.index(keptSlot);
+        this.dirtySlot = keptSlot;
+    }
+
+    private void index(int slot) {
+        LayoutEntity entity = this.slots[slot];
+        if (entity.isTable) {
+            // 表格不参与合并
+            return;
+        }
+        this.reaches[slot] = this.reach.applyAsDouble(entity);
+        this.maxExtent = Math.max(this.maxExtent, entity.bottom - entity.top + this.reaches[slot]);
+        // + 0.0 把 -0.0 归一为 0.0，使 TreeMap 的顺序与数值比较一致
+        this.slotsByTop.computeIfAbsent(entity.top + 0.0, top -> new IntArrayList()).add(slot);
+    }
+
+    private void unindex(int slot) {
+        LayoutEntity entity = this.slots[slot];
+        if (entity.isTable) {
+            return;
+        }
+        IntArrayList bucket = this.slotsByTop.get(entity.top + 0.0);
+        bucket.remove(slot);
+        if (bucket.isEmpty()) {
+            this.slotsByTop.remove(entity.top + 0.0);
+        }
+    }
+}
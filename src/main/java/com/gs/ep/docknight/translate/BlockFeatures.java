@@ -0,0 +1,183 @@
+package com.gs.ep.docknight.translate;
+
+import com.gs.ep.docknight.model.Element;
+import com.gs.ep.docknight.model.ElementGroup;
+import com.gs.ep.docknight.model.attribute.Color;
+import com.gs.ep.docknight.model.attribute.FontSize;
+import com.gs.ep.docknight.model.attribute.Text;
+import com.gs.ep.docknight.model.attribute.TextStyles;
+import com.gs.ep.docknight.model.element.TextElement;
+import org.eclipse.collections.api.list.MutableList;
+
+import java.util.List;
+
+/**
+ * Text and style features of a {@link LayoutEntity}, computed once per entity and cached on it.
+ *
+ * <p>
+ * 块文本只拼接一次；文本分类（列表项、章节编号、词汇表等）在首次查询时由 {@link TextClassifier} 计算并记住。
+ * 合并两个块时，如果合并后元素顺序和居中方式不变，直接拼接两块已有的文本，无需重新遍历元素。
+ * </p>
+ */
+final class BlockFeatures {
+
+    // 未 trim 的拼接文本，合并时直接拼接
+    private final String rawText;
+    private final String text;
+    private final boolean centered;
+    // 第一个和最后一个非空文本元素，用于计算合并处的分隔符
+    private final Element firstTextElement;
+    private final Element lastTextElement;
+    private final Element firstElement;
+    private final double firstFontSize;
+    private final boolean firstBold;
+    private final java.awt.Color firstColor;
+
+    // 已计算的 TextClassifier 分类与其结果
+    private int classifiedMask;
+    private int textClasses;
+
+    private BlockFeatures(String rawText, boolean centered, Element firstTextElement, Element lastTextElement,
+            Element firstElement) {
+        this.rawText = rawText;
+        this.text = rawText.trim();
+        this.centered = centered;
+        this.firstTextElement = firstTextElement;
+        this.lastTextElement = lastTextElement;
+        this.firstElement = firstElement;
+        this.firstFontSize = firstElement != null && firstElement.hasAttribute(FontSize.class)
+                ? firstElement.getAttribute(FontSize.class).getValue().getMagnitude()
+                : Double.NaN;
+        this.firstBold = hasStyle(firstElement, TextStyles.BOLD);
+        this.firstColor = firstElement != null && firstElement.hasAttribute(Color.class)
+                ? firstElement.getAttribute(Color.class).getValue()
+                : null;
+    }
+
+    /**
+     * Join the texts of the block elements: centered blocks join lines with a space, other blocks
+     * use a blank line when the vertical gap between lines exceeds 5pt.
+     */
+    static BlockFeatures of(ElementGroup<Element> group, boolean centered) {
+        StringBuilder sb = new StringBuilder();
+        Element firstText = null;
+        Element prev = null;
+        for (Element el : group.getElements()) {
+            String text = getElementText(el);
+            if (!text.isEmpty()) {
+                if (prev != null) {
+                    sb.append(separator(prev, el, centered));
+                } else {
+                    firstText = el;
+                }
+                sb.append(text);
+                prev = el;
+            }
+        }
+        return new BlockFeatures(sb.toString(), centered, firstText, prev, group.getFirst());
+    }
+
+    /**
+     * Features of the block formed by the elements of a followed by the elements of b, or null if
+     * they cannot be derived from the features of a and b.
+     */
+    static BlockFeatures concat(BlockFeatures a, BlockFeatures b, ElementGroup<Element> merged, boolean centered) {
+        // 只有在居中方式不变时，块内的分隔符才保持不变
+        if (a.centered != centered || b.centered != centered) {
+            return null;
+        }
+        if (a.firstTextElement == null) {
+            return new BlockFeatures(b.rawText, centered, b.firstTextElement, b.lastTextElement,
+                    merged.getFirst());
+        }
+        if (b.firstTextElement == null) {
+            return new BlockFeatures(a.rawText, centered, a.firstTextElement, a.lastTextElement,
+                    merged.getFirst());
+        }
+        String rawText = a.rawText + separator(a.lastTextElement, b.firstTextElement, centered) + b.rawText;
+        return new BlockFeatures(rawText, centered, a.firstTextElement, b.lastTextElement, merged.getFirst());
+    }
+
+    /**
+     * @return true if the elements of merged are those of a followed by those of b
+     */
+    static boolean isConcatenation(MutableList<Element> merged, List<Element> a, List<Element> b) {
+        if (merged.size() != a.size() + b.size()) {
+            return false;
+        }
+        for (int i = 0; i < a.size(); i++) {
+            if (merged.get(i) != a.get(i)) {
+                return false;
+            }
+        }
+        for (int i = 0; i < b.size(); i++) {
+            if (merged.get(a.size() + i) != b.get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String separator(Element prev, Element next, boolean centered) {
+        // 居中块使用空格连接（保持为一个完整标题）
+        // 非居中块在垂直间隙大于5时使用双换行（表示新段落）
+        if (centered) {
+            return " ";
+        }
+        double vGap = next.getTopMagnitude() - (prev.getTopMagnitude() + prev.getHeightMagnitude());
+        return vGap > 5 ? "\n\n" : " ";
+    }
+
+    private static String getElementText(Element el) {
+        Object t = null;
+        if (el instanceof TextElement) {
+            t = ((TextElement) el).getText();
+        } else if (el.hasAttribute(Text.class)) {
+            t = el.getAttribute(Text.class);
+        }
+        return t == null ? "" : String.valueOf(t);
+    }
+
+    private static boolean hasStyle(Element e, String style) {
+        if (e == null || !e.hasAttribute(TextStyles.class)) {
+            return false;
+        }
+        List<String> styles = e.getAttribute(TextStyles.class).getValue();
+        return styles != null && styles.contains(style);
+    }
+
+    String getText() {
+        return this.text;
+    }
+
+    Element getFirstElement() {
+        return this.firstElement;
+    }
+
+    /**
+     * @return font size of the first element, or NaN if it has none
+     */
+    double getFirstFontSize() {
+        return this.firstFontSize;
+    }
+
+    boolean isFirstBold() {
+        return this.firstBold;
+    }
+
+    java.awt.Color getFirstColor() {
+        return this.firstColor;
+    }
+
+    /**
+     * @param textClass one of the {@link TextClassifier} classes, evaluated once on first use
+     */
+    boolean is(int textClass) {
+        int pending = textClass & ~this.classifiedMask;
+        if (pending != 0) {
+            this.textClasses |= TextClassifier.classify(this.text, pending);
+            this.classifiedMask |= pending;
+        }
+        return (this.textClasses & textClass) != 0;
+    }
+}
@@ -30,6 +30,8 @@ public class LayoutEntity {
 
     // Cache for expensive text extraction
     private String cachedText;
+    // 文本和样式特征缓存，见 PdfLayoutAnalyzer#getFeatures
+    private BlockFeatures features;
 
     public LayoutEntity(Object group, double pageWidth, double pageHeight) {
         this.group = group;
@@ -76,10 +78,10 @@ public class LayoutEntity {
             if (!textGroup.getElements().isEmpty()) {
                 Element first = textGroup.getElements().get(0);
                 if (first.hasAttribute(FirstLineIndent.class)) {
-                    this.firstLineLeft = first.getAttribute(Left.class).getMagnitude()
+                    this.firstLineLeft = first.getLeftMagnitude()
                             + first.getAttribute(FirstLineIndent.class).getMagnitude();
                 } else if (first.hasAttribute(Left.class)) {
-                    this.firstLineLeft = first.getAttribute(Left.class).getMagnitude();
+                    this.firstLineLeft = first.getLeftMagnitude();
                 } else {
                     this.firstLineLeft = this.left;
                 }
@@ -90,19 +92,19 @@ public class LayoutEntity {
                 double lastLineRightTemp = this.right;
                 for (Element elem : textGroup.getElements()) {
                     if (elem.hasAttribute(Top.class)) {
-                        double elemTop = elem.getAttribute(Top.class).getMagnitude();
+                        double elemTop = elem.getTopMagnitude();
                         if (elemTop > maxTop) {
                             maxTop = elemTop;
                             // 更新最后一行的右边界
                             if (elem.hasAttribute(Left.class) && elem.hasAttribute(Width.class)) {
-                                lastLineRightTemp = elem.getAttribute(Left.class).getMagnitude() 
-                                    + elem.getAttribute(Width.class).getMagnitude();
+                                lastLineRightTemp = elem.getLeftMagnitude() 
+                                    + elem.getWidthMagnitude();
                             }
                         } else if (Math.abs(elemTop - maxTop) < 3) {
                             // 同一行的其他元素，取最大的右边界
                             if (elem.hasAttribute(Left.class) && elem.hasAttribute(Width.class)) {
-                                double elemRight = elem.getAttribute(Left.class).getMagnitude() 
-                                    + elem.getAttribute(Width.class).getMagnitude();
+                                double elemRight = elem.getLeftMagnitude() 
+                                    + elem.getWidthMagnitude();
                                 if (elemRight > lastLineRightTemp) {
                                     lastLineRightTemp = elemRight;
                                 }
@@ -128,4 +130,12 @@ public class LayoutEntity {
     public void setCachedText(String text) {
         this.cachedText = text;
     }
+
+    BlockFeatures getFeatures() {
+        return features;
+    }
+
+    void setFeatures(BlockFeatures features) {
+        this.features = features;
+    }
 }
@@ -0,0 +1,316 @@
+package com.gs.ep.docknight.translate;
+
+import com.gs.ep.docknight.model.Element;
+import com.gs.ep.docknight.model.ElementList;
+import com.gs.ep.docknight.model.PositionalContext;
+import com.gs.ep.docknight.model.RectangleProperties;
+import com.gs.ep.docknight.model.TabularCellElementGroup;
+import com.gs.ep.docknight.model.TabularElementGroup;
+import com.gs.ep.docknight.model.attribute.Content;
+import com.gs.ep.docknight.model.attribute.Height;
+import com.gs.ep.docknight.model.attribute.Left;
+import com.gs.ep.docknight.model.attribute.PositionalContent;
+import com.gs.ep.docknight.model.attribute.Text;
+import com.gs.ep.docknight.model.attribute.Top;
+import com.gs.ep.docknight.model.attribute.Width;
+import com.gs.ep.docknight.model.element.Image;
+import com.gs.ep.docknight.model.element.Page;
+import com.gs.ep.docknight.model.element.TextElement;
+import org.eclipse.collections.api.list.MutableList;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 页面级布局特征
+ *
+ * <p>
+ * 一次遍历页面元素得到页面类型检测、早期双栏检测和最大右边界所需的全部统计量，
+ * 缓存在 {@link Page} 上，由 {@link PageLayoutStrategyFactory}、布局策略、{@link PdfLayoutAnalyzer}
+ * 和 {@link PdfTranslator} 共享。只要页面的内容列表、元素数量和尺寸不变，重复分析同一页面时直接复用。
+ * 原地重新分组页面的转换器（{@code PositionalTextGroupingTransformer}、{@code TableDetectionTransformer}）会清除缓存。
+ * </p>
+ */
+public final class PageLayoutProfile {
+
+    // 页眉页脚区域（按页面高度比例）
+    private static final double HEADER_RATIO = 0.08;
+    private static final double FOOTER_RATIO = 0.92;
+    // 左右栏判定（按页面宽度比例）
+    private static final double LEFT_COLUMN_RATIO = 0.45;
+    private static final double RIGHT_COLUMN_RATIO = 0.55;
+    // 平行块检测：窄块宽度上限、最小水平中心距离和最小垂直重叠
+    private static final double NARROW_BLOCK_RATIO = 0.55;
+    private static final double PARALLEL_GAP_RATIO = 0.30;
+    private static final double PARALLEL_MIN_OVERLAP = 5;
+
+    // 页面指纹：内容列表、元素数量和尺寸
+    private final Object positionalContent;
+    private final Object content;
+    private final int positionalContentSize;
+    private final int contentSize;
+    private final double pageWidth;
+    private final double pageHeight;
+
+    private final List<Element> elements;
+    private final List<Element> layoutElements;
+    private final double maxRightBoundary;
+
+    private int leftColumnElements;
+    private int rightColumnElements;
+    // 不含图片元素的左右栏统计（用于 PdfLayoutAnalyzer 的早期双栏检测）
+    private int leftColumnLayoutElements;
+    private int rightColumnLayoutElements;
+    private int tableCount;
+    private double tableCoverageRatio;
+    private int parallelBlockPairs;
+
+    // 由 PdfLayoutAnalyzer 在分析页面时写入的块级双栏检测结果
+    private Boolean preDetectedMultiColumn;
+    private Boolean multiColumn;
+
+    private PageLayoutProfile(Page page) {
+        ElementList<Element> positionalList = page.hasAttribute(PositionalContent.class)
+                ? page.getPositionalContent().getValue() : null;
+        ElementList<Element> contentList = page.hasAttribute(Content.class)
+                ? page.getAttribute(Content.class).getValue() : null;
+        this.positionalContent = positionalList;
+        this.content = contentList;
+        this.positionalContentSize = sizeOf(positionalList);
+        this.contentSize = sizeOf(contentList);
+        this.pageWidth = page.getWidthMagnitude();
+        this.pageHeight = page.getHeightMagnitude();
+
+        // 1. 收集元素：PositionalContent 为准，其次 Content，最后补充递归找到的文本元素
+        List<Element> allElements = new ArrayList<>();
+        if (positionalList != null) {
+            allElements.addAll(positionalList.getElements());
+        }
+        Set<Element> currentSet = new HashSet<>(allElements);
+        if (contentList != null) {
+            for (Object o : contentList.getElements()) {
+                if (o instanceof Element && currentSet.add((Element) o)) {
+                    allElements.add((Element) o);
+                }
+            }
+        }
+        double maxRight = 0;
+        for (Element e : page.getContainingElements(e -> true)) {
+            if (e.hasAttribute(Left.class) && e.hasAttribute(Width.class)) {
+                double right = e.getLeftMagnitude() + e.getWidthMagnitude();
+                if (right > maxRight) {
+                    maxRight = right;
+                }
+            }
+            if ((e instanceof TextElement || e.hasAttribute(Text.class)) && currentSet.add(e)) {
+                allElements.add(e);
+            }
+        }
+        // 如果没有找到元素，使用页面宽度的92%作为默认值
+        this.maxRightBoundary = maxRight == 0 ? this.pageWidth * 0.92 : maxRight;
+        this.elements = Collections.unmodifiableList(allElements);
+
+        // 2. 一次遍历统计左右栏元素、表格覆盖率和平行块
+        List<Element> layoutElements = new ArrayList<>(allElements.size());
+        Set<TabularElementGroup<Element>> processedTables = new HashSet<>();
+        double totalTableArea = 0.0;
+        List<double[]> blockBounds = new ArrayList<>();
+        for (Element elem : allElements) {
+            boolean isImage = elem instanceof Image;
+            if (!isImage) {
+                layoutElements.add(elem);
+            }
+            if (!elem.hasAttribute(Left.class) || !elem.hasAttribute(Top.class)) {
+                continue;
+            }
+
+            double left = elem.getLeftMagnitude();
+            double top = elem.getTopMagnitude();
+
+            // 忽略页眉页脚区域
+            if (top < this.pageHeight * HEADER_RATIO || top > this.pageHeight * FOOTER_RATIO) {
+                continue;
+            }
+
+            double width = elem.hasAttribute(Width.class) ? elem.getWidthMagnitude() : 0;
+            double height = elem.hasAttribute(Height.class) ? elem.getHeightMagnitude() : 12;
+            double centerX = left + width / 2.0;
+
+            if (centerX < this.pageWidth * LEFT_COLUMN_RATIO) {
+                this.leftColumnElements++;
+                if (!isImage) {
+                    this.leftColumnLayoutElements++;
+                }
+            } else if (centerX > this.pageWidth * RIGHT_COLUMN_RATIO) {
+                this.rightColumnElements++;
+                if (!isImage) {
+                    this.rightColumnLayoutElements++;
+                }
+            }
+
+            // 记录窄块边界用于平行检测: [left, top, right, bottom, centerX]
+            if (width > 0 && width < this.pageWidth * NARROW_BLOCK_RATIO) {
+                blockBounds.add(new double[]{left, top, left + width, top + height, centerX});
+            }
+
+            PositionalContext<Element> context = elem.getPositionalContext();
+            if (context != null) {
+                TabularElementGroup<Element> table = context.getTabularGroup();
+                if (table != null && processedTables.add(table)) {
+                    this.tableCount++;
+                    totalTableArea += estimateTableArea(table);
+                }
+            }
+        }
+        this.layoutElements = Collections.unmodifiableList(layoutElements);
+        this.tableCoverageRatio = totalTableArea / (this.pageWidth * this.pageHeight);
+        this.parallelBlockPairs = countParallelBlockPairs(blockBounds, this.pageWidth);
+    }
+
+    /**
+     * 获取页面的布局特征，页面未变化时复用缓存在页面上的结果
+     */
+    public static PageLayoutProfile of(Page page) {
+        Object cached = page.getLayoutProfile();
+        if (cached instanceof PageLayoutProfile && ((PageLayoutProfile) cached).matches(page)) {
+            return (PageLayoutProfile) cached;
+        }
+        PageLayoutProfile profile = new PageLayoutProfile(page);
+        page.setLayoutProfile(profile);
+        return profile;
+    }
+
+    private boolean matches(Page page) {
+        ElementList<Element> positionalList = page.hasAttribute(PositionalContent.class)
+                ? page.getPositionalContent().getValue() : null;
+        ElementList<Element> contentList = page.hasAttribute(Content.class)
+                ? page.getAttribute(Content.class).getValue() : null;
+        return positionalList == this.positionalContent
+                && contentList == this.content
+                && sizeOf(positionalList) == this.positionalContentSize
+                && sizeOf(contentList) == this.contentSize
+                && page.getWidthMagnitude() == this.pageWidth
+                && page.getHeightMagnitude() == this.pageHeight;
+    }
+
+    private static int sizeOf(ElementList<Element> list) {
+        return list == null ? -1 : list.getElements().size();
+    }
+
+    private static double estimateTableArea(TabularElementGroup<Element> table) {
+        double minT = Double.MAX_VALUE, maxB = Double.MIN_VALUE;
+        double minL = Double.MAX_VALUE, maxR = Double.MIN_VALUE;
+
+        for (MutableList<TabularCellElementGroup<Element>> row : table.getCells()) {
+            for (TabularCellElementGroup<Element> cell : row) {
+                if (cell != null && !cell.getElements().isEmpty()) {
+                    RectangleProperties<Double> bbox = cell.getTextBoundingBox();
+                    minT = Math.min(minT, bbox.getTop());
+                    maxB = Math.max(maxB, bbox.getBottom());
+                    minL = Math.min(minL, bbox.getLeft());
+                    maxR = Math.max(maxR, bbox.getRight());
+                }
+            }
+        }
+
+        if (minT == Double.MAX_VALUE) return 0;
+        return (maxR - minL) * (maxB - minT);
+    }
+
+    /**
+     * 统计垂直重叠且水平明显分离的窄块对。按 top 排序后，只需比较 top 落在当前块底部以内的后续块。
+     */
+    private static int countParallelBlockPairs(List<double[]> blocks, double pageWidth) {
+        blocks.sort((a, b) -> Double.compare(a[1], b[1]));
+        int pairs = 0;
+        for (int i = 0; i < blocks.size(); i++) {
+            double[] a = blocks.get(i);
+            for (int j = i + 1; j < blocks.size(); j++) {
+                double[] b = blocks.get(j);
+                // b.top >= a.top，重叠不会超过 a.bottom - b.top，后续块更不可能重叠
+                if (a[3] - b[1] <= PARALLEL_MIN_OVERLAP) {
+                    break;
+                }
+                double vOverlap = Math.min(a[3], b[3]) - Math.max(a[1], b[1]);
+                double hGap = Math.abs(a[4] - b[4]);
+                if (vOverlap > PARALLEL_MIN_OVERLAP && hGap > pageWidth * PARALLEL_GAP_RATIO) {
+                    pairs++;
+                }
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * @return 页面的所有元素（PositionalContent、Content 以及递归找到的文本元素）
+     */
+    public List<Element> getElements() {
+        return this.elements;
+    }
+
+    /**
+     * @return 除图片以外的元素，图片由 PdfRenderer 单独处理
+     */
+    public List<Element> getLayoutElements() {
+        return this.layoutElements;
+    }
+
+    /**
+     * @return 页面中所有元素的最大右边界，没有元素时为页面宽度的92%
+     */
+    public double getMaxRightBoundary() {
+        return this.maxRightBoundary;
+    }
+
+    public int getLeftColumnElements() {
+        return this.leftColumnElements;
+    }
+
+    public int getRightColumnElements() {
+        return this.rightColumnElements;
+    }
+
+    public int getTableCount() {
+        return this.tableCount;
+    }
+
+    public double getTableCoverageRatio() {
+        return this.tableCoverageRatio;
+    }
+
+    public int getParallelBlockPairs() {
+        return this.parallelBlockPairs;
+    }
+
+    /**
+     * 早期双栏检测：不含图片时，左右两边都有至少 3 个元素
+     */
+    public boolean isLikelyMultiColumnByElements() {
+        return this.leftColumnLayoutElements >= 3 && this.rightColumnLayoutElements >= 3;
+    }
+
+    /**
+     * @return 合并前块列表的双栏预检测结果，未分析时为 null
+     */
+    Boolean getPreDetectedMultiColumn() {
+        return this.preDetectedMultiColumn;
+    }
+
+    void setPreDetectedMultiColumn(boolean preDetectedMultiColumn) {
+        this.preDetectedMultiColumn = preDetectedMultiColumn;
+    }
+
+    /**
+     * @return 合并后块列表的双栏检测结果，未分析时为 null
+     */
+    public Boolean getMultiColumn() {
+        return this.multiColumn;
+    }
+
+    void setMultiColumn(boolean multiColumn) {
+        this.multiColumn = multiColumn;
+    }
+}
@@ -2,21 +2,16 @@ package com.gs.ep.docknight.translate;
 
 import com.gs.ep.docknight.model.Element;
 import com.gs.ep.docknight.model.ElementGroup;
-import com.gs.ep.docknight.model.ElementList;
 import com.gs.ep.docknight.model.PositionalContext;
 import com.gs.ep.docknight.model.RectangleProperties;
 import com.gs.ep.docknight.model.TabularCellElementGroup;
 import com.gs.ep.docknight.model.TabularElementGroup;
-import com.gs.ep.docknight.model.attribute.Color;
-import com.gs.ep.docknight.model.attribute.Content;
 import com.gs.ep.docknight.model.attribute.FontSize;
 import com.gs.ep.docknight.model.attribute.Height;
 import com.gs.ep.docknight.model.attribute.Left;
-import com.gs.ep.docknight.model.attribute.PositionalContent;
 import com.gs.ep.docknight.model.attribute.Text;
 import com.gs.ep.docknight.model.attribute.TextStyles;
 import com.gs.ep.docknight.model.attribute.Top;
-import com.gs.ep.docknight.model.attribute.Width;
 import com.gs.ep.docknight.model.element.Image;
 import com.gs.ep.docknight.model.element.Page;
 import com.gs.ep.docknight.model.element.TextElement;
@@ -26,9 +21,7 @@ import org.eclipse.collections.impl.factory.Lists;
 import org.eclipse.collections.impl.factory.Sets;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 /**
  * Encapsulates the logic for analyzing page layout, identifying columns,
@@ -76,12 +69,11 @@ public class PdfLayoutAnalyzer {
      * @return 提取的布局实体列表
      */
     public List<LayoutEntity> analyzePageWithStrategy(Page page) {
-        double pageWidth = page.getAttribute(Width.class).getValue().getMagnitude();
-        double pageHeight = page.getAttribute(Height.class).getValue().getMagnitude();
+        double pageWidth = page.getWidthMagnitude();
+        double pageHeight = page.getHeightMagnitude();
 
         // 计算最大右边界
-        List<Element> allRaw = Lists.mutable.ofAll(page.getContainingElements(e -> true));
-        this.maxPageRightBoundary = calculateMaxRightBoundary(page, allRaw);
+        this.maxPageRightBoundary = PageLayoutProfile.of(page).getMaxRightBoundary();
         System.out.println("=== Max Right Boundary: " + maxPageRightBoundary + " (pageWidth=" + pageWidth + ") ===");
 
         PageLayoutStrategy strategy = strategyFactory.createStrategy(page);
@@ -96,12 +88,11 @@ public class PdfLayoutAnalyzer {
      * @return 提取的布局实体列表
      */
     public List<LayoutEntity> analyzePageWithStrategy(Page page, PageType pageType) {
-        double pageWidth = page.getAttribute(Width.class).getValue().getMagnitude();
-        double pageHeight = page.getAttribute(Height.class).getValue().getMagnitude();
+        double pageWidth = page.getWidthMagnitude();
+        double pageHeight = page.getHeightMagnitude();
 
         // 计算最大右边界
-        List<Element> allRaw = Lists.mutable.ofAll(page.getContainingElements(e -> true));
-        this.maxPageRightBoundary = calculateMaxRightBoundary(page, allRaw);
+        this.maxPageRightBoundary = PageLayoutProfile.of(page).getMaxRightBoundary();
         System.out.println("=== Max Right Boundary: " + maxPageRightBoundary + " (pageWidth=" + pageWidth + ") ===");
 
         PageLayoutStrategy strategy = strategyFactory.getStrategy(pageType);
@@ -120,14 +111,14 @@ public class PdfLayoutAnalyzer {
 
     public List<LayoutEntity> analyzePage(Page page) {
         System.out.println("\n \n ============ Analyzing page..." + page.getName() + "===========");
-        double pageWidth = page.getAttribute(Width.class).getValue().getMagnitude();
-        double pageHeight = page.getAttribute(Height.class).getValue().getMagnitude();
+        double pageWidth = page.getWidthMagnitude();
+        double pageHeight = page.getHeightMagnitude();
 
-        // 获取页面中的所有元素
-        List<Element> allRaw = Lists.mutable.ofAll(page.getContainingElements(e -> true));
+        // 页面元素和页面级布局特征一次计算并缓存在页面上
+        PageLayoutProfile profile = PageLayoutProfile.of(page);
 
         // 计算页面的最大右边界（所有文本元素的最大right值）
-        this.maxPageRightBoundary = calculateMaxRightBoundary(page, allRaw);
+        this.maxPageRightBoundary = profile.getMaxRightBoundary();
         System.out.println("=== Max Right Boundary: " + maxPageRightBoundary + " (pageWidth=" + pageWidth + ") ===");
 
         // 1. Collect unique blocks
@@ -135,40 +126,14 @@ public class PdfLayoutAnalyzer {
         MutableSet<ElementGroup<Element>> processedGroups = Sets.mutable.empty();
         MutableSet<TabularElementGroup<Element>> processedTables = Sets.mutable.empty();
 
-        // Source of truth: PositionalContent
-        List<Element> allElements = new ArrayList<>();
-        if (page.hasAttribute(PositionalContent.class)) {
-            allElements.addAll(page.getPositionalContent().getValue().getElements());
-        }
-        // Fallback: Content attribute
-        if (page.hasAttribute(Content.class)) {
-            ElementList contentList = page.getAttribute(Content.class).getValue();
-            if (contentList != null) {
-                for (Object o : contentList.getElements()) {
-                    if (o instanceof Element && !allElements.contains(o))
-                        allElements.add((Element) o);
-                }
-            }
-        }
-
-        // Also add any other text elements found recursively that we might have missed
-        Set<Element> currentSet = new HashSet<>(allElements);
-        for (Element e : allRaw) {
-            if (e instanceof TextElement || e.hasAttribute(Text.class)) {
-                if (!currentSet.contains(e)) {
-                    allElements.add(e);
-                    currentSet.add(e);
-                }
-            }
-        }
-
-        // 过滤掉图片元素 - 它们不需要布局分析，由 PdfRenderer 单独处理
-        allElements.removeIf(e -> e instanceof Image);
+        // PositionalContent、Content 以及递归找到的文本元素，已过滤掉图片元素
+        // 图片不需要布局分析，由 PdfRenderer 单独处理
+        List<Element> allElements = profile.getLayoutElements();
 
         // 早期预检测：在处理 VerticalGroup 之前，检测是否可能是双栏布局
         // 这样可以在分组时就按列拆分
         this.currentPageWidth = pageWidth;
-        this.preDetectedMultiColumn = earlyDetectMultiColumn(allElements, pageWidth, pageHeight);
+        this.preDetectedMultiColumn = profile.isLikelyMultiColumnByElements();
 
         for (Element element : allElements) {
             // 跳过图片元素 - 图片不需要文本翻译，由 PdfRenderer 单独处理
@@ -206,8 +171,8 @@ public class PdfLayoutAnalyzer {
 
                             // Sort elements within the row by Left position for correct text flow
                             rowElements.sortThis((e1, e2) -> Double.compare(
-                                    e1.getAttribute(Left.class).getMagnitude(),
-                                    e2.getAttribute(Left.class).getMagnitude()));
+                                    e1.getLeftMagnitude(),
+                                    e2.getLeftMagnitude()));
 
                             // 每行作为独立块（适用于词汇表、参考文献等）
                             entities.add(new LayoutEntity(new ElementGroup<>(rowElements), pageWidth, pageHeight));
@@ -248,14 +213,21 @@ public class PdfLayoutAnalyzer {
 
         // 预检测双栏布局：在 consolidation 之前，使用原始块列表进行检测
         // 这样可以在合并过程中阻止跨栏合并
+        // 块列表只由页面内容决定，重复分析同一页面时复用检测结果
         this.currentPageWidth = pageWidth;
-        this.preDetectedMultiColumn = preDetectMultiColumn(entities, pageWidth, pageHeight);
+        if (profile.getPreDetectedMultiColumn() == null) {
+            profile.setPreDetectedMultiColumn(preDetectMultiColumn(entities, pageWidth, pageHeight));
+        }
+        this.preDetectedMultiColumn = profile.getPreDetectedMultiColumn();
 
         // 2. Greedy spatial consolidation across the entire page
         List<LayoutEntity> consolidated = consolidateBlocks(entities);
 
         // 3. Assign reading areas and sort
-        boolean multiColumn = detectMultiColumn(consolidated, pageWidth, pageHeight);
+        if (profile.getMultiColumn() == null) {
+            profile.setMultiColumn(detectMultiColumn(consolidated, pageWidth, pageHeight));
+        }
+        boolean multiColumn = profile.getMultiColumn();
 
         consolidated.sort((a, b) -> {
             int areaA = getReadingArea(a, multiColumn);
@@ -270,41 +242,6 @@ public class PdfLayoutAnalyzer {
         return consolidated;
     }
 
-    /**
-     * 早期预检测：基于原始元素列表检测双栏布局
-     * 在处理 VerticalGroup 之前调用
-     */
-    private boolean earlyDetectMultiColumn(List<Element> elements, double pageWidth, double pageHeight) {
-        int leftElements = 0;
-        int rightElements = 0;
-
-        for (Element elem : elements) {
-            if (!elem.hasAttribute(Left.class) || !elem.hasAttribute(Top.class))
-                continue;
-
-            double left = elem.getAttribute(Left.class).getMagnitude();
-            double top = elem.getAttribute(Top.class).getMagnitude();
-
-            // 忽略页眉页脚区域
-            if (top < pageHeight * 0.08 || top > pageHeight * 0.92)
-                continue;
-
-            double centerX = left;
-            if (elem.hasAttribute(Width.class)) {
-                centerX = left + elem.getAttribute(Width.class).getMagnitude() / 2.0;
-            }
-
-            if (centerX < pageWidth * 0.45) {
-                leftElements++;
-            } else if (centerX > pageWidth * 0.55) {
-                rightElements++;
-            }
-        }
-
-        // 如果左右两边都有至少 3 个元素，很可能是双栏
-        return leftElements >= 3 && rightElements >= 3;
-    }
-
     /**
      * 按列拆分 VerticalGroup：将同一组中位于不同列的元素拆分
      * 用于处理 PDF 解析器错误地将左右栏内容分组到同一个 VerticalGroup 的情况
@@ -326,7 +263,7 @@ public class PdfLayoutAnalyzer {
                 continue;
             }
 
-            double left = elem.getAttribute(Left.class).getMagnitude();
+            double left = elem.getLeftMagnitude();
 
             // Fix: Use Left position instead of CenterX.
             // Wide indented blocks (like References) might have CenterX > boundary
@@ -349,11 +286,11 @@ public class PdfLayoutAnalyzer {
             // 有跨栏元素，需要拆分
             // 按 top 排序各组
             leftElements.sortThis((e1, e2) -> Double.compare(
-                    e1.getAttribute(Top.class).getMagnitude(),
-                    e2.getAttribute(Top.class).getMagnitude()));
+                    e1.getTopMagnitude(),
+                    e2.getTopMagnitude()));
             rightElements.sortThis((e1, e2) -> Double.compare(
-                    e1.getAttribute(Top.class).getMagnitude(),
-                    e2.getAttribute(Top.class).getMagnitude()));
+                    e1.getTopMagnitude(),
+                    e2.getTopMagnitude()));
 
             result.add(new ElementGroup<>(leftElements));
             result.add(new ElementGroup<>(rightElements));
@@ -370,7 +307,6 @@ public class PdfLayoutAnalyzer {
         // 统计左半边和右半边的块数量
         int leftBlocks = 0;
         int rightBlocks = 0;
-        int parallelPairings = 0;
 
         for (LayoutEntity block : blocks) {
             // 忽略页眉页脚区域
@@ -408,19 +344,18 @@ public class PdfLayoutAnalyzer {
                 if ((a.right - a.left) < pageWidth * 0.55 && (b.right - b.left) < pageWidth * 0.55) {
                     double overlap = Math.min(a.bottom, b.bottom) - Math.max(a.top, b.top);
                     double hGap = Math.abs((a.left + a.right) / 2.0 - (b.left + b.right) / 2.0);
-                    // 明显的水平分离和垂直重叠
+                    // 明显的水平分离和垂直重叠，找到一对即可判定
                     if (overlap > 5 && hGap > pageWidth * 0.30) {
-                        parallelPairings++;
+                        return true;
                     }
                 }
             }
         }
 
-        return parallelPairings >= 1;
+        return false;
     }
 
     public boolean detectMultiColumn(List<LayoutEntity> blocks, double pageWidth, double pageHeight) {
-        int parallelPairings = 0;
         for (int i = 0; i < blocks.size(); i++) {
             LayoutEntity a = blocks.get(i);
             // Ignore small noise in headers, but include tall blocks
@@ -438,15 +373,15 @@ public class PdfLayoutAnalyzer {
                 if ((a.right - a.left) < pageWidth * 0.6 && (b.right - b.left) < pageWidth * 0.6) {
                     double overlap = Math.min(a.bottom, b.bottom) - Math.max(a.top, b.top);
                     double hGap = Math.abs((a.left + a.right) / 2.0 - (b.left + b.right) / 2.0);
-                    // Clear horizontal separation and vertical overlap
+                    // Clear horizontal separation and vertical overlap.
+                    // Even one strong column-pairing indicates multi-column layout intent
                     if (overlap > 10 && hGap > pageWidth * 0.35) {
-                        parallelPairings++;
+                        return true;
                     }
                 }
             }
         }
-        // Even one strong column-pairing indicates multi-column layout intent
-        return parallelPairings >= 1;
+        return false;
     }
 
     public int getReadingArea(LayoutEntity entity, boolean multiColumn) {
@@ -501,14 +436,32 @@ public class PdfLayoutAnalyzer {
     }
 
     public String getBlockText(LayoutEntity e) {
+        // 策略分析产生的块已由策略缓存文本
         if (e.getCachedText() != null) {
             return e.getCachedText();
         }
 
         if (e.isTable)
             return "[TABLE]";
+        return getFeatures(e).getText();
+    }
 
-        // 检测是否是居中块：如果块明显居中，使用空格连接多行而非换行
+    /**
+     * 块的文本和样式特征，每个块只计算一次并缓存在块上
+     */
+    BlockFeatures getFeatures(LayoutEntity e) {
+        BlockFeatures features = e.getFeatures();
+        if (features == null) {
+            features = BlockFeatures.of((ElementGroup<Element>) e.group, isCenteredBlock(e));
+            e.setFeatures(features);
+        }
+        return features;
+    }
+
+    /**
+     * 检测是否是居中块：如果块明显居中，使用空格连接多行而非换行
+     */
+    private static boolean isCenteredBlock(LayoutEntity e) {
         double blockWidth = e.right - e.left;
         double leftMargin = e.left;
         double rightMargin = e.pageWidth - e.right;
@@ -518,43 +471,8 @@ public class PdfLayoutAnalyzer {
         // b) 内容较短（< 40% 页宽，适合短标题）
         // c) 左右边距都大于 60pt 且差异很小（< 5pt），适合宽标题
         boolean verySymmetric = Math.abs(leftMargin - rightMargin) < 5 && leftMargin > 60 && rightMargin > 60;
-        boolean isCenteredBlock = Math.abs(leftMargin - rightMargin) < 15
+        return Math.abs(leftMargin - rightMargin) < 15
                 && (leftMargin > 100 || blockWidth < e.pageWidth * 0.4 || verySymmetric);
-
-        StringBuilder sb = new StringBuilder();
-        Element prev = null;
-        for (Element el : ((ElementGroup<Element>) e.group).getElements()) {
-            String text = "";
-            if (el instanceof TextElement) {
-                Object t = ((TextElement) el).getText();
-                text = (t == null) ? "" : String.valueOf(t);
-            } else if (el.hasAttribute(Text.class)) {
-                Object t = el.getAttribute(Text.class);
-                text = (t == null) ? "" : String.valueOf(t);
-            }
-            if (text == null)
-                text = "";
-
-            if (!text.isEmpty()) {
-                if (prev != null) {
-                    double vGap = el.getAttribute(Top.class).getMagnitude()
-                            - (prev.getAttribute(Top.class).getMagnitude()
-                                    + prev.getAttribute(Height.class).getMagnitude());
-                    // 居中块使用空格连接（保持为一个完整标题）
-                    // 非居中块在垂直间隙大于5时使用双换行（表示新段落）
-                    if (isCenteredBlock) {
-                        sb.append(" ");
-                    } else {
-                        sb.append(vGap > 5 ? "\n\n" : " ");
-                    }
-                }
-                sb.append(text);
-                prev = el;
-            }
-        }
-        String result = sb.toString().trim();
-        e.setCachedText(result);
-        return result;
     }
 
     private boolean isRealTable(TabularElementGroup<Element> table, double pageHeight) {
@@ -660,54 +578,32 @@ public class PdfLayoutAnalyzer {
         return rows >= 2 && cols >= 2;
     }
 
-    private List<LayoutEntity> consolidateBlocks(List<LayoutEntity> blocks) {
+    /**
+     * 反复合并列表顺序中第一对可合并的块（上方块在前），直到没有可合并的块对。
+     * 只比较垂直距离在 {@link #getMergeReach(LayoutEntity)} 以内的块对，参见 {@link BlockConsolidator}。
+     */
+    List<LayoutEntity> consolidateBlocks(List<LayoutEntity> blocks) {
         if (blocks.size() < 2)
             return blocks;
 
-        List<LayoutEntity> current = new ArrayList<>(blocks);
-        boolean merged;
-        int iteration = 0;
-        do {
-            merged = false;
-            iteration++;
-            System.out.printf("  [Iteration %d] Checking %d blocks for merge...%n", iteration, current.size());
-
-            // 检查所有块对，不只是i+1
-            for (int i = 0; i < current.size(); i++) {
-                for (int j = 0; j < current.size(); j++) {
-                    if (i == j)
-                        continue; // 不与自己比较
-
-                    LayoutEntity a = current.get(i);
-                    LayoutEntity b = current.get(j);
-
-                    // 确保a在b上方（处理顺序）
-                    if (a.top > b.top)
-                        continue;
-
-                    if (shouldMerge(a, b)) {
-                        // 诊断日志：记录合并操作
-                        String textA = getBlockText(a);
-                        String textB = getBlockText(b);
-                        String shortA = (textA.length() > 25 ? textA.substring(0, 25) : textA).replace("\n", "↵");
-                        String shortB = (textB.length() > 25 ? textB.substring(0, 25) : textB).replace("\n", "↵");
-                        System.out.printf("  MERGE: [%s] + [%s]%n", shortA, shortB);
-
-                        // 合并后，保留上方的块（a），删除下方的块（b）
-                        LayoutEntity mergedEntity = merge(a, b);
-                        int removeIndex = (i < j) ? j : i;
-                        int setIndex = (i < j) ? i : j;
-                        current.set(setIndex, mergedEntity);
-                        current.remove(removeIndex);
-                        merged = true;
-                        break; // 合并后重新开始
-                    }
-                }
-                if (merged)
-                    break;
-            }
-        } while (merged);
-        return current;
+        return new BlockConsolidator(blocks, this::shouldMerge, this::merge, this::getMergeReach)
+                .consolidate();
+    }
+
+    /**
+     * 块 a 与其下方块可能合并的最大垂直间距（shouldMerge 中所有合并分支的 vGap 上限）
+     */
+    double getMergeReach(LayoutEntity a) {
+        double urlContinuationReach = getEstimatedLineHeight(a) * 1.5;
+        return urlContinuationReach > 15 ? urlContinuationReach : 15;
+    }
+
+    /**
+     * 根据块首个元素的字体大小估算行高，没有字体信息时默认为 12pt
+     */
+    private double getEstimatedLineHeight(LayoutEntity a) {
+        double fontSize = getFeatures(a).getFirstFontSize();
+        return Double.isNaN(fontSize) ? 12.0 : fontSize * 1.4;
     }
 
     boolean shouldMerge(LayoutEntity a, LayoutEntity b) {
@@ -722,74 +618,46 @@ public class PdfLayoutAnalyzer {
         // 必须在所有其他检查之前，包括段落分隔检测和跨栏检查
         // 原因：URL拆分的情况即使"有空间但没放"也应该合并，否则会被段落分隔规则错误阻止
         // 同时，URL续行即使跨越了双栏中线（可能是由于解析误差）也应该合并
-        String textA_trim = getBlockText(a).trim();
-        String textB_trim = getBlockText(b).trim();
-
-        // 获取A的末尾部分（最后30个字符）和B的开头部分（前20个字符）
-        String aTail = textA_trim.length() > 30 ? textA_trim.substring(textA_trim.length() - 30) : textA_trim;
-        String bHead = textB_trim.length() > 20 ? textB_trim.substring(0, 20) : textB_trim;
+        BlockFeatures featuresA = getFeatures(a);
+        BlockFeatures featuresB = getFeatures(b);
 
         // 检测1: A包含URL/路径部分
-        boolean aContainsUrlPart = textA_trim.matches(".*(?:https?://|www\\.|ftp://)[^\\s]{5,}.*");
-
-        // 检测2: A末尾包含URL域名或路径特征
-        boolean aContainsDotMil = aTail.contains(".mil/");
-        boolean aContainsDotCom = aTail.contains(".com/");
-        boolean aContainsDotGov = aTail.contains(".gov/");
-        boolean aContainsDotOrg = aTail.contains(".org/");
-        boolean aContainsDotNet = aTail.contains(".net/");
-        boolean aContainsAcqOsd = aTail.contains("acq.osd.mil");
-        boolean aContainsDodToolbox = aTail.contains("dodprocurementtoolbox.com");
-        boolean aContainsDla = aTail.contains("dla.mil");
-        boolean aContainsLogSci = aTail.contains("/log/sci/");
-        boolean aContainsDownloads = aTail.contains("/downloads/");
-        boolean aContainsHttp = aTail.contains("http://");
-        boolean aContainsWww = aTail.contains("www.");
-
-        boolean aEndsWithUrlDomain = aContainsDotMil || aContainsDotCom || aContainsDotGov ||
-                aContainsDotOrg || aContainsDotNet || aContainsAcqOsd ||
-                aContainsDodToolbox || aContainsDla;
-        boolean aEndsWithPath = aContainsLogSci || aContainsDownloads ||
-                aContainsHttp || aContainsWww;
-        boolean aEndsWithUrlPart = aEndsWithUrlDomain || aEndsWithPath;
+        boolean aContainsUrlPart = featuresA.is(TextClassifier.URL_PART);
+
+        // 检测2: A末尾（最后30个字符）包含URL域名或路径特征
+        boolean aEndsWithUrlPart = featuresA.is(TextClassifier.URL_PART_TAIL);
 
         // 检测3: A末尾没有URL结束标记（句号、逗号、分号等）
-        boolean aEndsWithPeriod = aTail.endsWith(".");
-        boolean aEndsWithComma = aTail.endsWith(",");
-        boolean aEndsWithSemicolon = aTail.endsWith(";");
-        boolean aEndsWithSentenceEnd = aEndsWithPeriod || aEndsWithComma ||
-                aEndsWithSemicolon || aTail.endsWith(" ");
+        String textA_trim = featuresA.getText();
+        boolean aEndsWithSentenceEnd = textA_trim.endsWith(".") || textA_trim.endsWith(",")
+                || textA_trim.endsWith(";") || textA_trim.endsWith(" ");
 
         // 关键：只要包含URL部分且不以句子结束标记结尾，就认为未正确结束
         boolean aUrlNotProperlyEnded = !aEndsWithSentenceEnd && aContainsUrlPart;
 
-        // 检测4: B开头是URL的扩展
-        String bHeadTrimmed = bHead.trim();
-        boolean bStartsWithHtml = bHeadTrimmed.matches("^(?:html?|\\.[a-z]{3,4}).*");
-        boolean bStartsWithHtmlDot = bHeadTrimmed.matches("^(?:html?\\.?).*");
-        boolean bStartsWithPathSlash = bHeadTrimmed.matches("^(?:/|downloads/|packag|uidtools).*");
-        boolean bStartsWithSlashDot = bHeadTrimmed.matches("^(?:/\\.).*");
-        boolean bIsUrlExtension = bStartsWithHtml || bStartsWithHtmlDot || bStartsWithPathSlash || bStartsWithSlashDot;
+        // 检测4: B开头（前20个字符）是URL的扩展
+        boolean bStartsWithPathSlash = featuresB.is(TextClassifier.PATH_HEAD);
+        boolean bIsUrlExtension = featuresB.is(TextClassifier.URL_EXTENSION_HEAD);
 
         // 检测5: 特殊情况 - A末尾是句号结尾的URL域名，B是"html"
-        boolean aEndsWithDotAfterUrl = aTail.matches(".*(?:mil|com|gov|org|net)\\.$") && aContainsUrlPart;
+        boolean aEndsWithDotAfterUrl = aContainsUrlPart && featuresA.is(TextClassifier.URL_DOMAIN_PERIOD_TAIL);
 
         // 检测6: B开头是URL协议或域名
-        boolean bStartsWithUrlProtocol = bHeadTrimmed.matches("^(?:https?://|www\\.|ftp://).*");
+        boolean bStartsWithUrlProtocol = featuresB.is(TextClassifier.URL_PROTOCOL_HEAD);
 
         // 综合判断：A包含URL部分且未正确结束，B是URL的后续
         // 改进：如果B是URL协议开始，或者B是URL扩展且A结束于可能的分离点，则认为是续行
         boolean isUrlContinuation = (aContainsUrlPart || aEndsWithUrlPart
-                || aTail.matches(".*(?:at|to|from|index\\.)$")) &&
+                || featuresA.is(TextClassifier.URL_BREAK_WORD_TAIL)) &&
                 (aUrlNotProperlyEnded || aEndsWithDotAfterUrl || bIsUrlExtension || bStartsWithUrlProtocol) &&
                 (bIsUrlExtension || bStartsWithUrlProtocol);
 
         // === 改进：URL续行检测强化 ===
         // 如果 A 看起来像未完成的 URL（以 / 或 - 结尾），且 B 看起来像 URL 的一部分
-        boolean aEndsWithSlashOrHyphen = aTail.matches(".*[/-]$") && aContainsUrlPart;
+        boolean aEndsWithSlashOrHyphen = aContainsUrlPart && featuresA.is(TextClassifier.SLASH_OR_HYPHEN_TAIL);
         // B 开始为大写字母时通常不是 URL 续行，除非它是明确的 URL 路径
-        boolean bStartsWithSentenceCap = bHeadTrimmed.matches("^[A-Z][a-z].*");
-        if (aEndsWithSlashOrHyphen && (bIsUrlExtension || bStartsWithPathSlash || !bStartsWithSentenceCap)) {
+        if (aEndsWithSlashOrHyphen
+                && (bIsUrlExtension || bStartsWithPathSlash || !featuresB.is(TextClassifier.SENTENCE_CAP_HEAD))) {
             isUrlContinuation = true;
         }
 
@@ -798,17 +666,10 @@ public class PdfLayoutAnalyzer {
             isUrlContinuation = true;
         }
 
-        // 获取组中的第一个元素，用于字体大小检测
-        Element earlyFirstA = a.group instanceof ElementGroup ? ((ElementGroup<Element>) a.group).getFirst() : null;
-
         // 如果是URL续行，直接返回true，不进行其他任何检查
-        // 使用更宽松的垂直间距检测（1.5倍行高）
-        double earlyEstimatedLineHeight = 12.0;
-        double earlyFontSize = 10.0;
-        if (earlyFirstA != null && earlyFirstA.hasAttribute(FontSize.class)) {
-            earlyFontSize = earlyFirstA.getAttribute(FontSize.class).getValue().getMagnitude();
-            earlyEstimatedLineHeight = earlyFontSize * 1.4;
-        }
+        // 使用更宽松的垂直间距检测（1.5倍行高），与 getMergeReach 保持一致
+        double earlyEstimatedLineHeight = getEstimatedLineHeight(a);
+        double earlyFontSize = Double.isNaN(featuresA.getFirstFontSize()) ? 10.0 : featuresA.getFirstFontSize();
 
         if (isUrlContinuation && vGap < earlyEstimatedLineHeight * 1.5) {
             System.out.printf("   -> EARLY MERGE: URL/path continuation detected (vGap=%.1f < %.1f)%n",
@@ -890,39 +751,25 @@ public class PdfLayoutAnalyzer {
 
         // === 2.3 PREVENT MERGING: 新章节/节标题开始 ===
         // 检查 B 是否是新的章节标题（如 "SECTION 2:", "GLOSSARY", "REFERENCES"）
-        String textB_early = getBlockText(b).trim();
-        boolean bIsNewSectionTitle = textB_early.matches("(?i)^SECTION\\s+\\d+.*")
-                || textB_early.matches("(?i)^GLOSSARY.*")
-                || textB_early.matches("(?i)^REFERENCES.*")
-                || textB_early.matches("(?i)^APPENDIX.*")
-                || textB_early.matches("(?i)^TABLE OF CONTENTS.*")
-                || textB_early.matches("(?i)^INDEX.*");
-        if (bIsNewSectionTitle)
+        if (featuresB.is(TextClassifier.SECTION_TITLE))
             return false;
 
         // === 2.4 PREVENT MERGING: 颜色不同 ===
         // 不同颜色的文本通常不属于同一段落（如蓝色标题 vs 黑色正文）
-        Element firstElemA = ((ElementGroup<Element>) a.group).getFirst();
-        Element firstElemB = ((ElementGroup<Element>) b.group).getFirst();
-        if (firstElemA != null && firstElemB != null) {
-            if (firstElemA.hasAttribute(Color.class) && firstElemB.hasAttribute(Color.class)) {
-                java.awt.Color colorA = firstElemA.getAttribute(Color.class).getValue();
-                java.awt.Color colorB = firstElemB.getAttribute(Color.class).getValue();
-                if (colorA != null && colorB != null && !colorA.equals(colorB)) {
-                    // 颜色不同，不合并
-                    return false;
-                }
-            }
+        java.awt.Color colorA = featuresA.getFirstColor();
+        java.awt.Color colorB = featuresB.getFirstColor();
+        if (colorA != null && colorB != null && !colorA.equals(colorB)) {
+            // 颜色不同，不合并
+            return false;
         }
 
         // === 2.45 PREVENT MERGING: B 是新的参考文献条目 ===
         // 参考文献检测必须在自然续行检测之前，否则会被错误合并
         // 检查 B 是否以参考文献开头模式开始，且 B 从左边距开始（不是缩进的续行）
-        String earlyTextB = getBlockText(b).trim();
         boolean bStartsFromLeftMargin = b.left < 80; // 从左边距开始
         boolean bIsIndentedContinuation = b.left > a.left + 10; // 明显缩进的续行
 
-        if (bStartsFromLeftMargin && !bIsIndentedContinuation && isReferenceEntry(earlyTextB)) {
+        if (bStartsFromLeftMargin && !bIsIndentedContinuation && featuresB.is(TextClassifier.REFERENCE_ENTRY)) {
             // B 是新的参考文献条目（从左边距开始），不应与 A 合并
             return false;
         }
@@ -942,7 +789,7 @@ public class PdfLayoutAnalyzer {
         // 如果上一行末尾还有足够空间容纳下一行的首单词，但却另起一行，说明是新段落
         // 使用 A 块的 lastLineRight（最后一行的右边界）而不是整个块的 right
         // 估算首单词宽度：取 B 的第一个单词长度 * 字符平均宽度（约 0.6 * 字体大小）
-        String textBForCheck = getBlockText(b).trim();
+        String textBForCheck = featuresB.getText();
         int firstWordLength = 0;
         for (int i = 0; i < textBForCheck.length() && i < 20; i++) {
             char c = textBForCheck.charAt(i);
@@ -967,22 +814,6 @@ public class PdfLayoutAnalyzer {
         boolean aIsHangingIndent = aIsIndented && a.firstLineLeft < a.left - 10;
         boolean bIsHangingIndent = bIsIndented && b.firstLineLeft < b.left - 10;
 
-        // 诊断：输出块的详细信息（简化版，只输出位置和文本）
-        if (vGap < 20) { // 只输出相邻的块对
-            String textA = getBlockText(a);
-            String textB = getBlockText(b);
-            String shortTextA = textA.length() > 80 ? textA.substring(0, 80) + "..." : textA;
-            String shortTextB = textB.length() > 80 ? textB.substring(0, 80) + "..." : textB;
-            
-            // System.out.printf("BLOCK PAIR: vGap=%.1f%n", vGap);
-            // System.out.printf("  A: L=%.1f R=%.1f T=%.1f B=%.1f W=%.1f H=%.1f | Text='%s'%n",
-            //         a.left, a.right, a.top, a.bottom, a.right - a.left, a.bottom - a.top, 
-            //         shortTextA.replace("\n", "↵").replace("\r", ""));
-            // System.out.printf("  B: L=%.1f R=%.1f T=%.1f B=%.1f W=%.1f H=%.1f | Text='%s'%n",
-            //         b.left, b.right, b.top, b.bottom, b.right - b.left, b.bottom - b.top, 
-            //         shortTextB.replace("\n", "↵").replace("\r", ""));
-        }
-
         // 如果两个块都是从缩进位置开始（如多行缩进段落），
         // 且它们的右边界都接近或超过最大右边界，
         // 则使用实际的最大右边界作为参考，而不是 Math.max(a.right, b.right)
@@ -1147,28 +978,15 @@ public class PdfLayoutAnalyzer {
             return true;
 
         // === 4. 特殊内容检测 ===
-        String textA = getBlockText(a).trim();
-        String textB = getBlockText(b).trim();
-
         // TOC 续行检测：目录条目可能跨多行
         // 特征：A 以章节编号开头（如 "2.2."）且没到达页面右边缘，B 是续行（可能带引导点号）
-        boolean isTocEntryStart = textA.matches("^\\d+\\.\\d*\\.?\\s+.*") || textA.matches("^[A-Z]\\.\\d+\\.?\\s+.*")
-                || textA.matches("^SECTION\\s+\\d+.*") || textA.matches("^GLOSSARY.*")
-                || textA.matches("^REFERENCES.*")
-                // Add FIGURE and TABLE as TOC entry starts
-                || textA.matches("^(?i)FIGURE\\s+\\d+.*") || textA.matches("^(?i)TABLE\\s+\\d+.*");
+        boolean isTocEntryStart = featuresA.is(TextClassifier.TOC_ENTRY_START);
 
         boolean aEndsNearRightEdge = a.right > a.pageWidth * 0.85;
 
-        // Update leader dots to include dashes "----" or "____"
-        boolean bHasLeaderDots = textB.contains("....") || textB.contains("…") || textB.contains("----")
-                || textB.contains("____");
+        boolean bHasLeaderDots = featuresB.is(TextClassifier.LEADER_DOTS);
 
-        boolean bStartsWithSectionNumber = textB.matches("^\\d+\\.\\d*\\.?\\s+.*")
-                || textB.matches("^[A-Z]\\.\\d+\\.?\\s+.*")
-                || textB.matches("^SECTION\\s+\\d+.*")
-                // Add FIGURE and TABLE checking for B as well
-                || textB.matches("^(?i)FIGURE\\s+\\d+.*") || textB.matches("^(?i)TABLE\\s+\\d+.*");
+        boolean bStartsWithSectionNumber = featuresB.is(TextClassifier.TOC_ENTRY_NUMBER);
 
         // 如果 A 是目录条目开头、没到右边缘、B 有引导点号且不是新条目、间距紧密 -> 合并为同一条目
         if (isTocEntryStart && !aEndsNearRightEdge && bHasLeaderDots && !bStartsWithSectionNumber && vGap < 8) {
@@ -1176,9 +994,7 @@ public class PdfLayoutAnalyzer {
         }
 
         // TOC: 两行都包含引导点号且都是独立条目 -> 不合并
-        boolean aHasLeaderDots = textA.contains("....") || textA.contains("…") || textA.contains("----")
-                || textA.contains("____");
-        if (aHasLeaderDots && bHasLeaderDots)
+        if (featuresA.is(TextClassifier.LEADER_DOTS) && bHasLeaderDots)
             return false;
 
         // TOC protection: If both look like TOC entries (start with explicit
@@ -1188,18 +1004,18 @@ public class PdfLayoutAnalyzer {
             return false;
 
         // 词汇表条目
-        if (isGlossaryEntry(textA) && isGlossaryEntry(textB))
+        if (featuresA.is(TextClassifier.GLOSSARY_ENTRY) && featuresB.is(TextClassifier.GLOSSARY_ENTRY))
             return false;
 
         // 定义词条检测 - "术语. 定义内容" 格式
         // 例如: "acceptance. Defined in DoDI 5000.64."
         // "amortization. The process of allocating..."
-        if (isDefinitionEntry(textA) && isDefinitionEntry(textB))
+        if (featuresA.is(TextClassifier.DEFINITION_ENTRY) && featuresB.is(TextClassifier.DEFINITION_ENTRY))
             return false;
 
         // 参考文献/引用条目检测 - 每个引用应该独立
         // 模式：以标准名称、机构名称、法规名称开头
-        if (isReferenceEntry(textA) && isReferenceEntry(textB))
+        if (featuresA.is(TextClassifier.REFERENCE_ENTRY) && featuresB.is(TextClassifier.REFERENCE_ENTRY))
             return false;
 
         // 右对齐窄块（页眉）
@@ -1211,24 +1027,8 @@ public class PdfLayoutAnalyzer {
         // === 5. 居中对齐检测（优先于样式检测）===
         // 居中标题可能有不同字体大小，但应该合并
         // 居中对齐的特征：左右边距相近且较大，内容宽度较窄
-        double leftMarginA = a.left;
-        double rightMarginA = a.pageWidth - a.right;
-        double leftMarginB = b.left;
-        double rightMarginB = b.pageWidth - b.right;
-        double widthA = a.right - a.left;
-        double widthB = b.right - b.left;
-
-        // 居中检测条件放宽：
-        // 条件1: 左右边距差异小于 15pt，且满足以下任一条件：
-        // a) 左边距大于 100pt（明显居中）
-        // b) 内容较短（< 40% 页宽，适合短标题）
-        // c) 左右边距都大于 60pt 且差异很小（< 5pt），适合宽标题
-        boolean aVerySymmetric = Math.abs(leftMarginA - rightMarginA) < 5 && leftMarginA > 60 && rightMarginA > 60;
-        boolean bVerySymmetric = Math.abs(leftMarginB - rightMarginB) < 5 && leftMarginB > 60 && rightMarginB > 60;
-        boolean aCentered = Math.abs(leftMarginA - rightMarginA) < 15
-                && (leftMarginA > 100 || widthA < a.pageWidth * 0.4 || aVerySymmetric);
-        boolean bCentered = Math.abs(leftMarginB - rightMarginB) < 15
-                && (leftMarginB > 100 || widthB < b.pageWidth * 0.4 || bVerySymmetric);
+        boolean aCentered = isCenteredBlock(a);
+        boolean bCentered = isCenteredBlock(b);
 
         // 如果两行都是居中的，且垂直间距很小，应该合并（如多行标题）
         // 这个检测优先于样式检测，因为居中标题可能有不同字体大小
@@ -1241,17 +1041,12 @@ public class PdfLayoutAnalyzer {
 
         // === 5.5 样式检测（对于非自然续行的内容）===
         // 注意：自然续行已在 Area 检查之前处理，这里仅处理剩余情况
-        Element firstA = ((ElementGroup<Element>) a.group).getFirst();
-        Element firstB = ((ElementGroup<Element>) b.group).getFirst();
-
-        if (firstA != null && firstB != null) {
-            if (firstA.hasAttribute(FontSize.class) && firstB.hasAttribute(FontSize.class)) {
-                double sizeA = firstA.getAttribute(FontSize.class).getValue().getMagnitude();
-                double sizeB = firstB.getAttribute(FontSize.class).getValue().getMagnitude();
-                if (Math.abs(sizeA - sizeB) > 1.2)
-                    return false;
-            }
-            if (isBold(firstA) != isBold(firstB))
+        if (featuresA.getFirstElement() != null && featuresB.getFirstElement() != null) {
+            double sizeA = featuresA.getFirstFontSize();
+            double sizeB = featuresB.getFirstFontSize();
+            if (!Double.isNaN(sizeA) && !Double.isNaN(sizeB) && Math.abs(sizeA - sizeB) > 1.2)
+                return false;
+            if (featuresA.isFirstBold() != featuresB.isFirstBold())
                 return false;
         }
 
@@ -1274,7 +1069,7 @@ public class PdfLayoutAnalyzer {
 
             // Check if A is a Technical Document ID (e.g. "NASA-HDBK-6003") which acts like
             // a list item header
-            boolean aIsTechnicalDocID = isTechnicalDocID(textA);
+            boolean aIsTechnicalDocID = featuresA.is(TextClassifier.TECHNICAL_DOC_ID);
 
             // 列表项续行条件：A是列表项或文档ID，B不是新列表项，且缩进差不超过50pt（典型悬挂缩进）
             boolean isListItemContinuation = (aIsListItem || aIsTechnicalDocID) && !bIsNewListItem
@@ -1316,7 +1111,7 @@ public class PdfLayoutAnalyzer {
         // 按 top 位置排序元素
         MutableList<Element> sortedElements = elements.toSortedListBy(e -> {
             if (e.hasAttribute(Top.class)) {
-                return e.getAttribute(Top.class).getMagnitude();
+                return e.getTopMagnitude();
             }
             return 0.0;
         });
@@ -1324,41 +1119,40 @@ public class PdfLayoutAnalyzer {
         MutableList<Element> currentGroup = Lists.mutable.empty();
         double lastBottom = -1;
         Element lastElem = null;
+        // 每个元素文本只分类一次，上一行和组首行复用已有结果
+        int lastClasses = 0;
+        int firstClasses = 0;
 
         for (Element elem : sortedElements) {
             String text = "";
             if (elem.hasAttribute(Text.class)) {
                 text = elem.getAttribute(Text.class).getValue().trim();
             }
+            int classes = TextClassifier.classify(text, TextClassifier.LIST_ITEM_START
+                    | TextClassifier.SECTION_NUMBER_START | TextClassifier.GLOSSARY_ENTRY_START
+                    | TextClassifier.DEFINITION_ENTRY);
 
-            double elemTop = elem.hasAttribute(Top.class) ? elem.getAttribute(Top.class).getMagnitude() : 0;
-            double elemLeft = elem.hasAttribute(Left.class) ? elem.getAttribute(Left.class).getMagnitude() : 0;
+            double elemTop = elem.hasAttribute(Top.class) ? elem.getTopMagnitude() : 0;
+            double elemLeft = elem.hasAttribute(Left.class) ? elem.getLeftMagnitude() : 0;
 
             boolean shouldSplit = false;
 
             if (!currentGroup.isEmpty() && lastElem != null && elemTop > lastBottom + 2) {
                 // 首先检测是否是列表项续行
                 // 列表项续行不应该被拆分，即使看起来像词汇表条目或样式变化
-                String lastText = "";
-                if (lastElem.hasAttribute(Text.class)) {
-                    lastText = lastElem.getAttribute(Text.class).getValue().trim();
-                }
-                boolean lastWasListItemStart = isListItemStart(lastText);
-                boolean currentIsListItemStart = isListItemStart(text);
+                boolean lastWasListItemStart = (lastClasses & TextClassifier.LIST_ITEM_START) != 0;
+                boolean currentIsListItemStart = (classes & TextClassifier.LIST_ITEM_START) != 0;
 
                 // 列表项续行：上一行是列表项开始，当前行不是新列表项
                 boolean isListItemContinuation = lastWasListItemStart && !currentIsListItemStart;
                 // 也考虑多行续行：当前组的第一个元素是列表项开始或章节编号开始
                 boolean groupStartsWithSection = false;
                 if (!currentGroup.isEmpty()) {
-                    Element firstInGroup = currentGroup.get(0);
-                    if (firstInGroup.hasAttribute(Text.class)) {
-                        String firstText = firstInGroup.getAttribute(Text.class).getValue().trim();
-                        // 检查是否以章节编号开始（如 E2.1., 6.1.2., 1.1.）
-                        groupStartsWithSection = isSectionNumberStart(firstText);
-                        if ((isListItemStart(firstText) || groupStartsWithSection) && !currentIsListItemStart) {
-                            isListItemContinuation = true;
-                        }
+                    // 检查是否以章节编号开始（如 E2.1., 6.1.2., 1.1.）
+                    groupStartsWithSection = (firstClasses & TextClassifier.SECTION_NUMBER_START) != 0;
+                    if ((firstClasses & (TextClassifier.LIST_ITEM_START | TextClassifier.SECTION_NUMBER_START)) != 0
+                            && !currentIsListItemStart) {
+                        isListItemContinuation = true;
                     }
                 }
 
@@ -1366,18 +1160,18 @@ public class PdfLayoutAnalyzer {
                 // 只在遇到新的列表项或章节编号时才拆分
                 if (!isListItemContinuation) {
                     // 检测是否是新的列表项开始
-                    if (isListItemStart(text)) {
+                    if (currentIsListItemStart) {
                         shouldSplit = true;
                     }
 
                     // 检测是否是新的词汇表/缩略语条目开始
                     // 但如果当前组是章节段落（以 E2.1. 等开头），不要因为缩写而拆分
-                    if (!groupStartsWithSection && isGlossaryEntryStart(text)) {
+                    if (!groupStartsWithSection && (classes & TextClassifier.GLOSSARY_ENTRY_START) != 0) {
                         shouldSplit = true;
                     }
 
                     // 检测是否是新的定义词条开始
-                    if (!groupStartsWithSection && isDefinitionEntry(text)) {
+                    if (!groupStartsWithSection && (classes & TextClassifier.DEFINITION_ENTRY) != 0) {
                         shouldSplit = true;
                     }
 
@@ -1403,7 +1197,7 @@ public class PdfLayoutAnalyzer {
                 }
 
                 // 检测水平位置大幅变化（如右对齐页眉 -> 居中标题）
-                double lastLeft = lastElem.hasAttribute(Left.class) ? lastElem.getAttribute(Left.class).getMagnitude()
+                double lastLeft = lastElem.hasAttribute(Left.class) ? lastElem.getLeftMagnitude()
                         : 0;
                 if (Math.abs(lastLeft - elemLeft) > 100) {
                     shouldSplit = true;
@@ -1418,12 +1212,16 @@ public class PdfLayoutAnalyzer {
                 }
             }
 
+            if (currentGroup.isEmpty()) {
+                firstClasses = classes;
+            }
             currentGroup.add(elem);
             lastElem = elem;
+            lastClasses = classes;
 
             // 更新 lastBottom
             if (elem.hasAttribute(Top.class) && elem.hasAttribute(Height.class)) {
-                double bottom = elemTop + elem.getAttribute(Height.class).getMagnitude();
+                double bottom = elemTop + elem.getHeightMagnitude();
                 if (bottom > lastBottom)
                     lastBottom = bottom;
             } else if (elem.hasAttribute(Top.class)) {
@@ -1455,238 +1253,12 @@ public class PdfLayoutAnalyzer {
         return false;
     }
 
-    private boolean isListItemStart(String text) {
-        if (text == null || text.isEmpty())
-            return false;
-
-        // 检测括号标记，但要排除缩写和引用续行
-        if ((text.startsWith("(") || text.startsWith("（")) && text.length() >= 3) {
-            int closeIdx = text.indexOf(')');
-            if (closeIdx == -1)
-                closeIdx = text.indexOf('）');
-            if (closeIdx > 1 && closeIdx < 10) {
-                // 关键检查：如果紧跟着另一个右括号，这是引用续行如 "(k)), the..."
-                // 这种情况出现在 "Reference (k)" 换行后变成 "(k)), ..."
-                if (closeIdx + 1 < text.length()) {
-                    char nextChar = text.charAt(closeIdx + 1);
-                    if (nextChar == ')' || nextChar == '）') {
-                        // 这是引用标记的结尾，不是列表项
-                        return false;
-                    }
-                }
-
-                String inside = text.substring(1, closeIdx);
-                // 纯数字 (1), (10), (99)
-                if (inside.matches("\\d{1,3}"))
-                    return true;
-                // 单个字母 (a), (b), (A), (B)
-                if (inside.matches("[a-zA-Z]"))
-                    return true;
-                // 罗马数字 (i), (ii), (iii), (iv), (v), (vi), (vii), (viii), (ix), (x), (xi), (xii)
-                if (inside.matches("(?i)^(i{1,3}|iv|v|vi{0,3}|ix|x|xi{0,2})$"))
-                    return true;
-                // 数字+字母组合 (1a), (2b)
-                if (inside.matches("\\d+[a-zA-Z]"))
-                    return true;
-                // 排除：两个或更多大写字母的缩写 (IT), (IUS), (DoD), (CFO)
-                // 这些不是列表标记，不要在这里返回 true
-            }
-        }
-
-        // 匹配 a., b., 1., 2. 等点号列表标记
-        if (text.matches("^[a-zA-Z0-9][\\.\\.、].*"))
-            return true;
-        // 匹配多级章节编号：E2.1., 6.1.2., 1.1., A1.2. 等
-        // 格式：可选字母 + 数字 + (点 + 数字)* + 点
-        if (text.matches("^[A-Za-z]?\\d+(\\.\\d+)*\\.\\s+.*"))
-            return true;
-        // 匹配 • - * 等符号列表标记
-        if (text.startsWith("•") || text.startsWith("-") || text.startsWith("*"))
-            return true;
-        return false;
-    }
-
-    /**
-     * 检测文本是否以多级章节编号开头
-     * 如：E2.1., 6.1.2., 1.1., A1.2., 2.1. 等
-     */
-    private boolean isSectionNumberStart(String text) {
-        if (text == null || text.length() < 3)
-            return false;
-        // 格式：可选字母 + 数字 + (点 + 数字)+ + 点 + 空格
-        // 匹配：E2.1. xxx, 6.1.2. xxx, 1.1. xxx, A1.2. xxx
-        return text.matches("^[A-Za-z]?\\d+(\\.\\d+)+\\.\\s+.*");
-    }
-
-    private boolean isGlossaryEntry(String text) {
-        if (text == null || text.length() < 3)
-            return false;
-
-        // 模式1：以大写缩写开头（2-15个字符，包含括号、斜杠等），后跟空格和任意文字
-        if (text.matches("^[A-Z][A-Z0-9\\.\\(\\)&/]{0,14}\\s+[A-Za-z].*"))
-            return true;
-
-        // 模式2：以小写+大写混合缩写开头，后跟空格（如 iRAPT, DoDI, DoDM）
-        if (text.matches("^[a-zA-Z]{2,10}\\s+[A-Z][a-z].*"))
-            return true;
-
-        return false;
-    }
-
-    private boolean isGlossaryEntryStart(String text) {
-        if (text == null || text.length() < 3)
-            return false;
-
-        // 获取第一个"单词"（空格前的部分）
-        String[] parts = text.split("\\s+", 2);
-        if (parts.length < 2)
-            return false; // 需要有缩写和定义
-
-        String abbr = parts[0];
-        String definition = parts[1];
-
-        // 定义部分需要以字母开头（排除纯数字等情况）
-        if (!definition.matches("^[A-Za-z].*"))
-            return false;
-
-        // 纯大写缩写 (2-15字符，包含可能的括号和斜杠)
-        if (abbr.matches("^[A-Z][A-Z0-9\\.\\(\\)&/]{0,14}$")) {
-            return true;
-        }
-
-        // 混合大小写缩写 (含至少一个大写，2-12字符)
-        if (abbr.matches("^[A-Za-z][A-Za-z0-9\\-]{1,11}$") && abbr.matches(".*[A-Z].*")) {
-            return true;
-        }
-
-        // 带括号/斜杠的缩写 USD(A&S), USD(C)/CFO
-        if (abbr.matches("^[A-Z]{2,6}\\([A-Za-z&/]+\\)(/[A-Z]+)?$")) {
-            return true;
-        }
-
-        return false;
-    }
-
-    private boolean isReferenceEntry(String text) {
-        if (text == null || text.length() < 10)
-            return false;
-
-        // 常见的参考文献开头模式
-        String[] referencePatterns = {
-                "^ASTM\\s+", // ASTM International...
-                "^DoD\\s+Directive", // DoD Directive 5134.01...
-                "^DoD\\s+Instruction", // DoD Instruction 4140.01...
-                "^DoD\\s+Manual", // DoD Manual 4100.39...
-                "^DoD\\s+\\d", // DoD 5220.22-M, DoD 7000.14-R...
-                "^Defense\\s+Federal", // Defense Federal Acquisition...
-                "^Deputy\\s+Secretary", // Deputy Secretary of Defense...
-                "^Section\\s+\\d", // Section 503 of Title 40...
-                "^Title\\s+\\d", // Title 40, United States Code
-                "^Public\\s+Law", // Public Law 115-91...
-                "^Executive\\s+Order", // Executive Order 13514...
-                "^OMB\\s+", // OMB Circular A-123...
-                "^\\d+\\s+U\\.?S\\.?C", // 10 U.S.C., 31 USC...
-        };
-
-        for (String pattern : referencePatterns) {
-            if (text.matches("(?i)" + pattern + ".*"))
-                return true;
-        }
-
-        return false;
-    }
-
-    private boolean isTechnicalDocID(String text) {
-        if (text == null || text.length() < 5)
-            return false;
-        // Matches typical document IDs: NASA-*, MIL-*, DoD *, ANSI/..., ISO ...
-        return text.matches("^(?i)(NASA|MIL|DoD|ANSI|ISO|ASTM|IEEE|SAE)[-\\s].*") ||
-                text.matches("^[A-Z]{2,}-\\w+-\\d+.*") || // General pattern like AB-CDE-123
-                text.matches("^\\d+\\.\\d+\\s+.*"); // Section numbers like 2.3
-    }
-
-    private boolean isDefinitionEntry(String text) {
-        if (text == null || text.length() < 5)
-            return false;
-
-        // 模式1: 小写开头的术语 + . + 定义文字
-        if (text.matches("^[a-z][a-z\\s\\-]+\\.\\s{1,3}[A-Z].*"))
-            return true;
-
-        // 模式2: 带有专有名词的术语（如 "capitalized IUS"）
-        if (text.matches("^[a-z][a-z\\s\\-]*[A-Z]+[a-zA-Z]*\\.\\s{1,3}[A-Z].*"))
-            return true;
-
-        // 模式3: 大写缩写开头但后面是小写描述词的术语
-        if (text.matches("^[A-Z]{2,6}\\.\\s{1,3}(Defined|See|As defined).*"))
-            return true;
-
-        // 模式4: 专有名词开头的定义（如机构名称）
-        if (text.matches("^[A-Z][a-zA-Z\\s]+\\.\\s{1,3}(The|A|An|See|As|Services).*"))
-            return true;
-
-        return false;
-    }
-
     private boolean isStandaloneBullet(LayoutEntity e) {
         return (e.right - e.left) < 30 && startsWithBullet(e);
     }
 
     private boolean startsWithBullet(LayoutEntity e) {
-        String text = getBlockText(e).trim();
-        if (text.isEmpty())
-            return false;
-        char first = text.charAt(0);
-        // Common bullets: •, -, *
-        if (first == '•' || first == '-' || first == '*')
-            return true;
-
-        // Pattern: (x) or (xx) - 括号包围的短标记（1-2个字符，如 (a), (1), (10)）
-        // 不匹配缩写词如 (PPBS), (GIG), (USD(I)) 等
-        // 支持中英文括号
-        if ((first == '(' || first == '（') && text.length() >= 3) {
-            int closeIdx = text.indexOf(')');
-            if (closeIdx == -1)
-                closeIdx = text.indexOf('）');
-            if (closeIdx > 1 && closeIdx <= 4) { // 最多3个字符在括号内，如 (10), (aa)
-                // 排除引用续行：如 "(k)), the..." 是 "Reference (k)" 换行后的续行
-                // 这种情况第一个右括号后面紧跟另一个右括号
-                if (closeIdx + 1 < text.length()) {
-                    char nextChar = text.charAt(closeIdx + 1);
-                    if (nextChar == ')' || nextChar == '）') {
-                        // 这是引用标记的结尾，不是列表项
-                        return false;
-                    }
-                }
-
-                String inside = text.substring(1, closeIdx);
-                // 只匹配：单个字母、单个数字、或最多2位数字
-                if (inside.matches("[a-zA-Z]|\\d{1,2}")) {
-                    return true;
-                }
-            }
-        }
-
-        // Pattern: a. or 1. or a) or 一、 - 单字符或中文数字后跟标点
-        if (text.length() >= 2 && (Character.isLetterOrDigit(first) || isChinese(first))) {
-            char second = text.charAt(1);
-            if (second == '.' || second == ')' || second == '。' || second == '、' || second == '．') {
-                return true;
-            }
-            // 多位数字后跟点号，如 "10." "12."
-            if (Character.isDigit(first) && text.length() >= 3) {
-                int dotIdx = text.indexOf('.');
-                if (dotIdx > 0 && dotIdx < 4 && text.substring(0, dotIdx).matches("\\d+")) {
-                    return true;
-                }
-            }
-        }
-
-        return false;
-    }
-
-    private boolean isChinese(char c) {
-        return c >= '\u4e00' && c <= '\u9fff';
+        return getFeatures(e).is(TextClassifier.BULLET_START);
     }
 
     private boolean isBold(Element e) {
@@ -1700,49 +1272,32 @@ public class PdfLayoutAnalyzer {
         return target.left >= bullet.right - 15 && target.left < bullet.right + 50;
     }
 
-    /**
-     * 计算页面中所有文本元素的最大右边界
-     * 用于约束合并判断（"有空间但没放"）和翻译输出
-     */
-    private double calculateMaxRightBoundary(Page page, List<Element> allElements) {
-        double maxRight = 0;
-
-        // 从所有元素中获取最大右边界
-        for (Element element : allElements) {
-            if (element.hasAttribute(Left.class) && element.hasAttribute(Width.class)) {
-                double left = element.getAttribute(Left.class).getMagnitude();
-                double width = element.getAttribute(Width.class).getMagnitude();
-                double right = left + width;
-                if (right > maxRight) {
-                    maxRight = right;
-                }
-            }
-        }
 
-        // 如果没有找到元素，返回页面宽度的92%作为默认值
-        if (maxRight == 0) {
-            double pageWidth = page.getAttribute(Width.class).getValue().getMagnitude();
-            maxRight = pageWidth * 0.92;
-        }
-
-        return maxRight;
-    }
-
-    private LayoutEntity merge(LayoutEntity a, LayoutEntity b) {
-        MutableList<Element> allElems = Lists.mutable.ofAll(((ElementGroup<Element>) a.group).getElements());
-        allElems.addAllIterable(((ElementGroup<Element>) b.group).getElements());
+    LayoutEntity merge(LayoutEntity a, LayoutEntity b) {
+        MutableList<Element> elemsA = ((ElementGroup<Element>) a.group).getElements();
+        MutableList<Element> elemsB = ((ElementGroup<Element>) b.group).getElements();
+        MutableList<Element> allElems = Lists.mutable.ofAll(elemsA);
+        allElems.addAllIterable(elemsB);
         // Sort elements to ensure text flow is Top-to-Bottom, then Left-to-Right
         allElems.sortThis((e1, e2) -> {
-            double t1 = e1.getAttribute(Top.class).getMagnitude();
-            double t2 = e2.getAttribute(Top.class).getMagnitude();
+            double t1 = e1.getTopMagnitude();
+            double t2 = e2.getTopMagnitude();
             if (Math.abs(t1 - t2) < 5)
-                return Double.compare(e1.getAttribute(Left.class).getMagnitude(),
-                        e2.getAttribute(Left.class).getMagnitude());
+                return Double.compare(e1.getLeftMagnitude(),
+                        e2.getLeftMagnitude());
             return Double.compare(t1, t2);
         });
 
         // 创建合并后的LayoutEntity
-        LayoutEntity merged = new LayoutEntity(new ElementGroup<>(allElems), a.pageWidth, a.pageHeight);
+        ElementGroup<Element> mergedGroup = new ElementGroup<>(allElems);
+        LayoutEntity merged = new LayoutEntity(mergedGroup, a.pageWidth, a.pageHeight);
+
+        // 元素顺序为 A 后接 B 时，由两块已缓存的特征直接拼接出合并块的特征
+        if (BlockFeatures.isConcatenation(allElems, elemsA, elemsB)) {
+            BlockFeatures features = BlockFeatures.concat(getFeatures(a), getFeatures(b), mergedGroup,
+                    isCenteredBlock(merged));
+            merged.setFeatures(features);
+        }
 
         // 关键修复：正确设置lastLineRight为两个原始块的lastLineRight的最大值
         // 因为LayoutEntity的构造函数会重新计算lastLineRight，只取最后一行，
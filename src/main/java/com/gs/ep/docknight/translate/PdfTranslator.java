@@ -18,10 +18,14 @@ import com.gs.ep.docknight.model.attribute.Text;
 import com.gs.ep.docknight.model.attribute.FontSize;
 import com.gs.ep.docknight.model.attribute.TextStyles;
 
+import com.gs.ep.docknight.model.ModelCustomizations;
+import com.gs.ep.docknight.model.converter.ParsedDocumentCache;
 import com.gs.ep.docknight.model.converter.PdfParser;
 import com.gs.ep.docknight.model.element.Document;
 import com.gs.ep.docknight.model.element.Page;
 import com.gs.ep.docknight.model.element.TextElement;
+import com.gs.ep.docknight.model.renderer.PdfRenderer;
+import com.gs.ep.docknight.model.renderer.TextMeasurer;
 import com.gs.ep.docknight.model.transformer.PositionalTextGroupingTransformer;
 
 import org.eclipse.collections.impl.factory.Lists;
@@ -45,16 +49,15 @@ public class PdfTranslator {
     private final SiliconFlowClient translationClient;
     private final PdfParser pdfParser;
     private final PdfLayoutAnalyzer layoutAnalyzer = new PdfLayoutAnalyzer();
+    private final ModelCustomizations groupingCustomizations = new ModelCustomizations();
     private final PositionalTextGroupingTransformer groupingTransformer;
+    // 解析并分组后的文档缓存，同一 PDF 重复提交或翻译成多种语言时跳过解析；为 null 时不缓存
+    private final ParsedDocumentCache parsedDocumentCache;
+    // 使用与 PdfRenderer 相同的字体测量译文，布局时即可得到渲染后的行数和高度
+    private final TextMeasurer textMeasurer;
 
     // Compiled Regex Patterns for Performance
-    private static final Pattern LIST_ITEM_PATTERN_1 = Pattern
-            .compile("(?s)^[\\(（\\[【][a-zA-Z0-9一二三四五六七八九十]{1,4}[\\)）\\]】]\\s*.*");
-    private static final Pattern LIST_ITEM_PATTERN_2 = Pattern.compile("(?s)^[a-zA-Z0-9一二三四五六七八九十]{1,4}[\\.、．]\\s*.*");
     private static final Pattern SECTION_TITLE_PATTERN = Pattern.compile("(?s)^第\\d+节[:：]?\\s*[^.…]*$");
-    private static final Pattern LEVEL_1_PATTERN = Pattern
-            .compile("(?s)^([a-zA-Z][\\.\\.、]|•|-|[一二三四五六七八九十]+[、．.])\\s*.*");
-    private static final Pattern LEVEL_2_PATTERN = Pattern.compile("(?s)^[\\(（][a-zA-Z0-9]+[\\)）]\\s*.*");
     private static final Pattern LABEL_PATTERN = Pattern.compile("(?s)^[A-Z][a-zA-Z]*:\\s+.*");
     private static final Pattern TOC_DOTS_PATTERN = Pattern.compile(".*\\.{4,}.*");
     private static final Pattern DOC_ID_PATTERN = Pattern.compile("(?s)^[A-Z0-9]+[-][A-Z0-9]+.*");
@@ -67,17 +70,40 @@ public class PdfTranslator {
             "YEAR", "MONTH", "DAY", "HOUR", "MINUTE", "SECOND"));
 
     public PdfTranslator(SiliconFlowClient translationClient) {
+        this(translationClient, PdfRenderer.DEFAULT_FONTS_DIR);
+    }
+
+    /**
+     * @param fontsDir 渲染译文所用的字体目录，应与 PdfRenderer 一致
+     */
+    public PdfTranslator(SiliconFlowClient translationClient, String fontsDir) {
+        this(translationClient, fontsDir, null);
+    }
+
+    /**
+     * @param fontsDir 渲染译文所用的字体目录，应与 PdfRenderer 一致
+     * @param parsedDocumentCache 解析结果缓存，为 null 时每次都重新解析
+     */
+    public PdfTranslator(SiliconFlowClient translationClient, String fontsDir,
+            ParsedDocumentCache parsedDocumentCache) {
         this.translationClient = translationClient;
         this.pdfParser = new PdfParser();
-        this.groupingTransformer = new PositionalTextGroupingTransformer();
+        this.groupingTransformer = new PositionalTextGroupingTransformer(groupingCustomizations);
+        this.textMeasurer = TextMeasurer.of(fontsDir);
+        this.parsedDocumentCache = parsedDocumentCache;
     }
 
     public Document translate(InputStream pdfStream, String targetLanguage) throws Exception {
-        // 1. Parse PDF to Document model
-        Document document = pdfParser.parse(pdfStream);
-
-        // 2. Group elements into paragraphs and tables
-        document = groupingTransformer.transform(document);
+        // 1-2. Parse PDF to Document model and group elements into paragraphs and tables
+        Document document;
+        if (parsedDocumentCache == null) {
+            document = parseAndGroup(pdfStream);
+        } else {
+            // 缓存键包含解析和分组的设置，设置改变后不会命中旧的解析结果
+            String settingsFingerprint = pdfParser.getParserSettings().getFingerprint() + "|"
+                    + groupingCustomizations.getFingerprint();
+            document = parsedDocumentCache.get(pdfStream, settingsFingerprint, this::parseAndGroup);
+        }
 
         // 3. 清除上一文档的上下文，设置新文档的上下文
         translationClient.clearContext();
@@ -95,6 +121,10 @@ public class PdfTranslator {
         return document;
     }
 
+    private Document parseAndGroup(InputStream pdfStream) throws Exception {
+        return groupingTransformer.transform(pdfParser.parse(pdfStream));
+    }
+
     /**
      * 从文档中提取上下文信息（标题、主题等）
      */
@@ -149,9 +179,10 @@ public class PdfTranslator {
         List<LayoutEntity> consolidated = layoutAnalyzer.analyzePage(page);
 
         // Check for multi-column to pass to applyParagraphTranslation and logging
+        // 双栏检测结果已在 analyzePage 中计算并缓存在页面布局特征上
         double pageWidth = page.getAttribute(Width.class).getValue().getMagnitude();
         double pageHeight = page.getAttribute(Height.class).getValue().getMagnitude();
-        boolean multiColumn = layoutAnalyzer.detectMultiColumn(consolidated, pageWidth, pageHeight);
+        boolean multiColumn = PageLayoutProfile.of(page).getMultiColumn();
 
         // 计算页面中所有文本元素的最大右边界
         // 确保翻译输出不超过这个边界，避免超出原始文本区域
@@ -346,8 +377,11 @@ public class PdfTranslator {
         // 同时支持中英文标点：() 和 （）, [] 和 【】
         // 注意：中文括号后可能没有空格，如 "（2）遵守..."
         String trimmedTranslatedText = translatedText.trim();
-        boolean isListItem = LIST_ITEM_PATTERN_1.matcher(trimmedTranslatedText).matches() // (1) 或 （1）
-                || LIST_ITEM_PATTERN_2.matcher(trimmedTranslatedText).matches() // 1. 或 一、
+        int listMarkerClasses = TextClassifier.classify(trimmedTranslatedText,
+                TextClassifier.BRACKETED_LIST_MARKER | TextClassifier.NUMBERED_LIST_MARKER
+                        | TextClassifier.LEVEL_1_LIST_MARKER | TextClassifier.LEVEL_2_LIST_MARKER);
+        boolean isListItem = (listMarkerClasses & TextClassifier.BRACKETED_LIST_MARKER) != 0 // (1) 或 （1）
+                || (listMarkerClasses & TextClassifier.NUMBERED_LIST_MARKER) != 0 // 1. 或 一、
                 || trimmedTranslatedText.startsWith("•")
                 || trimmedTranslatedText.startsWith("-")
                 || trimmedTranslatedText.startsWith("*");
@@ -413,9 +447,8 @@ public class PdfTranslator {
         // Level 1: a. | A. | • | - | 一、| 二、 -> 一级列表项
         // Level 2: (1) | (a) | （1）| （2） -> 二级列表项
         // 使用 (?s) 让 .* 匹配多行文本，支持中英文标点
-        String trimmedText = translatedText.trim();
-        boolean isLevel1 = LEVEL_1_PATTERN.matcher(trimmedText).matches();
-        boolean isLevel2 = LEVEL_2_PATTERN.matcher(trimmedText).matches();
+        boolean isLevel1 = (listMarkerClasses & TextClassifier.LEVEL_1_LIST_MARKER) != 0;
+        boolean isLevel2 = (listMarkerClasses & TextClassifier.LEVEL_2_LIST_MARKER) != 0;
         boolean isHierarchicalListItem = isLevel1 || isLevel2;
 
         // Adjust boundaries for clean layout
@@ -477,22 +510,17 @@ public class PdfTranslator {
         if (textElement != null && textElement.hasAttribute(FontSize.class)) {
             estimatedFontSize = textElement.getAttribute(FontSize.class).getMagnitude();
         }
+        // 渲染时使用的字体大小，译文宽度和高度按渲染字体实际测量
+        float renderFontSize = TextMeasurer.getRenderFontSize(estimatedFontSize);
+        double translatedWidth = textMeasurer.getMaxLineWidth(translatedText, isBold(textElement), renderFontSize);
 
         {
             if (isCentered) {
                 // 居中内容：手动计算居中位置，不依赖 TextAlign.CENTRE 自动定位
                 // 因为渲染器可能忽略 TextAlign 导致直接左对齐显示
 
-                // 1. 估算所需宽度
-                double avgCharWidth = estimatedFontSize * 0.9; // 中英文混合估算
-                // 找出最长的一行
-                String[] lines = translatedText.split("\n");
-                int maxLineLength = 0;
-                for (String line : lines) {
-                    if (line.length() > maxLineLength)
-                        maxLineLength = line.length();
-                }
-                double neededWidth = maxLineLength * avgCharWidth + 20; // +20 padding
+                // 1. 所需宽度：最长一行的实际宽度
+                double neededWidth = translatedWidth + 20; // +20 padding
 
                 // 2. 保持原始中心点，或者如果原始也不居中则使用页面中心
                 // 但通常 isCentered=true 意味着原始是视觉居中的
@@ -512,10 +540,7 @@ public class PdfTranslator {
 
             } else if (isRightAligned) {
                 // 右对齐内容：向左扩展宽度以避免折行，但保持右边界
-                // 估算翻译后文本需要的宽度（中文字符宽度约等于字体大小）
-                // 中文字符宽度接近字体大小，英文约为 0.5-0.6 倍
-                // 对于混合文本，使用 0.9 作为平均系数，并加一些余量
-                double neededWidth = translatedText.length() * estimatedFontSize * 0.9 + 20;
+                double neededWidth = translatedWidth + 20;
                 double currentWidth = right - left;
 
                 if (neededWidth > currentWidth) {
@@ -529,7 +554,7 @@ public class PdfTranslator {
                 // 这种情况通常是标题行的一部分，与其他内容并排
                 // 不扩展右边界，保持原始宽度
                 // 只确保有足够宽度容纳翻译后的文本
-                double neededWidth = translatedText.length() * estimatedFontSize * 0.8 + 10;
+                double neededWidth = translatedWidth + 10;
                 if (neededWidth > originalWidth) {
                     // 需要更多宽度，适度扩展但不要太过
                     // 约束在最大右边界内
@@ -677,15 +702,15 @@ public class PdfTranslator {
             // 紧凑单行项：只做最小高度扩展，避免覆盖下方相邻项
             height = Math.max(originalHeight + 5, lineHeight);
         } else {
-            // 普通段落：估算需要的行数
-            // 注意：中文字符宽度约等于字体大小，比英文宽
-            boolean hasChinese = translatedText.matches(".*[\\u4e00-\\u9fa5].*");
-            double avgCharWidth = hasChinese ? estimatedFontSize * 1.0 : estimatedFontSize * 0.6;
-            int estimatedCharsPerLine = Math.max(1, (int) (width / avgCharWidth));
-            int estimatedLines = Math.max(1, (int) Math.ceil((double) translatedText.length() / estimatedCharsPerLine));
+            // 普通段落：按渲染字体断行得到实际行数和高度（首行缩进与渲染时一致）
+            float firstLineIndent = !isCentered && !isRightAligned && calculatedFirstLineIndent > 2.0
+                    ? (float) calculatedFirstLineIndent : 0;
+            List<String> renderedLines = textMeasurer.breakLines(translatedText, isBold(textElement),
+                    renderFontSize, (float) width - firstLineIndent, (float) width);
+            int estimatedLines = Math.max(1, renderedLines.size());
 
-            // 计算估算高度
-            double estimatedHeight = estimatedLines * lineHeight + 5;
+            // 计算实际高度
+            double estimatedHeight = estimatedLines * (renderFontSize * TextMeasurer.LINE_HEIGHT_FACTOR) + 5;
 
             // 对于列表项，平衡空间利用和避免覆盖
             if (isListItem) {
@@ -1278,7 +1303,7 @@ public class PdfTranslator {
         // User examples: 2D, ADC, AFJI, AFMAN, AIT, AR, ARS, ANSI
         // Regex: Start, 1-6 chars from [A-Z0-9.\-], End.
         // Added '.' and '-' to allow "U.S." or "MIL-S" if short enough.
-        if (trimmed.matches("^[A-Z0-9\\.\\-]{1,6}$")) {
+        if (TextClassifier.is(trimmed, TextClassifier.SHORT_UPPERCASE_TOKEN)) {
             // Check allow-list for common words that SHOULD be translated even if uppercase
             if (TRANSLATABLE_UPPERCASE_WORDS.contains(trimmed)) {
                 return false;
@@ -0,0 +1,563 @@
+package com.gs.ep.docknight.translate;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Classifies block and line texts (list markers, section numbers, glossary, definition and
+ * reference entries, document IDs) in one call.
+ *
+ * <p>
+ * 列表编号、括号标记等前缀由手写扫描器识别；其余模式预编译，并按首字符预先过滤。
+ * 未开启 DOTALL 的模式中 ".*" 不能跨越换行，因此先定位最后一个行终止符，
+ * 前缀检测只需比较前缀结束位置即可，结果与原正则逐一匹配完全一致。
+ * </p>
+ */
+final class TextClassifier {
+
+    // === PdfLayoutAnalyzer 使用的分类（".*" 不跨行）===
+    static final int LIST_ITEM_START = 1;
+    static final int SECTION_NUMBER_START = 1 << 1;
+    static final int BULLET_START = 1 << 2;
+    static final int GLOSSARY_ENTRY = 1 << 3;
+    static final int GLOSSARY_ENTRY_START = 1 << 4;
+    static final int DEFINITION_ENTRY = 1 << 5;
+    static final int REFERENCE_ENTRY = 1 << 6;
+    static final int TECHNICAL_DOC_ID = 1 << 7;
+
+    // === PdfTranslator 使用的分类（DOTALL，只看前缀）===
+    // (1) 或 （1） 或 [a] 或 【一】
+    static final int BRACKETED_LIST_MARKER = 1 << 8;
+    // 1. 或 一、
+    static final int NUMBERED_LIST_MARKER = 1 << 9;
+    // a. | • | - | 一、 -> 一级列表项
+    static final int LEVEL_1_LIST_MARKER = 1 << 10;
+    // (1) | (a) | （1） -> 二级列表项
+    static final int LEVEL_2_LIST_MARKER = 1 << 11;
+    // 1-6 个大写字母、数字、点号或连字符，如 AM, 2D, AFJI, U.S.
+    static final int SHORT_UPPERCASE_TOKEN = 1 << 12;
+
+    // === 块合并判断使用的分类 ===
+    // 目录条目开头，如 "2.2. Scope", "SECTION 2", "GLOSSARY", "FIGURE 3"
+    static final int TOC_ENTRY_START = 1 << 13;
+    // 以章节编号、FIGURE 或 TABLE 编号开头的目录条目
+    static final int TOC_ENTRY_NUMBER = 1 << 14;
+    // 新的章节标题，如 "SECTION 2:", "GLOSSARY", "REFERENCES", "APPENDIX"
+    static final int SECTION_TITLE = 1 << 15;
+    // 目录引导点号 "....", "…", "----", "____"
+    static final int LEADER_DOTS = 1 << 16;
+    // URL 续行检测：*_TAIL 只看最后 30 个字符，*_HEAD 只看前 20 个字符
+    static final int URL_PART = 1 << 17;
+    static final int URL_PART_TAIL = 1 << 18;
+    static final int URL_DOMAIN_PERIOD_TAIL = 1 << 19;
+    static final int URL_BREAK_WORD_TAIL = 1 << 20;
+    static final int SLASH_OR_HYPHEN_TAIL = 1 << 21;
+    static final int URL_EXTENSION_HEAD = 1 << 22;
+    static final int PATH_HEAD = 1 << 23;
+    static final int URL_PROTOCOL_HEAD = 1 << 24;
+    static final int SENTENCE_CAP_HEAD = 1 << 25;
+
+    static final int ALL = (1 << 26) - 1;
+
+    private static final int URL_TAIL_CLASSES = URL_PART_TAIL | URL_DOMAIN_PERIOD_TAIL | URL_BREAK_WORD_TAIL
+            | SLASH_OR_HYPHEN_TAIL;
+    private static final int URL_HEAD_CLASSES = URL_EXTENSION_HEAD | PATH_HEAD | URL_PROTOCOL_HEAD
+            | SENTENCE_CAP_HEAD;
+    private static final String[] URL_TAIL_MARKERS = {
+            ".mil/", ".com/", ".gov/", ".org/", ".net/", "acq.osd.mil", "dodprocurementtoolbox.com", "dla.mil",
+            "/log/sci/", "/downloads/", "http://", "www."
+    };
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern GLOSSARY_ABBREVIATION_ENTRY = Pattern.compile(
+            "[A-Z][A-Z0-9\\.\\(\\)&/]{0,14}\\s+[A-Za-z].*");
+    private static final Pattern GLOSSARY_MIXED_CASE_ENTRY = Pattern.compile("[a-zA-Z]{2,10}\\s+[A-Z][a-z].*");
+    private static final Pattern GLOSSARY_DEFINITION = Pattern.compile("[A-Za-z].*");
+    private static final Pattern GLOSSARY_UPPERCASE_ABBREVIATION = Pattern.compile("[A-Z][A-Z0-9\\.\\(\\)&/]{0,14}");
+    private static final Pattern GLOSSARY_MIXED_CASE_ABBREVIATION = Pattern.compile("[A-Za-z][A-Za-z0-9\\-]{1,11}");
+    private static final Pattern GLOSSARY_COMPOUND_ABBREVIATION = Pattern.compile(
+            "[A-Z]{2,6}\\([A-Za-z&/]+\\)(/[A-Z]+)?");
+    private static final Pattern REFERENCE_ENTRY_PATTERN = Pattern.compile("(?i)(?:"
+            + "ASTM\\s+" // ASTM International...
+            + "|DoD\\s+Directive" // DoD Directive 5134.01...
+            + "|DoD\\s+Instruction" // DoD Instruction 4140.01...
+            + "|DoD\\s+Manual" // DoD Manual 4100.39...
+            + "|DoD\\s+\\d" // DoD 5220.22-M, DoD 7000.14-R...
+            + "|Defense\\s+Federal" // Defense Federal Acquisition...
+            + "|Deputy\\s+Secretary" // Deputy Secretary of Defense...
+            + "|Section\\s+\\d" // Section 503 of Title 40...
+            + "|Title\\s+\\d" // Title 40, United States Code
+            + "|Public\\s+Law" // Public Law 115-91...
+            + "|Executive\\s+Order" // Executive Order 13514...
+            + "|OMB\\s+" // OMB Circular A-123...
+            + "|\\d+\\s+U\\.?S\\.?C" // 10 U.S.C., 31 USC...
+            + ").*");
+    private static final Pattern TECHNICAL_DOC_ID_PATTERN = Pattern.compile("(?:"
+            // Matches typical document IDs: NASA-*, MIL-*, DoD *, ANSI/..., ISO ...
+            + "(?i:NASA|MIL|DoD|ANSI|ISO|ASTM|IEEE|SAE)[-\\s]"
+            // General pattern like AB-CDE-123
+            + "|[A-Z]{2,}-\\w+-\\d+"
+            // Section numbers like 2.3
+            + "|\\d+\\.\\d+\\s+"
+            + ").*");
+    private static final Pattern DEFINITION_ENTRY_PATTERN = Pattern.compile("(?:"
+            // 模式1: 小写开头的术语 + . + 定义文字
+            + "[a-z][a-z\\s\\-]+\\.\\s{1,3}[A-Z]"
+            // 模式2: 带有专有名词的术语（如 "capitalized IUS"）
+            + "|[a-z][a-z\\s\\-]*[A-Z]+[a-zA-Z]*\\.\\s{1,3}[A-Z]"
+            // 模式3: 大写缩写开头但后面是小写描述词的术语
+            + "|[A-Z]{2,6}\\.\\s{1,3}(?:Defined|See|As defined)"
+            // 模式4: 专有名词开头的定义（如机构名称）
+            + "|[A-Z][a-zA-Z\\s]+\\.\\s{1,3}(?:The|A|An|See|As|Services)"
+            + ").*");
+
+    private static final Pattern TOC_ENTRY_START_PATTERN = Pattern.compile("(?:"
+            + "\\d+\\.\\d*\\.?\\s+|[A-Z]\\.\\d+\\.?\\s+|SECTION\\s+\\d+|GLOSSARY|REFERENCES"
+            // Add FIGURE and TABLE as TOC entry starts
+            + "|(?i:FIGURE)\\s+\\d+|(?i:TABLE)\\s+\\d+"
+            + ").*");
+    private static final Pattern TOC_ENTRY_NUMBER_PATTERN = Pattern.compile("(?:"
+            + "\\d+\\.\\d*\\.?\\s+|[A-Z]\\.\\d+\\.?\\s+|SECTION\\s+\\d+"
+            + "|(?i:FIGURE)\\s+\\d+|(?i:TABLE)\\s+\\d+"
+            + ").*");
+    private static final Pattern SECTION_TITLE_PATTERN = Pattern.compile(
+            "(?i)(?:SECTION\\s+\\d+|GLOSSARY|REFERENCES|APPENDIX|TABLE OF CONTENTS|INDEX).*");
+    private static final Pattern URL_PART_PATTERN = Pattern.compile(".*(?:https?://|www\\.|ftp://)[^\\s]{5,}.*");
+    private static final Pattern URL_DOMAIN_PERIOD_TAIL_PATTERN = Pattern.compile(".*(?:mil|com|gov|org|net)\\.$");
+    private static final Pattern URL_BREAK_WORD_TAIL_PATTERN = Pattern.compile(".*(?:at|to|from|index\\.)$");
+    private static final Pattern SLASH_OR_HYPHEN_TAIL_PATTERN = Pattern.compile(".*[/-]$");
+    private static final Pattern URL_EXTENSION_HEAD_PATTERN = Pattern.compile(
+            "(?:html?|\\.[a-z]{3,4}|html?\\.?|/|downloads/|packag|uidtools|/\\.).*");
+    private static final Pattern PATH_HEAD_PATTERN = Pattern.compile("(?:/|downloads/|packag|uidtools).*");
+    private static final Pattern URL_PROTOCOL_HEAD_PATTERN = Pattern.compile("(?:https?://|www\\.|ftp://).*");
+    private static final Pattern SENTENCE_CAP_HEAD_PATTERN = Pattern.compile("[A-Z][a-z].*");
+
+    // 罗马数字 (i) ~ (xii)
+    private static final Set<String> ROMAN_NUMERALS = new HashSet<>(Arrays.asList(
+            "i", "ii", "iii", "iv", "v", "vi", "vii", "viii", "ix", "x", "xi", "xii"));
+
+    private static final String CHINESE_NUMERALS = "一二三四五六七八九十";
+
+    private TextClassifier() {
+    }
+
+    static boolean is(String text, int textClass) {
+        return (classify(text, textClass) & textClass) != 0;
+    }
+
+    static int classify(String text) {
+        return classify(text, ALL);
+    }
+
+    /**
+     * @param mask classes to evaluate
+     * @return the classes in {@code mask} which apply to {@code text}
+     */
+    static int classify(String text, int mask) {
+        if (text == null || text.isEmpty()) {
+            return 0;
+        }
+        int length = text.length();
+        // ".*" 只能匹配最后一个行终止符之后的部分
+        int lastLineStart = getLastLineStart(text);
+        int classes = 0;
+
+        if ((mask & (LIST_ITEM_START | SECTION_NUMBER_START)) != 0) {
+            classes |= classifyNumbering(text, lastLineStart) & mask;
+        }
+        if ((mask & BULLET_START) != 0 && startsWithBullet(text)) {
+            classes |= BULLET_START;
+        }
+        if ((mask & (GLOSSARY_ENTRY | GLOSSARY_ENTRY_START)) != 0 && length >= 3 && isAsciiLetter(text.charAt(0))) {
+            if ((mask & GLOSSARY_ENTRY) != 0 && (GLOSSARY_ABBREVIATION_ENTRY.matcher(text).matches()
+                    || GLOSSARY_MIXED_CASE_ENTRY.matcher(text).matches())) {
+                classes |= GLOSSARY_ENTRY;
+            }
+            if ((mask & GLOSSARY_ENTRY_START) != 0 && isGlossaryEntryStart(text)) {
+                classes |= GLOSSARY_ENTRY_START;
+            }
+        }
+        if ((mask & DEFINITION_ENTRY) != 0 && length >= 5 && isAsciiLetter(text.charAt(0))
+                && DEFINITION_ENTRY_PATTERN.matcher(text).matches()) {
+            classes |= DEFINITION_ENTRY;
+        }
+        if ((mask & REFERENCE_ENTRY) != 0 && length >= 10 && isAsciiLetterOrDigit(text.charAt(0))
+                && REFERENCE_ENTRY_PATTERN.matcher(text).matches()) {
+            classes |= REFERENCE_ENTRY;
+        }
+        if ((mask & TECHNICAL_DOC_ID) != 0 && length >= 5 && isAsciiLetterOrDigit(text.charAt(0))
+                && TECHNICAL_DOC_ID_PATTERN.matcher(text).matches()) {
+            classes |= TECHNICAL_DOC_ID;
+        }
+        if ((mask & (BRACKETED_LIST_MARKER | NUMBERED_LIST_MARKER | LEVEL_1_LIST_MARKER
+                | LEVEL_2_LIST_MARKER)) != 0) {
+            classes |= classifyListMarker(text) & mask;
+        }
+        if ((mask & SHORT_UPPERCASE_TOKEN) != 0 && isShortUppercaseToken(text)) {
+            classes |= SHORT_UPPERCASE_TOKEN;
+        }
+        if ((mask & (TOC_ENTRY_START | TOC_ENTRY_NUMBER | SECTION_TITLE)) != 0
+                && isAsciiLetterOrDigit(text.charAt(0))) {
+            if ((mask & TOC_ENTRY_START) != 0 && TOC_ENTRY_START_PATTERN.matcher(text).matches()) {
+                classes |= TOC_ENTRY_START;
+            }
+            if ((mask & TOC_ENTRY_NUMBER) != 0 && TOC_ENTRY_NUMBER_PATTERN.matcher(text).matches()) {
+                classes |= TOC_ENTRY_NUMBER;
+            }
+            if ((mask & SECTION_TITLE) != 0 && SECTION_TITLE_PATTERN.matcher(text).matches()) {
+                classes |= SECTION_TITLE;
+            }
+        }
+        if ((mask & LEADER_DOTS) != 0 && (text.contains("....") || text.contains("…")
+                || text.contains("----") || text.contains("____"))) {
+            classes |= LEADER_DOTS;
+        }
+        if ((mask & URL_PART) != 0 && (text.contains("://") || text.contains("www."))
+                && URL_PART_PATTERN.matcher(text).matches()) {
+            classes |= URL_PART;
+        }
+        if ((mask & URL_TAIL_CLASSES) != 0) {
+            classes |= classifyUrlTail(length > 30 ? text.substring(length - 30) : text) & mask;
+        }
+        if ((mask & URL_HEAD_CLASSES) != 0) {
+            classes |= classifyUrlHead((length > 20 ? text.substring(0, 20) : text).trim()) & mask;
+        }
+        return classes;
+    }
+
+    private static int classifyUrlTail(String tail) {
+        int classes = 0;
+        for (String marker : URL_TAIL_MARKERS) {
+            if (tail.contains(marker)) {
+                classes |= URL_PART_TAIL;
+                break;
+            }
+        }
+        if (tail.endsWith(".") && URL_DOMAIN_PERIOD_TAIL_PATTERN.matcher(tail).matches()) {
+            classes |= URL_DOMAIN_PERIOD_TAIL;
+        }
+        if (URL_BREAK_WORD_TAIL_PATTERN.matcher(tail).matches()) {
+            classes |= URL_BREAK_WORD_TAIL;
+        }
+        if ((tail.endsWith("/") || tail.endsWith("-")) && SLASH_OR_HYPHEN_TAIL_PATTERN.matcher(tail).matches()) {
+            classes |= SLASH_OR_HYPHEN_TAIL;
+        }
+        return classes;
+    }
+
+    private static int classifyUrlHead(String head) {
+        int classes = 0;
+        if (URL_EXTENSION_HEAD_PATTERN.matcher(head).matches()) {
+            classes |= URL_EXTENSION_HEAD;
+        }
+        if (PATH_HEAD_PATTERN.matcher(head).matches()) {
+            classes |= PATH_HEAD;
+        }
+        if (URL_PROTOCOL_HEAD_PATTERN.matcher(head).matches()) {
+            classes |= URL_PROTOCOL_HEAD;
+        }
+        if (SENTENCE_CAP_HEAD_PATTERN.matcher(head).matches()) {
+            classes |= SENTENCE_CAP_HEAD;
+        }
+        return classes;
+    }
+
+    /**
+     * 列表项开头：括号标记 (1) (a) (iv) (2b)，a. 1. 一、，多级编号 E2.1. 6.1.2.，以及 • - *
+     */
+    private static int classifyNumbering(String text, int lastLineStart) {
+        int length = text.length();
+        int classes = 0;
+        char first = text.charAt(0);
+
+        // 检测括号标记，但要排除缩写和引用续行
+        if ((first == '(' || first == '（') && length >= 3) {
+            int closeIdx = text.indexOf(')');
+            if (closeIdx == -1)
+                closeIdx = text.indexOf('）');
+            if (closeIdx > 1 && closeIdx < 10) {
+                // 关键检查：如果紧跟着另一个右括号，这是引用续行如 "(k)), the..."
+                if (closeIdx + 1 < length) {
+                    char nextChar = text.charAt(closeIdx + 1);
+                    if (nextChar == ')' || nextChar == '）') {
+                        // 这是引用标记的结尾，不是列表项
+                        return 0;
+                    }
+                }
+                if (isBracketedListMarker(text, 1, closeIdx)) {
+                    classes |= LIST_ITEM_START;
+                }
+            }
+        }
+
+        // 匹配 a., b., 1., 2. 等点号列表标记
+        if (length >= 2 && isAsciiLetterOrDigit(first) && (text.charAt(1) == '.' || text.charAt(1) == '、')
+                && lastLineStart <= 2) {
+            classes |= LIST_ITEM_START;
+        }
+        // 匹配 • - * 等符号列表标记
+        if (first == '•' || first == '-' || first == '*') {
+            classes |= LIST_ITEM_START;
+        }
+        return classes | classifySectionNumber(text, lastLineStart);
+    }
+
+    /**
+     * 多级章节编号：可选字母 + 数字 + (点 + 数字)* + 点 + 空白，如 E2.1. 6.1.2. 1.1. 2.
+     */
+    private static int classifySectionNumber(String text, int lastLineStart) {
+        int length = text.length();
+        int i = isAsciiLetter(text.charAt(0)) ? 1 : 0;
+        int digitsEnd = skipDigits(text, i);
+        if (digitsEnd == i) {
+            return 0;
+        }
+        i = digitsEnd;
+        int groups = 0;
+        while (i + 1 < length && text.charAt(i) == '.' && isAsciiDigit(text.charAt(i + 1))) {
+            i = skipDigits(text, i + 1);
+            groups++;
+        }
+        if (i >= length || text.charAt(i) != '.') {
+            return 0;
+        }
+        int whitespaceEnd = i + 1;
+        while (whitespaceEnd < length && isWhitespace(text.charAt(whitespaceEnd))) {
+            whitespaceEnd++;
+        }
+        if (whitespaceEnd == i + 1 || whitespaceEnd < lastLineStart) {
+            return 0;
+        }
+        return groups > 0 && length >= 3 ? LIST_ITEM_START | SECTION_NUMBER_START : LIST_ITEM_START;
+    }
+
+    /**
+     * 括号内为纯数字 (1) (99)、单个字母 (a)、罗马数字 (iv) 或数字加字母 (1a)。
+     * 两个或更多大写字母的缩写 (IT), (DoD) 不是列表标记。
+     */
+    private static boolean isBracketedListMarker(String text, int from, int to) {
+        int length = to - from;
+        int digitsEnd = skipDigits(text, from);
+        if (digitsEnd == to && length <= 3) {
+            return true;
+        }
+        if (length == 1 && isAsciiLetter(text.charAt(from))) {
+            return true;
+        }
+        if (digitsEnd > from && digitsEnd == to - 1 && isAsciiLetter(text.charAt(to - 1))) {
+            return true;
+        }
+        if (length > 4) {
+            return false;
+        }
+        StringBuilder roman = new StringBuilder(length);
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            if (c == 'I' || c == 'V' || c == 'X') {
+                roman.append((char) (c + ('a' - 'A')));
+            } else if (c == 'i' || c == 'v' || c == 'x') {
+                roman.append(c);
+            } else {
+                return false;
+            }
+        }
+        return ROMAN_NUMERALS.contains(roman.toString());
+    }
+
+    /**
+     * 块以列表标记开头：• - *，(a) (1) (10)，a. 1) 一、，10.
+     */
+    private static boolean startsWithBullet(String text) {
+        int length = text.length();
+        char first = text.charAt(0);
+        if (first == '•' || first == '-' || first == '*')
+            return true;
+
+        // 括号包围的短标记（1-2个字符，如 (a), (1), (10)），不匹配缩写词如 (PPBS), (GIG)
+        if ((first == '(' || first == '（') && length >= 3) {
+            int closeIdx = text.indexOf(')');
+            if (closeIdx == -1)
+                closeIdx = text.indexOf('）');
+            if (closeIdx > 1 && closeIdx <= 4) {
+                // 排除引用续行：如 "(k)), the..." 是 "Reference (k)" 换行后的续行
+                if (closeIdx + 1 < length) {
+                    char nextChar = text.charAt(closeIdx + 1);
+                    if (nextChar == ')' || nextChar == '）') {
+                        return false;
+                    }
+                }
+                // 只匹配：单个字母、单个数字、或最多2位数字
+                if ((closeIdx == 2 && isAsciiLetter(text.charAt(1)))
+                        || (closeIdx <= 3 && skipDigits(text, 1) == closeIdx)) {
+                    return true;
+                }
+            }
+        }
+
+        // 单字符或中文数字后跟标点，如 a. 1) 一、
+        if (length >= 2 && (Character.isLetterOrDigit(first) || isChinese(first))) {
+            char second = text.charAt(1);
+            if (second == '.' || second == ')' || second == '。' || second == '、' || second == '．') {
+                return true;
+            }
+            // 多位数字后跟点号，如 "10." "12."
+            if (Character.isDigit(first) && length >= 3) {
+                int dotIdx = text.indexOf('.');
+                return dotIdx > 0 && dotIdx < 4 && skipDigits(text, 0) == dotIdx;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isGlossaryEntryStart(String text) {
+        // 获取第一个"单词"（空格前的部分）
+        String[] parts = WHITESPACE.split(text, 2);
+        if (parts.length < 2)
+            return false; // 需要有缩写和定义
+
+        String abbr = parts[0];
+        // 定义部分需要以字母开头（排除纯数字等情况）
+        if (!GLOSSARY_DEFINITION.matcher(parts[1]).matches())
+            return false;
+
+        // 纯大写缩写 (2-15字符，包含可能的括号和斜杠)
+        if (GLOSSARY_UPPERCASE_ABBREVIATION.matcher(abbr).matches())
+            return true;
+
+        // 混合大小写缩写 (含至少一个大写，2-12字符)
+        if (GLOSSARY_MIXED_CASE_ABBREVIATION.matcher(abbr).matches() && containsAsciiUppercase(abbr))
+            return true;
+
+        // 带括号/斜杠的缩写 USD(A&S), USD(C)/CFO
+        return GLOSSARY_COMPOUND_ABBREVIATION.matcher(abbr).matches();
+    }
+
+    /**
+     * 列表标记前缀（DOTALL 语义，后续内容不限）
+     */
+    private static int classifyListMarker(String text) {
+        int length = text.length();
+        char first = text.charAt(0);
+        int classes = 0;
+
+        if (first == '(' || first == '（' || first == '[' || first == '【') {
+            int end = skipListMarkerChars(text, 1);
+            if (end > 1 && end - 1 <= 4 && end < length && isCloseBracket(text.charAt(end))) {
+                classes |= BRACKETED_LIST_MARKER;
+            }
+            if (first == '(' || first == '（') {
+                int alnumEnd = 1;
+                while (alnumEnd < length && isAsciiLetterOrDigit(text.charAt(alnumEnd))) {
+                    alnumEnd++;
+                }
+                char close = alnumEnd < length ? text.charAt(alnumEnd) : 0;
+                if (alnumEnd > 1 && (close == ')' || close == '）')) {
+                    classes |= LEVEL_2_LIST_MARKER;
+                }
+            }
+        }
+
+        int end = skipListMarkerChars(text, 0);
+        if (end > 0 && end <= 4 && end < length && isListMarkerPunctuation(text.charAt(end))) {
+            classes |= NUMBERED_LIST_MARKER;
+        }
+
+        if (first == '•' || first == '-') {
+            classes |= LEVEL_1_LIST_MARKER;
+        } else if (isAsciiLetter(first)) {
+            if (length >= 2 && (text.charAt(1) == '.' || text.charAt(1) == '、')) {
+                classes |= LEVEL_1_LIST_MARKER;
+            }
+        } else {
+            int numeralsEnd = 0;
+            while (numeralsEnd < length && CHINESE_NUMERALS.indexOf(text.charAt(numeralsEnd)) >= 0) {
+                numeralsEnd++;
+            }
+            if (numeralsEnd > 0 && numeralsEnd < length && isListMarkerPunctuation(text.charAt(numeralsEnd))) {
+                classes |= LEVEL_1_LIST_MARKER;
+            }
+        }
+        return classes;
+    }
+
+    private static boolean isShortUppercaseToken(String text) {
+        if (text.length() > 6) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!(c >= 'A' && c <= 'Z' || isAsciiDigit(c) || c == '.' || c == '-')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int getLastLineStart(String text) {
+        for (int i = text.length() - 1; i >= 0; i--) {
+            char c = text.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    private static int skipDigits(String text, int from) {
+        int i = from;
+        while (i < text.length() && isAsciiDigit(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipListMarkerChars(String text, int from) {
+        int i = from;
+        while (i < text.length() && (isAsciiLetterOrDigit(text.charAt(i))
+                || CHINESE_NUMERALS.indexOf(text.charAt(i)) >= 0)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean containsAsciiUppercase(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 'A' && c <= 'Z') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isCloseBracket(char c) {
+        return c == ')' || c == '）' || c == ']' || c == '】';
+    }
+
+    private static boolean isListMarkerPunctuation(char c) {
+        return c == '.' || c == '、' || c == '．';
+    }
+
+    private static boolean isWhitespace(char c) {
+        // 与正则 \s 一致
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return isAsciiLetter(c) || isAsciiDigit(c);
+    }
+
+    private static boolean isChinese(char c) {
+        return c >= '\u4e00' && c <= '\u9fff';
+    }
+}
@@ -62,4 +62,15 @@ public class TranslationConfig {
     public int getRedisCacheTtl() {
         return Integer.parseInt(properties.getProperty("redis.cache.ttl", "2592000"));
     }
+
+    /**
+     * 解析结果缓存目录，为空时不缓存
+     */
+    public String getParseCacheDir() {
+        return properties.getProperty("parse.cache.dir", "");
+    }
+
+    public long getParseCacheMaxBytes() {
+        return Long.parseLong(properties.getProperty("parse.cache.max.bytes", "1073741824"));
+    }
 }
@@ -1,10 +1,15 @@
 package com.gs.ep.docknight.translate;
 
+import com.gs.ep.docknight.model.converter.ParsedDocumentCache;
 import com.gs.ep.docknight.model.renderer.PdfRenderer;
 import com.gs.ep.docknight.model.element.Document;
+import org.apache.pdfbox.io.MemoryUsageSetting;
+import java.io.BufferedOutputStream;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.File;
+import java.io.OutputStream;
+import java.nio.file.Paths;
 
 /**
  * Demo script to run translation on a sample PDF.
@@ -48,8 +53,12 @@ public class TranslationDemo {
         System.out.println("Target language: " + targetLang);
         System.out.println("Model: " + config.getModelName());
 
+        // 翻译器按渲染字体测量译文，两者使用同一字体目录
+        String fontsDir = PdfRenderer.DEFAULT_FONTS_DIR;
         SiliconFlowClient client = new SiliconFlowClient(config, apiKey);
-        PdfTranslator translator = new PdfTranslator(client);
+        ParsedDocumentCache parsedDocumentCache = config.getParseCacheDir().isEmpty() ? null
+                : new ParsedDocumentCache(Paths.get(config.getParseCacheDir()), config.getParseCacheMaxBytes());
+        PdfTranslator translator = new PdfTranslator(client, fontsDir, parsedDocumentCache);
 
         File inputFile = new File(inputPath);
         if (!inputFile.exists()) {
@@ -61,15 +70,18 @@ public class TranslationDemo {
             // Translate
             Document translatedDoc = translator.translate(fis, targetLang);
 
-            // Render back to PDF
-            PdfRenderer renderer = new PdfRenderer("src/main/resources/fonts");
-            byte[] pdfBytes = renderer.render(translatedDoc);
-
-            try (FileOutputStream fos = new FileOutputStream(outputPath)) {
-                fos.write(pdfBytes);
+            // Render back to PDF: 页面内容和图片暂存在临时文件中，直接写入输出文件
+            PdfRenderer renderer = new PdfRenderer(fontsDir, MemoryUsageSetting.setupTempFileOnly());
+            try (OutputStream os = new BufferedOutputStream(new FileOutputStream(outputPath))) {
+                renderer.render(translatedDoc, os);
             }
         }
 
         System.out.println("Translation complete! Output saved to: " + outputPath);
+        if (parsedDocumentCache != null) {
+            System.out.println("Parse cache: hits=" + parsedDocumentCache.getHitCount()
+                    + " misses=" + parsedDocumentCache.getMissCount()
+                    + " evictions=" + parsedDocumentCache.getEvictionCount());
+        }
     }
 }
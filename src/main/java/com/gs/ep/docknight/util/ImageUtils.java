@@ -31,9 +31,25 @@ import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import javax.imageio.ImageIO;
 import javax.xml.bind.DatatypeConverter;
+import org.apache.commons.io.IOUtils;
 import org.apache.pdfbox.pdmodel.PDDocument;
 import org.apache.pdfbox.rendering.ImageType;
 import org.apache.pdfbox.rendering.PDFRenderer;
@@ -43,6 +59,7 @@ import org.bytedeco.javacpp.lept.PIX;
 import org.bytedeco.javacpp.tesseract;
 import org.bytedeco.javacpp.tesseract.StringGenericVector;
 import org.bytedeco.javacpp.tesseract.TessBaseAPI;
+import org.eclipse.collections.api.list.MutableList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -77,6 +94,134 @@ public final class ImageUtils {
     }
   }
 
+  /**
+   * Render each page of pdf as image of resolution {@code resolution} using pdfbox and apply {@code
+   * processor} on the images, rendering and processing several pages at a time. Pages are rendered
+   * by {@code renderingThreads} threads, each with its own copy of the pdf since pdfbox documents
+   * are not thread safe, and processed by {@code processingThreads} threads. At most {@code
+   * maxPendingImages} pages are rendered ahead of their processing, which bounds the memory held by
+   * rendered images.
+   *
+   * @return results of {@code processor} in page order
+   * @throws IllegalArgumentException if the number of threads or {@code maxPendingImages} is less
+   *                                  than 1
+   */
+  public static <T> List<T> processImagesFromPdfUsingPdfBox(InputStream pdfInputStream,
+      int resolution, int renderingThreads, int processingThreads, int maxPendingImages,
+      Function<BufferedImage, T> processor) throws Exception {
+    if (renderingThreads < 1 || processingThreads < 1 || maxPendingImages < 1) {
+      throw new IllegalArgumentException(String.format(
+          "Threads and pending images must be at least 1, but are %d rendering threads, "
+              + "%d processing threads and %d pending images", renderingThreads, processingThreads,
+          maxPendingImages));
+    }
+    byte[] pdf = IOUtils.toByteArray(pdfInputStream);
+    int pageCount;
+    try (PDDocument document = PDDocument.load(pdf)) {
+      pageCount = document.getNumberOfPages();
+    }
+    Queue<PDDocument> documents = new ConcurrentLinkedQueue<>();
+    ThreadLocal<PDFRenderer> renderers = ThreadLocal.withInitial(() -> {
+      try {
+        PDDocument document = PDDocument.load(pdf);
+        documents.add(document);
+        return new PDFRenderer(document);
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    });
+    ExecutorService renderingExecutor = Executors
+        .newFixedThreadPool(renderingThreads, daemonThreadFactory("pdf-page-rendering"));
+    ExecutorService processingExecutor = Executors
+        .newFixedThreadPool(processingThreads, daemonThreadFactory("pdf-page-image-processing"));
+    Semaphore pendingImages = new Semaphore(maxPendingImages);
+    AtomicReference<Exception> failure = new AtomicReference<>();
+    AtomicBoolean failed = new AtomicBoolean();
+    // Once the processing pool is shut down, rejected stages are run on the submitting thread, where
+    // they only release the permit of their page as the pipeline has failed by then
+    Executor processingStage = task -> {
+      try {
+        processingExecutor.execute(task);
+      } catch (RejectedExecutionException e) {
+        task.run();
+      }
+    };
+    try {
+      MutableList<CompletableFuture<T>> results = Lists.mutable.withInitialCapacity(pageCount);
+      for (int page = 0; page < pageCount; page++) {
+        int pageIndex = page;
+        results.add(CompletableFuture.supplyAsync(() -> {
+          if (failed.get()) {
+            throw new CancellationException();
+          }
+          pendingImages.acquireUninterruptibly();
+          if (failed.get()) {
+            pendingImages.release();
+            throw new CancellationException();
+          }
+          try {
+            LOGGER.info("processing image " + (pageIndex + 1) + "/" + pageCount);
+            return renderers.get().renderImageWithDPI(pageIndex, resolution, ImageType.RGB);
+          } catch (IOException | RuntimeException e) {
+            pendingImages.release();
+            failure.compareAndSet(null, e);
+            failed.set(true);
+            throw new CompletionException(e);
+          }
+        }, renderingExecutor).thenApplyAsync(image -> {
+          try {
+            if (failed.get()) {
+              throw new CancellationException();
+            }
+            return processor.apply(image);
+          } catch (CancellationException e) {
+            throw e;
+          } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+            failed.set(true);
+            throw e;
+          } finally {
+            pendingImages.release();
+          }
+        }, processingStage));
+      }
+      MutableList<T> processedResults = Lists.mutable.withInitialCapacity(pageCount);
+      for (CompletableFuture<T> result : results) {
+        try {
+          processedResults.add(result.join());
+        } catch (CompletionException | CancellationException e) {
+          // Pages are cancelled only after the failure which caused it is recorded
+          Exception cause = failure.get();
+          throw cause != null ? cause : e;
+        }
+      }
+      return processedResults;
+    } finally {
+      failed.set(true);
+      // Renderers are stopped first: pages rendered meanwhile still reach the processing pool, which
+      // releases their permits for renderers blocked on them
+      renderingExecutor.shutdown();
+      boolean isRenderingStopped = renderingExecutor.awaitTermination(1, TimeUnit.MINUTES);
+      processingExecutor.shutdown();
+      processingExecutor.awaitTermination(1, TimeUnit.MINUTES);
+      if (isRenderingStopped) {
+        for (PDDocument document : documents) {
+          document.close();
+        }
+      } else {
+        LOGGER.warn("Pdf page rendering did not stop, leaving its documents open");
+      }
+    }
+  }
+
+  private static ThreadFactory daemonThreadFactory(String name) {
+    return runnable -> {
+      Thread thread = new Thread(runnable, name);
+      thread.setDaemon(true);
+      return thread;
+    };
+  }
+
   /**
    * Initialize tesseract the language models {@code languages} and page segmentation modes {@code
    * mode} Information about the arguments can be found in {@see <a href="https://github.com/tesseract-ocr/tesseract/blob/master/doc/tesseract.1.asc">tesseract
@@ -236,12 +381,14 @@ public final class ImageUtils {
   }
 
   /**
+   * @param scale resolution of {@code image} relative to 72 dpi
    * @return bounding box of hand written area in the {@code image} if OpenCV library is loaded
+   * @see OpenCvUtils#getHandWrittenAreas(BufferedImage, double)
    */
-  public static List<Rectangle> findHandWrittenAreas(BufferedImage image) {
+  public static List<Rectangle> findHandWrittenAreas(BufferedImage image, double scale) {
     if (!OpenCvUtils.isLibraryLoaded()) {
       return Lists.mutable.empty();
     }
-    return OpenCvUtils.getHandWrittenAreas(image);
+    return OpenCvUtils.getHandWrittenAreas(image, scale);
   }
 }
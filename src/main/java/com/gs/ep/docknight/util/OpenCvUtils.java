@@ -142,24 +142,36 @@ public final class OpenCvUtils {
    * @return bounding box of hand written area in the {@code image}
    */
   public static List<Rectangle> getHandWrittenAreas(BufferedImage image) {
+    return getHandWrittenAreas(image, 1);
+  }
+
+  /**
+   * @param image image in which hand written areas are detected
+   * @param scale resolution of {@code image} relative to 72 dpi. Size thresholds of hand written
+   *              areas are scaled by it, so that the same areas are detected at any resolution
+   * @return bounding box (in pixels of {@code image}) of hand written area in the {@code image}
+   */
+  public static List<Rectangle> getHandWrittenAreas(BufferedImage image, double scale) {
     Mat mat = getMatFromBufferedImage(image);
     mat = getGrayImage(mat);
     mat = getThresholdImage(mat);
     List<MatOfPoint> contours = getContours(mat);
     List<Rectangle> result = Lists.mutable.empty();
+    double pointBucketSize = 3 * scale;
     for (MatOfPoint mp : contours) {
       Rect rect = Imgproc.boundingRect(mp);
       Set<Integer> horizontalPts = Sets.mutable.empty();
       Set<Integer> verticalPts = Sets.mutable.empty();
       for (Point p : mp.toArray()) {
-        int xInt = (int) (p.x / 3);
-        int yInt = (int) (p.y / 3);
+        int xInt = (int) (p.x / pointBucketSize);
+        int yInt = (int) (p.y / pointBucketSize);
         if (!horizontalPts.contains(xInt) && !verticalPts.contains(yInt)) {
           horizontalPts.add(xInt);
           verticalPts.add(yInt);
         }
       }
-      if (rect.width > 25 && rect.height > 15 && (rect.width < 300 || rect.height < 125)
+      if (rect.width > 25 * scale && rect.height > 15 * scale
+          && (rect.width < 300 * scale || rect.height < 125 * scale)
           && horizontalPts.size() >= 5) {
         result.add(new Rectangle(rect.x, rect.y, rect.width, rect.height));
       }
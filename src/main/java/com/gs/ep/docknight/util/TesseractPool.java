@@ -0,0 +1,129 @@
+/*
+ *   Copyright 2020 Goldman Sachs.
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ */
+
+package com.gs.ep.docknight.util;
+
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import org.bytedeco.javacpp.tesseract.TessBaseAPI;
+import org.eclipse.collections.impl.factory.Lists;
+
+/**
+ * Process wide pool of initialized tesseract instances. Initializing tesseract loads the language
+ * models from disk, so instances are kept per (languages, page segmentation mode) and reused
+ * across pages and documents. The number of instances per key is bounded; borrowers block until an
+ * instance is returned when the bound is reached.
+ */
+public final class TesseractPool {
+
+  private static final ConcurrentMap<String, TesseractPool> POOLS = new ConcurrentHashMap<>();
+  private static volatile int maxInstancesPerKey = Runtime.getRuntime().availableProcessors();
+
+  private final Supplier<TessBaseAPI> tesseractFactory;
+  private final Semaphore permits;
+  private final Deque<TessBaseAPI> idleInstances;
+
+  /**
+   * @param tesseractFactory function to create an initialized tesseract instance when no idle
+   *                         instance is available
+   * @param maxInstances     maximum number of instances borrowed at the same time
+   */
+  TesseractPool(Supplier<TessBaseAPI> tesseractFactory, int maxInstances) {
+    this.tesseractFactory = tesseractFactory;
+    this.permits = new Semaphore(maxInstances);
+    this.idleInstances = new ConcurrentLinkedDeque<>();
+  }
+
+  /**
+   * Set the maximum number of tesseract instances kept for each (languages, mode) key. Only pools
+   * created after this call are affected.
+   */
+  public static void setMaxInstancesPerKey(int maxInstances) {
+    if (maxInstances <= 0) {
+      throw new IllegalArgumentException("Max instances should be positive: " + maxInstances);
+    }
+    maxInstancesPerKey = maxInstances;
+  }
+
+  /**
+   * Borrow a tesseract instance initialized with language models {@code languages} and page
+   * segmentation mode {@code mode}. The instance should be returned by closing the returned object.
+   * Information about the arguments can be found in {@link ImageUtils#getTesseractAPI(List, int)}
+   */
+  public static PooledTesseract borrow(List<String> languages, int mode) {
+    String key = String.join("+", languages) + "#" + mode;
+    return POOLS.computeIfAbsent(key, k -> {
+      List<String> poolLanguages = Lists.mutable.ofAll(languages);
+      return new TesseractPool(() -> ImageUtils.getTesseractAPI(poolLanguages, mode),
+          maxInstancesPerKey);
+    }).borrow();
+  }
+
+  PooledTesseract borrow() {
+    this.permits.acquireUninterruptibly();
+    TessBaseAPI tesseractAPI = this.idleInstances.pollFirst();
+    if (tesseractAPI == null) {
+      try {
+        tesseractAPI = this.tesseractFactory.get();
+      } catch (RuntimeException | Error e) {
+        this.permits.release();
+        throw e;
+      }
+    }
+    return new PooledTesseract(this, tesseractAPI);
+  }
+
+  private void giveBack(TessBaseAPI tesseractAPI) {
+    tesseractAPI.Clear();
+    this.idleInstances.offerFirst(tesseractAPI);
+    this.permits.release();
+  }
+
+  /**
+   * Tesseract instance borrowed from {@link TesseractPool}. Closing it returns the instance to the
+   * pool, so it should not be used afterwards.
+   */
+  public static final class PooledTesseract implements AutoCloseable {
+
+    private final TesseractPool pool;
+    private TessBaseAPI tesseractAPI;
+
+    private PooledTesseract(TesseractPool pool, TessBaseAPI tesseractAPI) {
+      this.pool = pool;
+      this.tesseractAPI = tesseractAPI;
+    }
+
+    public TessBaseAPI getAPI() {
+      if (this.tesseractAPI == null) {
+        throw new IllegalStateException("Tesseract instance is already returned to the pool");
+      }
+      return this.tesseractAPI;
+    }
+
+    @Override
+    public void close() {
+      if (this.tesseractAPI != null) {
+        this.pool.giveBack(this.tesseractAPI);
+        this.tesseractAPI = null;
+      }
+    }
+  }
+}
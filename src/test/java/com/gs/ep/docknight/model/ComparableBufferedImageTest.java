@@ -0,0 +1,73 @@
+/*
+ *   Copyright 2020 Goldman Sachs.
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ */
+
+package com.gs.ep.docknight.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import org.junit.Test;
+
+public class ComparableBufferedImageTest {
+
+  private static BufferedImage createImage(int imageType, Color color) {
+    BufferedImage image = new BufferedImage(12, 8, imageType);
+    Graphics2D graphics = image.createGraphics();
+    graphics.setColor(Color.WHITE);
+    graphics.fillRect(0, 0, image.getWidth(), image.getHeight());
+    graphics.setColor(color);
+    graphics.fillRect(3, 2, 4, 4);
+    graphics.dispose();
+    return image;
+  }
+
+  @Test
+  public void testEqualsAndHashCodeForSameType() {
+    ComparableBufferedImage image1 = new ComparableBufferedImage(
+        createImage(BufferedImage.TYPE_INT_RGB, Color.BLACK));
+    ComparableBufferedImage image2 = new ComparableBufferedImage(
+        createImage(BufferedImage.TYPE_INT_RGB, Color.BLACK));
+    ComparableBufferedImage image3 = new ComparableBufferedImage(
+        createImage(BufferedImage.TYPE_INT_RGB, Color.RED));
+    assertEquals(image1, image2);
+    assertEquals(image1.hashCode(), image2.hashCode());
+    assertEquals(image1.getContentHash(), image2.getContentHash());
+    assertNotEquals(image1, image3);
+    assertNotEquals(image1.getContentHash(), image3.getContentHash());
+  }
+
+  @Test
+  public void testEqualsAndHashCodeAcrossTypes() {
+    ComparableBufferedImage intImage = new ComparableBufferedImage(
+        createImage(BufferedImage.TYPE_INT_RGB, Color.GREEN));
+    ComparableBufferedImage byteImage = new ComparableBufferedImage(
+        createImage(BufferedImage.TYPE_3BYTE_BGR, Color.GREEN));
+    assertEquals(intImage, byteImage);
+    assertEquals(intImage.hashCode(), byteImage.hashCode());
+  }
+
+  @Test
+  public void testNotEqualsForDifferentSize() {
+    ComparableBufferedImage image1 = new ComparableBufferedImage(
+        new BufferedImage(4, 6, BufferedImage.TYPE_INT_RGB));
+    ComparableBufferedImage image2 = new ComparableBufferedImage(
+        new BufferedImage(6, 4, BufferedImage.TYPE_INT_RGB));
+    assertNotEquals(image1, image2);
+  }
+}
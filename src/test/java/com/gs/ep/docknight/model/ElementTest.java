@@ -18,7 +18,11 @@ package com.gs.ep.docknight.model;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import org.eclipse.collections.impl.factory.Lists;
 import org.eclipse.collections.impl.utility.Iterate;
@@ -34,11 +38,16 @@ import com.gs.ep.docknight.model.attribute.PositionalContent;
 import com.gs.ep.docknight.model.attribute.Text;
 import com.gs.ep.docknight.model.attribute.TextStyles;
 import com.gs.ep.docknight.model.attribute.Top;
+import com.gs.ep.docknight.model.attribute.Url;
 import com.gs.ep.docknight.model.attribute.Width;
 import com.gs.ep.docknight.model.element.Document;
 import com.gs.ep.docknight.model.element.InlineBlock;
 import com.gs.ep.docknight.model.element.Page;
 import com.gs.ep.docknight.model.element.TextElement;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import org.junit.Test;
 
 public class ElementTest {
@@ -334,4 +343,96 @@ public class ElementTest {
     assertTrue(textElement1.hasDifferentVisualStylesFromElement(textElement2));
     assertTrue(textElement2.hasDifferentVisualStylesFromElement(textElement1));
   }
+
+  @Test
+  public void testGeometryMagnitudesFollowAttributes() {
+    TextElement element = new TextElement()
+        .add(new Top(new Length(10, Unit.pt)))
+        .add(new Left(new Length(20, Unit.pt)))
+        .add(new Width(new Length(30, Unit.pt)));
+    assertEquals(10, element.getTopMagnitude(), 0);
+    assertEquals(50, element.getRightMagnitude(), 0);
+    assertEquals(0, element.getHeightMagnitude(), 0);
+
+    element.add(new Height(new Length(5, Unit.pt)));
+    assertEquals(15, element.getBottomMagnitude(), 0);
+
+    element.getAttribute(Top.class).setMagnitude(12);
+    assertEquals(12, element.getTopMagnitude(), 0);
+    assertEquals(17, element.getBottomMagnitude(), 0);
+
+    TextElement clone = (TextElement) element.clone();
+    clone.getAttribute(Left.class).setMagnitude(0);
+    assertEquals(0, clone.getLeftMagnitude(), 0);
+    assertEquals(20, element.getLeftMagnitude(), 0);
+
+    element.removeAttribute(Width.class);
+    assertEquals(20, element.getRightMagnitude(), 0);
+  }
+
+  @Test
+  public void testAttributeSlots() throws Exception {
+    TextElement element = new TextElement()
+        .add(new Text("abc"))
+        .add(new Top(new Length(10, Unit.pt)));
+    element.addAttribute(new Url("http://www.example.com"));
+    assertEquals("http://www.example.com", element.getAttribute(Url.class).getValue());
+    assertEquals(3, element.getAttributes().size());
+    assertNull(element.getAttribute(FontSize.class));
+    assertNull(element.getAttribute(Content.class));
+
+    TextElement reordered = new TextElement()
+        .add(new Url("http://www.example.com"))
+        .add(new Top(new Length(10, Unit.pt)))
+        .add(new Text("abc"));
+    assertEquals(element, reordered);
+    assertEquals(element.hashCode(), reordered.hashCode());
+
+    Element clone = element.clone();
+    assertEquals(element, clone);
+    assertSame(clone, clone.getAttribute(Url.class).getParentElement());
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(element);
+    }
+    try (ObjectInputStream in = new ObjectInputStream(
+        new ByteArrayInputStream(bytes.toByteArray()))) {
+      Element deserialized = (Element) in.readObject();
+      assertEquals(element, deserialized);
+      assertEquals(10, deserialized.getTopMagnitude(), 0);
+    }
+
+    element.removeAttribute(Url.class);
+    assertFalse(element.hasAttribute(Url.class));
+    assertEquals(2, element.getAttributes().size());
+    element.add(new Url("http://www.example.org"));
+    assertEquals("http://www.example.org", element.getAttribute(Url.class).getValue());
+  }
+
+  @Test
+  public void testRepeatedAttributeValuesAreShared() {
+    TextElement element1 = new TextElement()
+        .add(new FontSize(new Length(10, Unit.pt)))
+        .add(new FontFamily(new String("Times")))
+        .add(new Color(new java.awt.Color(20, 20, 20)))
+        .add(new TextStyles(TextStyles.BOLD, TextStyles.ITALIC));
+    TextElement element2 = new TextElement()
+        .add(new FontSize(new Length(10, Unit.pt)))
+        .add(new FontFamily(new String("Times")))
+        .add(new Color(new java.awt.Color(20, 20, 20)))
+        .add(new TextStyles(Lists.mutable.of(TextStyles.BOLD, TextStyles.ITALIC)));
+    assertSame(element1.getFontSize().getValue(), element2.getFontSize().getValue());
+    assertSame(element1.getFontFamily().getValue(), element2.getFontFamily().getValue());
+    assertSame(element1.getColor().getValue(), element2.getColor().getValue());
+    assertSame(element1.getTextStyles().getValue(), element2.getTextStyles().getValue());
+    assertNotSame(element1.getFontSize(), element2.getFontSize());
+    try {
+      element1.getTextStyles().getValue().add(TextStyles.UNDERLINE);
+      fail("Pooled text styles are modifiable");
+    } catch (UnsupportedOperationException e) {
+      assertEquals(Lists.mutable.of(TextStyles.BOLD, TextStyles.ITALIC),
+          element2.getTextStyles().getValue());
+    }
+  }
 }
@@ -0,0 +1,137 @@
+/*
+ *   Copyright 2020 Goldman Sachs.
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ */
+
+package com.gs.ep.docknight.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.gs.ep.docknight.model.PositionalContext.NeighbourFinder;
+import com.gs.ep.docknight.model.attribute.Text;
+import com.gs.ep.docknight.model.element.TextElement;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.eclipse.collections.api.bag.MutableBag;
+import org.eclipse.collections.impl.factory.Bags;
+import org.eclipse.collections.impl.factory.Lists;
+import org.junit.Test;
+
+public class PositionalContextTest {
+
+  private static final class CountingFinder implements NeighbourFinder<Element> {
+
+    private final MutableBag<String> calls = Bags.mutable.<String>empty().asSynchronized();
+
+    private ElementGroup<Element> find(String direction) {
+      this.calls.add(direction);
+      Thread.yield();
+      return new ElementGroup<>();
+    }
+
+    @Override
+    public ElementGroup<Element> findBelowElements(PositionalContext<Element> context) {
+      return this.find("below");
+    }
+
+    @Override
+    public ElementGroup<Element> findAboveElements(PositionalContext<Element> context) {
+      return this.find("above");
+    }
+
+    @Override
+    public ElementGroup<Element> findLeftElements(PositionalContext<Element> context) {
+      return this.find("left");
+    }
+
+    @Override
+    public ElementGroup<Element> findRightElements(PositionalContext<Element> context) {
+      return this.find("right");
+    }
+  }
+
+  @Test
+  public void testNeighbourGroupsAreFoundOnFirstAccess() {
+    PositionalContext<Element> context = new PositionalContext<>(
+        new TextElement().add(new Text("a")));
+    CountingFinder finder = new CountingFinder();
+    context.setNeighbourFinder(finder);
+    assertTrue(finder.calls.isEmpty());
+
+    ElementGroup<Element> belowElements = context.getBelowElements();
+    assertSame(belowElements, context.getBelowElements());
+    assertEquals(1, finder.calls.occurrencesOf("below"));
+
+    ElementGroup<Element> leftElements = new ElementGroup<>();
+    context.setLeftElements(leftElements);
+    assertSame(leftElements, context.getLeftElements());
+    assertEquals(0, finder.calls.occurrencesOf("left"));
+
+    context.setRightElements(null);
+    assertNull(context.getRightElements());
+    assertEquals(0, finder.calls.occurrencesOf("right"));
+    context.getAboveElements();
+    assertEquals(Bags.mutable.of("below", "above"), finder.calls);
+  }
+
+  @Test
+  public void testConcurrentFirstAccess() throws Exception {
+    PositionalContext<Element> context = new PositionalContext<>(
+        new TextElement().add(new Text("a")));
+    CountingFinder finder = new CountingFinder();
+    context.setNeighbourFinder(finder);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      CountDownLatch start = new CountDownLatch(1);
+      List<Future<ElementGroup<Element>>> results = Lists.mutable.empty();
+      for (int i = 0; i < 8; i++) {
+        results.add(executor.submit(() -> {
+          start.await();
+          return context.getBelowElements();
+        }));
+      }
+      start.countDown();
+      for (Future<ElementGroup<Element>> result : results) {
+        assertSame(results.get(0).get(), result.get());
+      }
+      assertEquals(1, finder.calls.occurrencesOf("below"));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void testVisualBorders() {
+    PositionalContext<Element> context = new PositionalContext<>(new TextElement());
+    context.setVisualTopBorder(true);
+    context.setVisualRightBorder(true);
+    assertTrue(context.isVisualTopBorder());
+    assertFalse(context.isVisualBottomBorder());
+    assertFalse(context.isVisualLeftBorder());
+    assertTrue(context.isVisualRightBorder());
+
+    context.setVisualTopBorder(false);
+    context.setVisualLeftBorder(true);
+    assertFalse(context.isVisualTopBorder());
+    assertTrue(context.isVisualLeftBorder());
+    assertTrue(context.isVisualRightBorder());
+  }
+}
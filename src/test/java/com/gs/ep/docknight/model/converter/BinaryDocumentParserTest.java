@@ -0,0 +1,230 @@
+/*
+ *   Copyright 2020 Goldman Sachs.
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ */
+
+package com.gs.ep.docknight.model.converter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.gs.ep.docknight.model.Attribute;
+import com.gs.ep.docknight.model.ComparableBufferedImage;
+import com.gs.ep.docknight.model.Element;
+import com.gs.ep.docknight.model.ElementCollection;
+import com.gs.ep.docknight.model.Length;
+import com.gs.ep.docknight.model.Length.Unit;
+import com.gs.ep.docknight.model.PositionalContext;
+import com.gs.ep.docknight.model.TabularElementGroup;
+import com.gs.ep.docknight.model.attribute.Content;
+import com.gs.ep.docknight.model.attribute.Height;
+import com.gs.ep.docknight.model.attribute.ImageData;
+import com.gs.ep.docknight.model.attribute.Left;
+import com.gs.ep.docknight.model.attribute.PageColor;
+import com.gs.ep.docknight.model.attribute.PositionalContent;
+import com.gs.ep.docknight.model.attribute.Top;
+import com.gs.ep.docknight.model.attribute.Width;
+import com.gs.ep.docknight.model.converter.BinaryDocumentParser.MappedDocument;
+import com.gs.ep.docknight.model.element.Document;
+import com.gs.ep.docknight.model.element.Image;
+import com.gs.ep.docknight.model.element.Page;
+import com.gs.ep.docknight.model.extractor.PhraseExtractor;
+import com.gs.ep.docknight.model.renderer.BinaryDocumentRenderer;
+import com.gs.ep.docknight.model.testutil.DocUtils;
+import com.gs.ep.docknight.model.testutil.GroupedBoundingBox;
+import com.gs.ep.docknight.model.testutil.JsonRenderer;
+import com.gs.ep.docknight.model.testutil.PositionalDocDrawer;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.api.tuple.Pair;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.tuple.Tuples;
+import org.junit.Test;
+
+public class BinaryDocumentParserTest {
+
+  private static Document parseDocumentWithTable() throws Exception {
+    PositionalDocDrawer drawer = new PositionalDocDrawer(PDRectangle.A4);
+    drawer.drawTextAt(40, 30, "Heading of the document");
+    GroupedBoundingBox tableBox = new GroupedBoundingBox(40, 100, 3, 3, 100, 30);
+    tableBox.forEachCellBBox(0, 2, 0, 2,
+        (r, c, bbox) -> drawer.drawTextWithBorderInside(bbox, "Text" + r + c));
+    drawer.drawTextAt(40, 300, "First line of paragraph");
+    drawer.drawTextAt(40, 315, "second line of paragraph");
+    return PhraseExtractor.parseDocument(drawer.getPdfDocumentStream(), "test.pdf");
+  }
+
+  private static Document roundTrip(Document document) throws Exception {
+    byte[] bytes = new BinaryDocumentRenderer().render(document);
+    return new BinaryDocumentParser().parse(new ByteArrayInputStream(bytes));
+  }
+
+  @Test
+  public void testRoundTrip() throws Exception {
+    Document document = parseDocumentWithTable();
+    Document parsedDocument = roundTrip(document);
+
+    JsonRenderer jsonRenderer = new JsonRenderer().withPrettyPrintAndSort(true);
+    assertEquals(jsonRenderer.render(document), jsonRenderer.render(parsedDocument));
+    assertEquals(document.getDocumentSource(), parsedDocument.getDocumentSource());
+    assertEquals(new BinaryDocumentRenderer().render(document).length,
+        new BinaryDocumentRenderer().render(parsedDocument).length);
+  }
+
+  @Test
+  public void testPositionalInformationIsRetained() throws Exception {
+    Document document = parseDocumentWithTable();
+    Document parsedDocument = roundTrip(document);
+
+    Page page = (Page) document.getContent().getElements().get(0);
+    Page parsedPage = (Page) parsedDocument.getContent().getElements().get(0);
+    MutableList<TabularElementGroup<Element>> tables = page.getPositionalContent().getValue()
+        .getTabularGroups();
+    MutableList<TabularElementGroup<Element>> parsedTables = parsedPage.getPositionalContent()
+        .getValue().getTabularGroups();
+    assertTrue(tables.notEmpty());
+    assertEquals(tables.collect(ElementCollection::getTextStr),
+        parsedTables.collect(ElementCollection::getTextStr));
+    assertEquals(tables.collect(TabularElementGroup::getColumnHeaderCount),
+        parsedTables.collect(TabularElementGroup::getColumnHeaderCount));
+    assertEquals(page.getPositionalContent().getValue().getVerticalGroups().size(),
+        parsedPage.getPositionalContent().getValue().getVerticalGroups().size());
+
+    PositionalContext<Element> context = DocUtils.selectElementContext(document, "Text11");
+    PositionalContext<Element> parsedContext = DocUtils
+        .selectElementContext(parsedDocument, "Text11");
+    assertEquals(context.getVisualTop(), parsedContext.getVisualTop(), 0);
+    assertEquals(context.getVisualLeft(), parsedContext.getVisualLeft(), 0);
+    assertEquals(context.getTabularRow(), parsedContext.getTabularRow());
+    assertEquals(context.getTabularColumn(), parsedContext.getTabularColumn());
+    assertEquals(parsedTables.get(0), parsedContext.getTabularGroup());
+    assertNotNull(parsedContext.getBoundingRectangle());
+    assertEquals(context.getBoundingRectangle(), parsedContext.getBoundingRectangle());
+    assertSame(parsedContext.getBoundingRectangle(),
+        DocUtils.selectElementContext(parsedDocument, "Text22").getBoundingRectangle());
+    assertEquals(context.getVerticalGroup().getTextStr(),
+        parsedContext.getVerticalGroup().getTextStr());
+    assertEquals(context.getAboveElements().getTextStr(),
+        parsedContext.getAboveElements().getTextStr());
+    assertEquals(context.getLeftElements().getTextStr(),
+        parsedContext.getLeftElements().getTextStr());
+  }
+
+  @Test
+  public void testMappedPages() throws Exception {
+    PositionalDocDrawer drawer = new PositionalDocDrawer(PDRectangle.A6);
+    drawer.drawTextAt(40, 30, "Text on first page");
+    drawer.addPage();
+    drawer.drawTextAt(40, 30, "Text on second page");
+    Document document = drawer.getDocument();
+
+    Path path = Files.createTempFile("document", ".bin");
+    try {
+      Files.write(path, new BinaryDocumentRenderer().render(document));
+      MappedDocument mappedDocument = new BinaryDocumentParser().map(path);
+      assertEquals(2, mappedDocument.getPageCount());
+      assertEquals("Text on second page", mappedDocument.getPage(1).getTextStr());
+      Document parsedDocument = mappedDocument.getDocument();
+      List<Element> pages = parsedDocument.getContent().getElements();
+      assertEquals(2, pages.size());
+      assertNotNull(pages.get(0).getElementListContext());
+      assertEquals(new JsonRenderer().render(document), new JsonRenderer().render(parsedDocument));
+    } finally {
+      Files.delete(path);
+    }
+  }
+
+  @Test
+  public void testImagesAndSerializedValues() throws Exception {
+    MutableList<BufferedImage> bufferedImages = Lists.mutable.empty();
+    for (int imageType : new int[]{BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_3BYTE_BGR,
+        BufferedImage.TYPE_BYTE_BINARY}) {
+      BufferedImage bufferedImage = new BufferedImage(7, 5, imageType);
+      for (int x = 0; x < 7; x++) {
+        bufferedImage.setRGB(x, x % 5, x % 2 == 0 ? 0xFFFFFF : 0x102030 * x);
+      }
+      bufferedImages.add(bufferedImage);
+    }
+    List<Pair<Rectangle, Integer>> pageColors = Lists.mutable
+        .of(Tuples.pair(new Rectangle(1, 2, 3, 4), 0xFF0000));
+    Page page = new Page().add(new PageColor(pageColors)).add(new PositionalContent(
+        bufferedImages.collectWithIndex((bufferedImage, i) -> new Image()
+            .add(new Top(new Length(10 * i, Unit.pt))).add(new Left(new Length(0, Unit.pt)))
+            .add(new Width(new Length(7, Unit.pt))).add(new Height(new Length(5, Unit.pt)))
+            .add(new ImageData(new ComparableBufferedImage(bufferedImage))))
+            .toArray(new Element[0])));
+    Document parsedDocument = roundTrip(new Document().add(new Content(page)));
+
+    Page parsedPage = (Page) parsedDocument.getContent().getElements().get(0);
+    assertEquals(pageColors, parsedPage.getPageColor().getValue());
+    List<Element> parsedImages = parsedPage.getPositionalContent().getValue().getElements();
+    for (int i = 0; i < bufferedImages.size(); i++) {
+      BufferedImage parsedImage = ((Image) parsedImages.get(i)).getImageData().getValue()
+          .getBufferedImage();
+      assertEquals(new ComparableBufferedImage(bufferedImages.get(i)),
+          new ComparableBufferedImage(parsedImage));
+    }
+    assertEquals(BufferedImage.TYPE_3BYTE_BGR, ((Image) parsedImages.get(1)).getImageData()
+        .getValue().getBufferedImage().getType());
+  }
+
+  @Test
+  public void testUnexpectedSerializedClassIsRejected() throws Exception {
+    Page page = new Page().add(new PositionalContent());
+    page.addAttribute(new UnexpectedValue(new AtomicInteger(1)));
+    byte[] bytes = new BinaryDocumentRenderer().render(new Document().add(new Content(page)));
+    try {
+      new BinaryDocumentParser().parse(bytes);
+      fail("Value of class which is not allowed is deserialized");
+    } catch (InvalidClassException e) {
+      assertEquals(AtomicInteger.class.getName(), e.classname);
+    }
+  }
+
+  @Test
+  public void testUnsupportedVersion() throws Exception {
+    byte[] bytes = new BinaryDocumentRenderer().render(parseDocumentWithTable());
+    bytes[7]++;
+    try {
+      new BinaryDocumentParser().parse(new ByteArrayInputStream(bytes));
+      fail("Binary document of unsupported version is parsed");
+    } catch (IOException e) {
+      assertEquals("Unsupported binary document version 3", e.getMessage());
+    }
+  }
+
+  public static class UnexpectedValue extends Attribute<AtomicInteger> {
+
+    public UnexpectedValue(AtomicInteger value) {
+      this.setValue(value);
+    }
+
+    @Override
+    public Class getHolderInterface() {
+      return Element.class;
+    }
+  }
+}
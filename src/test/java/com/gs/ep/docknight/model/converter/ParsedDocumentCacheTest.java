@@ -0,0 +1,104 @@
+/*
+ *   Copyright 2020 Goldman Sachs.
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ */
+
+package com.gs.ep.docknight.model.converter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import com.gs.ep.docknight.model.element.Document;
+import com.gs.ep.docknight.model.testutil.JsonRenderer;
+import com.gs.ep.docknight.model.testutil.PositionalDocDrawer;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.junit.Test;
+
+public class ParsedDocumentCacheTest {
+
+  private static byte[] drawPdf(String text) throws Exception {
+    PositionalDocDrawer drawer = new PositionalDocDrawer(PDRectangle.A6);
+    drawer.drawTextAt(40, 30, text);
+    return IOUtils.toByteArray(drawer.getPdfDocumentStream());
+  }
+
+  @Test
+  public void testSameSourceIsParsedOnce() throws Exception {
+    Path directory = Files.createTempDirectory("parsedDocuments");
+    try {
+      ParsedDocumentCache cache = new ParsedDocumentCache(directory, Long.MAX_VALUE);
+      byte[] pdf = drawPdf("Cached text");
+      AtomicInteger parseCount = new AtomicInteger();
+      ParsedDocumentCache.DocumentParser parser = input -> {
+        parseCount.incrementAndGet();
+        return new PdfParser().parse(input);
+      };
+
+      Document document = cache.get(new ByteArrayInputStream(pdf), "settings", parser);
+      Document cachedDocument = cache.get(new ByteArrayInputStream(pdf), "settings", parser);
+      assertEquals(1, parseCount.get());
+      assertEquals(new JsonRenderer().render(document), new JsonRenderer().render(cachedDocument));
+
+      cache.get(new ByteArrayInputStream(pdf), "otherSettings", parser);
+      assertEquals(2, parseCount.get());
+      assertEquals(1, cache.getHitCount());
+      assertEquals(2, cache.getMissCount());
+      assertEquals(1 / 3.0, cache.getHitRate(), 1e-9);
+      assertNotEquals(ParsedDocumentCache.getKey(pdf, "settings"),
+          ParsedDocumentCache.getKey(pdf, "otherSettings"));
+
+      // Unreadable entries are parsed again
+      for (File entry : directory.toFile().listFiles()) {
+        Files.write(entry.toPath(), new byte[]{1, 2, 3});
+      }
+      cache.get(new ByteArrayInputStream(pdf), "settings", parser);
+      assertEquals(3, parseCount.get());
+    } finally {
+      FileUtils.deleteDirectory(directory.toFile());
+    }
+  }
+
+  @Test
+  public void testEviction() throws Exception {
+    Path directory = Files.createTempDirectory("parsedDocuments");
+    try {
+      ParsedDocumentCache cache = new ParsedDocumentCache(directory, 1);
+      AtomicInteger parseCount = new AtomicInteger();
+      ParsedDocumentCache.DocumentParser parser = input -> {
+        parseCount.incrementAndGet();
+        return new PdfParser().parse(input);
+      };
+      byte[] secondPdf = drawPdf("Second");
+      cache.get(new ByteArrayInputStream(drawPdf("First")), "", parser);
+      assertEquals(0, cache.getEvictionCount());
+      cache.get(new ByteArrayInputStream(secondPdf), "", parser);
+      assertEquals(1, cache.getEvictionCount());
+      assertEquals(1, directory.toFile().list().length);
+
+      // The latest entry is kept even though it exceeds the maximum size on its own
+      cache.get(new ByteArrayInputStream(secondPdf), "", parser);
+      assertEquals(2, parseCount.get());
+      assertEquals(1, cache.getHitCount());
+    } finally {
+      FileUtils.deleteDirectory(directory.toFile());
+    }
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ *   Copyright 2020 Goldman Sachs.
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ */
+package com.gs.ep.docknight.model.converter.pdfparser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertSame;
+
+import com.gs.ep.docknight.model.converter.pdfparser.FontMetricsCache.FontMetrics;
+import java.io.InputStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.Test;
+
+public class FontMetricsCacheTest {
+
+  private static PDFont loadTimesFont(PDDocument document) throws Exception {
+    try (InputStream fontStream = FontMetricsCacheTest.class.getClassLoader()
+        .getResourceAsStream("fonts/times.ttf")) {
+      return PDType0Font.load(document, fontStream, false);
+    }
+  }
+
+  @Test
+  public void testFontMetricsSharedAcrossDocuments() throws Exception {
+    FontMetricsCache cache = new FontMetricsCache(10);
+    try (PDDocument document1 = new PDDocument(); PDDocument document2 = new PDDocument()) {
+      FontMetrics metrics1 = cache.get(loadTimesFont(document1));
+      FontMetrics metrics2 = cache.get(loadTimesFont(document2));
+      assertSame(metrics1, metrics2);
+      assertEquals(1, cache.getMissCount());
+      assertEquals(1, cache.getHitCount());
+      assertEquals(0.5, cache.getHitRate(), 0);
+    }
+  }
+
+  @Test
+  public void testDifferentFontsHaveDifferentFingerprints() {
+    assertNotEquals(FontMetricsCache.getFingerprint(PDType1Font.TIMES_ROMAN),
+        FontMetricsCache.getFingerprint(PDType1Font.TIMES_BOLD));
+    assertEquals(FontMetricsCache.getFingerprint(PDType1Font.HELVETICA),
+        FontMetricsCache.getFingerprint(PDType1Font.HELVETICA));
+  }
+
+  @Test
+  public void testEviction() {
+    FontMetricsCache cache = new FontMetricsCache(1);
+    cache.get(PDType1Font.TIMES_ROMAN);
+    cache.get(PDType1Font.COURIER);
+    cache.get(PDType1Font.TIMES_ROMAN);
+    assertEquals(1, cache.size());
+    assertEquals(3, cache.getMissCount());
+  }
+}
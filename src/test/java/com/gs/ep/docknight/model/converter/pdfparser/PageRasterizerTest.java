@@ -0,0 +1,141 @@
+/*
+ *   Copyright 2020 Goldman Sachs.
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ */
+
+package com.gs.ep.docknight.model.converter.pdfparser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.gs.ep.docknight.util.OpenCvUtils;
+import java.awt.Rectangle;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.util.List;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.eclipse.collections.impl.factory.Lists;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class PageRasterizerTest {
+
+  private static final float PAGE_HEIGHT = 400;
+  private static final Rectangle BOX = new Rectangle(100, 200, 30, 15);
+  private static final Rectangle2D REGION = new Rectangle2D.Double(80.5, 180.5, 80, 60);
+
+  /**
+   * @return document whose page has a filled box {@link #BOX}, a scribbled loop around (250, 300)
+   * and a loop around (150, 300) too small to be hand writing, in points with origin at top left of
+   * the page
+   */
+  private static PDDocument createDocument() throws Exception {
+    PDDocument document = new PDDocument();
+    PDPage page = new PDPage(new PDRectangle(400, PAGE_HEIGHT));
+    document.addPage(page);
+    try (PDPageContentStream contentStream = new PDPageContentStream(document, page)) {
+      contentStream.addRect(BOX.x, PAGE_HEIGHT - BOX.y - BOX.height, BOX.width, BOX.height);
+      contentStream.fill();
+      contentStream.setLineWidth(1.5f);
+      drawLoop(contentStream, 250, 300, 15, 15);
+      drawLoop(contentStream, 150, 300, 8, 4);
+    }
+    return document;
+  }
+
+  private static void drawLoop(PDPageContentStream contentStream, float centerX, float centerY,
+      float radiusX, float radiusY) throws Exception {
+    for (int i = 0; i <= 24; i++) {
+      double angle = i * Math.PI / 12;
+      double jitter = 1 + (i % 3) * 0.12;
+      float x = (float) (centerX + radiusX * jitter * Math.cos(angle));
+      float y = (float) (PAGE_HEIGHT - centerY - radiusY * jitter * Math.sin(angle));
+      if (i == 0) {
+        contentStream.moveTo(x, y);
+      } else {
+        contentStream.lineTo(x, y);
+      }
+    }
+    contentStream.stroke();
+  }
+
+  /**
+   * @return bounding box of dark pixels in the {@code image}
+   */
+  private static Rectangle getDarkBounds(BufferedImage image) {
+    Rectangle bounds = null;
+    for (int y = 0; y < image.getHeight(); y++) {
+      for (int x = 0; x < image.getWidth(); x++) {
+        if ((image.getRGB(x, y) & 0xFF) < 128) {
+          Rectangle pixel = new Rectangle(x, y, 1, 1);
+          bounds = bounds == null ? pixel : bounds.union(pixel);
+        }
+      }
+    }
+    return bounds;
+  }
+
+  private static boolean isOpenCvLoaded() {
+    try {
+      return OpenCvUtils.isLibraryLoaded();
+    } catch (LinkageError e) {
+      return false;
+    }
+  }
+
+  private static void assertSameAreas(List<Rectangle> expected, List<Rectangle> actual) {
+    assertEquals(expected.size(), actual.size());
+    for (int i = 0; i < expected.size(); i++) {
+      Rectangle expectedArea = expected.get(i);
+      Rectangle actualArea = actual.get(i);
+      assertEquals(expectedArea.x, actualArea.x, 2);
+      assertEquals(expectedArea.y, actualArea.y, 2);
+      assertEquals(expectedArea.width, actualArea.width, 2);
+      assertEquals(expectedArea.height, actualArea.height, 2);
+    }
+  }
+
+  @Test
+  public void testRegionAreasInPoints() throws Exception {
+    try (PDDocument document = createDocument()) {
+      PageRasterizer rasterizer = new PageRasterizer(document);
+      for (float dpi : new float[]{72, 144, 200}) {
+        BufferedImage image = rasterizer.renderRegion(0, REGION, dpi);
+        assertEquals(Math.ceil(REGION.getWidth() * dpi / 72), image.getWidth(), 0);
+        Rectangle area = PageRasterizer.toPageArea(REGION, getDarkBounds(image), dpi);
+        assertEquals(BOX.x, area.x, 1);
+        assertEquals(BOX.y, area.y, 1);
+        assertEquals(BOX.width, area.width, 1);
+        assertEquals(BOX.height, area.height, 1);
+      }
+    }
+  }
+
+  @Test
+  public void testHandWrittenAreasAreIndependentOfDpi() throws Exception {
+    Assume.assumeTrue("OpenCV is not available", isOpenCvLoaded());
+    try (PDDocument document = createDocument()) {
+      PageRasterizer rasterizer = new PageRasterizer(document);
+      List<Rectangle2D> regions = Lists.mutable.of(new Rectangle2D.Double(220, 270, 60, 60));
+      List<Rectangle> pageAreas = rasterizer.detectHandWrittenAreas(0, null, 72).get();
+      assertTrue(pageAreas.size() > 0);
+      assertSameAreas(pageAreas, rasterizer.detectHandWrittenAreas(0, null, 144).get());
+      assertSameAreas(pageAreas, rasterizer.detectHandWrittenAreas(0, regions, 72).get());
+      assertSameAreas(pageAreas, rasterizer.detectHandWrittenAreas(0, regions, 144).get());
+    }
+  }
+}
@@ -29,6 +29,7 @@ import com.gs.ep.docknight.model.ModelCustomizations;
 import com.gs.ep.docknight.model.TabularElementGroup.GridType;
 import com.gs.ep.docknight.model.converter.ScannedPdfParser;
 import com.gs.ep.docknight.model.element.Document;
+import com.gs.ep.docknight.model.renderer.VisualJsonRenderer;
 import com.gs.ep.docknight.model.testutil.BoundingBox;
 import com.gs.ep.docknight.model.testutil.DocUtils;
 import com.gs.ep.docknight.model.testutil.GroupedBoundingBox;
@@ -36,6 +37,7 @@ import com.gs.ep.docknight.model.testutil.PositionalDocDrawer;
 import com.gs.ep.docknight.model.transformer.MultiPageToSinglePageTransformer;
 import com.gs.ep.docknight.model.transformer.PositionalTextGroupingTransformer;
 import com.gs.ep.docknight.model.transformer.TableDetectionTransformer;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
@@ -165,6 +167,17 @@ public class PhraseExtractorTest {
         Files.readAllBytes(expectedJsonFileForPdfParser.toPath()));
     assertEquals(DocUtils.prettifyAndSortJson(expectedJsonForPdfParser),
         DocUtils.prettifyAndSortJson(jsonify(pdfPhraseExtract)));
+
+    ByteArrayOutputStream streamedPhrases = new ByteArrayOutputStream();
+    PhraseExtractor.writeJson(new PhraseExtractor()
+        .extractLazily(pdfDocument, Maps.mutable.empty(), Maps.mutable.empty(), page -> {
+        }), streamedPhrases);
+    assertEquals(jsonify(pdfPhraseExtract), streamedPhrases.toString("UTF-8"));
+
+    ByteArrayOutputStream streamedVisualJson = new ByteArrayOutputStream();
+    new VisualJsonRenderer().render(pdfDocument, streamedVisualJson);
+    assertEquals(new VisualJsonRenderer().render(pdfDocument),
+        streamedVisualJson.toString("UTF-8"));
   }
 
   @Test
@@ -73,6 +73,9 @@ import com.gs.ep.docknight.model.testutil.PositionalDocDrawer;
 import com.gs.ep.docknight.model.transformer.PositionalTextGroupingTransformer;
 import java.awt.Graphics2D;
 import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
 import org.apache.pdfbox.pdmodel.common.PDRectangle;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.graphics.state.RenderingMode;
@@ -109,7 +112,20 @@ public class HtmlRendererTest {
   }
 
   private static String getRenderedHtml(Document document) {
-    return new HtmlRenderer().withSortedHtmlAttributesWhileRendering(true).render(document);
+    String html = new HtmlRenderer().withSortedHtmlAttributesWhileRendering(true).render(document);
+    assertEquals(html, getStreamedHtml(new HtmlRenderer().withSortedHtmlAttributesWhileRendering(true),
+        document));
+    return html;
+  }
+
+  private static String getStreamedHtml(HtmlRenderer renderer, Document document) {
+    StringWriter writer = new StringWriter();
+    try {
+      renderer.render(document, null, writer);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return writer.toString();
   }
 
   private static org.jsoup.nodes.Element getRenderedHtmlNode(Element element) {
@@ -625,6 +641,26 @@ public class HtmlRendererTest {
     assertEquals(expectedHtml, getRenderedHtml(drawer.getDocument()));
   }
 
+  @Test
+  public void testStreamedRenderingMatchesRendering() throws Exception {
+    PositionalDocDrawer drawer = new PositionalDocDrawer(PDRectangle.LETTER);
+    GroupedBoundingBox tableBox = new GroupedBoundingBox(100, 100, 3, 4, 60, 20);
+    tableBox.forEachCellBBox(0, 2, 0, 2,
+        (row, col, bbox) -> drawer.drawTextWithBorderInside(bbox, "Cell " + row + col));
+    drawer.addPage();
+    drawer.drawTextAt(50, 50, "Second  page & <last> line");
+    Document document = drawer.getDocument();
+
+    MutableList<HtmlRenderer> renderers = Lists.mutable.of(
+        new HtmlRenderer().withVisualDebuggingEnabled(true).withPageBreakNos(true),
+        new HtmlRenderer(false).withSortedHtmlAttributesWhileRendering(true),
+        new HtmlRenderer().withOutputMediumPrint(true),
+        new HtmlRenderer().withIncludeElementListData(false));
+    for (HtmlRenderer renderer : renderers) {
+      assertEquals(renderer.render(document), getStreamedHtml(renderer, document));
+    }
+  }
+
   @Test
   public void testBlankDocuments() throws Exception {
     Document document = new Document();
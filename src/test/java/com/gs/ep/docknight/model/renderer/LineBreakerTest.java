@@ -0,0 +1,52 @@
+/*
+ *   Copyright 2020 Goldman Sachs.
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ */
+
+package com.gs.ep.docknight.model.renderer;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.Test;
+
+public class LineBreakerTest {
+
+  @Test
+  public void testBreakLines() throws Exception {
+    GlyphAdvanceCache advanceCache = new GlyphAdvanceCache(PDType1Font.HELVETICA);
+    // Every 'a' is 556 font units wide, so ten of them are 55.6pt wide at 10pt
+    LineBreaker lineBreaker = new LineBreaker("aaaaaaaaaaaaaaaaaaaa\n\naaaa\n", advanceCache);
+
+    assertEquals(Arrays.asList("aaaaaaaaaaaaaaaaaaaa", "", "aaaa"),
+        lineBreaker.breakLines(10, 200, 200));
+    assertEquals(Arrays.asList("aaaaaaaaaa", "aaaaaaaaaa", "", "aaaa"),
+        lineBreaker.breakLines(10, 60, 60));
+    assertEquals(Arrays.asList("aaaaa", "aaaaaaaaaa", "aaaaa", "", "aaaa"),
+        lineBreaker.breakLines(10, 30, 60));
+    assertEquals(Arrays.asList("aaaaaaaaaaaaaaaaaaaa", "", "aaaa"),
+        lineBreaker.breakLines(5, 60, 60));
+    assertEquals(Collections.emptyList(), new LineBreaker("\n\n", advanceCache).breakLines(10, 60, 60));
+  }
+
+  @Test
+  public void testStringWidth() throws Exception {
+    GlyphAdvanceCache advanceCache = new GlyphAdvanceCache(PDType1Font.HELVETICA);
+    String text = "Width of a line";
+    assertEquals(PDType1Font.HELVETICA.getStringWidth(text) / 1000 * 12,
+        advanceCache.getStringWidth(text, 12), 0);
+  }
+}
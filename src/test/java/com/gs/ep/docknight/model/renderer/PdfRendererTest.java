@@ -0,0 +1,181 @@
+/*
+ *   Copyright 2020 Goldman Sachs.
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ */
+
+package com.gs.ep.docknight.model.renderer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import com.gs.ep.docknight.model.ComparableBufferedImage;
+import com.gs.ep.docknight.model.EncodedImage;
+import com.gs.ep.docknight.model.attribute.ImageData;
+import com.gs.ep.docknight.model.converter.PdfParser;
+import com.gs.ep.docknight.model.element.Document;
+import com.gs.ep.docknight.model.element.Image;
+import com.gs.ep.docknight.model.testutil.PositionalDocDrawer;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import org.apache.commons.io.IOUtils;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.cos.COSStream;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.impl.factory.Lists;
+import org.junit.Test;
+
+public class PdfRendererTest {
+
+  private static BufferedImage getGradientImage() {
+    BufferedImage image = new BufferedImage(120, 90, BufferedImage.TYPE_INT_RGB);
+    for (int x = 0; x < image.getWidth(); x++) {
+      for (int y = 0; y < image.getHeight(); y++) {
+        image.setRGB(x, y, (x * 2) << 16 | (y * 2) << 8 | (x + y));
+      }
+    }
+    return image;
+  }
+
+  private static Document parseDocumentWithImages() throws Exception {
+    PositionalDocDrawer drawer = new PositionalDocDrawer(PDRectangle.LETTER);
+    drawer.drawJpegImageAt(50, 50, getGradientImage());
+    drawer.drawImageAt(50, 300, getGradientImage());
+    drawer.drawTextAt(50, 500, "Images");
+    return new PdfParser().parse(drawer.getPdfDocumentStream());
+  }
+
+  private static MutableList<PDImageXObject> getImages(PDPage pdPage) throws IOException {
+    MutableList<PDImageXObject> images = Lists.mutable.empty();
+    PDResources resources = pdPage.getResources();
+    for (COSName name : resources.getXObjectNames()) {
+      images.add((PDImageXObject) resources.getXObject(name));
+    }
+    return images;
+  }
+
+  @Test
+  public void testUnchangedImagesAreCopiedAsEncoded() throws Exception {
+    Document document = parseDocumentWithImages();
+    MutableList<Image> images = Lists.mutable
+        .ofAll(document.getContainingElements(Image.class)).collect(image -> (Image) image);
+    assertEquals(2, images.size());
+    EncodedImage encodedImage = images.get(0).getImageData().getValue().getEncodedImage();
+    assertNotNull(encodedImage);
+    assertEquals(COSName.DCT_DECODE.getName(), encodedImage.getFilter());
+    assertEquals(120, encodedImage.getWidth());
+    assertEquals(90, encodedImage.getHeight());
+    assertNull(images.get(1).getImageData().getValue().getEncodedImage());
+
+    byte[] pdfBytes = new PdfRenderer(PdfRenderer.DEFAULT_FONTS_DIR).render(document);
+    try (PDDocument pdDocument = PDDocument.load(pdfBytes)) {
+      MutableList<PDImageXObject> renderedImages = getImages(pdDocument.getPage(0));
+      assertEquals(2, renderedImages.size());
+      PDImageXObject jpegImage = renderedImages
+          .detect(image -> COSName.DCT_DECODE.equals(image.getCOSObject().getItem(COSName.FILTER)));
+      assertNotNull(jpegImage);
+      try (InputStream rawStream = jpegImage.getCOSObject().createRawInputStream()) {
+        assertArrayEquals(encodedImage.getData(), IOUtils.toByteArray(rawStream));
+      }
+      assertEquals(new ComparableBufferedImage(images.get(0).getImageData().getValue()
+          .getBufferedImage()), new ComparableBufferedImage(jpegImage.getImage()));
+    }
+  }
+
+  @Test
+  public void testImageDrawnTwiceIsWrittenOnce() throws Exception {
+    Document document = parseDocumentWithImages();
+    MutableList<Image> images = Lists.mutable
+        .ofAll(document.getContainingElements(Image.class)).collect(image -> (Image) image);
+    images.get(1).removeAttribute(ImageData.class);
+    images.get(1).add(images.get(0).getImageData());
+
+    byte[] pdfBytes = new PdfRenderer(PdfRenderer.DEFAULT_FONTS_DIR).render(document);
+    try (PDDocument pdDocument = PDDocument.load(pdfBytes)) {
+      assertEquals(1, getImages(pdDocument.getPage(0)).size());
+    }
+  }
+
+  @Test
+  public void testRenderToStreamLeavesStreamOpen() throws Exception {
+    Document document = parseDocumentWithImages();
+    boolean[] closed = {false};
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    new PdfRenderer(PdfRenderer.DEFAULT_FONTS_DIR).render(document, new FilterOutputStream(bytes) {
+      @Override
+      public void close() throws IOException {
+        closed[0] = true;
+        super.close();
+      }
+    });
+    assertFalse(closed[0]);
+    try (PDDocument pdDocument = PDDocument.load(bytes.toByteArray())) {
+      assertEquals(1, pdDocument.getNumberOfPages());
+    }
+  }
+
+  @Test
+  public void testParallelRenderingMatchesSequentialRendering() throws Exception {
+    PositionalDocDrawer drawer = new PositionalDocDrawer(PDRectangle.LETTER);
+    for (int i = 0; i < 6; i++) {
+      if (i > 0) {
+        drawer.addPage();
+      }
+      drawer.drawTextAt(50, 50, "Page " + i);
+      drawer.drawJpegImageAt(50, 100, getGradientImage());
+      if (i % 2 == 0) {
+        drawer.drawImageAt(50, 300, getGradientImage());
+      }
+    }
+    Document document = new PdfParser().parse(drawer.getPdfDocumentStream());
+
+    byte[] sequentialBytes = new PdfRenderer(PdfRenderer.DEFAULT_FONTS_DIR).render(document);
+    byte[] parallelBytes = new PdfRenderer(PdfRenderer.DEFAULT_FONTS_DIR).withParallelism(4)
+        .render(document);
+    try (PDDocument sequentialDocument = PDDocument.load(sequentialBytes);
+        PDDocument parallelDocument = PDDocument.load(parallelBytes)) {
+      assertEquals(6, parallelDocument.getNumberOfPages());
+      Set<COSStream> sequentialImages = Collections.newSetFromMap(new IdentityHashMap<>());
+      Set<COSStream> parallelImages = Collections.newSetFromMap(new IdentityHashMap<>());
+      for (int i = 0; i < 6; i++) {
+        try (InputStream sequentialContents = sequentialDocument.getPage(i).getContents();
+            InputStream parallelContents = parallelDocument.getPage(i).getContents()) {
+          assertArrayEquals(IOUtils.toByteArray(sequentialContents),
+              IOUtils.toByteArray(parallelContents));
+        }
+        getImages(sequentialDocument.getPage(i))
+            .forEach(image -> sequentialImages.add(image.getCOSObject()));
+        getImages(parallelDocument.getPage(i))
+            .forEach(image -> parallelImages.add(image.getCOSObject()));
+      }
+      assertEquals(sequentialImages.size(), parallelImages.size());
+      assertEquals(new PDFTextStripper().getText(sequentialDocument),
+          new PDFTextStripper().getText(parallelDocument));
+    }
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ *   Copyright 2020 Goldman Sachs.
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ */
+
+package com.gs.ep.docknight.model.renderer;
+
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import org.apache.commons.io.FileUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.junit.Test;
+
+public class RendererFontsTest {
+
+  private static void copyFont(Path target) throws Exception {
+    try (InputStream font = RendererFontsTest.class.getResourceAsStream("/fonts/times.ttf")) {
+      Files.copy(font, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  @Test
+  public void testUnreadableFontIsNotCached() throws Exception {
+    Path fontsDir = Files.createTempDirectory("fonts");
+    try (PDDocument document = new PDDocument()) {
+      copyFont(fontsDir.resolve(RendererFonts.REGULAR_FONT_FILE));
+      Files.write(fontsDir.resolve(RendererFonts.BOLD_FONT_FILE), new byte[]{1, 2, 3});
+      RendererFonts fonts = RendererFonts.of(fontsDir.toString());
+
+      // Failure to read the bold font does not affect the regular font
+      PDFont regularFont = fonts.loadRegular(document);
+      assertTrue(regularFont instanceof PDType0Font);
+      assertSame(regularFont, fonts.loadBold(document, regularFont));
+
+      copyFont(fontsDir.resolve(RendererFonts.BOLD_FONT_FILE));
+      PDFont boldFont = RendererFonts.of(fontsDir.toString()).loadBold(document, regularFont);
+      assertTrue(boldFont instanceof PDType0Font);
+      assertNotSame(regularFont, boldFont);
+    } finally {
+      FileUtils.deleteDirectory(fontsDir.toFile());
+    }
+  }
+}
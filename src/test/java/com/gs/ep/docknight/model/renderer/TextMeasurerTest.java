@@ -0,0 +1,54 @@
+/*
+ *   Copyright 2020 Goldman Sachs.
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ */
+
+package com.gs.ep.docknight.model.renderer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.junit.Test;
+
+public class TextMeasurerTest {
+
+  // Without font files the renderer and the measurer fall back to Helvetica
+  private static final String MISSING_FONTS_DIR = "target/no-fonts";
+
+  @Test
+  public void testMeasurerIsSharedPerFontsDirectory() {
+    assertSame(TextMeasurer.of(MISSING_FONTS_DIR), TextMeasurer.of(MISSING_FONTS_DIR));
+  }
+
+  @Test
+  public void testMeasureWithRenderedFont() throws Exception {
+    TextMeasurer textMeasurer = TextMeasurer.of(MISSING_FONTS_DIR);
+    float fontSize = TextMeasurer.getRenderFontSize(11);
+    assertEquals(10, fontSize, 0);
+    assertEquals(6, TextMeasurer.getRenderFontSize(4), 0);
+
+    // Every 'a' is 556 font units wide, so ten of them are 55.6pt wide at 10pt
+    String text = "aaaaaaaaaaaaaaaaaaaa\naaaa";
+    assertEquals(Arrays.asList("aaaaaaaaaa", "aaaaaaaaaa", "aaaa"),
+        textMeasurer.breakLines(text, false, fontSize, 60, 60));
+    assertEquals(3 * fontSize * TextMeasurer.LINE_HEIGHT_FACTOR,
+        textMeasurer.getTextHeight(text, false, fontSize, 60, 0), 0.001);
+    assertEquals(4 * fontSize * TextMeasurer.LINE_HEIGHT_FACTOR,
+        textMeasurer.getTextHeight(text, false, fontSize, 60, 30), 0.001);
+    assertEquals(PDType1Font.HELVETICA.getStringWidth("aaaaaaaaaaaaaaaaaaaa") / 1000 * fontSize,
+        textMeasurer.getMaxLineWidth(text, true, fontSize), 0);
+  }
+}
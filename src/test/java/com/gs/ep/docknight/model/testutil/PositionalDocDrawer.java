@@ -48,6 +48,7 @@ import org.apache.pdfbox.pdmodel.font.PDFontDescriptor;
 import org.apache.pdfbox.pdmodel.font.PDType1Font;
 import org.apache.pdfbox.pdmodel.font.PDType3Font;
 import org.apache.pdfbox.pdmodel.graphics.form.PDFormXObject;
+import org.apache.pdfbox.pdmodel.graphics.image.JPEGFactory;
 import org.apache.pdfbox.pdmodel.graphics.image.LosslessFactory;
 import org.apache.pdfbox.pdmodel.graphics.image.PDImageXObject;
 import org.apache.pdfbox.pdmodel.graphics.state.PDExtendedGraphicsState;
@@ -313,6 +314,17 @@ public class PositionalDocDrawer {
     });
   }
 
+  public BoundingBox drawJpegImageAt(double left, double top, BufferedImage image) {
+    return unchecked(() ->
+    {
+      this.ensureNotInTextMode();
+      PDImageXObject pdfImage = JPEGFactory.createFromImage(this.pdfDocument, image);
+      this.contentStream.drawImage(pdfImage, (float) left,
+          (float) (this.pageHeight - top - pdfImage.getHeight()));
+      return new BoundingBox(top, left, pdfImage.getWidth(), pdfImage.getHeight());
+    });
+  }
+
   public void setLuminosity(boolean isLuminous) {
     unchecked(() ->
     {
@@ -0,0 +1,179 @@
+/*
+ *   Copyright 2020 Goldman Sachs.
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ */
+
+package com.gs.ep.docknight.model.transformer;
+
+import static com.googlecode.cqengine.query.QueryFactory.ascending;
+import static com.googlecode.cqengine.query.QueryFactory.between;
+import static com.googlecode.cqengine.query.QueryFactory.descending;
+import static com.googlecode.cqengine.query.QueryFactory.orderBy;
+import static com.googlecode.cqengine.query.QueryFactory.queryOptions;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+
+import com.googlecode.cqengine.IndexedCollection;
+import com.googlecode.cqengine.attribute.SimpleAttribute;
+import com.gs.ep.docknight.model.Element;
+import com.gs.ep.docknight.model.Length;
+import com.gs.ep.docknight.model.Length.Unit;
+import com.gs.ep.docknight.model.attribute.Height;
+import com.gs.ep.docknight.model.attribute.Left;
+import com.gs.ep.docknight.model.attribute.Text;
+import com.gs.ep.docknight.model.attribute.Top;
+import com.gs.ep.docknight.model.attribute.Width;
+import com.gs.ep.docknight.model.element.TextElement;
+import com.gs.ep.docknight.model.transformer.grouping.ElementSpatialIndex;
+import com.gs.ep.docknight.model.transformer.grouping.ElementSpatialIndex.Axis;
+import com.gs.ep.docknight.model.transformer.grouping.ElementSpatialIndex.Cursor;
+import java.util.BitSet;
+import java.util.Random;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.impl.factory.Lists;
+import org.junit.Test;
+
+public class ElementSpatialIndexTest {
+
+  private static final SimpleAttribute<Element, Double> BOTTOM = PositionalTextGroupingTransformer
+      .simpleAttribute(Element.class, Double.class, "bottom",
+          e -> e.getAttribute(Top.class).getMagnitude() + e.getAttribute(Height.class)
+              .getMagnitude());
+  private static final SimpleAttribute<Element, Double> HORIZONTAL_CENTRE = PositionalTextGroupingTransformer
+      .simpleAttribute(Element.class, Double.class, "horizontal_centre",
+          e -> e.getAttribute(Left.class).getMagnitude()
+              + e.getAttribute(Width.class).getMagnitude() / 2);
+  private static final SimpleAttribute<Element, Double> LEFT = PositionalTextGroupingTransformer
+      .simpleAttribute(Element.class, Double.class, "left",
+          e -> e.getAttribute(Left.class).getMagnitude());
+  private static final SimpleAttribute<Element, Double> VERTICAL_CENTRE = PositionalTextGroupingTransformer
+      .simpleAttribute(Element.class, Double.class, "vertical_centre",
+          e -> e.getAttribute(Top.class).getMagnitude()
+              + e.getAttribute(Height.class).getMagnitude() / 2);
+
+  private static Element createBox(double top, double left, double width, double height) {
+    return new TextElement()
+        .add(new Text("box"))
+        .add(new Top(new Length(top, Unit.pt)))
+        .add(new Left(new Length(left, Unit.pt)))
+        .add(new Width(new Length(width, Unit.pt)))
+        .add(new Height(new Length(height, Unit.pt)));
+  }
+
+  private static MutableList<Element> collect(ElementSpatialIndex index, Cursor cursor) {
+    MutableList<Element> elements = Lists.mutable.empty();
+    for (int slot = cursor.next(); slot >= 0; slot = cursor.next()) {
+      elements.add(index.getElement(slot));
+    }
+    return elements;
+  }
+
+  @Test
+  public void testRangeScansMatchNavigableIndex() {
+    Random random = new Random(42);
+    MutableList<Element> elements = Lists.mutable.empty();
+    for (int i = 0; i < 300; i++) {
+      elements.add(createBox(random.nextInt(100), random.nextInt(100), random.nextInt(10) + 1,
+          random.nextInt(4) + 1));
+    }
+    IndexedCollection<Element> navigableIndex = PositionalTextGroupingTransformer
+        .createNavigableIndex(BOTTOM, LEFT, HORIZONTAL_CENTRE, VERTICAL_CENTRE);
+    navigableIndex.addAll(elements);
+    ElementSpatialIndex spatialIndex = ElementSpatialIndex.ofBoxedElements(elements);
+
+    for (int i = 0; i < 50; i++) {
+      double lower = random.nextInt(110) - 5;
+      double upper = lower + random.nextInt(30);
+
+      MutableList<Element> expectedAbove = Lists.mutable.ofAll(navigableIndex.retrieve(
+          between(BOTTOM, lower, false, upper, false),
+          queryOptions(orderBy(descending(BOTTOM), ascending(HORIZONTAL_CENTRE)))));
+      MutableList<Element> actualAbove = collect(spatialIndex,
+          spatialIndex.descending(Axis.BOTTOM, lower, false, upper, false));
+      assertEquals(expectedAbove.collect(e -> BOTTOM.getValue(e, null)),
+          actualAbove.collect(e -> BOTTOM.getValue(e, null)));
+      assertEquals(expectedAbove.collect(e -> HORIZONTAL_CENTRE.getValue(e, null)),
+          actualAbove.collect(e -> HORIZONTAL_CENTRE.getValue(e, null)));
+      assertEquals(expectedAbove.toSet(), actualAbove.toSet());
+
+      MutableList<Element> expectedRight = Lists.mutable.ofAll(navigableIndex.retrieve(
+          between(LEFT, lower, true, upper, true),
+          queryOptions(orderBy(ascending(LEFT), ascending(VERTICAL_CENTRE)))));
+      MutableList<Element> actualRight = collect(spatialIndex,
+          spatialIndex.ascending(Axis.LEFT, lower, true, upper, true));
+      assertEquals(expectedRight.collect(e -> LEFT.getValue(e, null)),
+          actualRight.collect(e -> LEFT.getValue(e, null)));
+      assertEquals(expectedRight.collect(e -> VERTICAL_CENTRE.getValue(e, null)),
+          actualRight.collect(e -> VERTICAL_CENTRE.getValue(e, null)));
+      assertEquals(expectedRight.toSet(), actualRight.toSet());
+    }
+  }
+
+  @Test
+  public void testUnboundedAndEmptyScans() {
+    Element first = createBox(10, 0, 5, 2);
+    Element second = createBox(20, 30, 5, 2);
+    ElementSpatialIndex index = ElementSpatialIndex.ofBoxedElements(Lists.mutable.of(second, first));
+
+    assertEquals(2, index.size());
+    assertEquals(Lists.mutable.of(second, first), collect(index,
+        index.descending(Axis.RIGHT, Double.NEGATIVE_INFINITY, true, 100, false)));
+    assertEquals(Lists.mutable.of(first, second), collect(index,
+        index.ascending(Axis.TOP, Double.NEGATIVE_INFINITY, true, Double.POSITIVE_INFINITY, true)));
+    assertSame(second, index.getElement(index.ascending(Axis.TOP, 10, false, 50, false).next()));
+    assertEquals(-1, index.ascending(Axis.TOP, 12, false, 12, false).next());
+    assertEquals(-1, index.descending(Axis.BOTTOM, 30, true, 20, true).next());
+    assertEquals(-1, ElementSpatialIndex.ofBoxedElements(Lists.mutable.empty())
+        .descending(Axis.TOP, Double.NEGATIVE_INFINITY, true, Double.POSITIVE_INFINITY, true)
+        .next());
+  }
+
+  @Test
+  public void testRestrictedViewOnlyScansActiveSlots() {
+    Element first = createBox(10, 0, 5, 2);
+    Element second = createBox(20, 30, 5, 2);
+    Element third = createBox(30, 10, 5, 2);
+    ElementSpatialIndex index = ElementSpatialIndex
+        .ofBoxedElements(Lists.mutable.of(first, second, third));
+    BitSet activeSlots = new BitSet();
+    activeSlots.set(index.slotOf(third));
+    ElementSpatialIndex view = index.restrictTo(activeSlots);
+
+    assertEquals(-1, index.slotOf(createBox(10, 0, 5, 2)));
+    assertFalse(view.isActive(index.slotOf(first)));
+    assertEquals(Lists.mutable.of(third), collect(view,
+        view.ascending(Axis.TOP, Double.NEGATIVE_INFINITY, true, Double.POSITIVE_INFINITY, true)));
+
+    // Slots activated after the view is created are only visible through a new view
+    activeSlots.set(index.slotOf(first));
+    assertFalse(view.isActive(index.slotOf(first)));
+    assertEquals(Lists.mutable.of(third), collect(view,
+        view.descending(Axis.BOTTOM, Double.NEGATIVE_INFINITY, true, 100, false)));
+    ElementSpatialIndex widerView = index.restrictTo(activeSlots);
+    assertEquals(Lists.mutable.of(third, first), collect(widerView,
+        widerView.descending(Axis.BOTTOM, Double.NEGATIVE_INFINITY, true, 100, false)));
+
+    // A view of a view only covers the slots active in both
+    BitSet narrowingSlots = new BitSet();
+    narrowingSlots.set(index.slotOf(first));
+    narrowingSlots.set(index.slotOf(second));
+    ElementSpatialIndex nestedView = widerView.restrictTo(narrowingSlots);
+    assertEquals(Lists.mutable.of(first), collect(nestedView,
+        nestedView.ascending(Axis.LEFT, Double.NEGATIVE_INFINITY, true, Double.POSITIVE_INFINITY,
+            true)));
+    assertEquals(Lists.mutable.of(first, second, third), collect(index,
+        index.ascending(Axis.TOP, Double.NEGATIVE_INFINITY, true, Double.POSITIVE_INFINITY, true)));
+  }
+}
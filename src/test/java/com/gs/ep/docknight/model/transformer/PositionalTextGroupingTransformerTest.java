@@ -442,4 +442,48 @@ public class PositionalTextGroupingTransformerTest extends AbstractTransformerTe
         "",
         "Different vertical group\tSame vertical grp as above");
   }
+
+  private static MutableList<String> describePageGroupings(Document document) {
+    MutableList<String> descriptions = Lists.mutable.empty();
+    for (Element page : document.getContent().getValue().getElements()) {
+      PositionalElementList<Element> positionalElementList = ((Page) page).getPositionalContent()
+          .getValue();
+      descriptions.add(ListAdapter.adapt(positionalElementList.getVerticalGroups())
+          .collect(Object::toString).makeString("|"));
+      for (Element element : positionalElementList.getElements()) {
+        PositionalContext<Element> context = element.getPositionalContext();
+        descriptions.add(element.getTextStr() + " -> " + context.getShadowedBelowElement() + ", "
+            + context.getShadowedRightElement());
+      }
+    }
+    return descriptions;
+  }
+
+  @Test
+  public void testParallelGroupingMatchesSequentialGrouping() throws Exception {
+    PositionalDocDrawer drawer = new PositionalDocDrawer(PDRectangle.LETTER);
+    for (int pageIndex = 0; pageIndex < 4; pageIndex++) {
+      if (pageIndex > 0) {
+        drawer.addPage();
+      }
+      drawer.drawTextAt(50, 50, "Heading " + pageIndex);
+      drawer.drawTextAt(50, 80, "Name");
+      drawer.drawTextAt(200, 80, "Value");
+      drawer.drawTextAt(50, 95, "Alpha " + pageIndex);
+      drawer.drawTextAt(200, 95, String.valueOf(pageIndex * 10));
+      drawer.drawTextAt(50, 110, "Beta " + pageIndex);
+      drawer.drawTextAt(200, 110, String.valueOf(pageIndex * 20));
+    }
+
+    Document sequentialDocument = new PositionalTextGroupingTransformer(new ModelCustomizations()
+        .add(ModelCustomizationKey.POSITIONAL_GROUPING_PARALLELISM, 1))
+        .transform(drawer.getDocument());
+    Document parallelDocument = new PositionalTextGroupingTransformer(new ModelCustomizations()
+        .add(ModelCustomizationKey.POSITIONAL_GROUPING_PARALLELISM, 4))
+        .transform(drawer.getDocument());
+
+    assertEquals(4, parallelDocument.getContent().getValue().getElements().size());
+    assertEquals(describePageGroupings(sequentialDocument),
+        describePageGroupings(parallelDocument));
+  }
 }
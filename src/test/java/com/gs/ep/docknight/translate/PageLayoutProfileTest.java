@@ -0,0 +1,169 @@
+/*
+ *   Copyright 2020 Goldman Sachs.
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ */
+
+package com.gs.ep.docknight.translate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import com.gs.ep.docknight.model.Element;
+import com.gs.ep.docknight.model.Length;
+import com.gs.ep.docknight.model.Length.Unit;
+import com.gs.ep.docknight.model.attribute.Content;
+import com.gs.ep.docknight.model.attribute.Height;
+import com.gs.ep.docknight.model.attribute.Left;
+import com.gs.ep.docknight.model.attribute.Text;
+import com.gs.ep.docknight.model.attribute.Top;
+import com.gs.ep.docknight.model.attribute.Width;
+import com.gs.ep.docknight.model.element.Document;
+import com.gs.ep.docknight.model.element.Page;
+import com.gs.ep.docknight.model.element.TextElement;
+import com.gs.ep.docknight.model.testutil.PositionalDocDrawer;
+import com.gs.ep.docknight.model.transformer.PositionalTextGroupingTransformer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.junit.Test;
+
+public class PageLayoutProfileTest {
+
+  private static final double PAGE_WIDTH = 612;
+  private static final double PAGE_HEIGHT = 792;
+
+  private static Element createText(double top, double left, double width, double height) {
+    return new TextElement()
+        .add(new Text("text"))
+        .add(new Top(new Length(top, Unit.pt)))
+        .add(new Left(new Length(left, Unit.pt)))
+        .add(new Width(new Length(width, Unit.pt)))
+        .add(new Height(new Length(height, Unit.pt)));
+  }
+
+  private static Page createPage(List<Element> elements) {
+    return new Page()
+        .add(new Width(new Length(PAGE_WIDTH, Unit.pt)))
+        .add(new Height(new Length(PAGE_HEIGHT, Unit.pt)))
+        .add(new Content(elements.toArray(new Element[0])));
+  }
+
+  private static List<Element> createTwoColumns() {
+    List<Element> elements = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      elements.add(createText(100 + i * 20, 72, 220, 12));
+      elements.add(createText(100 + i * 20, 320, 220, 12));
+    }
+    return elements;
+  }
+
+  /**
+   * Previous page type detection: compare every pair of narrow elements outside header and footer
+   */
+  private static int countParallelPairsByAllPairs(List<Element> elements) {
+    List<double[]> blocks = new ArrayList<>();
+    for (Element element : elements) {
+      double top = element.getTopMagnitude();
+      double width = element.getWidthMagnitude();
+      if (top >= PAGE_HEIGHT * 0.08 && top <= PAGE_HEIGHT * 0.92 && width > 0
+          && width < PAGE_WIDTH * 0.55) {
+        double left = element.getLeftMagnitude();
+        blocks.add(new double[]{top, top + element.getHeightMagnitude(), left + width / 2.0});
+      }
+    }
+    int pairs = 0;
+    for (int i = 0; i < blocks.size(); i++) {
+      for (int j = i + 1; j < blocks.size(); j++) {
+        double[] a = blocks.get(i);
+        double[] b = blocks.get(j);
+        double vOverlap = Math.min(a[1], b[1]) - Math.max(a[0], b[0]);
+        if (vOverlap > 5 && Math.abs(a[2] - b[2]) > PAGE_WIDTH * 0.30) {
+          pairs++;
+        }
+      }
+    }
+    return pairs;
+  }
+
+  @Test
+  public void testProfileOfTwoColumnPage() {
+    Page page = createPage(createTwoColumns());
+    PageLayoutProfile profile = PageLayoutProfile.of(page);
+
+    assertEquals(8, profile.getElements().size());
+    assertEquals(4, profile.getLeftColumnElements());
+    assertEquals(4, profile.getRightColumnElements());
+    assertEquals(4, profile.getParallelBlockPairs());
+    assertEquals(540, profile.getMaxRightBoundary(), 0);
+    assertTrue(profile.isLikelyMultiColumnByElements());
+    assertEquals(PageType.MULTI_COLUMN, new PageLayoutStrategyFactory().detectPageType(page));
+  }
+
+  @Test
+  public void testProfileIsCachedUntilPageContentChanges() {
+    Page page = createPage(createTwoColumns());
+    PageLayoutProfile profile = PageLayoutProfile.of(page);
+    new PdfLayoutAnalyzer().analyzePage(page);
+
+    assertSame(profile, PageLayoutProfile.of(page));
+    assertNotNull(profile.getMultiColumn());
+    assertNotSame(profile, PageLayoutProfile.of(page.clone()));
+
+    page.removeAttribute(Content.class);
+    page.add(new Content(createText(100, 72, 400, 12)));
+    PageLayoutProfile changed = PageLayoutProfile.of(page);
+    assertNotSame(profile, changed);
+    assertEquals(1, changed.getElements().size());
+    assertFalse(changed.isLikelyMultiColumnByElements());
+    assertEquals(PageType.SINGLE_COLUMN, new PageLayoutStrategyFactory().detectPageType(page));
+  }
+
+  @Test
+  public void testProfileIsClearedWhenPageIsRegrouped() throws Exception {
+    PositionalDocDrawer drawer = new PositionalDocDrawer(PDRectangle.LETTER);
+    for (int i = 0; i < 4; i++) {
+      drawer.drawTextAt(72, 100 + i * 20, "Left " + i);
+      drawer.drawTextAt(320, 100 + i * 20, "Right " + i);
+    }
+    Document document = new PositionalTextGroupingTransformer().transform(drawer.getDocument());
+    Page page = (Page) document.getContent().getElements().get(0);
+    PageLayoutProfile profile = PageLayoutProfile.of(page);
+    assertSame(profile, PageLayoutProfile.of(page));
+
+    // Regrouping keeps the content lists and their sizes, hence the page has to be invalidated
+    new PositionalTextGroupingTransformer().transform(document);
+    assertNotSame(profile, PageLayoutProfile.of(page));
+  }
+
+  @Test
+  public void testParallelPairsMatchAllPairs() {
+    Random random = new Random(3);
+    for (int iteration = 0; iteration < 200; iteration++) {
+      List<Element> elements = new ArrayList<>();
+      int count = random.nextInt(80);
+      for (int i = 0; i < count; i++) {
+        double left = random.nextInt((int) PAGE_WIDTH - 100);
+        elements.add(createText(random.nextInt((int) PAGE_HEIGHT), left,
+            1 + random.nextInt((int) (PAGE_WIDTH - left)), 1 + random.nextInt(40)));
+      }
+      assertEquals(countParallelPairsByAllPairs(elements),
+          PageLayoutProfile.of(createPage(elements)).getParallelBlockPairs());
+    }
+  }
+}
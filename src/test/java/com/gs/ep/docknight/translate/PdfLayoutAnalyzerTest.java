@@ -0,0 +1,178 @@
+/*
+ *   Copyright 2020 Goldman Sachs.
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ */
+
+package com.gs.ep.docknight.translate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import com.gs.ep.docknight.model.Element;
+import com.gs.ep.docknight.model.ElementGroup;
+import com.gs.ep.docknight.model.Length;
+import com.gs.ep.docknight.model.Length.Unit;
+import com.gs.ep.docknight.model.attribute.FontSize;
+import com.gs.ep.docknight.model.attribute.Height;
+import com.gs.ep.docknight.model.attribute.Left;
+import com.gs.ep.docknight.model.attribute.Text;
+import com.gs.ep.docknight.model.attribute.Top;
+import com.gs.ep.docknight.model.attribute.Width;
+import com.gs.ep.docknight.model.element.TextElement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.eclipse.collections.api.list.MutableList;
+import org.eclipse.collections.impl.factory.Lists;
+import org.junit.Test;
+
+public class PdfLayoutAnalyzerTest {
+
+  private static final double PAGE_WIDTH = 612;
+  private static final String[] TEXTS = {
+      "The quick brown fox jumps over the lazy dog and keeps running",
+      "continued text of the paragraph",
+      "• bullet item",
+      "(a) first list item",
+      "1. numbered item",
+      "SECTION 2 Overview",
+      "GLOSSARY",
+      "acceptance. Defined in DoDI 5000.64.",
+      "See https://www.example.com/downloads/",
+      "html",
+      "2.1 Scope ........ 4",
+      "Heading",
+      "x"
+  };
+
+  private static Element createLine(double top, double left, double width, double fontSize,
+      String text) {
+    return new TextElement()
+        .add(new Text(text))
+        .add(new Top(new Length(top, Unit.pt)))
+        .add(new Left(new Length(left, Unit.pt)))
+        .add(new Width(new Length(width, Unit.pt)))
+        .add(new Height(new Length(fontSize, Unit.pt)))
+        .add(new FontSize(new Length(fontSize, Unit.pt)));
+  }
+
+  private static LayoutEntity createBlock(Random random, double top, double pageHeight) {
+    MutableList<Element> lines = Lists.mutable.empty();
+    double fontSize = random.nextInt(4) == 0 ? 8 + random.nextInt(30) : 10;
+    double left = random.nextBoolean() ? 72 : 72 + random.nextInt(400);
+    int lineCount = 1 + random.nextInt(3);
+    for (int i = 0; i < lineCount; i++) {
+      double width = 20 + random.nextInt((int) (PAGE_WIDTH - left - 40));
+      lines.add(createLine(top + i * fontSize * 1.2, left, width, fontSize,
+          TEXTS[random.nextInt(TEXTS.length)]));
+    }
+    return new LayoutEntity(new ElementGroup<>(lines), PAGE_WIDTH, pageHeight);
+  }
+
+  private static List<LayoutEntity> createBlocks(Random random, int count, double lineSpacing) {
+    double pageHeight = count * lineSpacing + 100;
+    List<LayoutEntity> blocks = new ArrayList<>();
+    double top = 50;
+    for (int i = 0; i < count; i++) {
+      blocks.add(createBlock(random, top, pageHeight));
+      // Blocks are mostly in reading order, with occasional blocks sharing a line
+      top += random.nextInt(5) == 0 ? 0 : random.nextDouble() * 2 * lineSpacing;
+    }
+    return blocks;
+  }
+
+  /**
+   * Previous consolidation: restart the all pairs scan after every merge
+   */
+  private static List<LayoutEntity> consolidateByRescanning(PdfLayoutAnalyzer analyzer,
+      List<LayoutEntity> blocks) {
+    List<LayoutEntity> current = new ArrayList<>(blocks);
+    boolean merged;
+    do {
+      merged = false;
+      for (int i = 0; i < current.size() && !merged; i++) {
+        for (int j = 0; j < current.size(); j++) {
+          LayoutEntity a = current.get(i);
+          LayoutEntity b = current.get(j);
+          if (i != j && a.top <= b.top && analyzer.shouldMerge(a, b)) {
+            current.set(Math.min(i, j), analyzer.merge(a, b));
+            current.remove(Math.max(i, j));
+            merged = true;
+            break;
+          }
+        }
+      }
+    } while (merged);
+    return current;
+  }
+
+  private static List<String> describe(PdfLayoutAnalyzer analyzer, List<LayoutEntity> blocks) {
+    List<String> descriptions = new ArrayList<>();
+    for (LayoutEntity block : blocks) {
+      descriptions.add(String.format("%s [%s, %s, %s, %s, %s]", analyzer.getBlockText(block),
+          block.top, block.left, block.bottom, block.right, block.lastLineRight));
+    }
+    return descriptions;
+  }
+
+  @Test
+  public void testConsolidationMatchesRescanning() {
+    PdfLayoutAnalyzer analyzer = new PdfLayoutAnalyzer();
+    Random random = new Random(7);
+    for (int iteration = 0; iteration < 40; iteration++) {
+      List<LayoutEntity> blocks = createBlocks(random, 2 + random.nextInt(40),
+          5 + random.nextInt(20));
+      assertEquals(describe(analyzer, consolidateByRescanning(analyzer, blocks)),
+          describe(analyzer, analyzer.consolidateBlocks(blocks)));
+    }
+  }
+
+  @Test
+  public void testMergedFeaturesMatchRecomputedFeatures() {
+    PdfLayoutAnalyzer analyzer = new PdfLayoutAnalyzer();
+    Random random = new Random(5);
+    for (int iteration = 0; iteration < 40; iteration++) {
+      for (LayoutEntity block : analyzer.consolidateBlocks(createBlocks(random,
+          2 + random.nextInt(40), 3 + random.nextInt(20)))) {
+        LayoutEntity recomputed = new LayoutEntity(block.group, block.pageWidth, block.pageHeight);
+        BlockFeatures features = analyzer.getFeatures(block);
+        BlockFeatures expected = analyzer.getFeatures(recomputed);
+        assertEquals(expected.getText(), features.getText());
+        assertEquals(expected.getFirstFontSize(), features.getFirstFontSize(), 0);
+        assertEquals(expected.isFirstBold(), features.isFirstBold());
+        for (int textClass = 1; textClass <= TextClassifier.ALL; textClass <<= 1) {
+          assertEquals(expected.is(textClass), features.is(textClass));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testConsolidationOfDensePage() {
+    int[] mergeChecks = new int[1];
+    PdfLayoutAnalyzer analyzer = new PdfLayoutAnalyzer() {
+      @Override
+      boolean shouldMerge(LayoutEntity a, LayoutEntity b) {
+        mergeChecks[0]++;
+        return super.shouldMerge(a, b);
+      }
+    };
+    List<LayoutEntity> blocks = createBlocks(new Random(11), 500, 14);
+
+    analyzer.consolidateBlocks(blocks);
+
+    // Rescanning needs close to 500 * 499 / 2 checks for a single pass over the page
+    assertTrue(mergeChecks[0] < 20 * blocks.size());
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ *   Copyright 2020 Goldman Sachs.
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ */
+
+package com.gs.ep.docknight.translate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+
+/**
+ * Opt-in benchmark of {@link TextClassifier} against the regular expressions it replaced. It is not
+ * a unit test; run its main method with the test classpath. Each round classifies the same texts
+ * with both implementations and prints the time taken by each, after warm up rounds.
+ */
+public final class TextClassifierBenchmark {
+
+  private static final int TEXT_COUNT = 20_000;
+  private static final int WARM_UP_ROUNDS = 5;
+  private static final int MEASURED_ROUNDS = 10;
+
+  private TextClassifierBenchmark() {
+  }
+
+  public static void main(String[] args) {
+    Map<Integer, Predicate<String>> classifiers = TextClassifierTest.createReferenceClassifiers();
+    List<String> texts = TextClassifierTest.createTexts(new Random(9), TEXT_COUNT);
+    long regexNanos = 0;
+    long classifierNanos = 0;
+    for (int round = 0; round < WARM_UP_ROUNDS + MEASURED_ROUNDS; round++) {
+      int checksum = 0;
+      long startTime = System.nanoTime();
+      for (String text : texts) {
+        checksum += TextClassifierTest.classifyByRegex(classifiers, text);
+      }
+      long roundRegexNanos = System.nanoTime() - startTime;
+      startTime = System.nanoTime();
+      for (String text : texts) {
+        checksum -= TextClassifier.classify(text);
+      }
+      long roundClassifierNanos = System.nanoTime() - startTime;
+      if (checksum != 0) {
+        throw new IllegalStateException("Classifier disagrees with regular expressions");
+      }
+      if (round >= WARM_UP_ROUNDS) {
+        regexNanos += roundRegexNanos;
+        classifierNanos += roundClassifierNanos;
+      }
+    }
+    System.out.printf("Classified %d texts per round: regular expressions %.2f ms, "
+            + "classifier %.2f ms, speedup %.1fx%n", texts.size(),
+        regexNanos / 1e6 / MEASURED_ROUNDS, classifierNanos / 1e6 / MEASURED_ROUNDS,
+        (double) regexNanos / classifierNanos);
+  }
+}
@@ -0,0 +1,320 @@
+/*
+ *   Copyright 2020 Goldman Sachs.
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ */
+
+package com.gs.ep.docknight.translate;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Predicate;
+import org.junit.Test;
+
+public class TextClassifierTest {
+
+  private static final String[] BLOCK_TEXTS = {
+      "(a) The Secretary of Defense shall establish procedures",
+      "(iv) annual reporting requirements",
+      "(10) Maintain records",
+      "(2b) subparagraph",
+      "(IT) systems shall",
+      "(k)), the Director",
+      "a. General",
+      "1. Purpose",
+      "10. Responsibilities",
+      "E2.1. Accountable property",
+      "6.1.2. Procedures for",
+      "2.3 Applicability",
+      "• Bullet item",
+      "- dash item",
+      "* starred",
+      "AIT Automatic Identification Technology",
+      "DoDI Department of Defense Instruction",
+      "USD(A&S) Under Secretary of Defense",
+      "iRAPT Invoicing, Receipt, Acceptance",
+      "acceptance. Defined in DoDI 5000.64.",
+      "capitalized IUS. The internal use software",
+      "DLA. See Defense Logistics Agency",
+      "Defense Logistics Agency. The agency",
+      "ASTM International standard",
+      "DoD Directive 5134.01, \"Under Secretary\"",
+      "DoD 7000.14-R, Financial Management",
+      "10 U.S.C. 2222",
+      "Executive Order 13514",
+      "NASA-HDBK-6003 Application",
+      "MIL-STD-130N Identification Marking",
+      "SECTION 2: RESPONSIBILITIES",
+      "GLOSSARY",
+      "TABLE OF CONTENTS",
+      "Figure 3 Overview ........ 12",
+      "2.2. Scope ..........................",
+      "See http://www.acq.osd.mil/dpap/pdi/uid/",
+      "available at www.dla.mil/log/sci/",
+      "html.",
+      "uidtools.html",
+      "/downloads/file.pdf",
+      "（1）遵守相关规定",
+      "【一】总则",
+      "一、总则",
+      "第2节：职责",
+      "AM",
+      "U.S.",
+      "MIL-S",
+      "NOTE",
+      "The quick brown fox jumps over the lazy dog",
+      "a. first line\ncontinued",
+      "1.1. Scope\n\nsecond paragraph",
+      "ABC definition\r\nmore"
+  };
+
+  private static final String ALPHABET = "aAbZxXiIvV0129. .\n\r\u2028()（）[]【】、．•-*/:wW一二十&:";
+
+  private static boolean isListItemStart(String text) {
+    if (text == null || text.isEmpty()) {
+      return false;
+    }
+    if ((text.startsWith("(") || text.startsWith("（")) && text.length() >= 3) {
+      int closeIdx = text.indexOf(')');
+      if (closeIdx == -1) {
+        closeIdx = text.indexOf('）');
+      }
+      if (closeIdx > 1 && closeIdx < 10) {
+        if (closeIdx + 1 < text.length()) {
+          char nextChar = text.charAt(closeIdx + 1);
+          if (nextChar == ')' || nextChar == '）') {
+            return false;
+          }
+        }
+        String inside = text.substring(1, closeIdx);
+        if (inside.matches("\\d{1,3}") || inside.matches("[a-zA-Z]")
+            || inside.matches("(?i)^(i{1,3}|iv|v|vi{0,3}|ix|x|xi{0,2})$")
+            || inside.matches("\\d+[a-zA-Z]")) {
+          return true;
+        }
+      }
+    }
+    return text.matches("^[a-zA-Z0-9][\\.\\.、].*") || text.matches("^[A-Za-z]?\\d+(\\.\\d+)*\\.\\s+.*")
+        || text.startsWith("•") || text.startsWith("-") || text.startsWith("*");
+  }
+
+  private static boolean startsWithBullet(String text) {
+    if (text.isEmpty()) {
+      return false;
+    }
+    char first = text.charAt(0);
+    if (first == '•' || first == '-' || first == '*') {
+      return true;
+    }
+    if ((first == '(' || first == '（') && text.length() >= 3) {
+      int closeIdx = text.indexOf(')');
+      if (closeIdx == -1) {
+        closeIdx = text.indexOf('）');
+      }
+      if (closeIdx > 1 && closeIdx <= 4) {
+        if (closeIdx + 1 < text.length()) {
+          char nextChar = text.charAt(closeIdx + 1);
+          if (nextChar == ')' || nextChar == '）') {
+            return false;
+          }
+        }
+        if (text.substring(1, closeIdx).matches("[a-zA-Z]|\\d{1,2}")) {
+          return true;
+        }
+      }
+    }
+    if (text.length() >= 2 && (Character.isLetterOrDigit(first)
+        || first >= '\u4e00' && first <= '\u9fff')) {
+      char second = text.charAt(1);
+      if (second == '.' || second == ')' || second == '。' || second == '、' || second == '．') {
+        return true;
+      }
+      if (Character.isDigit(first) && text.length() >= 3) {
+        int dotIdx = text.indexOf('.');
+        return dotIdx > 0 && dotIdx < 4 && text.substring(0, dotIdx).matches("\\d+");
+      }
+    }
+    return false;
+  }
+
+  private static boolean isGlossaryEntryStart(String text) {
+    if (text.length() < 3) {
+      return false;
+    }
+    String[] parts = text.split("\\s+", 2);
+    if (parts.length < 2 || !parts[1].matches("^[A-Za-z].*")) {
+      return false;
+    }
+    String abbr = parts[0];
+    return abbr.matches("^[A-Z][A-Z0-9\\.\\(\\)&/]{0,14}$")
+        || abbr.matches("^[A-Za-z][A-Za-z0-9\\-]{1,11}$") && abbr.matches(".*[A-Z].*")
+        || abbr.matches("^[A-Z]{2,6}\\([A-Za-z&/]+\\)(/[A-Z]+)?$");
+  }
+
+  private static boolean isReferenceEntry(String text) {
+    if (text.length() < 10) {
+      return false;
+    }
+    String[] referencePatterns = {"^ASTM\\s+", "^DoD\\s+Directive", "^DoD\\s+Instruction",
+        "^DoD\\s+Manual", "^DoD\\s+\\d", "^Defense\\s+Federal", "^Deputy\\s+Secretary",
+        "^Section\\s+\\d", "^Title\\s+\\d", "^Public\\s+Law", "^Executive\\s+Order", "^OMB\\s+",
+        "^\\d+\\s+U\\.?S\\.?C"};
+    for (String pattern : referencePatterns) {
+      if (text.matches("(?i)" + pattern + ".*")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String tail(String text) {
+    return text.length() > 30 ? text.substring(text.length() - 30) : text;
+  }
+
+  private static String head(String text) {
+    return (text.length() > 20 ? text.substring(0, 20) : text).trim();
+  }
+
+  /**
+   * Previous regex implementations of each class
+   */
+  static Map<Integer, Predicate<String>> createReferenceClassifiers() {
+    Map<Integer, Predicate<String>> classifiers = new LinkedHashMap<>();
+    classifiers.put(TextClassifier.LIST_ITEM_START, TextClassifierTest::isListItemStart);
+    classifiers.put(TextClassifier.SECTION_NUMBER_START,
+        text -> text.length() >= 3 && text.matches("^[A-Za-z]?\\d+(\\.\\d+)+\\.\\s+.*"));
+    classifiers.put(TextClassifier.BULLET_START, TextClassifierTest::startsWithBullet);
+    classifiers.put(TextClassifier.GLOSSARY_ENTRY, text -> text.length() >= 3
+        && (text.matches("^[A-Z][A-Z0-9\\.\\(\\)&/]{0,14}\\s+[A-Za-z].*")
+        || text.matches("^[a-zA-Z]{2,10}\\s+[A-Z][a-z].*")));
+    classifiers.put(TextClassifier.GLOSSARY_ENTRY_START, TextClassifierTest::isGlossaryEntryStart);
+    classifiers.put(TextClassifier.DEFINITION_ENTRY, text -> text.length() >= 5
+        && (text.matches("^[a-z][a-z\\s\\-]+\\.\\s{1,3}[A-Z].*")
+        || text.matches("^[a-z][a-z\\s\\-]*[A-Z]+[a-zA-Z]*\\.\\s{1,3}[A-Z].*")
+        || text.matches("^[A-Z]{2,6}\\.\\s{1,3}(Defined|See|As defined).*")
+        || text.matches("^[A-Z][a-zA-Z\\s]+\\.\\s{1,3}(The|A|An|See|As|Services).*")));
+    classifiers.put(TextClassifier.REFERENCE_ENTRY, TextClassifierTest::isReferenceEntry);
+    classifiers.put(TextClassifier.TECHNICAL_DOC_ID, text -> text.length() >= 5
+        && (text.matches("^(?i)(NASA|MIL|DoD|ANSI|ISO|ASTM|IEEE|SAE)[-\\s].*")
+        || text.matches("^[A-Z]{2,}-\\w+-\\d+.*") || text.matches("^\\d+\\.\\d+\\s+.*")));
+    classifiers.put(TextClassifier.BRACKETED_LIST_MARKER, text -> text.matches(
+        "(?s)^[\\(（\\[【][a-zA-Z0-9一二三四五六七八九十]{1,4}[\\)）\\]】]\\s*.*"));
+    classifiers.put(TextClassifier.NUMBERED_LIST_MARKER,
+        text -> text.matches("(?s)^[a-zA-Z0-9一二三四五六七八九十]{1,4}[\\.、．]\\s*.*"));
+    classifiers.put(TextClassifier.LEVEL_1_LIST_MARKER,
+        text -> text.matches("(?s)^([a-zA-Z][\\.\\.、]|•|-|[一二三四五六七八九十]+[、．.])\\s*.*"));
+    classifiers.put(TextClassifier.LEVEL_2_LIST_MARKER,
+        text -> text.matches("(?s)^[\\(（][a-zA-Z0-9]+[\\)）]\\s*.*"));
+    classifiers.put(TextClassifier.SHORT_UPPERCASE_TOKEN, text -> text.matches("^[A-Z0-9\\.\\-]{1,6}$"));
+    classifiers.put(TextClassifier.TOC_ENTRY_START, text -> text.matches("^\\d+\\.\\d*\\.?\\s+.*")
+        || text.matches("^[A-Z]\\.\\d+\\.?\\s+.*") || text.matches("^SECTION\\s+\\d+.*")
+        || text.matches("^GLOSSARY.*") || text.matches("^REFERENCES.*")
+        || text.matches("^(?i)FIGURE\\s+\\d+.*") || text.matches("^(?i)TABLE\\s+\\d+.*"));
+    classifiers.put(TextClassifier.TOC_ENTRY_NUMBER, text -> text.matches("^\\d+\\.\\d*\\.?\\s+.*")
+        || text.matches("^[A-Z]\\.\\d+\\.?\\s+.*") || text.matches("^SECTION\\s+\\d+.*")
+        || text.matches("^(?i)FIGURE\\s+\\d+.*") || text.matches("^(?i)TABLE\\s+\\d+.*"));
+    classifiers.put(TextClassifier.SECTION_TITLE, text -> text.matches("(?i)^SECTION\\s+\\d+.*")
+        || text.matches("(?i)^GLOSSARY.*") || text.matches("(?i)^REFERENCES.*")
+        || text.matches("(?i)^APPENDIX.*") || text.matches("(?i)^TABLE OF CONTENTS.*")
+        || text.matches("(?i)^INDEX.*"));
+    classifiers.put(TextClassifier.LEADER_DOTS, text -> text.contains("....") || text.contains("…")
+        || text.contains("----") || text.contains("____"));
+    classifiers.put(TextClassifier.URL_PART,
+        text -> text.matches(".*(?:https?://|www\\.|ftp://)[^\\s]{5,}.*"));
+    classifiers.put(TextClassifier.URL_PART_TAIL, text -> {
+      String tail = tail(text);
+      for (String marker : new String[]{".mil/", ".com/", ".gov/", ".org/", ".net/", "acq.osd.mil",
+          "dodprocurementtoolbox.com", "dla.mil", "/log/sci/", "/downloads/", "http://", "www."}) {
+        if (tail.contains(marker)) {
+          return true;
+        }
+      }
+      return false;
+    });
+    classifiers.put(TextClassifier.URL_DOMAIN_PERIOD_TAIL,
+        text -> tail(text).matches(".*(?:mil|com|gov|org|net)\\.$"));
+    classifiers.put(TextClassifier.URL_BREAK_WORD_TAIL,
+        text -> tail(text).matches(".*(?:at|to|from|index\\.)$"));
+    classifiers.put(TextClassifier.SLASH_OR_HYPHEN_TAIL, text -> tail(text).matches(".*[/-]$"));
+    classifiers.put(TextClassifier.URL_EXTENSION_HEAD, text -> head(text).matches("^(?:html?|\\.[a-z]{3,4}).*")
+        || head(text).matches("^(?:html?\\.?).*")
+        || head(text).matches("^(?:/|downloads/|packag|uidtools).*")
+        || head(text).matches("^(?:/\\.).*"));
+    classifiers.put(TextClassifier.PATH_HEAD,
+        text -> head(text).matches("^(?:/|downloads/|packag|uidtools).*"));
+    classifiers.put(TextClassifier.URL_PROTOCOL_HEAD,
+        text -> head(text).matches("^(?:https?://|www\\.|ftp://).*"));
+    classifiers.put(TextClassifier.SENTENCE_CAP_HEAD, text -> head(text).matches("^[A-Z][a-z].*"));
+    return classifiers;
+  }
+
+  static int classifyByRegex(Map<Integer, Predicate<String>> classifiers, String text) {
+    int classes = 0;
+    for (Map.Entry<Integer, Predicate<String>> entry : classifiers.entrySet()) {
+      if (!text.isEmpty() && entry.getValue().test(text)) {
+        classes |= entry.getKey();
+      }
+    }
+    return classes;
+  }
+
+  static List<String> createTexts(Random random, int count) {
+    List<String> texts = new ArrayList<>();
+    for (String text : BLOCK_TEXTS) {
+      texts.add(text);
+    }
+    while (texts.size() < count) {
+      StringBuilder text = new StringBuilder();
+      if (random.nextBoolean()) {
+        // Mutate a realistic block text
+        String base = BLOCK_TEXTS[random.nextInt(BLOCK_TEXTS.length)];
+        text.append(base, 0, random.nextInt(base.length() + 1));
+      }
+      int length = random.nextInt(12);
+      for (int i = 0; i < length; i++) {
+        text.insert(random.nextInt(text.length() + 1), ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+      }
+      texts.add(text.toString());
+    }
+    return texts;
+  }
+
+  @Test
+  public void testClassificationMatchesRegularExpressions() {
+    Map<Integer, Predicate<String>> classifiers = createReferenceClassifiers();
+    assertEquals(Integer.bitCount(TextClassifier.ALL), classifiers.size());
+    for (String text : createTexts(new Random(3), 50_000)) {
+      assertEquals(text, Integer.toBinaryString(classifyByRegex(classifiers, text)),
+          Integer.toBinaryString(TextClassifier.classify(text)));
+    }
+  }
+
+  @Test
+  public void testClassificationOfBlockTexts() {
+    assertTrue(TextClassifier.is("(iv) annual reporting requirements", TextClassifier.LIST_ITEM_START));
+    assertFalse(TextClassifier.is("(k)), the Director", TextClassifier.LIST_ITEM_START));
+    assertTrue(TextClassifier.is("E2.1. Accountable property", TextClassifier.SECTION_NUMBER_START));
+    assertFalse(TextClassifier.is("1.1. Scope\n\nsecond paragraph", TextClassifier.SECTION_NUMBER_START));
+    assertTrue(TextClassifier.is("USD(A&S) Under Secretary", TextClassifier.GLOSSARY_ENTRY_START));
+    assertTrue(TextClassifier.is("（1）遵守相关规定", TextClassifier.LEVEL_2_LIST_MARKER));
+    assertTrue(TextClassifier.is("一、总则", TextClassifier.LEVEL_1_LIST_MARKER));
+    assertEquals(0, TextClassifier.classify("(10) Maintain records", TextClassifier.SHORT_UPPERCASE_TOKEN));
+  }
+}
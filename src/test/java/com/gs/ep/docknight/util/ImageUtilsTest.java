@@ -0,0 +1,132 @@
+/*
+ *   Copyright 2020 Goldman Sachs.
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ */
+
+package com.gs.ep.docknight.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.eclipse.collections.impl.factory.Lists;
+import org.eclipse.collections.impl.list.Interval;
+import org.junit.Test;
+
+public class ImageUtilsTest {
+
+  private static final int PAGE_COUNT = 12;
+
+  /**
+   * @return pdf whose page at index i is 100 + i points wide
+   */
+  private static byte[] createPdfWithPagesOfIncreasingWidth() throws Exception {
+    try (PDDocument document = new PDDocument()) {
+      for (int i = 0; i < PAGE_COUNT; i++) {
+        document.addPage(new PDPage(new PDRectangle(100 + i, 50)));
+      }
+      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+      document.save(outputStream);
+      return outputStream.toByteArray();
+    }
+  }
+
+  @Test
+  public void testParallelProcessingKeepsPageOrder() throws Exception {
+    AtomicInteger runningProcessors = new AtomicInteger();
+    AtomicInteger maxRunningProcessors = new AtomicInteger();
+    List<Integer> widths = ImageUtils.processImagesFromPdfUsingPdfBox(
+        new ByteArrayInputStream(createPdfWithPagesOfIncreasingWidth()), 72, 2, 3, 4, image -> {
+          maxRunningProcessors.accumulateAndGet(runningProcessors.incrementAndGet(), Math::max);
+          try {
+            Thread.sleep((PAGE_COUNT - image.getWidth() % 100) * 5L);
+          } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+          }
+          runningProcessors.decrementAndGet();
+          return image.getWidth();
+        });
+    assertEquals(Interval.fromTo(100, 100 + PAGE_COUNT - 1), widths);
+    assertTrue(maxRunningProcessors.get() <= 3);
+  }
+
+  @Test
+  public void testProcessingFailureIsPropagated() throws Exception {
+    try {
+      ImageUtils.processImagesFromPdfUsingPdfBox(
+          new ByteArrayInputStream(createPdfWithPagesOfIncreasingWidth()), 72, 2, 2, 2, image -> {
+            if (image.getWidth() == 105) {
+              throw new IllegalStateException("Page 6 failed");
+            }
+            return image.getWidth();
+          });
+      fail("Failure in processing a page is not propagated");
+    } catch (IllegalStateException e) {
+      assertEquals("Page 6 failed", e.getMessage());
+    }
+  }
+
+  @Test(timeout = 30000)
+  public void testProcessingFailureStopsPendingPages() throws Exception {
+    AtomicInteger startedProcessors = new AtomicInteger();
+    AtomicLong failureTime = new AtomicLong();
+    try {
+      ImageUtils.processImagesFromPdfUsingPdfBox(
+          new ByteArrayInputStream(createPdfWithPagesOfIncreasingWidth()), 72, 2, 1, 4, image -> {
+            startedProcessors.incrementAndGet();
+            if (image.getWidth() == 101) {
+              failureTime.set(System.nanoTime());
+              throw new IllegalStateException("Page 2 failed");
+            }
+            try {
+              Thread.sleep(1000);
+            } catch (InterruptedException e) {
+              throw new RuntimeException(e);
+            }
+            return image.getWidth();
+          });
+      fail("Failure in processing a page is not propagated");
+    } catch (IllegalStateException e) {
+      assertEquals("Page 2 failed", e.getMessage());
+    }
+    // Rendered pages queued for processing are skipped instead of being processed in background
+    assertTrue(System.nanoTime() - failureTime.get() < TimeUnit.SECONDS.toNanos(1));
+    Thread.sleep(200);
+    assertEquals(2, startedProcessors.get());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testEmptyPendingImagesWindow() throws Exception {
+    ImageUtils.processImagesFromPdfUsingPdfBox(
+        new ByteArrayInputStream(createPdfWithPagesOfIncreasingWidth()), 72, 1, 1, 0,
+        image -> image.getWidth());
+  }
+
+  @Test
+  public void testSequentialProcessing() throws Exception {
+    List<Integer> heights = ImageUtils.processImagesFromPdfUsingPdfBox(
+        new ByteArrayInputStream(createPdfWithPagesOfIncreasingWidth()), 144, 1, 1, 1,
+        image -> image.getHeight());
+    assertEquals(Lists.mutable.withNValues(PAGE_COUNT, () -> 100), heights);
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ *   Copyright 2020 Goldman Sachs.
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing,
+ *   software distributed under the License is distributed on an
+ *   "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *   KIND, either express or implied.  See the License for the
+ *   specific language governing permissions and limitations
+ *   under the License.
+ */
+
+package com.gs.ep.docknight.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import com.gs.ep.docknight.util.TesseractPool.PooledTesseract;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.bytedeco.javacpp.tesseract.TessBaseAPI;
+import org.junit.Test;
+
+public class TesseractPoolTest {
+
+  /**
+   * Instances are created without loading any language model, hence no tessdata is needed
+   */
+  private static TesseractPool createPool(AtomicInteger createdCount, int maxInstances) {
+    return new TesseractPool(() -> {
+      createdCount.incrementAndGet();
+      return new TessBaseAPI();
+    }, maxInstances);
+  }
+
+  @Test
+  public void testReturnedInstanceIsReused() {
+    AtomicInteger createdCount = new AtomicInteger();
+    TesseractPool pool = createPool(createdCount, 2);
+
+    PooledTesseract pooledTesseract = pool.borrow();
+    TessBaseAPI tesseractAPI = pooledTesseract.getAPI();
+    pooledTesseract.close();
+    try {
+      pooledTesseract.getAPI();
+      fail("Instance returned to the pool is still accessible");
+    } catch (IllegalStateException e) {
+      // expected
+    }
+
+    try (PooledTesseract first = pool.borrow(); PooledTesseract second = pool.borrow()) {
+      assertSame(tesseractAPI, first.getAPI());
+      assertNotSame(tesseractAPI, second.getAPI());
+    }
+    assertEquals(2, createdCount.get());
+
+    try (PooledTesseract first = pool.borrow(); PooledTesseract second = pool.borrow()) {
+      assertEquals(2, createdCount.get());
+    }
+  }
+
+  @Test(timeout = 10000)
+  public void testBorrowersBlockAtBound() throws Exception {
+    AtomicInteger createdCount = new AtomicInteger();
+    TesseractPool pool = createPool(createdCount, 2);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      PooledTesseract first = pool.borrow();
+      PooledTesseract second = pool.borrow();
+      Future<PooledTesseract> third = executor.submit(() -> pool.borrow());
+      try {
+        third.get(200, TimeUnit.MILLISECONDS);
+        fail("Instance is borrowed beyond the bound of the pool");
+      } catch (TimeoutException e) {
+        // expected
+      }
+      assertFalse(third.isDone());
+
+      TessBaseAPI tesseractAPI = first.getAPI();
+      first.close();
+      try (PooledTesseract pooledTesseract = third.get(5, TimeUnit.SECONDS)) {
+        assertSame(tesseractAPI, pooledTesseract.getAPI());
+      }
+      second.close();
+      assertEquals(2, createdCount.get());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test(timeout = 10000)
+  public void testPermitIsReleasedOnFactoryFailure() {
+    AtomicInteger attemptCount = new AtomicInteger();
+    TesseractPool pool = new TesseractPool(() -> {
+      if (attemptCount.incrementAndGet() == 1) {
+        throw new IllegalStateException("Tesseract initialization failed");
+      }
+      return new TessBaseAPI();
+    }, 1);
+
+    try {
+      pool.borrow();
+      fail("Failure in creating tesseract instance is not propagated");
+    } catch (IllegalStateException e) {
+      assertEquals("Tesseract initialization failed", e.getMessage());
+    }
+    try (PooledTesseract pooledTesseract = pool.borrow()) {
+      assertEquals(2, attemptCount.get());
+    }
+  }
+}